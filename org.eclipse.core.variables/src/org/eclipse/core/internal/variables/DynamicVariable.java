@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -76,4 +76,15 @@ public class DynamicVariable extends StringVariable implements IDynamicVariable
 		return arg == null || Boolean.parseBoolean(arg);
 	}
 
+	/**
+	 * Returns whether the values of this variable may be memoized in a
+	 * resolution scope. When unspecified, values are memoizable.
+	 *
+	 * @return whether values of this variable may be memoized
+	 */
+	public boolean isMemoizable() {
+		String memoizable = getConfigurationElement().getAttribute("memoizable"); //$NON-NLS-1$
+		return memoizable == null || Boolean.parseBoolean(memoizable);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,9 +15,13 @@ package org.eclipse.core.internal.variables;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
@@ -30,6 +34,11 @@ import org.eclipse.osgi.util.NLS;
 
 /**
  * Performs string substitution for context and value variables.
+ * <p>
+ * Expressions are compiled into a tree of literal text and variable
+ * references once and the compiled form is cached, since the same expressions
+ * (e.g. launch arguments) are substituted again and again.
+ * </p>
  */
 public class StringSubstitutionEngine {
 
@@ -41,6 +50,28 @@ public class StringSubstitutionEngine {
 	private static final int SCAN_FOR_START = 0;
 	private static final int SCAN_FOR_END = 1;
 
+	/**
+	 * Maximum number of cached compiled expressions
+	 */
+	private static final int MAX_CACHED_EXPRESSIONS = 256;
+
+	/**
+	 * Maximum length of an expression to cache its compiled form
+	 */
+	private static final int MAX_CACHED_EXPRESSION_LENGTH = 8192;
+
+	/**
+	 * Compiled expressions by expression, in access order
+	 */
+	private static final Map<String, Expression> fgExpressions = Collections.synchronizedMap(new LinkedHashMap<String, Expression>(64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Expression> eldest) {
+			return size() > MAX_CACHED_EXPRESSIONS;
+		}
+	});
+
 	/**
 	 * Resulting string
 	 */
@@ -52,27 +83,150 @@ public class StringSubstitutionEngine {
 	private boolean fSubs;
 
 	/**
-	 * Stack of variables to resolve
+	 * Part of a compiled expression.
+	 */
+	abstract static class Node {
+
+		/**
+		 * Appends the value of this node to the given buffer, resolving
+		 * variable references.
+		 */
+		abstract void appendTo(StringBuilder buffer, StringSubstitutionEngine engine, boolean reportUndefinedVariables, boolean resolveVariables, IStringVariableManager manager) throws CoreException;
+
+		/**
+		 * Returns whether the value of this node is independent of any
+		 * variable.
+		 */
+		boolean isLiteral() {
+			return false;
+		}
+	}
+
+	/**
+	 * Text outside of variable references.
 	 */
-	private Deque<VariableReference> fStack;
+	static final class Literal extends Node {
+
+		final String fText;
+
+		Literal(String text) {
+			fText = text;
+		}
+
+		@Override
+		void appendTo(StringBuilder buffer, StringSubstitutionEngine engine, boolean reportUndefinedVariables, boolean resolveVariables, IStringVariableManager manager) {
+			buffer.append(fText);
+		}
+
+		@Override
+		boolean isLiteral() {
+			return true;
+		}
+	}
 
-	static class VariableReference {
+	/**
+	 * A complete variable reference, whose text may contain nested variable
+	 * references.
+	 */
+	static final class VariableReference extends Node {
 
-		// the text inside the variable reference
-		private StringBuilder fText;
+		// the text inside the variable reference, null if it contains nested variables
+		private final String fText;
+		private final String fName;
+		private final String fArgument;
+		// the parts of the text inside the variable reference
+		private final Node[] fParts;
 
-		public VariableReference() {
-			fText = new StringBuilder();
+		VariableReference(List<Node> parts) {
+			fParts = parts.toArray(new Node[parts.size()]);
+			StringBuilder text = new StringBuilder();
+			for (Node part : fParts) {
+				if (!part.isLiteral()) {
+					text = null;
+					break;
+				}
+				text.append(((Literal) part).fText);
+			}
+			if (text != null) {
+				fText = text.toString();
+				int pos = fText.indexOf(VARIABLE_ARG);
+				fName = getName(fText, pos);
+				fArgument = getArgument(fText, pos);
+			} else {
+				fText = null;
+				fName = null;
+				fArgument = null;
+			}
 		}
 
-		public void append(String text) {
-			fText.append(text);
+		@Override
+		void appendTo(StringBuilder buffer, StringSubstitutionEngine engine, boolean reportUndefinedVariables, boolean resolveVariables, IStringVariableManager manager) throws CoreException {
+			String text = fText;
+			String name = fName;
+			String argument = fArgument;
+			if (text == null) {
+				StringBuilder nested = new StringBuilder();
+				for (Node part : fParts) {
+					part.appendTo(nested, engine, reportUndefinedVariables, resolveVariables, manager);
+				}
+				text = nested.toString();
+				int pos = text.indexOf(VARIABLE_ARG);
+				name = getName(text, pos);
+				argument = getArgument(text, pos);
+			}
+			String value = engine.resolve(text, name, argument, reportUndefinedVariables, resolveVariables, manager);
+			if (value != null) {
+				buffer.append(value);
+			}
 		}
 
-		public String getText() {
-			return fText.toString();
+		private static String getName(String text, int pos) {
+			return pos > 0 ? text.substring(0, pos) : text;
 		}
 
+		private static String getArgument(String text, int pos) {
+			return pos > 0 && pos + 1 < text.length() ? text.substring(pos + 1) : null;
+		}
+	}
+
+	/**
+	 * A variable reference which is not terminated, it is left as is apart
+	 * from the nested variable references it contains.
+	 */
+	static final class IncompleteReference extends Node {
+
+		private final Node[] fParts;
+
+		IncompleteReference(List<Node> parts) {
+			fParts = parts.toArray(new Node[parts.size()]);
+		}
+
+		@Override
+		void appendTo(StringBuilder buffer, StringSubstitutionEngine engine, boolean reportUndefinedVariables, boolean resolveVariables, IStringVariableManager manager) throws CoreException {
+			buffer.append(VARIABLE_START);
+			for (Node part : fParts) {
+				part.appendTo(buffer, engine, reportUndefinedVariables, resolveVariables, manager);
+			}
+		}
+	}
+
+	/**
+	 * A compiled expression.
+	 */
+	static final class Expression {
+
+		final Node[] fNodes;
+
+		/**
+		 * The text following the last nested reference of each complete
+		 * variable reference, see {@link StringSubstitutionEngine#substitute}
+		 */
+		final Set<String> fResolvedVariables;
+
+		Expression(List<Node> nodes, Set<String> resolvedVariables) {
+			fNodes = nodes.toArray(new Node[nodes.size()]);
+			fResolvedVariables = Collections.unmodifiableSet(resolvedVariables);
+		}
 	}
 
 	/**
@@ -89,11 +243,11 @@ public class StringSubstitutionEngine {
 	 */
 	public String performStringSubstitution(String expression, boolean reportUndefinedVariables, boolean resolveVariables, IStringVariableManager manager) throws CoreException {
 		substitute(expression, reportUndefinedVariables, resolveVariables, manager);
-		List<HashSet<String>> resolvedVariableSets = new ArrayList<>();
+		List<Set<String>> resolvedVariableSets = new ArrayList<>();
 		while (fSubs) {
-			HashSet<String> resolved = substitute(fResult.toString(), reportUndefinedVariables, true, manager);
+			Set<String> resolved = substitute(fResult.toString(), reportUndefinedVariables, true, manager);
 			for(int i=resolvedVariableSets.size()-1; i>=0; i--) {
-				HashSet<String> prevSet = resolvedVariableSets.get(i);
+				Set<String> prevSet = resolvedVariableSets.get(i);
 				if (prevSet.equals(resolved)) {
 					HashSet<String> conflictingSet = new HashSet<>();
 					for (; i<resolvedVariableSets.size(); i++) {
@@ -137,12 +291,54 @@ public class StringSubstitutionEngine {
 	 * @return the set of {@link String}s resolved from the given expression
 	 * @exception CoreException if unable to resolve a variable
 	 */
-	private HashSet<String> substitute(String expression, boolean reportUndefinedVariables, boolean resolveVariables, IStringVariableManager manager) throws CoreException {
-		fResult = new StringBuilder(expression.length());
-		fStack = new ArrayDeque<>();
+	private Set<String> substitute(String expression, boolean reportUndefinedVariables, boolean resolveVariables, IStringVariableManager manager) throws CoreException {
 		fSubs = false;
+		if (expression.indexOf(VARIABLE_START) < 0) {
+			// nothing to substitute
+			fResult = new StringBuilder(expression);
+			return Collections.emptySet();
+		}
+		Expression compiled = getExpression(expression);
+		fResult = new StringBuilder(expression.length());
+		for (Node node : compiled.fNodes) {
+			node.appendTo(fResult, this, reportUndefinedVariables, resolveVariables, manager);
+		}
+		return compiled.fResolvedVariables;
+	}
 
-		HashSet<String> resolvedVariables = new HashSet<>();
+	/**
+	 * Returns the compiled form of the given expression, from the cache if
+	 * possible.
+	 *
+	 * @param expression source expression
+	 * @return compiled expression
+	 */
+	private static Expression getExpression(String expression) {
+		if (expression.length() > MAX_CACHED_EXPRESSION_LENGTH) {
+			return compile(expression);
+		}
+		Expression compiled = fgExpressions.get(expression);
+		if (compiled == null) {
+			compiled = compile(expression);
+			fgExpressions.put(expression, compiled);
+		}
+		return compiled;
+	}
+
+	/**
+	 * Compiles the given expression. Variable references are delimited by
+	 * <code>${</code> and the next <code>}</code> which is not preceded by the
+	 * start of a nested reference. References which are not terminated are
+	 * kept as text, with their nested references resolved.
+	 *
+	 * @param expression source expression
+	 * @return compiled expression
+	 */
+	static Expression compile(String expression) {
+		List<Node> nodes = new ArrayList<>();
+		// contents of the variable references being parsed, innermost first
+		Deque<List<Node>> stack = new ArrayDeque<>();
+		Set<String> resolvedVariables = new HashSet<>();
 
 		int pos = 0;
 		int state = SCAN_FOR_START;
@@ -151,18 +347,17 @@ public class StringSubstitutionEngine {
 				case SCAN_FOR_START:
 					int start = expression.indexOf(VARIABLE_START, pos);
 					if (start >= 0) {
-						int length = start - pos;
 						// copy non-variable text to the result
-						if (length > 0) {
-							fResult.append(expression.substring(pos, start));
+						if (start > pos) {
+							nodes.add(new Literal(expression.substring(pos, start)));
 						}
 						pos = start + 2;
 						state = SCAN_FOR_END;
 
-						fStack.push(new VariableReference());
+						stack.push(new ArrayList<>());
 					} else {
 						// done - no more variables
-						fResult.append(expression.substring(pos));
+						nodes.add(new Literal(expression.substring(pos)));
 						pos = expression.length();
 					}
 					break;
@@ -172,38 +367,31 @@ public class StringSubstitutionEngine {
 					int end = expression.indexOf(VARIABLE_END, pos);
 					if (end < 0) {
 						// variables are not completed
-						VariableReference tos = fStack.peek();
-						tos.append(expression.substring(pos));
+						stack.peek().add(new Literal(expression.substring(pos)));
 						pos = expression.length();
 					} else if (start >= 0 && start < end) {
 						// start of a nested variable
-						int length = start - pos;
-						if (length > 0) {
-							VariableReference tos = fStack.peek();
-							tos.append(expression.substring(pos, start));
+						if (start > pos) {
+							stack.peek().add(new Literal(expression.substring(pos, start)));
 						}
 						pos = start + 2;
-						fStack.push(new VariableReference());
+						stack.push(new ArrayList<>());
 					} else {
 						// end of variable reference
-						VariableReference tos = fStack.pop();
+						List<Node> parts = stack.pop();
 						String substring = expression.substring(pos, end);
-						tos.append(substring);
+						if (!substring.isEmpty()) {
+							parts.add(new Literal(substring));
+						}
 						resolvedVariables.add(substring);
 
 						pos = end + 1;
-						String value= resolve(tos, reportUndefinedVariables, resolveVariables, manager);
-						if (value == null) {
-							value = ""; //$NON-NLS-1$
-						}
-						if (fStack.isEmpty()) {
-							// append to result
-							fResult.append(value);
+						VariableReference reference = new VariableReference(parts);
+						if (stack.isEmpty()) {
+							nodes.add(reference);
 							state = SCAN_FOR_START;
 						} else {
-							// append to previous variable
-							tos = fStack.peek();
-							tos.append(value);
+							stack.peek().add(reference);
 						}
 					}
 					break;
@@ -212,27 +400,24 @@ public class StringSubstitutionEngine {
 			}
 		}
 		// process incomplete variable references
-		while (!fStack.isEmpty()) {
-			VariableReference tos = fStack.pop();
-			if (fStack.isEmpty()) {
-				fResult.append(VARIABLE_START);
-				fResult.append(tos.getText());
+		while (!stack.isEmpty()) {
+			IncompleteReference reference = new IncompleteReference(stack.pop());
+			if (stack.isEmpty()) {
+				nodes.add(reference);
 			} else {
-				VariableReference var = fStack.peek();
-				var.append(VARIABLE_START);
-				var.append(tos.getText());
+				stack.peek().add(reference);
 			}
 		}
-
-
-		return resolvedVariables;
+		return new Expression(nodes, resolvedVariables);
 	}
 
 	/**
 	 * Resolve and return the value of the given variable reference,
 	 * possibly <code>null</code>.
 	 *
-	 * @param var the {@link VariableReference} to try and resolve
+	 * @param text the text inside the variable reference
+	 * @param name the variable name
+	 * @param arg the variable argument or <code>null</code>
 	 * @param reportUndefinedVariables whether to report undefined variables as
 	 *  an error
 	 * @param resolveVariables whether to resolve the variables value or just to validate that this variable is valid
@@ -240,20 +425,7 @@ public class StringSubstitutionEngine {
 	 * @return variable value, possibly <code>null</code>
 	 * @exception CoreException if unable to resolve a value
 	 */
-	private String resolve(VariableReference var, boolean reportUndefinedVariables, boolean resolveVariables, IStringVariableManager manager) throws CoreException {
-		String text = var.getText();
-		int pos = text.indexOf(VARIABLE_ARG);
-		String name = null;
-		String arg = null;
-		if (pos > 0) {
-			name = text.substring(0, pos);
-			pos++;
-			if (pos < text.length()) {
-				arg = text.substring(pos);
-			}
-		} else {
-			name = text;
-		}
+	private String resolve(String text, String name, String arg, boolean reportUndefinedVariables, boolean resolveVariables, IStringVariableManager manager) throws CoreException {
 		IValueVariable valueVariable = manager.getValueVariable(name);
 		if (valueVariable == null) {
 			IDynamicVariable dynamicVariable = manager.getDynamicVariable(name);
@@ -263,15 +435,19 @@ public class StringSubstitutionEngine {
 					throw new CoreException(new Status(IStatus.ERROR, VariablesPlugin.getUniqueIdentifier(), VariablesPlugin.INTERNAL_ERROR, NLS.bind(VariablesMessages.StringSubstitutionEngine_3, new String[]{name}), null));
 				}
 				// leave as is
-				return getOriginalVarText(var);
+				return getOriginalVarText(text);
 			}
 
 			if (resolveVariables) {
 				fSubs = true;
+				StringVariableResolutionScope scope = StringVariableResolutionScope.getCurrent();
+				if (scope != null) {
+					return scope.resolve(dynamicVariable, arg);
+				}
 				return dynamicVariable.getValue(arg);
 			}
 			//leave as is
-			return getOriginalVarText(var);
+			return getOriginalVarText(text);
 		}
 
 		if (arg == null) {
@@ -280,16 +456,13 @@ public class StringSubstitutionEngine {
 				return valueVariable.getValue();
 			}
 			//leave as is
-			return getOriginalVarText(var);
+			return getOriginalVarText(text);
 		}
 		// error - an argument specified for a value variable
 		throw new CoreException(new Status(IStatus.ERROR, VariablesPlugin.getUniqueIdentifier(), VariablesPlugin.INTERNAL_ERROR, NLS.bind(VariablesMessages.StringSubstitutionEngine_4, new String[]{valueVariable.getName()}), null));
 	}
 
-	private String getOriginalVarText(VariableReference var) {
-		StringBuilder res = new StringBuilder(var.getText());
-		res.insert(0, VARIABLE_START);
-		res.append(VARIABLE_END);
-		return res.toString();
+	private String getOriginalVarText(String text) {
+		return VARIABLE_START + text + VARIABLE_END;
 	}
 }
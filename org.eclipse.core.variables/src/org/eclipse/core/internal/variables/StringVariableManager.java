@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -51,6 +51,7 @@ import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.core.variables.IDynamicVariable;
 import org.eclipse.core.variables.IStringVariable;
 import org.eclipse.core.variables.IStringVariableManager;
+import org.eclipse.core.variables.IStringVariableResolutionScope;
 import org.eclipse.core.variables.IValueVariable;
 import org.eclipse.core.variables.IValueVariableListener;
 import org.eclipse.core.variables.VariablesPlugin;
@@ -552,6 +553,11 @@ public class StringVariableManager implements IStringVariableManager, IPreferenc
 		new StringSubstitutionEngine().validateStringVariables(expression, this);
 	}
 
+	@Override
+	public IStringVariableResolutionScope openResolutionScope() {
+		return StringVariableResolutionScope.open();
+	}
+
 	@Override
 	public String getContributingPluginId(IStringVariable variable) {
 		if (variable instanceof StringVariable) {
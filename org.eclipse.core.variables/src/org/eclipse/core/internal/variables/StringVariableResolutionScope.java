@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.variables;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.variables.IDynamicVariable;
+import org.eclipse.core.variables.IStringVariableResolutionScope;
+
+/**
+ * Resolution scope bound to the thread which opened it.
+ */
+public class StringVariableResolutionScope implements IStringVariableResolutionScope {
+
+	/**
+	 * The innermost scope opened by the current thread
+	 */
+	private static final ThreadLocal<StringVariableResolutionScope> fgCurrent = new ThreadLocal<>();
+
+	/**
+	 * Memoized values and statistics of one dynamic variable.
+	 */
+	private static final class VariableResolutions {
+		// values by argument, the argument and the value may be null
+		final Map<String, String> fValues = new HashMap<>();
+		int fResolutions;
+		int fReuses;
+		long fTime;
+	}
+
+	/**
+	 * The scope which was current when this scope was opened, or
+	 * <code>null</code>
+	 */
+	private final StringVariableResolutionScope fParent;
+
+	/**
+	 * Resolutions by variable name, in order of first resolution. Guarded by
+	 * this scope.
+	 */
+	private final Map<String, VariableResolutions> fVariables = new LinkedHashMap<>();
+
+	/**
+	 * Names of the variables whose values are not memoized. Guarded by this
+	 * scope.
+	 */
+	private final Set<String> fExcluded = new HashSet<>();
+
+	private volatile boolean fClosed;
+
+	private StringVariableResolutionScope(StringVariableResolutionScope parent) {
+		fParent = parent;
+	}
+
+	/**
+	 * Opens a new scope for the current thread.
+	 *
+	 * @return the new scope
+	 */
+	static StringVariableResolutionScope open() {
+		StringVariableResolutionScope scope = new StringVariableResolutionScope(getCurrent());
+		fgCurrent.set(scope);
+		return scope;
+	}
+
+	/**
+	 * Returns the innermost open scope of the current thread.
+	 *
+	 * @return the current scope or <code>null</code> if none
+	 */
+	static StringVariableResolutionScope getCurrent() {
+		StringVariableResolutionScope scope = fgCurrent.get();
+		while (scope != null && scope.fClosed) {
+			scope = scope.fParent;
+		}
+		return scope;
+	}
+
+	/**
+	 * Returns the value of the given dynamic variable for the given argument,
+	 * memoized in this scope if possible.
+	 *
+	 * @param variable a dynamic variable
+	 * @param argument the argument or <code>null</code>
+	 * @return the variable's value, possibly <code>null</code>
+	 * @throws CoreException if the variable cannot be resolved
+	 */
+	String resolve(IDynamicVariable variable, String argument) throws CoreException {
+		String name = variable.getName();
+		boolean memoize = !(variable instanceof DynamicVariable) || ((DynamicVariable) variable).isMemoizable();
+		VariableResolutions resolutions;
+		synchronized (this) {
+			resolutions = fVariables.computeIfAbsent(name, n -> new VariableResolutions());
+			memoize = memoize && !fExcluded.contains(name);
+			if (memoize && resolutions.fValues.containsKey(argument)) {
+				resolutions.fReuses++;
+				return resolutions.fValues.get(argument);
+			}
+		}
+		String value;
+		long start = System.nanoTime();
+		try {
+			value = variable.getValue(argument);
+		} finally {
+			long time = System.nanoTime() - start;
+			synchronized (this) {
+				resolutions.fResolutions++;
+				resolutions.fTime += time;
+			}
+		}
+		if (memoize) {
+			synchronized (this) {
+				if (!fClosed && !fExcluded.contains(name)) {
+					resolutions.fValues.put(argument, value);
+				}
+			}
+		}
+		return value;
+	}
+
+	@Override
+	public synchronized void setMemoized(String variableName, boolean memoize) {
+		if (memoize) {
+			fExcluded.remove(variableName);
+		} else if (fExcluded.add(variableName)) {
+			VariableResolutions resolutions = fVariables.get(variableName);
+			if (resolutions != null) {
+				resolutions.fValues.clear();
+			}
+		}
+	}
+
+	@Override
+	public synchronized String[] getResolvedVariableNames() {
+		return fVariables.keySet().toArray(new String[fVariables.size()]);
+	}
+
+	@Override
+	public synchronized int getResolutionCount(String variableName) {
+		VariableResolutions resolutions = fVariables.get(variableName);
+		return resolutions != null ? resolutions.fResolutions : 0;
+	}
+
+	@Override
+	public synchronized int getReuseCount(String variableName) {
+		VariableResolutions resolutions = fVariables.get(variableName);
+		return resolutions != null ? resolutions.fReuses : 0;
+	}
+
+	@Override
+	public synchronized long getResolutionTime(String variableName) {
+		VariableResolutions resolutions = fVariables.get(variableName);
+		return resolutions != null ? resolutions.fTime : 0;
+	}
+
+	@Override
+	public void close() {
+		if (fClosed) {
+			return;
+		}
+		fClosed = true;
+		synchronized (this) {
+			for (VariableResolutions resolutions : fVariables.values()) {
+				resolutions.fValues.clear();
+			}
+		}
+		if (fgCurrent.get() == this) {
+			StringVariableResolutionScope parent = getCurrent();
+			if (parent != null) {
+				fgCurrent.set(parent);
+			} else {
+				fgCurrent.remove();
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -191,4 +191,17 @@ public interface IStringVariableManager {
 	 */
 	String generateVariableExpression(String varName, String arg);
 
+	/**
+	 * Opens a resolution scope in which string substitutions performed by the
+	 * calling thread resolve the value of each dynamic variable and argument
+	 * at most once. The scope must be closed by the calling thread when the
+	 * unit of work it was opened for, e.g. a launch, is done. Scopes may be
+	 * nested.
+	 *
+	 * @return a new resolution scope, which applies until it is closed
+	 * @see IStringVariableResolutionScope
+	 * @since 3.6
+	 */
+	IStringVariableResolutionScope openResolutionScope();
+
 }
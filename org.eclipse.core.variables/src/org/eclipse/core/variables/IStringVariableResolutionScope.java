@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.variables;
+
+/**
+ * A scope in which the values of dynamic variables are resolved at most once
+ * per variable and argument. A scope is opened by
+ * {@link IStringVariableManager#openResolutionScope()} for a unit of work
+ * which substitutes many expressions referencing the same variables, such as
+ * a launch or a build, and applies to all string substitutions performed by
+ * the thread that opened it until it is closed.
+ * <p>
+ * Values of variables which are declared as not memoizable (see the
+ * <code>memoizable</code> attribute of the dynamic variables extension point)
+ * or which have been excluded by {@link #setMemoized(String, boolean)} are
+ * resolved on every reference. Values of value variables are never memoized.
+ * Failed resolutions are not remembered.
+ * </p>
+ * <p>
+ * The scope also records the number of resolutions and the time spent in the
+ * resolvers of each dynamic variable.
+ * </p>
+ * <p>
+ * Clients are intended to close a scope in the thread that opened it, e.g.
+ * <pre>
+ * try (IStringVariableResolutionScope scope = manager.openResolutionScope()) {
+ *    ...
+ * }
+ * </pre>
+ *
+ * @since 3.6
+ * @noimplement This interface is not intended to be implemented by clients.
+ */
+public interface IStringVariableResolutionScope extends AutoCloseable {
+
+	/**
+	 * Sets whether the values of the dynamic variable with the given name are
+	 * memoized in this scope. By default, the values of all variables which
+	 * are not declared as not memoizable are memoized. Disabling memoization
+	 * discards the values memoized so far.
+	 *
+	 * @param variableName name of a dynamic variable
+	 * @param memoize whether to memoize the variable's values
+	 */
+	void setMemoized(String variableName, boolean memoize);
+
+	/**
+	 * Returns the names of the dynamic variables resolved in this scope.
+	 *
+	 * @return names of the resolved dynamic variables, possibly empty
+	 */
+	String[] getResolvedVariableNames();
+
+	/**
+	 * Returns the number of times the resolver of the given dynamic variable
+	 * was asked for a value in this scope.
+	 *
+	 * @param variableName name of a dynamic variable
+	 * @return number of resolutions
+	 */
+	int getResolutionCount(String variableName);
+
+	/**
+	 * Returns the number of references to the given dynamic variable which
+	 * were satisfied by a memoized value in this scope.
+	 *
+	 * @param variableName name of a dynamic variable
+	 * @return number of reused values
+	 */
+	int getReuseCount(String variableName);
+
+	/**
+	 * Returns the total time spent resolving the given dynamic variable in
+	 * this scope, in nanoseconds.
+	 *
+	 * @param variableName name of a dynamic variable
+	 * @return resolution time in nanoseconds
+	 */
+	long getResolutionTime(String variableName);
+
+	/**
+	 * Closes this scope and discards the memoized values. If this scope was
+	 * opened while another scope was open in the same thread, that scope
+	 * applies again. Has no effect if this scope has already been closed.
+	 */
+	@Override
+	void close();
+}
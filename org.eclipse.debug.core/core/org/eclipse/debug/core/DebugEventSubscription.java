@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.core;
+
+import org.eclipse.debug.core.model.IDebugElement;
+import org.eclipse.debug.core.model.IDebugTarget;
+
+/**
+ * Describes the debug events a debug event set listener is interested in.
+ * A listener registered with a subscription is only notified of event sets
+ * that contain at least one event matching the subscription. The complete
+ * event set is delivered to the listener.
+ * <p>
+ * An event matches a subscription when all of the following hold:
+ * </p>
+ * <ul>
+ * <li>its kind is contained in the subscription's kind mask</li>
+ * <li>the detail mask is {@link #ANY_DETAIL} or contains the event's
+ * detail</li>
+ * <li>the source type is <code>null</code> or the event's source is an
+ * instance of it</li>
+ * <li>the debug target is <code>null</code> or the event's source is a debug
+ * element of that target</li>
+ * </ul>
+ * <p>
+ * Clients may instantiate this class.
+ * </p>
+ *
+ * @see DebugPlugin#addDebugEventListener(IDebugEventSetListener, DebugEventSubscription)
+ * @since 3.20
+ */
+public final class DebugEventSubscription {
+
+	/**
+	 * Kind mask matching all standard debug event kinds.
+	 */
+	public static final int ANY_KIND = DebugEvent.RESUME | DebugEvent.SUSPEND | DebugEvent.CREATE | DebugEvent.TERMINATE | DebugEvent.CHANGE | DebugEvent.MODEL_SPECIFIC;
+
+	/**
+	 * Detail mask matching any event detail.
+	 */
+	public static final int ANY_DETAIL = 0;
+
+	/**
+	 * Subscription matching all debug events.
+	 */
+	public static final DebugEventSubscription ALL = new DebugEventSubscription(ANY_KIND, ANY_DETAIL, null, null);
+
+	private final int fKinds;
+	private final int fDetails;
+	private final Class<?> fSourceType;
+	private final IDebugTarget fDebugTarget;
+
+	/**
+	 * Creates a subscription for events of the given kinds.
+	 *
+	 * @param kinds bit mask of event kinds, for example
+	 *            <code>DebugEvent.SUSPEND | DebugEvent.RESUME</code>
+	 */
+	public DebugEventSubscription(int kinds) {
+		this(kinds, ANY_DETAIL, null, null);
+	}
+
+	/**
+	 * Creates a subscription for events with the given kinds, details, source
+	 * type and debug target.
+	 *
+	 * @param kinds bit mask of event kinds
+	 * @param details bit mask of event details, or {@link #ANY_DETAIL}
+	 * @param sourceType type the event source must be an instance of, or
+	 *            <code>null</code> for any source
+	 * @param target debug target the event source must belong to, or
+	 *            <code>null</code> for any debug target
+	 */
+	public DebugEventSubscription(int kinds, int details, Class<?> sourceType, IDebugTarget target) {
+		fKinds = kinds;
+		fDetails = details;
+		fSourceType = sourceType;
+		fDebugTarget = target;
+	}
+
+	/**
+	 * Returns the bit mask of event kinds this subscription matches.
+	 *
+	 * @return event kind mask
+	 */
+	public int getKinds() {
+		return fKinds;
+	}
+
+	/**
+	 * Returns the bit mask of event details this subscription matches, or
+	 * {@link #ANY_DETAIL}.
+	 *
+	 * @return event detail mask
+	 */
+	public int getDetails() {
+		return fDetails;
+	}
+
+	/**
+	 * Returns the type event sources must be an instance of, or
+	 * <code>null</code> if events from any source match.
+	 *
+	 * @return source type or <code>null</code>
+	 */
+	public Class<?> getSourceType() {
+		return fSourceType;
+	}
+
+	/**
+	 * Returns the debug target event sources must belong to, or
+	 * <code>null</code> if events from any debug target match.
+	 *
+	 * @return debug target or <code>null</code>
+	 */
+	public IDebugTarget getDebugTarget() {
+		return fDebugTarget;
+	}
+
+	/**
+	 * Returns whether this subscription matches all debug events.
+	 *
+	 * @return whether this subscription matches all debug events
+	 */
+	public boolean matchesAll() {
+		return (fKinds & ANY_KIND) == ANY_KIND && fDetails == ANY_DETAIL && fSourceType == null && fDebugTarget == null;
+	}
+
+	/**
+	 * Returns whether the given event matches this subscription.
+	 *
+	 * @param event debug event
+	 * @return whether the event matches this subscription
+	 */
+	public boolean matches(DebugEvent event) {
+		if ((event.getKind() & fKinds) == 0) {
+			return false;
+		}
+		if (fDetails != ANY_DETAIL && (event.getDetail() & fDetails) == 0) {
+			return false;
+		}
+		Object source = event.getSource();
+		if (fSourceType != null && !fSourceType.isInstance(source)) {
+			return false;
+		}
+		if (fDebugTarget != null) {
+			return source instanceof IDebugElement && fDebugTarget.equals(((IDebugElement) source).getDebugTarget());
+		}
+		return true;
+	}
+
+	/**
+	 * Returns whether at least one of the given events matches this
+	 * subscription.
+	 *
+	 * @param events debug events
+	 * @return whether any of the events matches this subscription
+	 */
+	public boolean matches(DebugEvent[] events) {
+		if (matchesAll()) {
+			return true;
+		}
+		for (DebugEvent event : events) {
+			if (matches(event)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return "DebugEventSubscription [kinds=" + fKinds + ", details=" + fDetails + ", sourceType=" + fSourceType //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ ", target=" + fDebugTarget + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -63,6 +63,9 @@ import org.eclipse.debug.core.model.IValue;
 import org.eclipse.debug.core.model.RuntimeProcess;
 import org.eclipse.debug.internal.core.BreakpointManager;
 import org.eclipse.debug.internal.core.DebugCoreMessages;
+import org.eclipse.debug.internal.core.DebugEventListenerIndex;
+import org.eclipse.debug.internal.core.DebugEventListenerIndex.Registration;
+import org.eclipse.debug.internal.core.DebugEventQueue;
 import org.eclipse.debug.internal.core.DebugOptions;
 import org.eclipse.debug.internal.core.ExpressionManager;
 import org.eclipse.debug.internal.core.IConfigurationElementConstants;
@@ -71,6 +74,7 @@ import org.eclipse.debug.internal.core.LaunchManager;
 import org.eclipse.debug.internal.core.LogicalStructureManager;
 import org.eclipse.debug.internal.core.MemoryBlockManager;
 import org.eclipse.debug.internal.core.Preferences;
+import org.eclipse.debug.internal.core.SharedStreamReader;
 import org.eclipse.debug.internal.core.StepFilterManager;
 import org.eclipse.debug.internal.core.commands.CommandAdapterFactory;
 import org.eclipse.debug.internal.core.groups.GroupMemberChangeListener;
@@ -267,6 +271,18 @@ public class DebugPlugin extends Plugin {
 	 */
 	public static final String ATTR_CAPTURE_OUTPUT = PI_DEBUG_CORE + ".capture_output"; //$NON-NLS-1$
 
+	/**
+	 * The launch attribute that designates whether the output streams of
+	 * processes of the associated launch are read by a small pool of threads
+	 * shared by all such processes, instead of dedicated threads per stream.
+	 * Recommended for launches creating many concurrent processes. Value is a
+	 * string representing a boolean - <code>true</code> or <code>false</code>.
+	 * When unspecified, the default value is considered <code>false</code>.
+	 *
+	 * @since 3.20
+	 */
+	public static final String ATTR_SHARED_STREAM_READER = PI_DEBUG_CORE + ".shared_stream_reader"; //$NON-NLS-1$
+
 	/**
 	 * The launch attribute that stores the time stamp of when a launch configuration was
 	 * launched. Value is {@link Long#toString(long)} of {@link System#currentTimeMillis()}.
@@ -409,9 +425,9 @@ public class DebugPlugin extends Plugin {
 	private MemoryBlockManager fMemoryBlockManager;
 
 	/**
-	 * The collection of debug event listeners.
+	 * The collection of debug event listeners, indexed by their subscriptions.
 	 */
-	private ListenerList<IDebugEventSetListener> fEventListeners = new ListenerList<>();
+	private final DebugEventListenerIndex fEventListeners = DebugEventListenerIndex.getDefault();
 
 	/**
 	 * Event filters, or <code>null</code> if none.
@@ -449,7 +465,7 @@ public class DebugPlugin extends Plugin {
 	 *
 	 * @since 3.1
 	 */
-	private List<Object> fEventQueue = new ArrayList<>();
+	private final DebugEventQueue fEventQueue = DebugEventQueue.getDefault();
 
 	/**
 	 * Job to fire events to listeners.
@@ -479,16 +495,11 @@ public class DebugPlugin extends Plugin {
 		@Override
 		protected IStatus run(IProgressMonitor monitor) {
 
-			while (!fEventQueue.isEmpty()) {
-				Object next = null;
-				synchronized (fEventQueue) {
-					if (!fEventQueue.isEmpty()) {
-						next = fEventQueue.remove(0);
-					}
-				}
+			Object next;
+			while ((next = fEventQueue.poll()) != null) {
 				if (next instanceof Runnable) {
 					fRunner.async((Runnable) next);
-				} else if (next != null) {
+				} else {
 					fNotifier.dispatch((DebugEvent[]) next);
 				}
 			}
@@ -557,7 +568,22 @@ public class DebugPlugin extends Plugin {
 	 * @since 2.0
 	 */
 	public void addDebugEventListener(IDebugEventSetListener listener) {
-		fEventListeners.add(listener);
+		fEventListeners.add(listener, DebugEventSubscription.ALL);
+	}
+
+	/**
+	 * Adds the given listener to the collection of registered debug event
+	 * listeners. The listener is only notified of event sets that contain at
+	 * least one event matching the given subscription; such event sets are
+	 * delivered in full. If an identical listener is already registered, its
+	 * subscription is replaced.
+	 *
+	 * @param listener the listener to add
+	 * @param subscription the debug events the listener is interested in
+	 * @since 3.20
+	 */
+	public void addDebugEventListener(IDebugEventSetListener listener, DebugEventSubscription subscription) {
+		fEventListeners.add(listener, subscription);
 	}
 
 	/**
@@ -574,10 +600,8 @@ public class DebugPlugin extends Plugin {
 		if (isShuttingDown() || events == null || fEventListeners.isEmpty()) {
 			return;
 		}
-		synchronized (fEventQueue) {
-			fEventQueue.add(events);
-		}
-		fEventDispatchJob.schedule();
+		fEventQueue.add(events);
+		fEventDispatchJob.schedule(fEventQueue.getMaxBatchLatency());
 	}
 
 	/**
@@ -590,9 +614,7 @@ public class DebugPlugin extends Plugin {
 	 * @since 2.1
 	 */
 	public void asyncExec(Runnable r) {
-		synchronized (fEventQueue) {
-			fEventQueue.add(r);
-		}
+		fEventQueue.add(r);
 		fEventDispatchJob.schedule();
 	}
 
@@ -716,6 +738,7 @@ public class DebugPlugin extends Plugin {
 			fEventFilters.clear();
 
 			SourceLookupUtils.shutdown();
+			SharedStreamReader.shutdownDefault();
 			Preferences.savePreferences(DebugPlugin.getUniqueIdentifier());
 			ResourcesPlugin.getWorkspace().removeSaveParticipant(getUniqueIdentifier());
 		} finally {
@@ -728,6 +751,8 @@ public class DebugPlugin extends Plugin {
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		new DebugOptions(context);
+		fEventQueue.setMaxBatchSize(Platform.getPreferencesService().getInt(getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_EVENT_BATCH_SIZE, DebugEventQueue.DEFAULT_MAX_BATCH_SIZE, null));
+		fEventQueue.setMaxBatchLatency(Platform.getPreferencesService().getInt(getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_EVENT_BATCH_LATENCY, DebugEventQueue.DEFAULT_MAX_BATCH_LATENCY, null));
 		ResourcesPlugin.getWorkspace().addSaveParticipant(getUniqueIdentifier(),
 				new ISaveParticipant() {
 					@Override
@@ -1255,9 +1280,13 @@ public class DebugPlugin extends Plugin {
 					DebugOptions.trace(event.toString());
 				}
 			}
-			for (IDebugEventSetListener iDebugEventSetListener : fEventListeners) {
-				fListener = iDebugEventSetListener;
-				SafeRunner.run(this);
+			for (Registration registration : fEventListeners.getCandidates(fEvents)) {
+				if (registration.accepts(fEvents)) {
+					fListener = registration.getListener();
+					long start = System.nanoTime();
+					SafeRunner.run(this);
+					registration.recordDispatch(System.nanoTime() - start);
+				}
 			}
 			fEvents = null;
 			fFilter = null;
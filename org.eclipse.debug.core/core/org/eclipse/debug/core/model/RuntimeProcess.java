@@ -37,6 +37,7 @@ import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.internal.core.DebugCoreMessages;
 import org.eclipse.debug.internal.core.NullStreamsProxy;
+import org.eclipse.debug.internal.core.SharedStreamReader;
 import org.eclipse.debug.internal.core.StreamsProxy;
 
 /**
@@ -373,7 +374,11 @@ public class RuntimeProcess extends PlatformObject implements IProcess {
 		if (charset == null) {
 			charset = Platform.getSystemCharset();
 		}
-		return new StreamsProxy(getSystemProcess(), charset, fThreadNameSuffix);
+		SharedStreamReader reader = null;
+		if (Boolean.parseBoolean(getLaunch().getAttribute(DebugPlugin.ATTR_SHARED_STREAM_READER))) {
+			reader = SharedStreamReader.getDefault();
+		}
+		return new StreamsProxy(getSystemProcess(), charset, fThreadNameSuffix, reader);
 	}
 
 	/**
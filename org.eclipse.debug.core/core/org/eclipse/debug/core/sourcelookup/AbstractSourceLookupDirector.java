@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2004, 2018 IBM Corporation and others.
+ *  Copyright (c) 2004, 2022 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -21,10 +21,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.DebugPlugin;
@@ -36,6 +40,8 @@ import org.eclipse.debug.core.ILaunchManager;
 import org.eclipse.debug.core.IStatusHandler;
 import org.eclipse.debug.core.model.IStackFrame;
 import org.eclipse.debug.core.sourcelookup.containers.DefaultSourceContainer;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupCache;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupMessages;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -89,6 +95,12 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 	protected Map<Object, Object> fResolvedElements = null;
 	// current participant performing lookup or <code>null</code>
 	private ISourceLookupParticipant fCurrentParticipant;
+	// cache of lookups performed by participants, or null if not yet created
+	private SourceLookupCache fLookupCache;
+	// workspace listener of the lookup cache, only referencing it weakly
+	private IResourceChangeListener fLookupCacheListener;
+	// maximum number of cached lookups, or -1 to use the preference
+	private int fLookupCacheSize = -1;
 
 	protected static final IStatus fPromptStatus = new Status(IStatus.INFO, "org.eclipse.debug.ui", 200, "", null);  //$NON-NLS-1$//$NON-NLS-2$
 	protected static final IStatus fResolveDuplicatesStatus = new Status(IStatus.INFO, "org.eclipse.debug.ui", 205, "", null);  //$NON-NLS-1$//$NON-NLS-2$
@@ -219,6 +231,7 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 		}
 		fSourceContainers = null;
 		fResolvedElements = null;
+		disposeLookupCache();
 	}
 
 	/**
@@ -443,6 +456,7 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 				container.init(this);
 			}
 		}
+		clearLookupCache();
 		// clear resolved duplicates
 		fResolvedElements = null;
 		// notify participants
@@ -649,6 +663,7 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 
 	@Override
 	public void clearSourceElements(Object element) {
+		clearLookupCache();
 		List<Object> list = doSourceLookup(element);
 		if (list.size() > 0) {
 			for (Object obj : list) {
@@ -670,6 +685,116 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 		for (ISourceLookupParticipant participant : participants) {
 			removeSourceLookupParticipant(participant);
 		}
+		clearLookupCache();
+	}
+
+	/**
+	 * Returns the cache of the lookups performed by the participants of this
+	 * director, creating it if required. The cache is created with the first
+	 * lookup and, since its resource change listener only references it
+	 * weakly, does not keep this director reachable if it is never disposed.
+	 *
+	 * @return the lookup cache, or <code>null</code> if lookups are not cached
+	 */
+	synchronized SourceLookupCache getLookupCache() {
+		if (fLookupCache == null) {
+			int size = getLookupCacheSize();
+			if (size <= 0) {
+				return null;
+			}
+			fLookupCache = new SourceLookupCache(size);
+			fLookupCacheListener = fLookupCache.newResourceListener();
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(fLookupCacheListener, IResourceChangeEvent.POST_CHANGE);
+		}
+		return fLookupCache;
+	}
+
+	/**
+	 * Sets the maximum number of source lookups cached by this director,
+	 * including lookups which found no source elements. Cached lookups are
+	 * discarded when the source containers or participants of this director
+	 * change, when resources are added, removed or moved in the workspace,
+	 * and when {@link #clearLookupCache()} or
+	 * {@link #clearSourceElements(Object)} is called.
+	 *
+	 * @param size maximum number of cached lookups, <code>0</code> to disable
+	 *            caching, or <code>-1</code> to use the default size
+	 * @since 3.20
+	 */
+	public synchronized void setLookupCacheSize(int size) {
+		fLookupCacheSize = size < 0 ? -1 : size;
+		if (fLookupCache != null) {
+			int maxSize = getLookupCacheSize();
+			if (maxSize > 0) {
+				fLookupCache.setMaxSize(maxSize);
+			} else {
+				disposeLookupCache();
+			}
+		}
+	}
+
+	/**
+	 * Discards the lookup cache of this director, if any.
+	 */
+	private synchronized void disposeLookupCache() {
+		if (fLookupCache != null) {
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(fLookupCacheListener);
+			fLookupCacheListener = null;
+			fLookupCache = null;
+		}
+	}
+
+	/**
+	 * Returns the maximum number of source lookups cached by this director.
+	 *
+	 * @return maximum number of cached lookups, <code>0</code> if caching is
+	 *         disabled
+	 * @since 3.20
+	 */
+	public synchronized int getLookupCacheSize() {
+		if (fLookupCacheSize >= 0) {
+			return fLookupCacheSize;
+		}
+		return Platform.getPreferencesService().getInt(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_SOURCE_LOOKUP_CACHE_SIZE, SourceLookupCache.DEFAULT_SIZE, null);
+	}
+
+	/**
+	 * Discards all source lookups cached by this director. Clients should call
+	 * this method when source elements may have changed in a way this director
+	 * cannot detect, e.g. in external directories or archives.
+	 *
+	 * @since 3.20
+	 */
+	public void clearLookupCache() {
+		SourceLookupCache cache;
+		synchronized (this) {
+			cache = fLookupCache;
+		}
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * Returns the number of source lookups answered from the cache of this
+	 * director since it was created.
+	 *
+	 * @return number of cache hits
+	 * @since 3.20
+	 */
+	public synchronized long getLookupCacheHitCount() {
+		return fLookupCache != null ? fLookupCache.getHitCount() : 0;
+	}
+
+	/**
+	 * Returns the number of source lookups not found in the cache of this
+	 * director since it was created.
+	 *
+	 * @return number of cache misses
+	 * @since 3.20
+	 */
+	public synchronized long getLookupCacheMissCount() {
+		return fLookupCache != null ? fLookupCache.getMissCount() : 0;
 	}
 
 	@Override
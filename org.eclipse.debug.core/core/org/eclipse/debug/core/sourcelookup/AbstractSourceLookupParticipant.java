@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2018 IBM Corporation and others.
+ *  Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -21,6 +21,8 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.internal.core.sourcelookup.ParallelSourceContainerSearch;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupCache;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupMessages;
 
 
@@ -49,42 +51,75 @@ public abstract class AbstractSourceLookupParticipant implements ISourceLookupPa
 
 	@Override
 	public Object[] findSourceElements(Object object) throws CoreException {
+		boolean duplicates = isFindDuplicates();
+		String name = getSourceName(object);
+		if (name == null) {
+			return EMPTY;
+		}
+		SourceLookupCache cache = getLookupCache();
+		if (cache == null) {
+			return searchSourceContainers(name, duplicates);
+		}
+		Object[] elements = cache.get(this, name, duplicates);
+		if (elements == null) {
+			long stamp = cache.getStamp();
+			elements = searchSourceContainers(name, duplicates);
+			cache.put(this, name, duplicates, elements, stamp);
+		}
+		return elements;
+	}
+
+	/**
+	 * Searches the source containers for the given source name.
+	 *
+	 * @param name source name
+	 * @param duplicates whether to search all containers for duplicates
+	 * @return the source elements found, possibly empty
+	 * @throws CoreException if no source element is found and a container
+	 *             failed, or if a container failed and duplicates are
+	 *             searched for
+	 */
+	private Object[] searchSourceContainers(String name, boolean duplicates) throws CoreException {
 		List<Object> results = null;
 		CoreException single = null;
 		MultiStatus multiStatus = null;
-		if (isFindDuplicates()) {
+		if (duplicates) {
 			results = new ArrayList<>();
 		}
-		String name = getSourceName(object);
-		if (name != null) {
-			ISourceContainer[] containers = getSourceContainers();
-			for (ISourceContainer c : containers) {
-				try {
-					ISourceContainer container = getDelegateContainer(c);
-					if (container != null) {
-						Object[] objects = container.findSourceElements(name);
-						if (objects.length > 0) {
-							//it will only not be null when we care about duplicates
-							//saves the computation in isFindDuplicates()
-							if (results != null) {
-								Collections.addAll(results, objects);
-							} else {
-								if (objects.length == 1) {
-									return objects;
-								}
-								return new Object[]{objects[0]};
+		ISourceContainer[] containers = getSourceContainers();
+		if (ParallelSourceContainerSearch.isParallel(containers)) {
+			ISourceContainer[] delegates = new ISourceContainer[containers.length];
+			for (int i = 0; i < containers.length; i++) {
+				delegates[i] = getDelegateContainer(containers[i]);
+			}
+			return ParallelSourceContainerSearch.findSourceElements(name, delegates, duplicates);
+		}
+		for (ISourceContainer c : containers) {
+			try {
+				ISourceContainer container = getDelegateContainer(c);
+				if (container != null) {
+					Object[] objects = container.findSourceElements(name);
+					if (objects.length > 0) {
+						//it will only not be null when we care about duplicates
+						//saves the computation in isFindDuplicates()
+						if (results != null) {
+							Collections.addAll(results, objects);
+						} else {
+							if (objects.length == 1) {
+								return objects;
 							}
+							return new Object[]{objects[0]};
 						}
 					}
-				} catch (CoreException e) {
-					if (single == null) {
-						single = e;
-					} else if (multiStatus == null) {
-						multiStatus = new MultiStatus(DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, new IStatus[]{single.getStatus()}, SourceLookupMessages.Source_Lookup_Error, null);
-						multiStatus.add(e.getStatus());
-					} else {
-						multiStatus.add(e.getStatus());
-					}
+				}
+			} catch (CoreException e) {
+				if (single == null) {
+					single = e;
+				} else if (multiStatus == null) {
+					multiStatus = new MultiStatus(DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, new IStatus[]{single.getStatus()}, SourceLookupMessages.Source_Lookup_Error, null);
+					multiStatus.add(e.getStatus());
+				} else {
+					multiStatus.add(e.getStatus());
 				}
 			}
 		}
@@ -124,6 +159,19 @@ public abstract class AbstractSourceLookupParticipant implements ISourceLookupPa
 		return fDirector;
 	}
 
+	/**
+	 * Returns the lookup cache of this participant's source lookup director.
+	 *
+	 * @return the lookup cache or <code>null</code> if lookups are not cached
+	 */
+	private SourceLookupCache getLookupCache() {
+		ISourceLookupDirector director = getDirector();
+		if (director instanceof AbstractSourceLookupDirector) {
+			return ((AbstractSourceLookupDirector) director).getLookupCache();
+		}
+		return null;
+	}
+
 	/**
 	 * Returns whether this participant's source lookup director is configured
 	 * to search for duplicate source elements.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2018 IBM Corporation and others.
+ * Copyright (c) 2003, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,6 +22,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.sourcelookup.ISourceContainer;
+import org.eclipse.debug.internal.core.sourcelookup.ParallelSourceContainerSearch;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupMessages;
 
 /**
@@ -73,6 +74,9 @@ public abstract class CompositeSourceContainer extends AbstractSourceContainer {
 		if (isFindDuplicates()) {
 			results = new ArrayList<>();
 		}
+		if (ParallelSourceContainerSearch.isParallel(containers)) {
+			return ParallelSourceContainerSearch.findSourceElements(name, containers, results != null);
+		}
 		for (ISourceContainer container : containers) {
 			try {
 				Object[] objects = container.findSourceElements(name);
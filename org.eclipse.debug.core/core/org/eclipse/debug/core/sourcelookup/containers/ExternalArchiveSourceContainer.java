@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,11 +17,8 @@ import java.io.File;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -30,6 +27,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.sourcelookup.ISourceContainerType;
+import org.eclipse.debug.internal.core.sourcelookup.ArchiveEntryIndex;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupMessages;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
 
@@ -44,11 +42,17 @@ import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
  */
 public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 
-	private boolean fDisposed;
+	private volatile boolean fDisposed;
 	private boolean fDetectRoots;
-	private Set<String> fPotentialRoots;
-	private List<String> fRoots = new ArrayList<>();
+	/**
+	 * Detected root paths, in order of detection. Roots cannot be nested.
+	 */
+	private final List<String> fRoots = new CopyOnWriteArrayList<>();
 	private String fArchivePath;
+	/**
+	 * Canonical path of the archive, or <code>null</code> until needed
+	 */
+	private volatile String fCanonicalArchivePath;
 	/**
 	 * Unique identifier for the external archive source container type
 	 * (value <code>org.eclipse.debug.core.containerType.externalArchive</code>).
@@ -87,150 +91,144 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 		if (file == null) {
 			return EMPTY;
 		}
-		// NOTE: archive can be closed between get (above) and synchronized block (below)
-		synchronized (file) {
+		// NOTE: archive can be closed between get (above) and searching (below)
+		try {
+			ArchiveEntryIndex index = SourceLookupUtils.getArchiveIndex(file);
 			boolean isQualfied = newname.indexOf('/') > 0;
 			if (fDetectRoots && isQualfied) {
-				ZipEntry entry = searchRoots(file, newname);
+				ZipEntry entry = searchRoots(file, index, newname);
 				if (entry != null) {
 					return new Object[]{new ZipEntryStorage(file, entry)};
 				}
 			} else {
 				// try exact match
-				ZipEntry entry = null;
-				try {
-					entry = file.getEntry(newname);
-				} catch (IllegalStateException e) {
-					// archive was closed between retrieving and locking
-					throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
-							e.getMessage(), e));
-				}
-				if (entry != null) {
-					// can't be any duplicates if there is an exact match
-					return new Object[]{new ZipEntryStorage(file, entry)};
+				if (index.containsEntry(newname) || index.containsEntry(newname + '/')) {
+					ZipEntry entry = file.getEntry(newname);
+					if (entry != null) {
+						// can't be any duplicates if there is an exact match
+						return new Object[]{new ZipEntryStorage(file, entry)};
+					}
 				}
-				// search
-				Enumeration<? extends ZipEntry> entries = file.entries();
+				// search the entries with the same file name
 				List<ZipEntryStorage> matches = null;
-				try {
-					File zipFile = new File(fArchivePath);
-					String zipFileCanonical = zipFile.getCanonicalPath();
-					while (entries.hasMoreElements()) {
-						entry = entries.nextElement();
-						String entryName = entry.getName();
-						if (entryName.endsWith(newname)) {
-							String zipEntryCanonical = (new File(zipFile, entryName)).getCanonicalPath();
-							if (!zipEntryCanonical.startsWith(zipFileCanonical + File.separator)) {
-								throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), "Invalid path: " + zipEntryCanonical)); //$NON-NLS-1$
+				for (String entryName : index.getEntryNames(ArchiveEntryIndex.getFileName(newname))) {
+					if (entryName.endsWith(newname)) {
+						checkEntryPath(entryName);
+						if (isQualfied || entryName.length() == newname.length() || entryName.charAt(entryName.length() - newname.length() - 1) == '/') {
+							ZipEntry entry = file.getEntry(entryName);
+							if (entry == null) {
+								continue;
 							}
-							if (isQualfied || entryName.length() == newname.length() || entryName.charAt(entryName.length() - newname.length() - 1) == '/') {
-								if (isFindDuplicates()) {
-									if (matches == null) {
-										matches = new ArrayList<>();
-									}
-									matches.add(new ZipEntryStorage(file, entry));
-								} else {
-									return new Object[] {
-											new ZipEntryStorage(file, entry) };
+							if (isFindDuplicates()) {
+								if (matches == null) {
+									matches = new ArrayList<>();
 								}
+								matches.add(new ZipEntryStorage(file, entry));
+							} else {
+								return new Object[] {
+										new ZipEntryStorage(file, entry) };
 							}
 						}
 					}
-				} catch (IOException e) {
-					throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), "Invalid path: " + fArchivePath)); //$NON-NLS-1$
 				}
 				if (matches != null) {
 					return matches.toArray();
 				}
 			}
+		} catch (IllegalStateException e) {
+			// archive was closed between retrieving and searching
+			throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
+					e.getMessage(), e));
 		}
 		return EMPTY;
 	}
 
 	/**
-	 * Returns the root path in this archive for the given file name, based
-	 * on its type, or <code>null</code> if none. Detects a root if a root has
-	 * not yet been detected for the given file type.
+	 * Checks that the given entry does not resolve to a location outside of
+	 * the archive.
+	 *
+	 * @param entryName name of an entry in the archive
+	 * @exception CoreException if the entry name is not valid
+	 */
+	private void checkEntryPath(String entryName) throws CoreException {
+		try {
+			File zipFile = new File(fArchivePath);
+			String zipFileCanonical = fCanonicalArchivePath;
+			if (zipFileCanonical == null) {
+				zipFileCanonical = zipFile.getCanonicalPath();
+				fCanonicalArchivePath = zipFileCanonical;
+			}
+			String zipEntryCanonical = (new File(zipFile, entryName)).getCanonicalPath();
+			if (!zipEntryCanonical.startsWith(zipFileCanonical + File.separator)) {
+				throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), "Invalid path: " + zipEntryCanonical)); //$NON-NLS-1$
+			}
+		} catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), "Invalid path: " + fArchivePath)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Returns the entry for the given file name relative to a root path in
+	 * this archive, or <code>null</code> if none. Roots detected so far are
+	 * tried first. Otherwise the root of the first entry in the archive
+	 * ending with the file name becomes a new root, unless it is nested in a
+	 * root detected before.
 	 *
 	 * @param file zip file to search in
+	 * @param index index of the zip file's entries
 	 * @param name file name
 	 * @return the {@link ZipEntry} with the given name or <code>null</code>
-	 * @exception CoreException if an exception occurs while detecting the root
 	 */
-	private synchronized ZipEntry searchRoots(ZipFile file, String name) throws CoreException {
+	private ZipEntry searchRoots(ZipFile file, ArchiveEntryIndex index, String name) {
 		if (fDisposed) {
 			return null;
 		}
-		if (fPotentialRoots == null) {
-			fPotentialRoots = new HashSet<>();
-			fPotentialRoots.add(""); //$NON-NLS-1$
-			// all potential roots are the directories
-			try {
-				Enumeration<? extends ZipEntry> entries = file.entries();
-				while (entries.hasMoreElements()) {
-					ZipEntry entry = entries.nextElement();
-					if (entry.isDirectory()) {
-						fPotentialRoots.add(entry.getName());
-					} else {
-						String entryName = entry.getName();
-						int index = entryName.lastIndexOf('/');
-						while (index > 0) {
-							if (fPotentialRoots.add(entryName.substring(0, index + 1))) {
-								entryName = entryName.substring(0, index);
-								index = entryName.lastIndexOf('/');
-							} else {
-								break;
-							}
-						}
-					}
-				}
-			} catch (IllegalStateException e) {
-				// archive was closed between retrieving and locking
-				throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
-					e.getMessage(), e));
-			}
-		}
-		int i = 0;
-		while (i < fRoots.size()) {
-			String root = fRoots.get(i);
-			ZipEntry entry = file.getEntry(root+name);
-			if (entry != null) {
-				return entry;
-			}
-			i++;
-		}
-		if (!fPotentialRoots.isEmpty()) {
-			for (String root : fPotentialRoots) {
+		for (String root : fRoots) {
+			if (index.containsEntry(root + name)) {
 				ZipEntry entry = file.getEntry(root + name);
 				if (entry != null) {
-					if (root != null) {
-						fRoots.add(root);
-						fPotentialRoots.remove(root);
-						// remove any roots that begin with the new root, as
-						// roots
-						// cannot be nested
-						Iterator<String> rs = fPotentialRoots.iterator();
-						while (rs.hasNext()) {
-							String r = rs.next();
-							if (r.startsWith(root)) {
-								rs.remove();
-							}
-						}
-					}
 					return entry;
 				}
 			}
 		}
+		for (String entryName : index.getEntryNames(ArchiveEntryIndex.getFileName(name))) {
+			if (entryName.endsWith(name)) {
+				String root = entryName.substring(0, entryName.length() - name.length());
+				if ((root.isEmpty() || root.endsWith("/")) && addRoot(root)) { //$NON-NLS-1$
+					return file.getEntry(entryName);
+				}
+			}
+		}
 		return null;
 	}
 
+	/**
+	 * Adds the given root path unless it is nested in a root path detected
+	 * before.
+	 *
+	 * @param root root path, empty or ending with <code>/</code>
+	 * @return whether the root is a detected root now
+	 */
+	private synchronized boolean addRoot(String root) {
+		if (fDisposed) {
+			return false;
+		}
+		for (String existing : fRoots) {
+			if (root.startsWith(existing)) {
+				return root.equals(existing);
+			}
+		}
+		fRoots.add(root);
+		return true;
+	}
+
 	/**
 	 * Returns the archive to search in.
 	 * @return the {@link ZipFile} to search in
 	 *
 	 * @throws CoreException if unable to access the archive
 	 */
-	private synchronized ZipFile getArchive() throws CoreException {
+	private ZipFile getArchive() throws CoreException {
 		if (fDisposed) {
 			return null;
 		}
@@ -282,9 +280,6 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 	@Override
 	public synchronized void dispose() {
 		super.dispose();
-		if (fPotentialRoots != null) {
-			fPotentialRoots.clear();
-		}
 		fRoots.clear();
 		fDisposed = true;
 	}
@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.debug.core.model.IBreakpoint;
+
+/**
+ * The breakpoints registered with the breakpoint manager, indexed by debug
+ * model identifier, marker and resource.
+ * <p>
+ * Modifications are serialized. Membership and marker lookups never block.
+ * Readers of breakpoint arrays share immutable snapshots, which are created on
+ * first access after a modification, so a sequence of modifications does not
+ * copy the registered breakpoints more than once.
+ * </p>
+ * <p>
+ * A breakpoint is indexed with the model identifier and marker it had when it
+ * was added, so it can still be removed after its marker has been deleted.
+ * </p>
+ *
+ * @since 3.20
+ */
+public class BreakpointIndex {
+
+	private static final IBreakpoint[] EMPTY = new IBreakpoint[0];
+
+	/**
+	 * The keys a breakpoint is indexed with.
+	 */
+	private static final class Entry {
+		final String fModelId;
+		final IMarker fMarker;
+		final IResource fResource;
+
+		Entry(String modelId, IMarker marker) {
+			fModelId = modelId;
+			fMarker = marker;
+			fResource = marker != null ? marker.getResource() : null;
+		}
+	}
+
+	/**
+	 * Registered breakpoints in registration order. Guarded by this index.
+	 */
+	private final LinkedHashMap<IBreakpoint, Entry> fEntries = new LinkedHashMap<>();
+
+	/**
+	 * Registered breakpoints by model identifier. Guarded by this index.
+	 */
+	private final Map<String, Set<IBreakpoint>> fByModel = new HashMap<>();
+
+	/**
+	 * Registered breakpoints by marker resource. Guarded by this index.
+	 */
+	private final Map<IResource, Set<IBreakpoint>> fByResource = new HashMap<>();
+
+	/**
+	 * Registered breakpoints for lookups without locking.
+	 */
+	private final Map<IBreakpoint, Entry> fRegistered = new ConcurrentHashMap<>();
+
+	/**
+	 * Registered breakpoints by marker.
+	 */
+	private final Map<IMarker, IBreakpoint> fByMarker = new ConcurrentHashMap<>();
+
+	/**
+	 * Snapshot of all registered breakpoints or <code>null</code> if it has to
+	 * be recreated.
+	 */
+	private volatile IBreakpoint[] fSnapshot = EMPTY;
+
+	/**
+	 * Snapshots of breakpoints per model identifier. A snapshot is discarded
+	 * when a breakpoint of its model is added or removed.
+	 */
+	private final Map<String, IBreakpoint[]> fModelSnapshots = new ConcurrentHashMap<>();
+
+	/**
+	 * Adds the given breakpoint to this index.
+	 *
+	 * @param breakpoint the breakpoint to add
+	 * @return whether the breakpoint was added, <code>false</code> if it is
+	 *         already contained
+	 */
+	public synchronized boolean add(IBreakpoint breakpoint) {
+		if (fEntries.containsKey(breakpoint)) {
+			return false;
+		}
+		Entry entry = new Entry(breakpoint.getModelIdentifier(), breakpoint.getMarker());
+		fEntries.put(breakpoint, entry);
+		fRegistered.put(breakpoint, entry);
+		if (entry.fModelId != null) {
+			fByModel.computeIfAbsent(entry.fModelId, id -> new LinkedHashSet<>()).add(breakpoint);
+			fModelSnapshots.remove(entry.fModelId);
+		}
+		if (entry.fMarker != null) {
+			fByMarker.put(entry.fMarker, breakpoint);
+		}
+		if (entry.fResource != null) {
+			fByResource.computeIfAbsent(entry.fResource, resource -> new LinkedHashSet<>()).add(breakpoint);
+		}
+		fSnapshot = null;
+		return true;
+	}
+
+	/**
+	 * Removes the given breakpoint from this index.
+	 *
+	 * @param breakpoint the breakpoint to remove
+	 * @return whether the breakpoint was removed, <code>false</code> if it is
+	 *         not contained
+	 */
+	public synchronized boolean remove(IBreakpoint breakpoint) {
+		Entry entry = fEntries.remove(breakpoint);
+		if (entry == null) {
+			return false;
+		}
+		fRegistered.remove(breakpoint);
+		if (entry.fModelId != null) {
+			removeFrom(fByModel, entry.fModelId, breakpoint);
+			fModelSnapshots.remove(entry.fModelId);
+		}
+		if (entry.fMarker != null) {
+			fByMarker.remove(entry.fMarker, breakpoint);
+		}
+		if (entry.fResource != null) {
+			removeFrom(fByResource, entry.fResource, breakpoint);
+		}
+		fSnapshot = null;
+		return true;
+	}
+
+	private static <K> void removeFrom(Map<K, Set<IBreakpoint>> index, K key, IBreakpoint breakpoint) {
+		Set<IBreakpoint> breakpoints = index.get(key);
+		if (breakpoints != null && breakpoints.remove(breakpoint) && breakpoints.isEmpty()) {
+			index.remove(key);
+		}
+	}
+
+	/**
+	 * Removes all breakpoints from this index.
+	 */
+	public synchronized void clear() {
+		fEntries.clear();
+		fRegistered.clear();
+		fByModel.clear();
+		fByMarker.clear();
+		fByResource.clear();
+		fModelSnapshots.clear();
+		fSnapshot = EMPTY;
+	}
+
+	/**
+	 * Returns whether the given breakpoint is contained in this index.
+	 *
+	 * @param breakpoint a breakpoint
+	 * @return whether the breakpoint is contained
+	 */
+	public boolean contains(IBreakpoint breakpoint) {
+		return breakpoint != null && fRegistered.containsKey(breakpoint);
+	}
+
+	/**
+	 * Returns whether this index is empty.
+	 *
+	 * @return whether no breakpoint is contained
+	 */
+	public boolean isEmpty() {
+		return fRegistered.isEmpty();
+	}
+
+	/**
+	 * Returns the number of breakpoints in this index.
+	 *
+	 * @return number of breakpoints
+	 */
+	public int size() {
+		return fRegistered.size();
+	}
+
+	/**
+	 * Returns the breakpoint associated with the given marker.
+	 *
+	 * @param marker a marker
+	 * @return the breakpoint of the marker or <code>null</code> if none
+	 */
+	public IBreakpoint getBreakpoint(IMarker marker) {
+		return marker != null ? fByMarker.get(marker) : null;
+	}
+
+	/**
+	 * Returns all breakpoints in registration order. The returned array is
+	 * shared and must not be modified.
+	 *
+	 * @return all breakpoints
+	 */
+	public IBreakpoint[] getSnapshot() {
+		IBreakpoint[] snapshot = fSnapshot;
+		if (snapshot == null) {
+			synchronized (this) {
+				snapshot = fSnapshot;
+				if (snapshot == null) {
+					snapshot = fEntries.keySet().toArray(new IBreakpoint[fEntries.size()]);
+					fSnapshot = snapshot;
+				}
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Returns all breakpoints in registration order.
+	 *
+	 * @return a new array with all breakpoints
+	 */
+	public IBreakpoint[] getBreakpoints() {
+		return getSnapshot().clone();
+	}
+
+	/**
+	 * Returns the breakpoints of the given debug model in registration order.
+	 *
+	 * @param modelIdentifier a debug model identifier
+	 * @return a new array with the breakpoints of the model
+	 */
+	public IBreakpoint[] getBreakpoints(String modelIdentifier) {
+		if (modelIdentifier == null) {
+			return EMPTY;
+		}
+		IBreakpoint[] snapshot = fModelSnapshots.get(modelIdentifier);
+		if (snapshot == null) {
+			synchronized (this) {
+				Set<IBreakpoint> breakpoints = fByModel.get(modelIdentifier);
+				if (breakpoints == null) {
+					return EMPTY;
+				}
+				snapshot = breakpoints.toArray(new IBreakpoint[breakpoints.size()]);
+				fModelSnapshots.put(modelIdentifier, snapshot);
+			}
+		}
+		return snapshot.clone();
+	}
+
+	/**
+	 * Returns the breakpoints whose marker is on the given resource.
+	 *
+	 * @param resource a resource
+	 * @return a new array with the breakpoints on the resource
+	 */
+	public synchronized IBreakpoint[] getBreakpoints(IResource resource) {
+		Set<IBreakpoint> breakpoints = fByResource.get(resource);
+		if (breakpoints == null) {
+			return EMPTY;
+		}
+		return breakpoints.toArray(new IBreakpoint[breakpoints.size()]);
+	}
+
+	/**
+	 * Returns the breakpoints whose marker is on the given resource or one of
+	 * its descendants.
+	 *
+	 * @param container a resource
+	 * @return a new list with the breakpoints on the resource or its
+	 *         descendants
+	 */
+	public synchronized List<IBreakpoint> getBreakpointsBelow(IResource container) {
+		List<IBreakpoint> result = new ArrayList<>();
+		for (Map.Entry<IResource, Set<IBreakpoint>> entry : fByResource.entrySet()) {
+			if (container.getFullPath().isPrefixOf(entry.getKey().getFullPath())) {
+				result.addAll(entry.getValue());
+			}
+		}
+		return result;
+	}
+}
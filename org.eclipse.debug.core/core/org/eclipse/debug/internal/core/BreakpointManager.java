@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2020 IBM Corporation and others.
+ *  Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -15,14 +15,17 @@ package org.eclipse.debug.internal.core;
 
 
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Vector;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IMarkerDelta;
@@ -77,9 +80,10 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	private final static int CHANGED = 2;
 
 	/**
-	 * A collection of breakpoints registered with this manager.
+	 * A collection of breakpoints registered with this manager, indexed by
+	 * model identifier, marker and resource.
 	 */
-	private Vector<IBreakpoint> fBreakpoints;
+	private volatile BreakpointIndex fBreakpoints;
 
 	/**
 	 * Map of breakpoint import participants.
@@ -125,13 +129,6 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 */
 	private final HashMap<String, IConfigurationElement> fBreakpointExtensions;
 
-	/**
-	 * Collection of markers that associates markers to breakpoints
-	 * key: a marker
-	 * value: the breakpoint which contains that marker
-	 */
-	private final HashMap<IMarker, IBreakpoint> fMarkersToBreakpoints;
-
 	/**
 	 * Collection of breakpoint listeners.
 	 */
@@ -148,6 +145,33 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 */
 	private static BreakpointManagerVisitor fgVisitor;
 
+	/**
+	 * Maximum number of breakpoint changes of a single resource change event
+	 * whose listeners are notified in the resource change thread. Listeners
+	 * are notified of larger batches by the {@link BreakpointNotificationJob}.
+	 */
+	private static final int MAX_INLINE_BATCH_SIZE = 100;
+
+	/**
+	 * Notifications waiting to be fired by the {@link #fNotificationJob}, in
+	 * the order of the changes they report.
+	 */
+	private final ArrayDeque<BreakpointNotification> fPendingNotifications = new ArrayDeque<>();
+
+	/**
+	 * Whether the {@link #fNotificationJob} has notifications to fire. While
+	 * set, notifications of resource changes are queued, and notifications of
+	 * API calls first fire the queued notifications in the calling thread, so
+	 * that listeners receive them in order. Guarded by
+	 * {@link #fPendingNotifications}.
+	 */
+	private boolean fNotificationsPending = false;
+
+	/**
+	 * Job firing the notifications of large batches of breakpoint changes.
+	 */
+	private final BreakpointNotificationJob fNotificationJob = new BreakpointNotificationJob();
+
 	/**
 	 * Collection of breakpoint manager listeners which are
 	 * notified when this manager's state changes.
@@ -259,7 +283,6 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 * Constructs a new breakpoint manager.
 	 */
 	public BreakpointManager() {
-		fMarkersToBreakpoints = new HashMap<>(10);
 		fBreakpointExtensions = new HashMap<>(15);
 	}
 
@@ -272,6 +295,19 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 */
 	private void loadBreakpoints(IResource resource, boolean notify) throws CoreException {
 		initBreakpointExtensions();
+		List<IBreakpoint> added = createBreakpoints(resource);
+		addBreakpoints(added.toArray(new IBreakpoint[added.size()]), notify);
+	}
+
+	/**
+	 * Creates breakpoints for the persisted markers on the given resource
+	 * without registering them.
+	 *
+	 * @param resource the resource which contains the breakpoints
+	 * @return the created breakpoints which are to be registered
+	 * @throws CoreException if a problem is encountered
+	 */
+	private List<IBreakpoint> createBreakpoints(IResource resource) throws CoreException {
 		List<IBreakpoint> added = new ArrayList<>();
 		for (IMarker marker : getPersistedMarkers(resource)) {
 			try {
@@ -290,7 +326,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 				DebugPlugin.log(e);
 			}
 		}
-		addBreakpoints(added.toArray(new IBreakpoint[added.size()]), notify);
+		return added;
 	}
 
 	/**
@@ -347,6 +383,11 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	public void shutdown() {
 		getWorkspace().removeResourceChangeListener(this);
 		getWorkspace().removeResourceChangeListener(fPostChangeListener);
+		fNotificationJob.cancel();
+		synchronized (fPendingNotifications) {
+			fPendingNotifications.clear();
+			fNotificationsPending = false;
+		}
 		fBreakpointListeners.clear();
 		fBreakpointsListeners.clear();
 		fBreakpointManagerListeners.clear();
@@ -359,9 +400,6 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 			fBreakpoints.clear();
 			fBreakpoints = null;
 		}
-		if(fMarkersToBreakpoints != null) {
-			fMarkersToBreakpoints.clear();
-		}
 	}
 
 	/**
@@ -397,19 +435,12 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	@Override
 	public IBreakpoint getBreakpoint(IMarker marker) {
 		// ensure that breakpoints are initialized
-		getBreakpoints0();
-		return fMarkersToBreakpoints.get(marker);
+		return getBreakpoints0().getBreakpoint(marker);
 	}
 
 	@Override
 	public IBreakpoint[] getBreakpoints() {
-		IBreakpoint[] temp = new IBreakpoint[0];
-		Vector<IBreakpoint> breakpoints = getBreakpoints0();
-		synchronized (breakpoints) {
-			temp = new IBreakpoint[breakpoints.size()];
-			breakpoints.copyInto(temp);
-		}
-		return temp;
+		return getBreakpoints0().getBreakpoints();
 	}
 
 	/**
@@ -430,9 +461,9 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 * The BreakpointManager waits to load the breakpoints
 	 * of the workspace until a request is made to retrieve the
 	 * breakpoints.
-	 * @return the underlying {@link Vector} of breakpoints
+	 * @return the underlying {@link BreakpointIndex} of breakpoints
 	 */
-	private synchronized Vector<IBreakpoint> getBreakpoints0() {
+	private synchronized BreakpointIndex getBreakpoints0() {
 		if (fBreakpoints == null) {
 			initializeBreakpoints();
 		}
@@ -441,17 +472,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 
 	@Override
 	public IBreakpoint[] getBreakpoints(String modelIdentifier) {
-		Vector<IBreakpoint> allBreakpoints = getBreakpoints0();
-		synchronized (allBreakpoints) {
-			ArrayList<IBreakpoint> temp = new ArrayList<>(allBreakpoints.size());
-			for (IBreakpoint breakpoint : allBreakpoints) {
-				String id= breakpoint.getModelIdentifier();
-				if (id != null && id.equals(modelIdentifier)) {
-					temp.add(breakpoint);
-				}
-			}
-			return temp.toArray(new IBreakpoint[temp.size()]);
-		}
+		return getBreakpoints0().getBreakpoints(modelIdentifier);
 	}
 
 	/**
@@ -459,14 +480,14 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 * workspace. Start listening to resource deltas.
 	 */
 	private void initializeBreakpoints() {
-		setBreakpoints(new Vector<>(10));
+		setBreakpoints(new BreakpointIndex());
 		try {
 			loadBreakpoints(getWorkspace().getRoot(), false);
 			getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_BUILD);
 			getWorkspace().addResourceChangeListener(fPostChangeListener, IResourceChangeEvent.POST_CHANGE);
 		} catch (CoreException ce) {
 			DebugPlugin.log(ce);
-			setBreakpoints(new Vector<>(0));
+			setBreakpoints(new BreakpointIndex());
 		}
 	}
 
@@ -492,8 +513,21 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 */
 	@Override
 	public void removeBreakpoints(IBreakpoint[] breakpoints, final boolean delete) throws CoreException {
-		final List<IBreakpoint> remove = new ArrayList<>(breakpoints.length);
-		List<IBreakpoint> bps = getBreakpoints0();
+		List<IBreakpoint> list = Arrays.asList(breakpoints);
+		removeBreakpoints(list, delete ? new HashSet<>(list) : Collections.emptySet(), false);
+	}
+
+	/**
+	 * Deregisters the given breakpoints and notifies listeners once.
+	 *
+	 * @param breakpoints the breakpoints to remove
+	 * @param deleted the breakpoints to delete, others are only deregistered
+	 * @param defer whether to notify listeners in the background
+	 * @throws CoreException if a problem is encountered
+	 */
+	private void removeBreakpoints(Collection<IBreakpoint> breakpoints, final Set<IBreakpoint> deleted, boolean defer) throws CoreException {
+		final List<IBreakpoint> remove = new ArrayList<>(breakpoints.size());
+		BreakpointIndex bps = getBreakpoints0();
 		for (IBreakpoint breakpoint : breakpoints) {
 			if (bps.contains(breakpoint)) {
 				remove.add(breakpoint);
@@ -502,15 +536,14 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		if (!remove.isEmpty()) {
 			for (IBreakpoint breakpoint : remove) {
 				bps.remove(breakpoint);
-				fMarkersToBreakpoints.remove(breakpoint.getMarker());
 				// If the breakpoint is a trigger point, remove else do nothing.
 				removeTriggerPoint(breakpoint);
 			}
-			fireUpdate(remove, null, REMOVED);
+			fireUpdate(remove, null, REMOVED, defer);
 			refreshTriggerpointDisplay();
 			IWorkspaceRunnable r = monitor -> {
 				for (IBreakpoint breakpoint : remove) {
-					if (delete) {
+					if (deleted.contains(breakpoint)) {
 						breakpoint.delete();
 					} else {
 						// if the breakpoint is being removed from the manager
@@ -547,7 +580,8 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 * </ol>
 	 */
 	public IBreakpoint createBreakpoint(IMarker marker) throws DebugException {
-		IBreakpoint breakpoint= fMarkersToBreakpoints.get(marker);
+		BreakpointIndex breakpoints = fBreakpoints;
+		IBreakpoint breakpoint = breakpoints != null ? breakpoints.getBreakpoint(marker) : null;
 		if (breakpoint != null) {
 			return breakpoint;
 		}
@@ -594,6 +628,18 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 * @throws CoreException if a problem is encountered
 	 */
 	private void addBreakpoints(IBreakpoint[] breakpoints, boolean notify) throws CoreException {
+		addBreakpoints(breakpoints, notify, false);
+	}
+
+	/**
+	 * Registers the given breakpoints and notifies listeners if specified.
+	 *
+	 * @param breakpoints the breakpoints to register
+	 * @param notify whether to notify listeners of the add
+	 * @param defer whether to notify listeners in the background
+	 * @throws CoreException if a problem is encountered
+	 */
+	private void addBreakpoints(IBreakpoint[] breakpoints, boolean notify, boolean defer) throws CoreException {
 		List<IBreakpoint> added = new ArrayList<>(breakpoints.length);
 		final List<IBreakpoint> update = new ArrayList<>();
 		for (IBreakpoint breakpoint : breakpoints) {
@@ -603,7 +649,6 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 					// If notify == false, the breakpoints are just being added at startup
 					added.add(breakpoint);
 					getBreakpoints0().add(breakpoint);
-					fMarkersToBreakpoints.put(breakpoint.getMarker(), breakpoint);
 					if (breakpoint instanceof ITriggerPoint && ((ITriggerPoint) breakpoint).isTriggerPoint()) {
 						addTriggerPoint(breakpoint);
 					}
@@ -615,15 +660,14 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 			}
 		}
 		if (notify) {
-			fireUpdate(added, null, ADDED);
+			fireUpdate(added, null, ADDED, defer);
 		}
 		if (!update.isEmpty()) {
 			IWorkspaceRunnable r = monitor -> {
-				List<IBreakpoint> bps = getBreakpoints0();
+				BreakpointIndex bps = getBreakpoints0();
 				for (IBreakpoint breakpoint : update) {
 					bps.add(breakpoint);
 					breakpoint.setRegistered(true);
-					fMarkersToBreakpoints.put(breakpoint.getMarker(), breakpoint);
 				}
 			};
 			// Need to suppress change notification, since this is really
@@ -632,7 +676,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 			getWorkspace().run(r, null, 0, null);
 			fSuppressChange.removeAll(update);
 			if (notify) {
-				fireUpdate(update, null, ADDED);
+				fireUpdate(update, null, ADDED, defer);
 			}
 		}
 	}
@@ -679,7 +723,8 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	}
 
 	/**
-	 * A resource has changed. Traverses the delta for breakpoint changes.
+	 * A resource has changed. Traverses the delta for breakpoint changes and
+	 * processes them as one batch.
 	 *
 	 * @param event resource change event
 	 */
@@ -700,47 +745,58 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	}
 
 	/**
-	 * Visitor for handling resource deltas
+	 * Breakpoint changes collected from the marker deltas of one resource
+	 * change event. Collecting only classifies the marker deltas, creating
+	 * breakpoints, updating markers and notifying listeners is deferred to
+	 * {@link #process(boolean)}, which fires at most one notification per
+	 * kind of change.
 	 */
-	class BreakpointManagerVisitor implements IResourceDeltaVisitor {
+	class BreakpointDeltaBatch {
 		/**
 		 * Moved markers
 		 */
-		private List<IMarker> fMoved = new ArrayList<>();
+		private final List<IMarker> fMoved = new ArrayList<>();
+
 		/**
 		 * Removed breakpoints
 		 */
-		private List<IBreakpoint> fRemoved = new ArrayList<>();
+		private final Set<IBreakpoint> fRemoved = new LinkedHashSet<>();
 
 		/**
-		 * Added breakpoints.
-		 * @since 3.7
+		 * Markers of deleted breakpoints which have been restored, e.g. by
+		 * undo
 		 */
-		private List<IBreakpoint> fAdded = new ArrayList<>();
+		private final List<IMarker> fRestored = new ArrayList<>();
+
+		/**
+		 * Projects which have been opened
+		 */
+		private final List<IResource> fOpened = new ArrayList<>();
 
 		/**
 		 * Changed breakpoints and associated marker deltas
 		 */
-		private List<IBreakpoint> fChanged = new ArrayList<>();
-		private List<IMarkerDelta> fChangedDeltas = new ArrayList<>();
+		private final List<IBreakpoint> fChanged = new ArrayList<>();
+		private final List<IMarkerDelta> fChangedDeltas = new ArrayList<>();
 
 		/**
-		 * Resets the visitor for a delta traversal - empties
-		 * collections of removed/changed breakpoints.
+		 * Returns the number of collected changes.
+		 *
+		 * @return number of collected changes
 		 */
-		protected void reset() {
-			fMoved.clear();
-			fRemoved.clear();
-			fAdded.clear();
-			fChanged.clear();
-			fChangedDeltas.clear();
+		int size() {
+			return fMoved.size() + fRemoved.size() + fRestored.size() + fOpened.size() + fChanged.size();
 		}
 
 		/**
-		 * Performs updates on accumulated changes, and fires change notification after
-		 * a traversal. Accumulated updates are reset.
+		 * Performs updates on the collected changes and fires change
+		 * notification. The state of the manager is always updated in the
+		 * calling thread, so that later resource changes are classified
+		 * against it.
+		 *
+		 * @param defer whether to notify listeners in the background
 		 */
-		public void update() {
+		void process(boolean defer) {
 			if (!fMoved.isEmpty()) {
 				// delete moved markers
 				IWorkspaceRunnable wRunnable= monitor -> {
@@ -753,31 +809,161 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 				} catch (CoreException e) {
 				}
 			}
-			if (!fRemoved.isEmpty()) {
+
+			List<IBreakpoint> restored = new ArrayList<>(fRestored.size());
+			Set<IBreakpoint> deleted = new LinkedHashSet<>();
+			for (IMarker marker : fRestored) {
+				if (getBreakpoint(marker) == null) {
+					try {
+						// There may be breakpoints with matching resource and
+						// same line number
+						IBreakpoint breakpoint = findMatchingBreakpoint(marker);
+						if (breakpoint != null && !fRemoved.contains(breakpoint)) {
+							deleted.add(breakpoint);
+						}
+						restored.add(createBreakpoint(marker));
+					} catch (CoreException e) {
+						DebugPlugin.log(e);
+					}
+				}
+			}
+
+			if (!fRemoved.isEmpty() || !deleted.isEmpty()) {
+				List<IBreakpoint> removed = new ArrayList<>(fRemoved);
+				removed.addAll(deleted);
 				try {
-					removeBreakpoints(fRemoved.toArray(new IBreakpoint[fRemoved.size()]), false);
+					removeBreakpoints(removed, deleted, defer);
 				} catch (CoreException e) {
 					DebugPlugin.log(e);
 				}
 			}
-			if (!fAdded.isEmpty()) {
+
+			List<IBreakpoint> added = new ArrayList<>(restored);
+			for (IResource project : fOpened) {
 				try {
-					IWorkspaceRunnable runnable= monitor -> {
-						for (IBreakpoint breakpoint : fAdded) {
-							breakpoint.getMarker().setAttribute(DebugPlugin.ATTR_BREAKPOINT_IS_DELETED, false);
-							breakpoint.setRegistered(true);
-						}
-					};
-					getWorkspace().run(runnable, null, 0, null);
-					addBreakpoints(fAdded.toArray(new IBreakpoint[fAdded.size()]), true);
+					initBreakpointExtensions();
+					added.addAll(createBreakpoints(project));
 				} catch (CoreException e) {
 					DebugPlugin.log(e);
 				}
 			}
+			if (!added.isEmpty()) {
+				try {
+					if (!restored.isEmpty()) {
+						IWorkspaceRunnable runnable= monitor -> {
+							for (IBreakpoint breakpoint : restored) {
+								breakpoint.getMarker().setAttribute(DebugPlugin.ATTR_BREAKPOINT_IS_DELETED, false);
+								breakpoint.setRegistered(true);
+							}
+						};
+						getWorkspace().run(runnable, null, 0, null);
+					}
+					addBreakpoints(added.toArray(new IBreakpoint[added.size()]), true, defer);
+				} catch (CoreException e) {
+					DebugPlugin.log(e);
+				}
+			}
+
 			if (!fChanged.isEmpty()) {
-				fireUpdate(fChanged, fChangedDeltas, CHANGED);
+				List<IBreakpoint> changed = new ArrayList<>(fChanged.size());
+				List<IMarkerDelta> changedDeltas = new ArrayList<>(fChanged.size());
+				for (int i = 0; i < fChanged.size(); i++) {
+					IBreakpoint breakpoint = fChanged.get(i);
+					if (isRegistered(breakpoint)) {
+						changed.add(breakpoint);
+						changedDeltas.add(fChangedDeltas.get(i));
+					}
+				}
+				fireUpdate(changed, changedDeltas, CHANGED, defer);
 			}
+		}
+	}
+
+	/**
+	 * A notification of breakpoint changes queued for the
+	 * {@link BreakpointNotificationJob}.
+	 */
+	private static class BreakpointNotification {
+		final IBreakpoint[] fBreakpoints;
+		final IMarkerDelta[] fDeltas;
+		final int fUpdate;
+
+		BreakpointNotification(IBreakpoint[] breakpoints, IMarkerDelta[] deltas, int update) {
+			fBreakpoints = breakpoints;
+			fDeltas = deltas;
+			fUpdate = update;
+		}
+	}
+
+	/**
+	 * Serially fires the queued notifications of batches of breakpoint
+	 * changes which are too large to be reported in the resource change
+	 * thread.
+	 */
+	class BreakpointNotificationJob extends Job {
+
+		BreakpointNotificationJob() {
+			super("breakpoint notification job"); //$NON-NLS-1$
+			setSystem(true);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			firePendingNotifications();
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == BreakpointManager.this;
+		}
+	}
+
+	/**
+	 * Fires the queued notifications in the calling thread, in order.
+	 */
+	private void firePendingNotifications() {
+		while (true) {
+			BreakpointNotification notification;
+			synchronized (fPendingNotifications) {
+				notification = fPendingNotifications.poll();
+				if (notification == null) {
+					fNotificationsPending = false;
+					return;
+				}
+			}
+			fireNotification(notification.fBreakpoints, notification.fDeltas, notification.fUpdate);
+		}
+	}
+
+	/**
+	 * Visitor for handling resource deltas
+	 */
+	class BreakpointManagerVisitor implements IResourceDeltaVisitor {
+
+		/**
+		 * Changes collected from the current delta
+		 */
+		private BreakpointDeltaBatch fBatch = new BreakpointDeltaBatch();
+
+		/**
+		 * Resets the visitor for a delta traversal - discards collected
+		 * changes.
+		 */
+		protected void reset() {
+			fBatch = new BreakpointDeltaBatch();
+		}
+
+		/**
+		 * Performs updates on accumulated changes, and fires change notification after
+		 * a traversal. Accumulated updates are reset.
+		 */
+		public void update() {
+			BreakpointDeltaBatch batch = fBatch;
 			reset();
+			if (batch.size() > 0) {
+				batch.process(batch.size() > MAX_INLINE_BATCH_SIZE);
+			}
 		}
 
 		/**
@@ -825,7 +1011,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 				// from the Breakpoint manager during the remove callback.
 				// Schedule the marker associated with the new resource for deletion.
 				if (getBreakpoint(marker) == null) {
-					fMoved.add(marker);
+					fBatch.fMoved.add(marker);
 				}
 			} else {
 				// check if the an add & change have be combined into one add notification
@@ -834,46 +1020,13 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 						handleChangeBreakpoint(marker, mDelta);
 						fPostChangMarkersChanged.remove(marker);
 					} else if (marker.getAttribute(DebugPlugin.ATTR_BREAKPOINT_IS_DELETED, false) && getBreakpoint(marker) == null) {
-						try { /*
-							 * There may be breakpoints with matching resource
-							 * and same line number
-							 */
-							IBreakpoint breakpoint = findMatchingBreakpoint(marker);
-							if (breakpoint != null) {
-								removeBreakpoint(breakpoint, true);
-							}
-							fAdded.add(createBreakpoint(marker));
-						} catch (CoreException e) {
-							DebugPlugin.log(e);
-						}
+						fBatch.fRestored.add(marker);
 					}
 					fPostBuildMarkersAdded.add(marker);
 				}
 			}
 		}
 
-		/**
-		 * To find a breakpoint with matching marker resources and line number.
-		 *
-		 * @param marker the {@link IMarker} for which existing breakpoint is
-		 *            retrieved
-		 * @return matching breakpoint if exists else return <code>null</code>
-		 */
-		private IBreakpoint findMatchingBreakpoint(IMarker marker) {
-			try {
-				Integer line = (Integer) marker.getAttribute(IMarker.LINE_NUMBER);
-				for (IBreakpoint breakpoint : getBreakpoints0()) {
-					IMarker bpMarker = breakpoint.getMarker();
-					if (bpMarker != null && marker.getResource().equals(bpMarker.getResource()) && bpMarker.getAttribute(IMarker.LINE_NUMBER, -1) == (line == null ? -1 : line.intValue())) {
-						return breakpoint;
-					}
-				}
-			} catch (CoreException e) {
-				// ignore
-			}
-			return null;
-		}
-
 		/**
 		 * Wrapper for handling removes
 		 * @param marker the {@link IMarker}
@@ -885,7 +1038,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 			}
 			IBreakpoint breakpoint= getBreakpoint(marker);
 			if (breakpoint != null) {
-				fRemoved.add(breakpoint);
+				fBatch.fRemoved.add(breakpoint);
 			}
 		}
 
@@ -897,8 +1050,8 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		protected void handleChangeBreakpoint(IMarker marker, IMarkerDelta delta) {
 			IBreakpoint breakpoint= getBreakpoint(marker);
 			if (breakpoint != null && isRegistered(breakpoint) && !isChangeSuppressed(breakpoint)) {
-				fChanged.add(breakpoint);
-				fChangedDeltas.add(delta);
+				fBatch.fChanged.add(breakpoint);
+				fBatch.fChangedDeltas.add(delta);
 			}
 		}
 
@@ -910,20 +1063,33 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		private void handleProjectResourceOpenStateChange(final IResource project) {
 			if (!project.isAccessible()) {
 				//closed
-				for (@SuppressWarnings("unchecked") IBreakpoint breakpoint : (Vector<IBreakpoint>) getBreakpoints0().clone()) {
-					IResource markerResource= breakpoint.getMarker().getResource();
-					if (project.getFullPath().isPrefixOf(markerResource.getFullPath())) {
-						fRemoved.add(breakpoint);
-					}
-				}
+				fBatch.fRemoved.addAll(getBreakpoints0().getBreakpointsBelow(project));
 				return;
 			}
-			try {
-				loadBreakpoints(project, true);
-			} catch (CoreException e) {
-				DebugPlugin.log(e);
+			fBatch.fOpened.add(project);
+		}
+	}
+
+	/**
+	 * To find a breakpoint with matching marker resources and line number.
+	 *
+	 * @param marker the {@link IMarker} for which existing breakpoint is
+	 *            retrieved
+	 * @return matching breakpoint if exists else return <code>null</code>
+	 */
+	private IBreakpoint findMatchingBreakpoint(IMarker marker) {
+		try {
+			Integer line = (Integer) marker.getAttribute(IMarker.LINE_NUMBER);
+			for (IBreakpoint breakpoint : getBreakpoints0().getBreakpoints(marker.getResource())) {
+				IMarker bpMarker = breakpoint.getMarker();
+				if (bpMarker != null && bpMarker.getAttribute(IMarker.LINE_NUMBER, -1) == (line == null ? -1 : line.intValue())) {
+					return breakpoint;
+				}
 			}
+		} catch (CoreException e) {
+			// ignore
 		}
+		return null;
 	}
 
 	/**
@@ -950,6 +1116,22 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 * @param update type of change
 	 */
 	private void fireUpdate(List<IBreakpoint> breakpoints, List<IMarkerDelta> deltas, int update) {
+		fireUpdate(breakpoints, deltas, update, false);
+	}
+
+	/**
+	 * Notifies listeners of the adds/removes/changes, in the calling thread
+	 * or in the background. Notifications which are not deferred are always
+	 * fired in the calling thread, after the notifications waiting in the
+	 * background, so that listeners receive them in order.
+	 *
+	 * @param breakpoints associated breakpoints
+	 * @param deltas or <code>null</code>
+	 * @param update type of change
+	 * @param defer whether to notify listeners in the background; only used
+	 *            for notifications of resource changes
+	 */
+	private void fireUpdate(List<IBreakpoint> breakpoints, List<IMarkerDelta> deltas, int update, boolean defer) {
 		if (breakpoints.isEmpty()) {
 			return;
 		}
@@ -958,6 +1140,32 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		if (deltas != null) {
 			deltaArray = deltas.toArray(deltaArray);
 		}
+		boolean pending;
+		synchronized (fPendingNotifications) {
+			if (defer) {
+				fPendingNotifications.add(new BreakpointNotification(bpArray, deltaArray, update));
+				if (!fNotificationsPending) {
+					fNotificationsPending = true;
+					fNotificationJob.schedule();
+				}
+				return;
+			}
+			pending = fNotificationsPending;
+		}
+		if (pending) {
+			firePendingNotifications();
+		}
+		fireNotification(bpArray, deltaArray, update);
+	}
+
+	/**
+	 * Notifies single and plural breakpoint listeners.
+	 *
+	 * @param bpArray associated breakpoints
+	 * @param deltaArray associated marker deltas
+	 * @param update type of change
+	 */
+	private void fireNotification(IBreakpoint[] bpArray, IMarkerDelta[] deltaArray, int update) {
 		// single listeners
 		getBreakpointNotifier().notify(bpArray, deltaArray, update);
 
@@ -965,7 +1173,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		getBreakpointsNotifier().notify(bpArray, deltaArray, update);
 	}
 
-	protected void setBreakpoints(Vector<IBreakpoint> breakpoints) {
+	protected void setBreakpoints(BreakpointIndex breakpoints) {
 		fBreakpoints = breakpoints;
 	}
 
@@ -0,0 +1,361 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugEventSubscription;
+import org.eclipse.debug.core.IDebugEventSetListener;
+
+/**
+ * Registry of debug event set listeners and their subscriptions.
+ * <p>
+ * Listeners are kept in registration order in a copy-on-write array. For each
+ * combination of standard event kinds present in an event set, the listeners
+ * whose subscription includes at least one of those kinds or subscribes to all
+ * kinds are computed once and cached, so dispatch only visits interested
+ * listeners. Event sets without any standard kind, for example events of
+ * kind <code>0</code>, are offered to all listeners. The cache is discarded
+ * whenever a listener is added or removed.
+ * </p>
+ * <p>
+ * For every listener a histogram of the time spent in
+ * {@link IDebugEventSetListener#handleDebugEvents(DebugEvent[])} is
+ * maintained, to identify slow listeners.
+ * </p>
+ *
+ * @since 3.20
+ */
+public class DebugEventListenerIndex {
+
+	/**
+	 * Number of distinct standard event kind combinations.
+	 */
+	private static final int KIND_COMBINATIONS = DebugEventSubscription.ANY_KIND + 1;
+
+	private static final Registration[] EMPTY = new Registration[0];
+
+	/**
+	 * The index used by the debug plug-in.
+	 */
+	private static final DebugEventListenerIndex fgDefault = new DebugEventListenerIndex();
+
+	/**
+	 * Histogram of listener dispatch times. Bucket <code>i</code> counts
+	 * notifications that took less than <code>2^i</code> microseconds, the
+	 * last bucket counts all slower notifications.
+	 */
+	public static final class DispatchHistogram {
+
+		/**
+		 * Number of buckets in a histogram.
+		 */
+		public static final int BUCKETS = 24;
+
+		private final AtomicLongArray fBuckets = new AtomicLongArray(BUCKETS);
+		private final AtomicLongArray fTotals = new AtomicLongArray(3);
+
+		void record(long nanos) {
+			long micros = nanos / 1000;
+			int bucket = micros == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+			fBuckets.incrementAndGet(bucket);
+			fTotals.incrementAndGet(0);
+			fTotals.addAndGet(1, nanos);
+			long max;
+			while ((max = fTotals.get(2)) < nanos && !fTotals.compareAndSet(2, max, nanos)) {
+				// retry
+			}
+		}
+
+		/**
+		 * Returns the number of notifications recorded in the given bucket.
+		 *
+		 * @param bucket bucket index
+		 * @return number of notifications
+		 */
+		public long getCount(int bucket) {
+			return fBuckets.get(bucket);
+		}
+
+		/**
+		 * Returns the number of notifications recorded.
+		 *
+		 * @return number of notifications
+		 */
+		public long getCount() {
+			return fTotals.get(0);
+		}
+
+		/**
+		 * Returns the total time in nanoseconds spent in notifications.
+		 *
+		 * @return total dispatch time in nanoseconds
+		 */
+		public long getTotalTime() {
+			return fTotals.get(1);
+		}
+
+		/**
+		 * Returns the longest time in nanoseconds spent in a single
+		 * notification.
+		 *
+		 * @return maximum dispatch time in nanoseconds
+		 */
+		public long getMaxTime() {
+			return fTotals.get(2);
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder buffer = new StringBuilder();
+			buffer.append("count=").append(getCount()); //$NON-NLS-1$
+			buffer.append(", totalNs=").append(getTotalTime()); //$NON-NLS-1$
+			buffer.append(", maxNs=").append(getMaxTime()); //$NON-NLS-1$
+			buffer.append(", buckets(us)=["); //$NON-NLS-1$
+			for (int i = 0; i < BUCKETS; i++) {
+				long count = getCount(i);
+				if (count > 0) {
+					buffer.append(" <").append(1L << i).append(':').append(count); //$NON-NLS-1$
+				}
+			}
+			return buffer.append(" ]").toString(); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * A registered listener with its subscription and dispatch statistics.
+	 */
+	public static final class Registration {
+		private final IDebugEventSetListener fListener;
+		private final DebugEventSubscription fSubscription;
+		private final boolean fMatchesAll;
+		private final DispatchHistogram fHistogram = new DispatchHistogram();
+
+		Registration(IDebugEventSetListener listener, DebugEventSubscription subscription) {
+			fListener = listener;
+			fSubscription = subscription;
+			fMatchesAll = subscription.matchesAll();
+		}
+
+		/**
+		 * Returns the registered listener.
+		 *
+		 * @return listener
+		 */
+		public IDebugEventSetListener getListener() {
+			return fListener;
+		}
+
+		/**
+		 * Returns the subscription of the listener.
+		 *
+		 * @return subscription
+		 */
+		public DebugEventSubscription getSubscription() {
+			return fSubscription;
+		}
+
+		/**
+		 * Returns whether the listener is interested in the given event set.
+		 *
+		 * @param events debug events
+		 * @return whether the listener should be notified
+		 */
+		public boolean accepts(DebugEvent[] events) {
+			return fMatchesAll || fSubscription.matches(events);
+		}
+
+		/**
+		 * Records the time spent notifying the listener.
+		 *
+		 * @param nanos dispatch time in nanoseconds
+		 */
+		public void recordDispatch(long nanos) {
+			fHistogram.record(nanos);
+		}
+
+		/**
+		 * Returns the dispatch time histogram of the listener.
+		 *
+		 * @return dispatch time histogram
+		 */
+		public DispatchHistogram getHistogram() {
+			return fHistogram;
+		}
+	}
+
+	/**
+	 * Immutable snapshot of the registrations with its lazily computed
+	 * candidate cache.
+	 */
+	private static final class Snapshot {
+		final Registration[] fRegistrations;
+		final AtomicReferenceArray<Registration[]> fByKinds = new AtomicReferenceArray<>(KIND_COMBINATIONS);
+
+		Snapshot(Registration[] registrations) {
+			fRegistrations = registrations;
+		}
+	}
+
+	private volatile Snapshot fSnapshot = new Snapshot(EMPTY);
+
+	/**
+	 * Returns the index used by the debug plug-in.
+	 *
+	 * @return the debug plug-in's listener index
+	 */
+	public static DebugEventListenerIndex getDefault() {
+		return fgDefault;
+	}
+
+	/**
+	 * Adds the given listener with the given subscription. If the listener is
+	 * already registered with a different subscription, its subscription is
+	 * replaced and it keeps its position in the notification order.
+	 *
+	 * @param listener listener to add
+	 * @param subscription events the listener is interested in
+	 */
+	public synchronized void add(IDebugEventSetListener listener, DebugEventSubscription subscription) {
+		Registration registration = new Registration(listener, subscription);
+		Registration[] registrations = fSnapshot.fRegistrations;
+		for (int i = 0; i < registrations.length; i++) {
+			if (registrations[i].fListener.equals(listener)) {
+				if (registrations[i].fSubscription == subscription) {
+					return;
+				}
+				Registration[] copy = registrations.clone();
+				copy[i] = registration;
+				update(copy);
+				return;
+			}
+		}
+		Registration[] copy = new Registration[registrations.length + 1];
+		System.arraycopy(registrations, 0, copy, 0, registrations.length);
+		copy[registrations.length] = registration;
+		update(copy);
+	}
+
+	/**
+	 * Removes the given listener. Has no effect if the listener is not
+	 * registered.
+	 *
+	 * @param listener listener to remove
+	 */
+	public synchronized void remove(IDebugEventSetListener listener) {
+		Registration[] registrations = fSnapshot.fRegistrations;
+		for (int i = 0; i < registrations.length; i++) {
+			if (registrations[i].fListener.equals(listener)) {
+				Registration[] copy = new Registration[registrations.length - 1];
+				System.arraycopy(registrations, 0, copy, 0, i);
+				System.arraycopy(registrations, i + 1, copy, i, registrations.length - i - 1);
+				update(copy);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Removes all listeners.
+	 */
+	public synchronized void clear() {
+		update(EMPTY);
+	}
+
+	private void update(Registration[] registrations) {
+		fSnapshot = new Snapshot(registrations);
+	}
+
+	/**
+	 * Returns whether no listeners are registered.
+	 *
+	 * @return whether no listeners are registered
+	 */
+	public boolean isEmpty() {
+		return fSnapshot.fRegistrations.length == 0;
+	}
+
+	/**
+	 * Returns all registrations in notification order.
+	 *
+	 * @return all registrations
+	 */
+	public Registration[] getRegistrations() {
+		return fSnapshot.fRegistrations;
+	}
+
+	/**
+	 * Returns the registrations that may be interested in the given event set,
+	 * in notification order. Only the event kinds are taken into account;
+	 * callers must check {@link Registration#accepts(DebugEvent[])} before
+	 * notifying a listener.
+	 *
+	 * @param events debug events
+	 * @return candidate registrations
+	 */
+	public Registration[] getCandidates(DebugEvent[] events) {
+		Snapshot snapshot = fSnapshot;
+		int kinds = 0;
+		for (DebugEvent event : events) {
+			int kind = event.getKind();
+			if ((kind & ~DebugEventSubscription.ANY_KIND) != 0) {
+				// non-standard kind, let the subscriptions decide
+				return snapshot.fRegistrations;
+			}
+			kinds |= kind;
+		}
+		if (kinds == 0) {
+			// no standard kind to select listeners by
+			return snapshot.fRegistrations;
+		}
+		Registration[] candidates = snapshot.fByKinds.get(kinds);
+		if (candidates == null) {
+			candidates = computeCandidates(snapshot.fRegistrations, kinds);
+			snapshot.fByKinds.set(kinds, candidates);
+		}
+		return candidates;
+	}
+
+	private static Registration[] computeCandidates(Registration[] registrations, int kinds) {
+		List<Registration> candidates = new ArrayList<>(registrations.length);
+		for (Registration registration : registrations) {
+			int subscribed = registration.fSubscription.getKinds();
+			if ((subscribed & kinds) != 0 || (subscribed & DebugEventSubscription.ANY_KIND) == DebugEventSubscription.ANY_KIND) {
+				candidates.add(registration);
+			}
+		}
+		return candidates.toArray(new Registration[candidates.size()]);
+	}
+
+	/**
+	 * Returns the dispatch time histograms of all registered listeners, in
+	 * notification order.
+	 *
+	 * @return dispatch time histogram per listener
+	 */
+	public Map<IDebugEventSetListener, DispatchHistogram> getStatistics() {
+		Registration[] registrations = fSnapshot.fRegistrations;
+		Map<IDebugEventSetListener, DispatchHistogram> statistics = new LinkedHashMap<>(registrations.length);
+		for (Registration registration : registrations) {
+			statistics.put(registration.fListener, registration.fHistogram);
+		}
+		return statistics;
+	}
+}
@@ -0,0 +1,335 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.debug.core.DebugEvent;
+
+/**
+ * Queue of debug event sets and asynchronous runnables used by the debug
+ * plug-in to dispatch events in the order they were received.
+ * <p>
+ * Producers never block: elements are added to a lock-free queue. The queue
+ * is drained by a single consumer (the event dispatch job).
+ * </p>
+ * <p>
+ * Coalescing is disabled by default, as merging event sets changes the event
+ * sets observed by listeners. When enabled with
+ * {@link #setMaxBatchSize(int)} (see
+ * {@link IInternalDebugCoreConstants#PREF_EVENT_BATCH_SIZE}), adjacent event
+ * sets that only contain {@link DebugEvent#CHANGE} events are coalesced into
+ * one event set up to the maximum batch size, so that suspend/resume storms
+ * that produce many small content/state change notifications reach listeners
+ * in fewer deliveries. Runnables and event sets containing other kinds of
+ * events are never merged and act as barriers, so the relative order of all
+ * events is preserved.
+ * </p>
+ *
+ * @since 3.20
+ */
+public class DebugEventQueue {
+
+	/**
+	 * Default maximum number of events delivered in one coalesced event set.
+	 * Coalescing is disabled by default.
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 1;
+
+	/**
+	 * Default time in milliseconds the dispatcher waits for further event sets
+	 * before dispatching. Zero means events are dispatched immediately.
+	 */
+	public static final int DEFAULT_MAX_BATCH_LATENCY = 0;
+
+	/**
+	 * Queued element with the time it was enqueued.
+	 */
+	private static final class Entry {
+		final Object fElement;
+		final long fEnqueued;
+
+		Entry(Object element) {
+			fElement = element;
+			fEnqueued = System.nanoTime();
+		}
+	}
+
+	/**
+	 * The queue used by the debug plug-in.
+	 */
+	private static final DebugEventQueue fgDefault = new DebugEventQueue();
+
+	private final Queue<Entry> fQueue = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger fDepth = new AtomicInteger();
+	private final AtomicInteger fMaxDepth = new AtomicInteger();
+	private final AtomicLong fEnqueuedCount = new AtomicLong();
+	private final AtomicLong fDispatchedCount = new AtomicLong();
+	private final AtomicLong fCoalescedCount = new AtomicLong();
+	private final AtomicLong fTotalLatency = new AtomicLong();
+	private final AtomicLong fMaxLatency = new AtomicLong();
+
+	private volatile int fMaxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+	private volatile int fMaxBatchLatency = DEFAULT_MAX_BATCH_LATENCY;
+
+	/**
+	 * Returns the queue used by the debug plug-in to dispatch debug events
+	 * and asynchronous runnables. Provides access to dispatch statistics.
+	 *
+	 * @return the debug plug-in's event queue
+	 */
+	public static DebugEventQueue getDefault() {
+		return fgDefault;
+	}
+
+	/**
+	 * Adds the given event set to the end of this queue.
+	 *
+	 * @param events debug events to dispatch
+	 */
+	public void add(DebugEvent[] events) {
+		enqueue(events);
+	}
+
+	/**
+	 * Adds the given runnable to the end of this queue.
+	 *
+	 * @param runnable runnable to execute after all previously queued events
+	 */
+	public void add(Runnable runnable) {
+		enqueue(runnable);
+	}
+
+	private void enqueue(Object element) {
+		fQueue.add(new Entry(element));
+		fEnqueuedCount.incrementAndGet();
+		int depth = fDepth.incrementAndGet();
+		fMaxDepth.accumulateAndGet(depth, Math::max);
+	}
+
+	/**
+	 * Returns whether this queue is currently empty.
+	 *
+	 * @return whether this queue is empty
+	 */
+	public boolean isEmpty() {
+		return fQueue.isEmpty();
+	}
+
+	/**
+	 * Removes and returns the next element of this queue, either a
+	 * {@link Runnable} or a <code>DebugEvent[]</code>. If coalescing is
+	 * enabled, adjacent event sets that only contain change events are
+	 * coalesced into a single event set. Must only be called by one thread at
+	 * a time.
+	 *
+	 * @return the next runnable or event set, or <code>null</code> if the queue
+	 *         is empty
+	 */
+	public Object poll() {
+		Entry entry = take();
+		if (entry == null) {
+			return null;
+		}
+		Object element = entry.fElement;
+		if (!(element instanceof DebugEvent[]) || !isCoalescable((DebugEvent[]) element)) {
+			return element;
+		}
+		DebugEvent[] events = (DebugEvent[]) element;
+		int maxBatchSize = fMaxBatchSize;
+		List<DebugEvent> batch = null;
+		Entry next = fQueue.peek();
+		while (next != null && next.fElement instanceof DebugEvent[]) {
+			DebugEvent[] nextEvents = (DebugEvent[]) next.fElement;
+			int size = batch == null ? events.length : batch.size();
+			if (size + nextEvents.length > maxBatchSize || !isCoalescable(nextEvents)) {
+				break;
+			}
+			if (batch == null) {
+				batch = new ArrayList<>(maxBatchSize);
+				batch.addAll(List.of(events));
+			}
+			batch.addAll(List.of(nextEvents));
+			take();
+			fCoalescedCount.incrementAndGet();
+			next = fQueue.peek();
+		}
+		if (batch == null) {
+			return events;
+		}
+		return batch.toArray(new DebugEvent[batch.size()]);
+	}
+
+	private Entry take() {
+		Entry entry = fQueue.poll();
+		if (entry != null) {
+			fDepth.decrementAndGet();
+			fDispatchedCount.incrementAndGet();
+			long latency = System.nanoTime() - entry.fEnqueued;
+			fTotalLatency.addAndGet(latency);
+			fMaxLatency.accumulateAndGet(latency, Math::max);
+		}
+		return entry;
+	}
+
+	/**
+	 * Returns whether the given event set may be merged with adjacent event
+	 * sets, i.e. it only contains change events.
+	 *
+	 * @param events event set
+	 * @return whether the event set can be coalesced
+	 */
+	private static boolean isCoalescable(DebugEvent[] events) {
+		for (DebugEvent event : events) {
+			if (event == null || event.getKind() != DebugEvent.CHANGE) {
+				return false;
+			}
+		}
+		return events.length > 0;
+	}
+
+	/**
+	 * Sets the maximum number of events delivered in one coalesced event set.
+	 * A value smaller than two disables coalescing.
+	 *
+	 * @param size maximum batch size
+	 */
+	public void setMaxBatchSize(int size) {
+		fMaxBatchSize = size;
+	}
+
+	/**
+	 * Returns the maximum number of events delivered in one coalesced event
+	 * set.
+	 *
+	 * @return maximum batch size
+	 */
+	public int getMaxBatchSize() {
+		return fMaxBatchSize;
+	}
+
+	/**
+	 * Sets the time in milliseconds the dispatcher may wait for further event
+	 * sets to arrive before dispatching, allowing them to be coalesced.
+	 *
+	 * @param millis maximum batch latency, zero to dispatch immediately
+	 */
+	public void setMaxBatchLatency(int millis) {
+		fMaxBatchLatency = Math.max(0, millis);
+	}
+
+	/**
+	 * Returns the time in milliseconds the dispatcher may wait for further
+	 * event sets to arrive before dispatching.
+	 *
+	 * @return maximum batch latency
+	 */
+	public int getMaxBatchLatency() {
+		return fMaxBatchLatency;
+	}
+
+	/**
+	 * Returns the number of elements currently waiting in this queue.
+	 *
+	 * @return current queue depth
+	 */
+	public int getDepth() {
+		return fDepth.get();
+	}
+
+	/**
+	 * Returns the largest number of elements that were waiting in this queue
+	 * at the same time.
+	 *
+	 * @return maximum queue depth
+	 */
+	public int getMaxDepth() {
+		return fMaxDepth.get();
+	}
+
+	/**
+	 * Returns the number of event sets and runnables added to this queue.
+	 *
+	 * @return number of enqueued elements
+	 */
+	public long getEnqueuedCount() {
+		return fEnqueuedCount.get();
+	}
+
+	/**
+	 * Returns the number of event sets and runnables removed from this queue,
+	 * including those merged into coalesced event sets.
+	 *
+	 * @return number of dispatched elements
+	 */
+	public long getDispatchedCount() {
+		return fDispatchedCount.get();
+	}
+
+	/**
+	 * Returns the number of event sets that were merged into a preceding event
+	 * set rather than being delivered on their own.
+	 *
+	 * @return number of coalesced event sets
+	 */
+	public long getCoalescedCount() {
+		return fCoalescedCount.get();
+	}
+
+	/**
+	 * Returns the average time in nanoseconds elements waited in this queue
+	 * before being dispatched.
+	 *
+	 * @return average dispatch latency in nanoseconds
+	 */
+	public long getAverageLatency() {
+		long dispatched = fDispatchedCount.get();
+		return dispatched == 0 ? 0 : fTotalLatency.get() / dispatched;
+	}
+
+	/**
+	 * Returns the longest time in nanoseconds an element waited in this queue
+	 * before being dispatched.
+	 *
+	 * @return maximum dispatch latency in nanoseconds
+	 */
+	public long getMaxLatency() {
+		return fMaxLatency.get();
+	}
+
+	/**
+	 * Resets all statistics of this queue.
+	 */
+	public void resetStatistics() {
+		fMaxDepth.set(fDepth.get());
+		fEnqueuedCount.set(0);
+		fDispatchedCount.set(0);
+		fCoalescedCount.set(0);
+		fTotalLatency.set(0);
+		fMaxLatency.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return "DebugEventQueue [depth=" + getDepth() + ", maxDepth=" + getMaxDepth() + ", enqueued=" + getEnqueuedCount() //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ ", dispatched=" + getDispatchedCount() + ", coalesced=" + getCoalescedCount() //$NON-NLS-1$ //$NON-NLS-2$
+				+ ", avgLatencyNs=" + getAverageLatency() + ", maxLatencyNs=" + getMaxLatency() + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+}
@@ -15,6 +15,7 @@ package org.eclipse.debug.internal.core;
 
 import org.eclipse.core.runtime.preferences.AbstractPreferenceInitializer;
 import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupCache;
 
 /**
  * Initializes preferences for debug.core
@@ -31,6 +32,12 @@ public class DebugPreferenceInitializer extends AbstractPreferenceInitializer {
 		Preferences.setDefaultBoolean(DebugPlugin.getUniqueIdentifier(), DebugPlugin.PREF_DELETE_CONFIGS_ON_PROJECT_DELETE, false);
 		Preferences.setDefaultBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_ENABLE_STATUS_HANDLERS, true);
 		Preferences.setDefaultBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_BREAKPOINT_MANAGER_ENABLED_STATE, true);
+		Preferences.setDefaultInt(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_EVENT_BATCH_SIZE, DebugEventQueue.DEFAULT_MAX_BATCH_SIZE);
+		Preferences.setDefaultInt(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_EVENT_BATCH_LATENCY, DebugEventQueue.DEFAULT_MAX_BATCH_LATENCY);
+		Preferences.setDefaultLong(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_OUTPUT_RETENTION_LIMIT, StreamContentBuffer.UNLIMITED);
+		Preferences.setDefaultBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_OUTPUT_RETENTION_OFF_HEAP, false);
+		Preferences.setDefaultBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_PARALLEL_SOURCE_LOOKUP, false);
+		Preferences.setDefaultInt(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_SOURCE_LOOKUP_CACHE_SIZE, SourceLookupCache.DEFAULT_SIZE);
 		Preferences.savePreferences(DebugPlugin.getUniqueIdentifier());
 	}
 
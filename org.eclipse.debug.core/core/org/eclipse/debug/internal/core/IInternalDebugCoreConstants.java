@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2010 IBM Corporation and others.
+ * Copyright (c) 2007, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -44,4 +44,59 @@ public interface IInternalDebugCoreConstants {
 	 */
 	String PREF_BREAKPOINT_MANAGER_ENABLED_STATE =  DebugPlugin.getUniqueIdentifier() + ".PREF_BREAKPOINT_MANAGER_ENABLED_STATE"; //$NON-NLS-1$
 
+	/**
+	 * Integer preference controlling the maximum number of change events that
+	 * are coalesced into one debug event set during dispatch. Values smaller
+	 * than two disable coalescing. Default value is <code>1</code>, i.e.
+	 * event sets are delivered as fired.
+	 *
+	 * @since 3.20
+	 */
+	String PREF_EVENT_BATCH_SIZE = DebugPlugin.getUniqueIdentifier() + ".PREF_EVENT_BATCH_SIZE"; //$NON-NLS-1$
+
+	/**
+	 * Integer preference controlling the time in milliseconds debug event
+	 * dispatch may be delayed to allow adjacent event sets to be coalesced.
+	 * Default value is <code>0</code>.
+	 *
+	 * @since 3.20
+	 */
+	String PREF_EVENT_BATCH_LATENCY = DebugPlugin.getUniqueIdentifier() + ".PREF_EVENT_BATCH_LATENCY"; //$NON-NLS-1$
+
+	/**
+	 * Long preference controlling the maximum number of bytes of process
+	 * output an output stream monitor retains while buffering. The oldest
+	 * output is discarded once the limit is exceeded. Default value is
+	 * <code>-1</code> (unlimited).
+	 *
+	 * @since 3.20
+	 */
+	String PREF_OUTPUT_RETENTION_LIMIT = DebugPlugin.getUniqueIdentifier() + ".PREF_OUTPUT_RETENTION_LIMIT"; //$NON-NLS-1$
+
+	/**
+	 * Boolean preference controlling whether buffered process output is
+	 * retained outside of the Java heap. Default value is <code>false</code>.
+	 *
+	 * @since 3.20
+	 */
+	String PREF_OUTPUT_RETENTION_OFF_HEAP = DebugPlugin.getUniqueIdentifier() + ".PREF_OUTPUT_RETENTION_OFF_HEAP"; //$NON-NLS-1$
+
+	/**
+	 * Boolean preference controlling whether source lookup participants and
+	 * composite source containers search their source containers in
+	 * parallel. Default value is <code>false</code>.
+	 *
+	 * @since 3.20
+	 */
+	String PREF_PARALLEL_SOURCE_LOOKUP = DebugPlugin.getUniqueIdentifier() + ".PREF_PARALLEL_SOURCE_LOOKUP"; //$NON-NLS-1$
+
+	/**
+	 * Integer preference specifying the maximum number of source lookups each
+	 * source lookup director caches, including lookups which found no source.
+	 * A value of <code>0</code> disables caching.
+	 *
+	 * @since 3.20
+	 */
+	String PREF_SOURCE_LOOKUP_CACHE_SIZE = DebugPlugin.getUniqueIdentifier() + ".PREF_SOURCE_LOOKUP_CACHE_SIZE"; //$NON-NLS-1$
+
 }
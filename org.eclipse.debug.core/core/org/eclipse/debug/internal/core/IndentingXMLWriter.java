@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Writes an XML document consisting of elements with attributes only into a
+ * string, without building a DOM.
+ * <p>
+ * The output is identical to the output of
+ * {@link LaunchManager#serializeDocument(org.w3c.dom.Document, String)} for
+ * the same document: an XML declaration with <code>standalone="no"</code>,
+ * one element per line indented by four spaces per level, empty elements
+ * written as <code>&lt;name/&gt;</code> and the same character escaping in
+ * attribute values. Like the DOM, which orders attributes by name, clients
+ * must add the attributes of an element in ascending order of their names.
+ * </p>
+ *
+ * @since 3.20
+ */
+final class IndentingXMLWriter {
+
+	private static final String DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>"; //$NON-NLS-1$
+	private static final String INDENT = "    "; //$NON-NLS-1$
+
+	private final StringBuilder fBuffer = new StringBuilder(1024);
+	private final String fLineDelimiter;
+
+	/**
+	 * Names of the open elements, innermost first.
+	 */
+	private final Deque<String> fOpenElements = new ArrayDeque<>();
+
+	/**
+	 * Whether the start tag of the innermost element is not yet closed, i.e.
+	 * attributes may still be added.
+	 */
+	private boolean fInStartTag;
+
+	/**
+	 * Creates a writer and writes the XML declaration.
+	 *
+	 * @param lineDelimiter the line delimiter to use
+	 */
+	IndentingXMLWriter(String lineDelimiter) {
+		fLineDelimiter = lineDelimiter;
+		fBuffer.append(DECLARATION).append(fLineDelimiter);
+	}
+
+	/**
+	 * Starts a new element, nested in the current element, if any.
+	 *
+	 * @param name element name
+	 */
+	void startElement(String name) {
+		if (fInStartTag) {
+			fBuffer.append('>').append(fLineDelimiter);
+		}
+		indent(fOpenElements.size());
+		fBuffer.append('<').append(name);
+		fOpenElements.push(name);
+		fInStartTag = true;
+	}
+
+	/**
+	 * Adds an attribute to the element started last.
+	 *
+	 * @param name attribute name
+	 * @param value attribute value, <code>null</code> is written as an empty
+	 *            value
+	 * @throws IOException if the value contains an unpaired high surrogate
+	 */
+	void attribute(String name, String value) throws IOException {
+		if (!fInStartTag) {
+			throw new IllegalStateException("No start tag for attribute " + name); //$NON-NLS-1$
+		}
+		fBuffer.append(' ').append(name).append("=\""); //$NON-NLS-1$
+		if (value != null) {
+			appendEscaped(value);
+		}
+		fBuffer.append('"');
+	}
+
+	/**
+	 * Ends the current element.
+	 */
+	void endElement() {
+		String name = fOpenElements.pop();
+		if (fInStartTag) {
+			fBuffer.append("/>"); //$NON-NLS-1$
+			fInStartTag = false;
+		} else {
+			indent(fOpenElements.size());
+			fBuffer.append("</").append(name).append('>'); //$NON-NLS-1$
+		}
+		fBuffer.append(fLineDelimiter);
+	}
+
+	/**
+	 * Returns the document written so far. All elements should have been
+	 * ended.
+	 *
+	 * @return the XML document
+	 */
+	@Override
+	public String toString() {
+		return fBuffer.toString();
+	}
+
+	private void indent(int depth) {
+		for (int i = 0; i < depth; i++) {
+			fBuffer.append(INDENT);
+		}
+	}
+
+	private void appendEscaped(String value) throws IOException {
+		int length = value.length();
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '&':
+					fBuffer.append("&amp;"); //$NON-NLS-1$
+					break;
+				case '<':
+					fBuffer.append("&lt;"); //$NON-NLS-1$
+					break;
+				case '>':
+					fBuffer.append("&gt;"); //$NON-NLS-1$
+					break;
+				case '"':
+					fBuffer.append("&quot;"); //$NON-NLS-1$
+					break;
+				default:
+					if (c < 0x20) {
+						// includes tab, line feed and carriage return
+						appendCharacterReference(c);
+					} else if (Character.isHighSurrogate(c)) {
+						if (i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+							appendCharacterReference(Character.toCodePoint(c, value.charAt(++i)));
+						} else {
+							throw new IOException("Invalid UTF-16 surrogate detected: " + Integer.toHexString(c)); //$NON-NLS-1$
+						}
+					} else if (Character.isLowSurrogate(c)) {
+						appendCharacterReference(c);
+					} else {
+						fBuffer.append(c);
+					}
+					break;
+			}
+		}
+	}
+
+	private void appendCharacterReference(int codePoint) {
+		fBuffer.append("&#").append(codePoint).append(';'); //$NON-NLS-1$
+	}
+}
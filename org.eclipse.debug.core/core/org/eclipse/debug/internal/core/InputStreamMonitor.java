@@ -45,6 +45,12 @@ public class InputStreamMonitor {
 	 */
 	private Thread fThread;
 
+	/**
+	 * Name of the thread to start on the first write, or <code>null</code> if
+	 * the thread is not started on demand.
+	 */
+	private String fOnDemandThreadName;
+
 	/**
 	 * A lock for ensuring that writes to the queue are contiguous
 	 */
@@ -104,6 +110,7 @@ public class InputStreamMonitor {
 	 * @param text text to append
 	 */
 	public void write(String text) {
+		startOnDemand();
 		synchronized (fLock) {
 			fQueue.add(fCharset == null ? text.getBytes() : text.getBytes(fCharset));
 			fLock.notifyAll();
@@ -119,6 +126,7 @@ public class InputStreamMonitor {
 	 * @param length number of bytes in data
 	 */
 	public void write(byte[] data, int offset, int length) {
+		startOnDemand();
 		synchronized (fLock) {
 			byte[] copy = new byte[length];
 			System.arraycopy(data, offset, copy, 0, length);
@@ -146,18 +154,50 @@ public class InputStreamMonitor {
 		}
 	}
 
+	/**
+	 * Starts the thread which writes the stream when content is written for
+	 * the first time. Avoids a thread for processes which never receive
+	 * input.
+	 *
+	 * @param threadName Thread name
+	 */
+	public void startMonitoringOnDemand(String threadName) {
+		synchronized (this) {
+			if (fThread == null) {
+				fOnDemandThreadName = threadName;
+			}
+		}
+	}
+
+	private synchronized void startOnDemand() {
+		if (fOnDemandThreadName != null) {
+			String threadName = fOnDemandThreadName;
+			fOnDemandThreadName = null;
+			startMonitoring(threadName);
+		}
+	}
+
 	/**
 	 * Close all communications between this
 	 * monitor and the underlying stream.
 	 */
 	public void close() {
 		Thread thread = null;
+		boolean notStarted;
 		synchronized (this) {
 			thread = fThread;
 			fThread = null;
+			notStarted = fOnDemandThreadName != null;
+			fOnDemandThreadName = null;
 		}
 		if (thread != null) {
 			thread.interrupt();
+		} else if (notStarted && !fClosed) {
+			try {
+				fStream.close();
+			} catch (IOException e) {
+				DebugPlugin.log(e);
+			}
 		}
 	}
 
@@ -49,6 +49,8 @@ import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.variables.IStringVariableResolutionScope;
+import org.eclipse.core.variables.VariablesPlugin;
 import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
@@ -535,11 +537,22 @@ public class LaunchConfiguration extends PlatformObject implements ILaunchConfig
 
 	@Override
 	public IResource[] getMappedResources() throws CoreException {
-		List<String> paths = getAttribute(ATTR_MAPPED_RESOURCE_PATHS, (List<String>) null);
+		List<String> paths;
+		List<String> types;
+		LaunchConfigurationIndex.Entry entry = getCompleteIndexEntry();
+		if (entry != null) {
+			paths = entry.getMappedResourcePaths();
+			types = entry.getMappedResourceTypes();
+		} else {
+			paths = getAttribute(ATTR_MAPPED_RESOURCE_PATHS, (List<String>) null);
+			types = null;
+		}
 		if (paths == null || paths.isEmpty()) {
 			return null;
 		}
-		List<String> types = getAttribute(ATTR_MAPPED_RESOURCE_TYPES, (List<String>) null);
+		if (entry == null) {
+			types = getAttribute(ATTR_MAPPED_RESOURCE_TYPES, (List<String>) null);
+		}
 		if (types == null || types.size() != paths.size()) {
 			throw new CoreException(newStatus(DebugCoreMessages.LaunchConfiguration_0, DebugPlugin.ERROR, null));
 		}
@@ -635,15 +648,44 @@ public class LaunchConfiguration extends PlatformObject implements ILaunchConfig
 
 	@Override
 	public Set<String> getModes() throws CoreException {
+		LaunchConfigurationIndex.Entry entry = getCompleteIndexEntry();
+		if (entry != null) {
+			return new HashSet<>(entry.getModes());
+		}
 		Set<String> options = getAttribute(ATTR_LAUNCH_MODES, (Set<String>) null);
 		return (options != null ? new HashSet<>(options) : new HashSet<>(0));
 	}
 
 	@Override
 	public ILaunchConfigurationType getType() throws CoreException {
+		if (!isWorkingCopy()) {
+			LaunchConfigurationIndex.Entry entry = getLaunchManager().getIndexEntry(this);
+			if (entry != null) {
+				ILaunchConfigurationType type = getLaunchManager().getLaunchConfigurationType(entry.getTypeId());
+				if (type != null) {
+					return type;
+				}
+			}
+		}
+		// not indexed or unknown type, the info reports the problem
 		return getInfo().getType();
 	}
 
+	/**
+	 * Returns the index entry of this configuration if it knows the mapped
+	 * resources and modes of this configuration, so they can be answered
+	 * without reading the configuration file.
+	 *
+	 * @return complete index entry or <code>null</code>
+	 */
+	private LaunchConfigurationIndex.Entry getCompleteIndexEntry() {
+		if (isWorkingCopy()) {
+			return null;
+		}
+		LaunchConfigurationIndex.Entry entry = getLaunchManager().getIndexEntry(this);
+		return entry != null && entry.isComplete() ? entry : null;
+	}
+
 	@Override
 	public ILaunchConfigurationWorkingCopy getWorkingCopy() throws CoreException {
 		return new LaunchConfigurationWorkingCopy(this);
@@ -803,7 +845,10 @@ public class LaunchConfiguration extends PlatformObject implements ILaunchConfig
 
 				/* Launch the delegate */
 				lmonitor.subTask(DebugCoreMessages.LaunchConfiguration_2);
-				delegate.launch(this, mode, launch, lmonitor.split(10));
+				// resolve each dynamic variable referenced by the configuration once
+				try (IStringVariableResolutionScope scope = VariablesPlugin.getDefault().getStringVariableManager().openResolutionScope()) {
+					delegate.launch(this, mode, launch, lmonitor.split(10));
+				}
 			} catch (CoreException e) {
 				// if there was an exception, and the launch is empty, remove it
 				if (launch != null && !launch.hasChildren()) {
@@ -0,0 +1,388 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.debug.core.DebugPlugin;
+
+/**
+ * Persistent index of the launch configuration files in the workspace.
+ * <p>
+ * For every launch configuration file the index remembers the launch
+ * configuration type and, once the configuration has been read completely, its
+ * mapped resources and launch modes, together with the time stamp and length
+ * of the file they were read from. This allows answering the most frequent
+ * queries (e.g. when building launch menus or validating configurations)
+ * without parsing the launch configuration XML. Entries are not validated on
+ * access: the launch manager removes the entry of a configuration whenever it
+ * is notified that the configuration changed or was deleted, and prunes
+ * entries of files which are missing or have changed when it loads the index.
+ * If the type of a configuration is not yet indexed, it is read from the root
+ * element of the file only.
+ * </p>
+ * <p>
+ * The index is stored in the state location of the debug core plug-in. Index
+ * files written in a different format version are ignored.
+ * </p>
+ *
+ * @since 3.20
+ */
+public class LaunchConfigurationIndex {
+
+	/**
+	 * Version of the persisted index format.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Name of the index file in the state location.
+	 */
+	public static final String INDEX_FILE_NAME = "launchConfigurations.index"; //$NON-NLS-1$
+
+	/**
+	 * Indexed information about one launch configuration file.
+	 */
+	public static final class Entry {
+		private final long fTimeStamp;
+		private final long fLength;
+		private final String fTypeId;
+		private final boolean fComplete;
+		private final List<String> fMappedResourcePaths;
+		private final List<String> fMappedResourceTypes;
+		private final Set<String> fModes;
+
+		/**
+		 * Creates an entry which only knows the configuration type.
+		 *
+		 * @param timeStamp time stamp of the file
+		 * @param length length of the file
+		 * @param typeId launch configuration type identifier
+		 */
+		public Entry(long timeStamp, long length, String typeId) {
+			this(timeStamp, length, typeId, false, null, null, Collections.emptySet());
+		}
+
+		/**
+		 * Creates an entry for a completely read configuration.
+		 *
+		 * @param timeStamp time stamp of the file
+		 * @param length length of the file
+		 * @param typeId launch configuration type identifier
+		 * @param mappedResourcePaths value of
+		 *            {@link LaunchConfiguration#ATTR_MAPPED_RESOURCE_PATHS} or
+		 *            <code>null</code>
+		 * @param mappedResourceTypes value of
+		 *            {@link LaunchConfiguration#ATTR_MAPPED_RESOURCE_TYPES} or
+		 *            <code>null</code>
+		 * @param modes value of {@link LaunchConfiguration#ATTR_LAUNCH_MODES}
+		 *            or <code>null</code>
+		 */
+		public Entry(long timeStamp, long length, String typeId, List<String> mappedResourcePaths, List<String> mappedResourceTypes, Set<String> modes) {
+			this(timeStamp, length, typeId, true, mappedResourcePaths, mappedResourceTypes, modes);
+		}
+
+		private Entry(long timeStamp, long length, String typeId, boolean complete, List<String> mappedResourcePaths, List<String> mappedResourceTypes, Set<String> modes) {
+			fTimeStamp = timeStamp;
+			fLength = length;
+			fTypeId = typeId;
+			fComplete = complete;
+			fMappedResourcePaths = mappedResourcePaths != null ? Collections.unmodifiableList(new ArrayList<>(mappedResourcePaths)) : null;
+			fMappedResourceTypes = mappedResourceTypes != null ? Collections.unmodifiableList(new ArrayList<>(mappedResourceTypes)) : null;
+			fModes = modes != null ? Collections.unmodifiableSet(new HashSet<>(modes)) : Collections.emptySet();
+		}
+
+		/**
+		 * @return time stamp of the file the entry was recorded for
+		 */
+		public long getTimeStamp() {
+			return fTimeStamp;
+		}
+
+		/**
+		 * @return length of the file the entry was recorded for or
+		 *         <code>-1</code> if the length is not known
+		 */
+		public long getLength() {
+			return fLength;
+		}
+
+		/**
+		 * @return the launch configuration type identifier
+		 */
+		public String getTypeId() {
+			return fTypeId;
+		}
+
+		/**
+		 * @return whether mapped resources and modes are known
+		 */
+		public boolean isComplete() {
+			return fComplete;
+		}
+
+		/**
+		 * @return the mapped resource paths or <code>null</code> if none
+		 */
+		public List<String> getMappedResourcePaths() {
+			return fMappedResourcePaths;
+		}
+
+		/**
+		 * @return the mapped resource types or <code>null</code> if none
+		 */
+		public List<String> getMappedResourceTypes() {
+			return fMappedResourceTypes;
+		}
+
+		/**
+		 * @return the launch modes, possibly empty
+		 */
+		public Set<String> getModes() {
+			return fModes;
+		}
+
+		boolean matches(long timeStamp, long length) {
+			return fTimeStamp == timeStamp && fLength == length;
+		}
+	}
+
+	private final Map<String, Entry> fEntries = new ConcurrentHashMap<>();
+
+	private final File fFile;
+
+	private volatile boolean fDirty;
+
+	/**
+	 * Creates an index persisted in the given file.
+	 *
+	 * @param file the index file or <code>null</code> if the index is not to
+	 *            be persisted
+	 */
+	public LaunchConfigurationIndex(File file) {
+		fFile = file;
+	}
+
+	/**
+	 * Returns the entry for the given configuration file.
+	 *
+	 * @param key key of the configuration file
+	 * @return the entry or <code>null</code> if the file is not indexed
+	 */
+	public Entry get(String key) {
+		return fEntries.get(key);
+	}
+
+	/**
+	 * Records the entry for the given configuration file. An incomplete entry
+	 * does not replace a complete entry for the same file version.
+	 *
+	 * @param key key of the configuration file
+	 * @param entry the new entry
+	 */
+	public void put(String key, Entry entry) {
+		fEntries.merge(key, entry, (old, update) -> old.fComplete && !update.fComplete && old.matches(update.fTimeStamp, update.fLength) ? old : update);
+		fDirty = true;
+	}
+
+	/**
+	 * Removes the entry of the given configuration file.
+	 *
+	 * @param key key of the configuration file
+	 */
+	public void remove(String key) {
+		if (fEntries.remove(key) != null) {
+			fDirty = true;
+		}
+	}
+
+	/**
+	 * Removes all entries which are not valid anymore.
+	 *
+	 * @param isValid tests whether the entry of a configuration file, given
+	 *            its key, is still valid
+	 */
+	public void prune(BiPredicate<String, Entry> isValid) {
+		if (fEntries.entrySet().removeIf(e -> !isValid.test(e.getKey(), e.getValue()))) {
+			fDirty = true;
+		}
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		fEntries.clear();
+		fDirty = true;
+	}
+
+	/**
+	 * Returns the number of indexed configuration files.
+	 *
+	 * @return number of entries
+	 */
+	public int size() {
+		return fEntries.size();
+	}
+
+	/**
+	 * Reads the persisted index, if any. An index written in another format
+	 * version or which cannot be read is ignored.
+	 */
+	public synchronized void load() {
+		if (fFile == null || !fFile.isFile()) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fFile)))) {
+			if (in.readInt() != VERSION) {
+				return;
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String key = in.readUTF();
+				long timeStamp = in.readLong();
+				long length = in.readLong();
+				String typeId = in.readUTF();
+				Entry entry;
+				if (in.readBoolean()) {
+					List<String> paths = readList(in);
+					List<String> types = readList(in);
+					List<String> modes = readList(in);
+					entry = new Entry(timeStamp, length, typeId, paths, types, modes != null ? new HashSet<>(modes) : null);
+				} else {
+					entry = new Entry(timeStamp, length, typeId);
+				}
+				fEntries.putIfAbsent(key, entry);
+			}
+		} catch (IOException e) {
+			// start with an empty index
+			fEntries.clear();
+		}
+	}
+
+	/**
+	 * Persists the index if it has been modified since it was loaded or
+	 * saved.
+	 */
+	public synchronized void save() {
+		if (fFile == null || !fDirty) {
+			return;
+		}
+		fDirty = false;
+		File temp = new File(fFile.getParentFile(), fFile.getName() + ".tmp"); //$NON-NLS-1$
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+			List<Map.Entry<String, Entry>> entries = new ArrayList<>(fEntries.entrySet());
+			out.writeInt(VERSION);
+			out.writeInt(entries.size());
+			for (Map.Entry<String, Entry> mapEntry : entries) {
+				Entry entry = mapEntry.getValue();
+				out.writeUTF(mapEntry.getKey());
+				out.writeLong(entry.fTimeStamp);
+				out.writeLong(entry.fLength);
+				out.writeUTF(entry.fTypeId);
+				out.writeBoolean(entry.fComplete);
+				if (entry.fComplete) {
+					writeList(out, entry.fMappedResourcePaths);
+					writeList(out, entry.fMappedResourceTypes);
+					writeList(out, new ArrayList<>(entry.fModes));
+				}
+			}
+			out.close();
+			Files.move(temp.toPath(), fFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			DebugPlugin.log(e);
+			temp.delete();
+		}
+	}
+
+	private static List<String> readList(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		if (size < 0) {
+			return null;
+		}
+		List<String> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(in.readUTF());
+		}
+		return list;
+	}
+
+	private static void writeList(DataOutputStream out, List<String> list) throws IOException {
+		if (list == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(list.size());
+		for (String value : list) {
+			out.writeUTF(value);
+		}
+	}
+
+	/**
+	 * Reads the launch configuration type identifier from the root element of
+	 * a launch configuration file without reading the rest of the file.
+	 *
+	 * @param stream content of a launch configuration file
+	 * @return the type identifier or <code>null</code> if the content does
+	 *         not start with a launch configuration element with a type
+	 */
+	public static String readTypeId(InputStream stream) {
+		XMLStreamReader reader = null;
+		try {
+			reader = LaunchConfigurationInfo.createXMLReader(stream);
+			while (reader.hasNext()) {
+				if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+					if (!IConfigurationElementConstants.LAUNCH_CONFIGURATION.equalsIgnoreCase(reader.getLocalName())) {
+						return null;
+					}
+					String typeId = reader.getAttributeValue(null, IConfigurationElementConstants.TYPE);
+					return typeId == null || typeId.isEmpty() ? null : typeId;
+				}
+			}
+		} catch (XMLStreamException e) {
+			// malformed content, let the full parser report it
+		} finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (XMLStreamException e) {
+					// ignore
+				}
+			}
+		}
+		return null;
+	}
+}
@@ -16,6 +16,7 @@ package org.eclipse.debug.internal.core;
 
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,12 +27,15 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
@@ -40,10 +44,6 @@ import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.ILaunchConfigurationType;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 /**
  * The information associated with a launch configuration handle.
@@ -108,6 +108,11 @@ public class LaunchConfigurationInfo {
 	 */
 	private static boolean fgIsSun14x = false;
 
+	/**
+	 * Factories for launch configuration XML readers, one per thread.
+	 */
+	private static final ThreadLocal<XMLInputFactory> fgInputFactory = ThreadLocal.withInitial(LaunchConfigurationInfo::createInputFactory);
+
 	static {
 		String vendor = System.getProperty("java.vm.vendor"); //$NON-NLS-1$
 		if (vendor.startsWith("Sun Microsystems")) { //$NON-NLS-1$
@@ -434,27 +439,23 @@ public class LaunchConfigurationInfo {
 	 *             if a attribute has been set with a null key
 	 * @throws IOException
 	 *             if an exception occurs creating the XML
-	 * @throws ParserConfigurationException
-	 *             if an exception occurs creating the XML
-	 * @throws TransformerException
-	 *             if an exception occurs creating the XML
 	 */
 	@SuppressWarnings("unchecked")
-	protected String getAsXML(String lineDelimeter) throws CoreException, IOException, ParserConfigurationException, TransformerException {
-		Document doc = LaunchManager.getDocument();
-		Element configRootElement = doc.createElement(LAUNCH_CONFIGURATION);
-		doc.appendChild(configRootElement);
-
-		configRootElement.setAttribute(TYPE, getType().getIdentifier());
-
+	protected String getAsXML(String lineDelimeter) throws CoreException, IOException {
+		IndentingXMLWriter writer = new IndentingXMLWriter(lineDelimeter);
+		writer.startElement(LAUNCH_CONFIGURATION);
+		// attributes are written in the order of their names
 		ILaunchConfiguration prototype = getPrototype();
 		if (prototype != null) {
-			configRootElement.setAttribute(PROTOTYPE, prototype.getName());
-		} else if (isPrototype()) {
-			configRootElement.setAttribute(VISIBLE_ATTRIBUTES, getVisibleAttributes().stream().collect(Collectors.joining(", "))); //$NON-NLS-1$
+			writer.attribute(PROTOTYPE, prototype.getName());
+		}
+		writer.attribute(TYPE, getType().getIdentifier());
+		if (prototype == null && isPrototype()) {
+			writer.attribute(VISIBLE_ATTRIBUTES, getVisibleAttributes().stream().collect(Collectors.joining(", "))); //$NON-NLS-1$
 		}
 
-		for (String key : getAttributeTable().keySet()) {
+		for (Entry<String, Object> entry : getAttributeTable().entrySet()) {
+			String key = entry.getKey();
 			if (key == null) {
 				throw new DebugException(
 					new Status(
@@ -463,154 +464,159 @@ public class LaunchConfigurationInfo {
 					)
 				);
 			}
-			Object value = getAttributeTable().get(key);
-			if (value == null) {
-				continue;
-			}
-			Element element = null;
-			String valueString = null;
+			Object value = entry.getValue();
 			if (value instanceof String) {
-				valueString = (String)value;
-				element = createKeyValueElement(doc, STRING_ATTRIBUTE, key, valueString);
+				writeKeyValueElement(writer, STRING_ATTRIBUTE, key, (String) value);
 			} else if (value instanceof Integer) {
-				valueString = ((Integer)value).toString();
-				element = createKeyValueElement(doc, INT_ATTRIBUTE, key, valueString);
+				writeKeyValueElement(writer, INT_ATTRIBUTE, key, ((Integer) value).toString());
 			} else if (value instanceof Boolean) {
-				valueString = ((Boolean)value).toString();
-				element = createKeyValueElement(doc, BOOLEAN_ATTRIBUTE, key, valueString);
+				writeKeyValueElement(writer, BOOLEAN_ATTRIBUTE, key, ((Boolean) value).toString());
 			} else if (value instanceof List) {
-				element = createListElement(doc, LIST_ATTRIBUTE, key, (List<String>) value);
+				writeListElement(writer, LIST_ATTRIBUTE, key, (List<String>) value);
 			} else if (value instanceof Map) {
-				element = createMapElement(doc, MAP_ATTRIBUTE, key, (Map<String, String>) value);
-			} else if(value instanceof Set) {
-				element = createSetElement(doc, SET_ATTRIBUTE, key, (Set<String>) value);
+				writeMapElement(writer, MAP_ATTRIBUTE, key, (Map<String, String>) value);
+			} else if (value instanceof Set) {
+				writeSetElement(writer, SET_ATTRIBUTE, key, (Set<String>) value);
 			}
-			configRootElement.appendChild(element);
 		}
-
-		return LaunchManager.serializeDocument(doc, lineDelimeter);
+		writer.endElement();
+		return writer.toString();
 	}
 
 	/**
-	 * Helper method that creates a 'key value' element of the specified type
-	 * with the specified attribute values.
-	 * @param doc the {@link Document}
-	 * @param elementType the {@link Element} type to create
-	 * @param key the {@link Element} key
-	 * @param value the {@link Element} value
-	 * @return the new {@link Element}
+	 * Writes a 'key value' element of the specified type with the specified
+	 * attribute values.
+	 *
+	 * @param writer the writer to write to
+	 * @param elementType the type of the element
+	 * @param key the key attribute
+	 * @param value the value attribute
+	 * @throws IOException if the value cannot be written
 	 */
-	protected Element createKeyValueElement(Document doc, String elementType, String key, String value) {
-		Element element = doc.createElement(elementType);
-		element.setAttribute(KEY, key);
-		element.setAttribute(VALUE, value);
-		return element;
+	private void writeKeyValueElement(IndentingXMLWriter writer, String elementType, String key, String value) throws IOException {
+		writer.startElement(elementType);
+		writer.attribute(KEY, key);
+		writer.attribute(VALUE, value);
+		writer.endElement();
 	}
 
 	/**
-	 * Creates a new <code>Element</code> for the specified
-	 * <code>java.util.List</code>
+	 * Writes an element for the specified <code>java.util.List</code>
 	 *
-	 * @param doc the doc to add the element to
+	 * @param writer the writer to write to
 	 * @param elementType the type of the element
 	 * @param listKey the key for the element
 	 * @param list the list to fill the new element with
-	 * @return the new element
+	 * @throws IOException if a value cannot be written
 	 */
-	protected Element createListElement(Document doc, String elementType, String listKey, List<String> list) {
-		Element listElement = doc.createElement(elementType);
-		listElement.setAttribute(KEY, listKey);
+	private void writeListElement(IndentingXMLWriter writer, String elementType, String listKey, List<String> list) throws IOException {
+		writer.startElement(elementType);
+		writer.attribute(KEY, listKey);
 		for (String value : list) {
-			Element element = doc.createElement(LIST_ENTRY);
-			element.setAttribute(VALUE, value);
-			listElement.appendChild(element);
+			writer.startElement(LIST_ENTRY);
+			writer.attribute(VALUE, value);
+			writer.endElement();
 		}
-		return listElement;
+		writer.endElement();
 	}
 
 	/**
-	 * Creates a new <code>Element</code> for the specified
-	 * <code>java.util.Set</code>
+	 * Writes an element for the specified <code>java.util.Set</code>, with
+	 * the entries in sorted order
 	 *
-	 * @param doc the doc to add the element to
+	 * @param writer the writer to write to
 	 * @param elementType the type of the element
 	 * @param setKey the key for the element
 	 * @param set the set to fill the new element with
-	 * @return the new element
-	 *
-	 * @since 3.3
+	 * @throws IOException if a value cannot be written
 	 */
-	protected Element createSetElement(Document doc, String elementType, String setKey, Set<String> set) {
-		Element setElement = doc.createElement(elementType);
-		setElement.setAttribute(KEY, setKey);
+	private void writeSetElement(IndentingXMLWriter writer, String elementType, String setKey, Set<String> set) throws IOException {
+		writer.startElement(elementType);
+		writer.attribute(KEY, setKey);
 		// persist in sorted order
 		List<String> list = new ArrayList<>(set);
 		Collections.sort(list);
-		Element element = null;
 		for (String str : list) {
-			element = doc.createElement(SET_ENTRY);
-			element.setAttribute(VALUE, str);
-			setElement.appendChild(element);
+			writer.startElement(SET_ENTRY);
+			writer.attribute(VALUE, str);
+			writer.endElement();
 		}
-		return setElement;
+		writer.endElement();
 	}
 
 	/**
-	 * Creates a new <code>Element</code> for the specified
-	 * <code>java.util.Map</code>
+	 * Writes an element for the specified <code>java.util.Map</code>, with
+	 * the entries in the sorted order of their keys
 	 *
-	 * @param doc the doc to add the element to
+	 * @param writer the writer to write to
 	 * @param elementType the type of the element
 	 * @param mapKey the key for the element
 	 * @param map the map to fill the new element with
-	 * @return the new element
-	 *
+	 * @throws IOException if a key or value cannot be written
 	 */
-	protected Element createMapElement(Document doc, String elementType, String mapKey, Map<String, String> map) {
-		Element mapElement = doc.createElement(elementType);
-		mapElement.setAttribute(KEY, mapKey);
+	private void writeMapElement(IndentingXMLWriter writer, String elementType, String mapKey, Map<String, String> map) throws IOException {
+		writer.startElement(elementType);
+		writer.attribute(KEY, mapKey);
 		// persist in sorted order based on keys
 		List<String> keys = new ArrayList<>(map.keySet());
 		Collections.sort(keys);
 		for (String key : keys) {
-			String value = map.get(key);
-			Element element = doc.createElement(MAP_ENTRY);
-			element.setAttribute(KEY, key);
-			element.setAttribute(VALUE, value);
-			mapElement.appendChild(element);
+			writer.startElement(MAP_ENTRY);
+			writer.attribute(KEY, key);
+			writer.attribute(VALUE, map.get(key));
+			writer.endElement();
 		}
-		return mapElement;
+		writer.endElement();
 	}
 
 	/**
-	 * Initializes the mapping of attributes from the XML file
-	 * @param root the root node from the XML document
-	 * @throws CoreException if a problem is encountered
+	 * Returns a reader for the launch configuration XML in the given stream.
+	 * The reader is created by a factory shared by all readers created on the
+	 * calling thread.
+	 *
+	 * @param stream the stream to read from
+	 * @return a new reader
+	 * @throws XMLStreamException if the reader cannot be created
+	 * @since 3.20
 	 */
-	protected void initializeFromXML(Element root) throws CoreException {
-		initializeFromXML(root, false);
+	static XMLStreamReader createXMLReader(InputStream stream) throws XMLStreamException {
+		return fgInputFactory.get().createXMLStreamReader(stream);
+	}
+
+	private static XMLInputFactory createInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		return factory;
 	}
 
 	/**
-	 * Initializes the mapping of attributes from the XML file
+	 * Initializes the mapping of attributes from the XML read by the given
+	 * reader. The reader is positioned at the end of the root element
+	 * afterwards.
 	 *
-	 * @param root the root node from the XML document
+	 * @param reader the reader positioned before or at the root element of
+	 *            the XML document
 	 * @param isPrototype if the XML file corresponds to a prototype
 	 * @throws CoreException if a problem is encountered
+	 * @throws XMLStreamException if the XML is not well-formed
 	 *
-	 * @since 3.12
+	 * @since 3.20
 	 */
-	protected void initializeFromXML(Element root, boolean isPrototype) throws CoreException {
-		if (!root.getNodeName().equalsIgnoreCase(LAUNCH_CONFIGURATION)) {
-			throw getInvalidFormatDebugException();
+	protected void initializeFromXML(XMLStreamReader reader, boolean isPrototype) throws CoreException, XMLStreamException {
+		while (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+			if (!reader.hasNext()) {
+				throw getInvalidFormatDebugException();
+			}
+			reader.next();
 		}
-
-		// read type
-		String id = root.getAttribute(TYPE);
-		if (id == null) {
+		if (!reader.getLocalName().equalsIgnoreCase(LAUNCH_CONFIGURATION)) {
 			throw getInvalidFormatDebugException();
 		}
 
+		// read type
+		String id = getAttribute(reader, TYPE);
 		ILaunchConfigurationType type = DebugPlugin.getDefault().getLaunchManager().getLaunchConfigurationType(id);
 		if (type == null) {
 			String message = MessageFormat.format(DebugCoreMessages.LaunchConfigurationInfo_missing_type, id);
@@ -621,44 +627,40 @@ public class LaunchConfigurationInfo {
 				);
 		}
 		setType(type);
-
-		NodeList list = root.getChildNodes();
-		Node node = null;
-		Element element = null;
-		String nodeName = null;
-		for (int i = 0; i < list.getLength(); ++i) {
-			node = list.item(i);
-			short nodeType = node.getNodeType();
-			if (nodeType == Node.ELEMENT_NODE) {
-				element = (Element) node;
-				nodeName = element.getNodeName();
-				if (nodeName.equalsIgnoreCase(STRING_ATTRIBUTE)) {
-					setStringAttribute(element);
-				} else if (nodeName.equalsIgnoreCase(INT_ATTRIBUTE)) {
-					setIntegerAttribute(element);
-				} else if (nodeName.equalsIgnoreCase(BOOLEAN_ATTRIBUTE))  {
-					setBooleanAttribute(element);
-				} else if (nodeName.equalsIgnoreCase(LIST_ATTRIBUTE)) {
-					setListAttribute(element);
-				} else if (nodeName.equalsIgnoreCase(MAP_ATTRIBUTE)) {
-					setMapAttribute(element);
-				} else if(nodeName.equalsIgnoreCase(SET_ATTRIBUTE)) {
-					setSetAttribute(element);
-				}
+		String visibleAttributes = getAttribute(reader, VISIBLE_ATTRIBUTES);
+		String prototype = getAttribute(reader, PROTOTYPE);
+
+		while (nextChildElement(reader)) {
+			String nodeName = reader.getLocalName();
+			if (nodeName.equalsIgnoreCase(STRING_ATTRIBUTE)) {
+				setAttribute(getKeyAttribute(reader), getValueAttribute(reader));
+				skipElement(reader);
+			} else if (nodeName.equalsIgnoreCase(INT_ATTRIBUTE)) {
+				setAttribute(getKeyAttribute(reader), Integer.valueOf(getValueAttribute(reader)));
+				skipElement(reader);
+			} else if (nodeName.equalsIgnoreCase(BOOLEAN_ATTRIBUTE)) {
+				setAttribute(getKeyAttribute(reader), Boolean.valueOf(getValueAttribute(reader)));
+				skipElement(reader);
+			} else if (nodeName.equalsIgnoreCase(LIST_ATTRIBUTE)) {
+				readListAttribute(reader);
+			} else if (nodeName.equalsIgnoreCase(MAP_ATTRIBUTE)) {
+				readMapAttribute(reader);
+			} else if (nodeName.equalsIgnoreCase(SET_ATTRIBUTE)) {
+				readSetAttribute(reader);
+			} else {
+				skipElement(reader);
 			}
 		}
 
 		if (isPrototype) {
 			setIsPrototype(true);
-			String visibleAttributes = root.getAttribute(VISIBLE_ATTRIBUTES);
-			if (visibleAttributes != null && visibleAttributes.length() > 0) {
+			if (visibleAttributes.length() > 0) {
 				String[] split = visibleAttributes.split(", "); //$NON-NLS-1$
 				setVisibleAttributes(new HashSet<>(Arrays.asList(split)));
 			}
 		} else {
 			setIsPrototype(false);
-			String prototype = root.getAttribute(PROTOTYPE);
-			if (prototype != null && prototype.length() > 0) {
+			if (prototype.length() > 0) {
 				ILaunchConfiguration[] launchConfigurations = DebugPlugin.getDefault().getLaunchManager().getLaunchConfigurations(ILaunchConfiguration.PROTOTYPE);
 				for (ILaunchConfiguration iLaunchConfiguration : launchConfigurations) {
 					if (prototype.equals(iLaunchConfiguration.getName())) {
@@ -671,141 +673,138 @@ public class LaunchConfigurationInfo {
 	}
 
 	/**
-	 * Loads a <code>String</code> from the specified element into the local attribute mapping
-	 * @param element the element to load from
-	 * @throws CoreException if a problem is encountered
+	 * Reads a <code>List</code> attribute from the element the reader is
+	 * positioned at and loads it into the mapping of attributes
+	 *
+	 * @param reader the reader positioned at the list attribute element
+	 * @throws CoreException if the element has an invalid format
+	 * @throws XMLStreamException if the XML is not well-formed
 	 */
-	protected void setStringAttribute(Element element) throws CoreException {
-		setAttribute(getKeyAttribute(element), getValueAttribute(element));
+	private void readListAttribute(XMLStreamReader reader) throws CoreException, XMLStreamException {
+		String listKey = getAttribute(reader, KEY);
+		List<String> list = new ArrayList<>();
+		while (nextChildElement(reader)) {
+			if (!reader.getLocalName().equalsIgnoreCase(LIST_ENTRY)) {
+				throw getInvalidFormatDebugException();
+			}
+			list.add(getValueAttribute(reader));
+			skipElement(reader);
+		}
+		setAttribute(listKey, list);
 	}
 
 	/**
-	 * Loads an <code>Integer</code> from the specified element into the local attribute mapping
-	 * @param element the element to load from
-	 * @throws CoreException if a problem is encountered
+	 * Reads a <code>Set</code> attribute from the element the reader is
+	 * positioned at and loads it into the mapping of attributes
+	 *
+	 * @param reader the reader positioned at the set attribute element
+	 * @throws CoreException if the element has an invalid format
+	 * @throws XMLStreamException if the XML is not well-formed
 	 */
-	protected void setIntegerAttribute(Element element) throws CoreException {
-		setAttribute(getKeyAttribute(element), Integer.valueOf(getValueAttribute(element)));
+	private void readSetAttribute(XMLStreamReader reader) throws CoreException, XMLStreamException {
+		String setKey = getAttribute(reader, KEY);
+		Set<String> set = new HashSet<>();
+		while (nextChildElement(reader)) {
+			if (!reader.getLocalName().equalsIgnoreCase(SET_ENTRY)) {
+				throw getInvalidFormatDebugException();
+			}
+			set.add(getValueAttribute(reader));
+			skipElement(reader);
+		}
+		setAttribute(setKey, set);
 	}
 
 	/**
-	 * Loads a <code>Boolean</code> from the specified element into the local attribute mapping
-	 * @param element the element to load from
-	 * @throws CoreException if a problem is encountered
+	 * Reads a <code>Map</code> attribute from the element the reader is
+	 * positioned at and loads it into the mapping of attributes
+	 *
+	 * @param reader the reader positioned at the map attribute element
+	 * @throws CoreException if the element has an invalid format
+	 * @throws XMLStreamException if the XML is not well-formed
 	 */
-	protected void setBooleanAttribute(Element element) throws CoreException {
-		setAttribute(getKeyAttribute(element), Boolean.valueOf(getValueAttribute(element)));
+	private void readMapAttribute(XMLStreamReader reader) throws CoreException, XMLStreamException {
+		String mapKey = getAttribute(reader, KEY);
+		Map<String, String> map = new HashMap<>();
+		while (nextChildElement(reader)) {
+			if (!reader.getLocalName().equalsIgnoreCase(MAP_ENTRY)) {
+				throw getInvalidFormatDebugException();
+			}
+			map.put(getKeyAttribute(reader), getValueAttribute(reader));
+			skipElement(reader);
+		}
+		setAttribute(mapKey, map);
 	}
 
 	/**
-	 * Reads a <code>List</code> attribute from the specified XML node and
-	 * loads it into the mapping of attributes
+	 * Advances the reader to the start of the next child element of the
+	 * current element.
 	 *
-	 * @param element the element to read the list attribute from
-	 * @throws CoreException if the element has an invalid format
+	 * @param reader a reader positioned at the start of an element or the end
+	 *            of one of its children
+	 * @return <code>true</code> if the reader is positioned at the start of a
+	 *         child element, <code>false</code> if it is positioned at the end
+	 *         of the current element
+	 * @throws XMLStreamException if the XML is not well-formed
 	 */
-	protected void setListAttribute(Element element) throws CoreException {
-		String listKey = element.getAttribute(KEY);
-		NodeList nodeList = element.getChildNodes();
-		int entryCount = nodeList.getLength();
-		List<String> list = new ArrayList<>(entryCount);
-		Node node = null;
-		Element selement = null;
-		for (int i = 0; i < entryCount; i++) {
-			node = nodeList.item(i);
-			if (node.getNodeType() == Node.ELEMENT_NODE) {
-				selement = (Element) node;
-				if (!selement.getNodeName().equalsIgnoreCase(LIST_ENTRY)) {
-					throw getInvalidFormatDebugException();
-				}
-				list.add(getValueAttribute(selement));
+	private static boolean nextChildElement(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					return true;
+				case XMLStreamConstants.END_ELEMENT:
+					return false;
+				default:
+					break;
 			}
 		}
-		setAttribute(listKey, list);
+		return false;
 	}
 
 	/**
-	 * Reads a <code>Set</code> attribute from the specified XML node and
-	 * loads it into the mapping of attributes
+	 * Advances the reader to the end of the current element, ignoring its
+	 * content.
 	 *
-	 * @param element the element to read the set attribute from
-	 * @throws CoreException if the element has an invalid format
-	 *
-	 * @since 3.3
+	 * @param reader a reader positioned at the start of an element
+	 * @throws XMLStreamException if the XML is not well-formed
 	 */
-	protected void setSetAttribute(Element element) throws CoreException {
-		String setKey = element.getAttribute(KEY);
-		NodeList nodeList = element.getChildNodes();
-		int entryCount = nodeList.getLength();
-		Set<String> set = new HashSet<>(entryCount);
-		Node node = null;
-		Element selement = null;
-		for(int i = 0; i < entryCount; i++) {
-			node = nodeList.item(i);
-			if(node.getNodeType() == Node.ELEMENT_NODE) {
-				selement = (Element)node;
-				if(!selement.getNodeName().equalsIgnoreCase(SET_ENTRY)) {
-					throw getInvalidFormatDebugException();
-				}
-				set.add(getValueAttribute(selement));
-			}
+	private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		while (nextChildElement(reader)) {
+			skipElement(reader);
 		}
-		setAttribute(setKey, set);
 	}
 
 	/**
-	 * Reads a <code>Map</code> attribute from the specified XML node and
-	 * loads it into the mapping of attributes
+	 * Returns the value of the given attribute of the current element or an
+	 * empty string if the element has no such attribute, like
+	 * {@link org.w3c.dom.Element#getAttribute(String)}.
 	 *
-	 * @param element the element to read the map attribute from
-	 * @throws CoreException if the element has an invalid format
+	 * @param reader a reader positioned at the start of an element
+	 * @param name the attribute name
+	 * @return the attribute value, possibly empty
 	 */
-	protected void setMapAttribute(Element element) throws CoreException {
-		String mapKey = element.getAttribute(KEY);
-		NodeList nodeList = element.getChildNodes();
-		int entryCount = nodeList.getLength();
-		Map<String, String> map = new HashMap<>(entryCount);
-		Node node = null;
-		Element selement = null;
-		for (int i = 0; i < entryCount; i++) {
-			node = nodeList.item(i);
-			if (node.getNodeType() == Node.ELEMENT_NODE) {
-				selement = (Element) node;
-				if (!selement.getNodeName().equalsIgnoreCase(MAP_ENTRY)) {
-					throw getInvalidFormatDebugException();
-				}
-				map.put(getKeyAttribute(selement), getValueAttribute(selement));
-			}
-		}
-		setAttribute(mapKey, map);
+	private static String getAttribute(XMLStreamReader reader, String name) {
+		String value = reader.getAttributeValue(null, name);
+		return value != null ? value : IInternalDebugCoreConstants.EMPTY_STRING;
 	}
 
 	/**
-	 * Returns the <code>String</code> representation of the 'key' attribute from the specified element
-	 * @param element the element to read from
-	 * @return the value
+	 * Returns the <code>String</code> representation of the 'key' attribute from the current element
+	 * @param reader a reader positioned at the start of an element
+	 * @return the value, or an empty string if the element has no such attribute
 	 * @throws CoreException if a problem is encountered
 	 */
-	protected String getKeyAttribute(Element element) throws CoreException {
-		String key = element.getAttribute(KEY);
-		if (key == null) {
-			throw getInvalidFormatDebugException();
-		}
-		return key;
+	protected String getKeyAttribute(XMLStreamReader reader) throws CoreException {
+		return getAttribute(reader, KEY);
 	}
 
 	/**
-	 * Returns the <code>String</code> representation of the 'value' attribute from the specified element
-	 * @param element the element to read from
-	 * @return the value
+	 * Returns the <code>String</code> representation of the 'value' attribute from the current element
+	 * @param reader a reader positioned at the start of an element
+	 * @return the value, or an empty string if the element has no such attribute
 	 * @throws CoreException if a problem is encountered
 	 */
-	protected String getValueAttribute(Element element) throws CoreException {
-		String value = element.getAttribute(VALUE);
-		if (value == null) {
-			throw getInvalidFormatDebugException();
-		}
-		return value;
+	protected String getValueAttribute(XMLStreamReader reader) throws CoreException {
+		return getAttribute(reader, VALUE);
 	}
 
 	/**
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.debug.core.ILaunchConfiguration;
+
+/**
+ * Cache of the infos read from launch configuration files.
+ * <p>
+ * The cache is split into shards, each guarded by its own lock, so threads
+ * accessing different configurations do not contend. Each shard holds a
+ * bounded number of infos and evicts the least recently used one when it is
+ * full. Infos are only softly referenced and are evicted when the garbage
+ * collector clears them. Evicted infos are read from the configuration file
+ * again on their next access.
+ * </p>
+ * <p>
+ * Infos of prototypes are never evicted, since the visibility of prototype
+ * attributes is only kept in the info.
+ * </p>
+ *
+ * @since 3.20
+ */
+public class LaunchConfigurationInfoCache {
+
+	/**
+	 * Default maximum number of cached infos.
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private static final int SHARDS = 16;
+
+	/**
+	 * Soft reference to a cached info which knows its configuration. Infos of
+	 * prototypes are additionally referenced strongly.
+	 */
+	private static final class InfoReference extends SoftReference<LaunchConfigurationInfo> {
+		final ILaunchConfiguration fConfig;
+		final LaunchConfigurationInfo fPinned;
+
+		InfoReference(ILaunchConfiguration config, LaunchConfigurationInfo info, ReferenceQueue<LaunchConfigurationInfo> queue) {
+			super(info, queue);
+			fConfig = config;
+			fPinned = info.isPrototype() ? info : null;
+		}
+	}
+
+	/**
+	 * Cached infos in access order. Guarded by the shard.
+	 */
+	private static final class Shard extends LinkedHashMap<ILaunchConfiguration, InfoReference> {
+		private static final long serialVersionUID = 1L;
+
+		Shard() {
+			super(16, 0.75f, true);
+		}
+	}
+
+	private final Shard[] fShards = new Shard[SHARDS];
+	private final int fShardCapacity;
+	private final ReferenceQueue<LaunchConfigurationInfo> fCleared = new ReferenceQueue<>();
+
+	private final AtomicLong fHits = new AtomicLong();
+	private final AtomicLong fMisses = new AtomicLong();
+	private final AtomicLong fEvictions = new AtomicLong();
+
+	/**
+	 * Creates a cache with the default capacity.
+	 */
+	public LaunchConfigurationInfoCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a cache for about the given number of infos.
+	 *
+	 * @param capacity maximum number of cached infos, excluding prototypes
+	 */
+	public LaunchConfigurationInfoCache(int capacity) {
+		fShardCapacity = Math.max(1, (capacity + SHARDS - 1) / SHARDS);
+		for (int i = 0; i < SHARDS; i++) {
+			fShards[i] = new Shard();
+		}
+	}
+
+	private Shard getShard(ILaunchConfiguration config) {
+		int hash = config.hashCode();
+		return fShards[(hash ^ (hash >>> 16)) & (SHARDS - 1)];
+	}
+
+	/**
+	 * Returns the cached info of the given configuration.
+	 *
+	 * @param config a launch configuration
+	 * @return the cached info or <code>null</code> if none
+	 */
+	public LaunchConfigurationInfo get(ILaunchConfiguration config) {
+		expungeCleared();
+		Shard shard = getShard(config);
+		LaunchConfigurationInfo info = null;
+		synchronized (shard) {
+			InfoReference reference = shard.get(config);
+			if (reference != null) {
+				info = reference.get();
+				if (info == null) {
+					shard.remove(config);
+					fEvictions.incrementAndGet();
+				}
+			}
+		}
+		(info != null ? fHits : fMisses).incrementAndGet();
+		return info;
+	}
+
+	/**
+	 * Caches the info of the given configuration, possibly evicting the least
+	 * recently used info of other configurations.
+	 *
+	 * @param config a launch configuration
+	 * @param info the info read from the configuration's file
+	 */
+	public void put(ILaunchConfiguration config, LaunchConfigurationInfo info) {
+		expungeCleared();
+		Shard shard = getShard(config);
+		synchronized (shard) {
+			InfoReference added = new InfoReference(config, info, fCleared);
+			shard.put(config, added);
+			Iterator<InfoReference> eldest = shard.values().iterator();
+			while (shard.size() > fShardCapacity && eldest.hasNext()) {
+				InfoReference reference = eldest.next();
+				if (reference.fPinned == null && reference != added) {
+					eldest.remove();
+					fEvictions.incrementAndGet();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the cached info of the given configuration.
+	 *
+	 * @param config a launch configuration
+	 * @return whether an info was cached
+	 */
+	public boolean remove(ILaunchConfiguration config) {
+		Shard shard = getShard(config);
+		synchronized (shard) {
+			return shard.remove(config) != null;
+		}
+	}
+
+	/**
+	 * Removes all cached infos.
+	 */
+	public void clear() {
+		for (Shard shard : fShards) {
+			synchronized (shard) {
+				shard.clear();
+			}
+		}
+		while (fCleared.poll() != null) {
+			// discard
+		}
+	}
+
+	/**
+	 * Returns the number of cached infos, including infos which have been
+	 * cleared by the garbage collector but not yet evicted.
+	 *
+	 * @return number of cached infos
+	 */
+	public int size() {
+		int size = 0;
+		for (Shard shard : fShards) {
+			synchronized (shard) {
+				size += shard.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Removes the entries of infos cleared by the garbage collector.
+	 */
+	private void expungeCleared() {
+		Reference<? extends LaunchConfigurationInfo> cleared;
+		while ((cleared = fCleared.poll()) != null) {
+			InfoReference reference = (InfoReference) cleared;
+			Shard shard = getShard(reference.fConfig);
+			synchronized (shard) {
+				if (shard.remove(reference.fConfig, reference)) {
+					fEvictions.incrementAndGet();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return number of lookups which found a cached info
+	 */
+	public long getHitCount() {
+		return fHits.get();
+	}
+
+	/**
+	 * @return number of lookups which did not find a cached info
+	 */
+	public long getMissCount() {
+		return fMisses.get();
+	}
+
+	/**
+	 * @return number of infos evicted because the cache was full or the
+	 *         garbage collector cleared them
+	 */
+	public long getEvictionCount() {
+		return fEvictions.get();
+	}
+}
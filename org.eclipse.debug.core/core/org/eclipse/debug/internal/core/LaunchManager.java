@@ -47,10 +47,13 @@ import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -113,9 +116,7 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * Manages launch configurations, launch configuration types, and registered launches.
@@ -570,15 +571,17 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	private List<ILaunchConfigurationType> fLaunchConfigurationTypes = null;
 
 	/**
-	 * Launch configuration cache. Keys are <code>LaunchConfiguration</code>,
-	 * values are <code>LaunchConfigurationInfo</code>.
+	 * Launch configuration info cache.
 	 */
-	private Map<ILaunchConfiguration, LaunchConfigurationInfo> fLaunchConfigurations = new HashMap<>(10);
+	private final LaunchConfigurationInfoCache fLaunchConfigurations = new LaunchConfigurationInfoCache();
 
 	/**
-	 * A cache of launch configuration names currently in the workspace.
+	 * The names of the launch configurations currently in the workspace,
+	 * mapped to the number of configurations with the name, or
+	 * <code>null</code> if not yet computed. Updated with the collection of
+	 * all launch configurations.
 	 */
-	private volatile String[] fSortedConfigNames = null;
+	private volatile ConcurrentSkipListMap<String, Integer> fSortedConfigNames = null;
 
 	/**
 	 * Collection of all launch configurations in the workspace.
@@ -586,6 +589,12 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 */
 	private List<ILaunchConfiguration> fLaunchConfigurationIndex = null;
 
+	/**
+	 * Persistent index of the types, mapped resources and modes of launch
+	 * configuration files, or <code>null</code> if not yet loaded.
+	 */
+	private LaunchConfigurationIndex fConfigurationFileIndex = null;
+
 	/**
 	 * Launch configuration comparator extensions,
 	 * keyed by attribute name.
@@ -861,6 +870,8 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		if (fLaunchConfigurationIndex != null) {
 			fLaunchConfigurationIndex.clear();
 		}
+		fLaunchConfigurations.clear();
+		clearConfigNameCache();
 	}
 
 	@Override
@@ -889,12 +900,66 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	}
 
 	/**
-	 * The launch config name cache is cleared when a config is added, deleted or changed.
+	 * Clears the launch config name cache, it is recomputed on next access.
+	 * The cache is updated when a config is added or deleted, so this is only
+	 * needed when the collection of all launch configurations is discarded.
 	 */
 	protected synchronized void clearConfigNameCache() {
 		fSortedConfigNames = null;
 	}
 
+	/**
+	 * Returns the names of all launch configurations in the workspace, mapped
+	 * to the number of configurations with the name.
+	 *
+	 * @return configuration names
+	 */
+	private ConcurrentSkipListMap<String, Integer> getConfigNames() {
+		ConcurrentSkipListMap<String, Integer> names = fSortedConfigNames;
+		if (names == null) {
+			synchronized (this) {
+				names = fSortedConfigNames;
+				if (names == null) {
+					names = new ConcurrentSkipListMap<>();
+					for (ILaunchConfiguration config : getAllLaunchConfigurations()) {
+						names.merge(config.getName(), 1, Integer::sum);
+					}
+					fSortedConfigNames = names;
+				}
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Updates the launch config name cache for the given added or removed
+	 * configuration. Must be called while holding the lock of this manager,
+	 * together with the modification of the collection of all configurations.
+	 *
+	 * @param config an added or removed configuration
+	 * @param added whether the configuration was added
+	 */
+	private void updateConfigNames(ILaunchConfiguration config, boolean added) {
+		ConcurrentSkipListMap<String, Integer> names = fSortedConfigNames;
+		if (names != null) {
+			if (added) {
+				names.merge(config.getName(), 1, Integer::sum);
+			} else {
+				names.computeIfPresent(config.getName(), (name, count) -> count > 1 ? count - 1 : null);
+			}
+		}
+	}
+
+	/**
+	 * Returns the cache of launch configuration infos.
+	 *
+	 * @return the info cache
+	 * @since 3.20
+	 */
+	public LaunchConfigurationInfoCache getLaunchConfigurationInfoCache() {
+		return fLaunchConfigurations;
+	}
+
 	/**
 	 * Return an instance of DebugException containing the specified message and Throwable.
 	 * @param message the message for the new {@link DebugException}
@@ -919,12 +984,10 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @param stream the {@link InputStream} to read from
 	 * @return the new {@link LaunchConfigurationInfo}
 	 * @throws CoreException if a problem is encountered
-	 * @throws ParserConfigurationException if the stream fails to parse
 	 * @throws IOException if there is a problem handling the given stream or writing the new info file
-	 * @throws SAXException if there is a SAX parse exception
+	 * @throws SAXException if the stream fails to parse
 	 */
 	protected LaunchConfigurationInfo createInfoFromXML(InputStream stream) throws CoreException,
-																			 ParserConfigurationException,
 																			 IOException,
 																			 SAXException {
 		return createInfoFromXML(stream, false);
@@ -940,20 +1003,33 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @param isPrototype if the XML corresponds to a prototype
 	 * @return the new {@link LaunchConfigurationInfo}
 	 * @throws CoreException if a problem is encountered
-	 * @throws ParserConfigurationException if the stream fails to parse
 	 * @throws IOException if there is a problem handling the given stream or
 	 *             writing the new info file
-	 * @throws SAXException if there is a SAX parse exception
+	 * @throws SAXException if the stream fails to parse
 	 *
 	 * @since 3.12
 	 */
-	protected LaunchConfigurationInfo createInfoFromXML(InputStream stream, boolean isPrototype) throws CoreException, ParserConfigurationException, IOException, SAXException {
-		Element root = null;
-		DocumentBuilder parser = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-		parser.setErrorHandler(new DefaultHandler());
-		root = parser.parse(new InputSource(stream)).getDocumentElement();
+	protected LaunchConfigurationInfo createInfoFromXML(InputStream stream, boolean isPrototype) throws CoreException, IOException, SAXException {
 		LaunchConfigurationInfo info = new LaunchConfigurationInfo();
-		info.initializeFromXML(root, isPrototype);
+		XMLStreamReader reader = null;
+		try {
+			reader = LaunchConfigurationInfo.createXMLReader(stream);
+			info.initializeFromXML(reader, isPrototype);
+			// check that the rest of the document is well-formed
+			while (reader.hasNext()) {
+				reader.next();
+			}
+		} catch (XMLStreamException e) {
+			throw new SAXException(e);
+		} finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (XMLStreamException e) {
+					// ignore
+				}
+			}
+		}
 		return info;
 	}
 
@@ -1155,21 +1231,18 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 
 	/**
 	 * Return a sorted array of the names of all <code>ILaunchConfiguration</code>s in
-	 * the workspace.  These are cached, and cache is cleared when a new config is added,
-	 * deleted or changed.
+	 * the workspace.  These are cached, and the cache is updated when a config is added
+	 * or deleted.
 	 * @return the sorted array of {@link ILaunchConfiguration} names
 	 */
-	protected synchronized String[] getAllSortedConfigNames() {
-		if (fSortedConfigNames == null) {
-			List<ILaunchConfiguration> collection = getAllLaunchConfigurations();
-			ILaunchConfiguration[] configs = collection.toArray(new ILaunchConfiguration[collection.size()]);
-			fSortedConfigNames = new String[configs.length];
-			for (int i = 0; i < configs.length; i++) {
-				fSortedConfigNames[i] = configs[i].getName();
+	protected String[] getAllSortedConfigNames() {
+		List<String> names = new ArrayList<>();
+		for (Entry<String, Integer> entry : getConfigNames().entrySet()) {
+			for (int i = 0; i < entry.getValue(); i++) {
+				names.add(entry.getKey());
 			}
-			Arrays.sort(fSortedConfigNames);
 		}
-		return fSortedConfigNames;
+		return names.toArray(new String[names.size()]);
 	}
 
 	/**
@@ -1361,17 +1434,17 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 			if (config.exists()) {
 				BufferedInputStream stream = null;
 				try {
+					long[] stamp = getFileStamp(config);
 					stream = new BufferedInputStream(store.openInputStream(EFS.NONE, null));
 					info = createInfoFromXML(stream, isPrototype(store));
-					synchronized (this) {
-						fLaunchConfigurations.put(config, info);
+					fLaunchConfigurations.put(config, info);
+					if (stamp != null) {
+						getConfigurationFileIndex().put(getIndexKey(config), createIndexEntry(info, stamp));
 					}
 				} catch (FileNotFoundException e) {
 					throwException(config, e);
 				} catch (SAXException e) {
 					throwException(config, e);
-				} catch (ParserConfigurationException e) {
-					throwException(config, e);
 				} catch (IOException e) {
 					throwException(config, e);
 				} finally {
@@ -1394,6 +1467,165 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		return info;
 	}
 
+	/**
+	 * Returns the persistent index of launch configuration files, loading it
+	 * on first access.
+	 *
+	 * @return the launch configuration file index
+	 */
+	private synchronized LaunchConfigurationIndex getConfigurationFileIndex() {
+		if (fConfigurationFileIndex == null) {
+			File file = null;
+			try {
+				file = DebugPlugin.getDefault().getStateLocation().append(LaunchConfigurationIndex.INDEX_FILE_NAME).toFile();
+			} catch (IllegalStateException e) {
+				// no state location, do not persist the index
+			}
+			fConfigurationFileIndex = new LaunchConfigurationIndex(file);
+			fConfigurationFileIndex.load();
+			// files may have been changed or deleted while the index was not
+			// maintained
+			fConfigurationFileIndex.prune(this::isIndexEntryValid);
+		}
+		return fConfigurationFileIndex;
+	}
+
+	/**
+	 * Returns whether the file of the given index entry still exists and has
+	 * not been modified since the entry was recorded. Entries of files in the
+	 * workspace are recorded without a length and keyed by the full path of
+	 * the file.
+	 *
+	 * @param key key of the configuration file
+	 * @param entry entry of the configuration file
+	 * @return whether the entry is still valid
+	 */
+	private boolean isIndexEntryValid(String key, LaunchConfigurationIndex.Entry entry) {
+		if (entry.getLength() < 0) {
+			IPath path = new Path(key);
+			if (path.segmentCount() < 2) {
+				return false;
+			}
+			return ResourcesPlugin.getWorkspace().getRoot().getFile(path).getLocalTimeStamp() == entry.getTimeStamp();
+		}
+		File local = new File(key);
+		return local.isFile() && local.lastModified() == entry.getTimeStamp() && local.length() == entry.getLength();
+	}
+
+	/**
+	 * Returns the index entry of the given launch configuration. If the
+	 * configuration is not indexed, only its launch configuration type is read
+	 * from the file and indexed. The entry is removed from the index when the
+	 * configuration is changed or deleted.
+	 *
+	 * @param config a launch configuration which is not a working copy
+	 * @return the index entry or <code>null</code> if the configuration file
+	 *         does not exist or its type cannot be determined without parsing
+	 *         the complete file
+	 * @since 3.20
+	 */
+	protected LaunchConfigurationIndex.Entry getIndexEntry(LaunchConfiguration config) {
+		LaunchConfigurationIndex index = getConfigurationFileIndex();
+		String key = getIndexKey(config);
+		LaunchConfigurationIndex.Entry entry = index.get(key);
+		if (entry != null) {
+			return entry;
+		}
+		long[] stamp = getFileStamp(config);
+		if (stamp == null) {
+			return null;
+		}
+		LaunchConfigurationInfo info = fLaunchConfigurations.get(config);
+		if (info != null) {
+			entry = createIndexEntry(info, stamp);
+		} else {
+			String typeId = null;
+			try (InputStream stream = new BufferedInputStream(config.getFileStore().openInputStream(EFS.NONE, null))) {
+				typeId = LaunchConfigurationIndex.readTypeId(stream);
+			} catch (CoreException | IOException e) {
+				// let the complete parse report the problem
+			}
+			if (typeId == null) {
+				return null;
+			}
+			entry = new LaunchConfigurationIndex.Entry(stamp[0], stamp[1], typeId);
+		}
+		index.put(key, entry);
+		return entry;
+	}
+
+	/**
+	 * Creates a complete index entry from the given info.
+	 *
+	 * @param info the info read from a launch configuration file
+	 * @param stamp time stamp and length of the file
+	 * @return index entry
+	 */
+	private LaunchConfigurationIndex.Entry createIndexEntry(LaunchConfigurationInfo info, long[] stamp) {
+		try {
+			return new LaunchConfigurationIndex.Entry(stamp[0], stamp[1], info.getType().getIdentifier(),
+					info.getListAttribute(LaunchConfiguration.ATTR_MAPPED_RESOURCE_PATHS, null),
+					info.getListAttribute(LaunchConfiguration.ATTR_MAPPED_RESOURCE_TYPES, null),
+					info.getSetAttribute(LaunchConfiguration.ATTR_LAUNCH_MODES, null));
+		} catch (CoreException e) {
+			// attribute of unexpected type, only index the type
+			return new LaunchConfigurationIndex.Entry(stamp[0], stamp[1], info.getType().getIdentifier());
+		}
+	}
+
+	/**
+	 * Returns the key of the given configuration's file in the launch
+	 * configuration file index.
+	 *
+	 * @param config a launch configuration
+	 * @return index key
+	 */
+	private String getIndexKey(LaunchConfiguration config) {
+		IFile file = config.getFile();
+		if (file != null) {
+			return file.getFullPath().toString();
+		}
+		return LOCAL_LAUNCH_CONFIGURATION_CONTAINER_PATH.append(config.getFileName()).toString();
+	}
+
+	/**
+	 * Returns the time stamp and length of the given configuration's file. For
+	 * files in the workspace, the local time stamp known by the workspace is
+	 * used and the length is not determined.
+	 *
+	 * @param config a launch configuration
+	 * @return time stamp and length or <code>null</code> if the file does not
+	 *         exist
+	 */
+	private long[] getFileStamp(LaunchConfiguration config) {
+		IFile file = config.getFile();
+		if (file != null) {
+			long timeStamp = file.getLocalTimeStamp();
+			return timeStamp == IResource.NULL_STAMP ? null : new long[] { timeStamp, -1 };
+		}
+		if (!config.isLocal()) {
+			return null;
+		}
+		File local = LOCAL_LAUNCH_CONFIGURATION_CONTAINER_PATH.append(config.getFileName()).toFile();
+		return local.isFile() ? new long[] { local.lastModified(), local.length() } : null;
+	}
+
+	/**
+	 * Removes the given configuration from the launch configuration file
+	 * index, if the index is loaded.
+	 *
+	 * @param config a launch configuration
+	 */
+	private void removeFromFileIndex(ILaunchConfiguration config) {
+		LaunchConfigurationIndex index;
+		synchronized (this) {
+			index = fConfigurationFileIndex;
+		}
+		if (index != null && config instanceof LaunchConfiguration && !config.isWorkingCopy()) {
+			index.remove(getIndexKey((LaunchConfiguration) config));
+		}
+	}
+
 	/**
 	 * Check if the given {@link IFileStore} is a prototype.
 	 *
@@ -2033,12 +2265,7 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 
 	@Override
 	public boolean isExistingLaunchConfigurationName(String name) {
-		String[] sortedConfigNames = getAllSortedConfigNames();
-		int index = Arrays.binarySearch(sortedConfigNames, name);
-		if (index < 0) {
-			return false;
-		}
-		return true;
+		return getConfigNames().containsKey(name);
 	}
 
 	/**
@@ -2108,18 +2335,20 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		if (config.isWorkingCopy()) {
 			return;
 		}
+		// a file of the same name may have been deleted outside of Eclipse
+		removeFromFileIndex(config);
 		if (isValid(config)) {
 			boolean added = false;
 			synchronized (this) {
 				List<ILaunchConfiguration> allConfigs = getAllLaunchConfigurations();
 				if (!allConfigs.contains(config)) {
 					allConfigs.add(config);
+					updateConfigNames(config, true);
 					added = true;
 				}
 			}
 			if (added) {
 				getConfigurationNotifier().notify(config, ADDED);
-				clearConfigNameCache();
 			}
 		} else {
 			launchConfigurationDeleted(config);
@@ -2136,10 +2365,8 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @param config the launch configuration that was changed
 	 */
 	protected void launchConfigurationChanged(ILaunchConfiguration config) {
-		synchronized(this) {
-			fLaunchConfigurations.remove(config);
-		}
-		clearConfigNameCache();
+		fLaunchConfigurations.remove(config);
+		removeFromFileIndex(config);
 		if (isValid(config)) {
 			// in case the config has been refreshed and it was removed from the
 			// index due to 'out of synch with local file system' (see bug 36147),
@@ -2162,13 +2389,16 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	protected void launchConfigurationDeleted(ILaunchConfiguration config) {
 		boolean removed = false;
 		synchronized (this) {
-			Object key = fLaunchConfigurations.remove(config);
-			removed = key != null;
-			getAllLaunchConfigurations().remove(config);
+			// the info may have been evicted from the cache
+			removed = fLaunchConfigurations.remove(config);
+			if (getAllLaunchConfigurations().remove(config)) {
+				updateConfigNames(config, false);
+				removed = true;
+			}
 		}
+		removeFromFileIndex(config);
 		if (removed) {
 			getConfigurationNotifier().notify(config, REMOVED);
-			clearConfigNameCache();
 		}
 	}
 
@@ -2353,6 +2583,11 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		}
 
 		persistPreferredLaunchDelegates();
+		synchronized (this) {
+			if (fConfigurationFileIndex != null) {
+				fConfigurationFileIndex.save();
+			}
+		}
 		clearAllLaunchConfigurations();
 		fStepFilterManager = null;
 		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
@@ -16,14 +16,15 @@
 package org.eclipse.debug.internal.core;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.ListenerList;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.IBinaryStreamListener;
@@ -42,6 +43,12 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 	 */
 	private static final int BUFFER_SIZE = 8192;
 
+	/**
+	 * The maximum size the read buffer grows to when the stream is read by a
+	 * {@link SharedStreamReader}.
+	 */
+	private static final int MAX_BUFFER_SIZE = 128 * 1024;
+
 	/**
 	 * The stream being monitored (connected system out or err).
 	 */
@@ -59,18 +66,12 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 
 	/**
 	 * The buffered stream content since last flush. Value of <code>null</code>
-	 * indicates disabled buffering.
+	 * indicates disabled buffering. The buffer keeps its own decoder, which is
+	 * required to keep the state of an incomplete character.
 	 *
 	 * @see #isBuffered()
 	 */
-	private ByteArrayOutputStream fContents;
-
-	/**
-	 * Decoder used for the buffered content. This is required to keep the state
-	 * of an incomplete character.
-	 */
-	private StreamDecoder fBufferedDecoder;
-	private String fCachedDecodedContents;
+	private StreamContentBuffer fContents;
 
 	/**
 	 * The thread which reads from the stream
@@ -89,6 +90,18 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 
 	private final AtomicBoolean fDone;
 
+	/**
+	 * Signals the end of reading when the stream is read by a
+	 * {@link SharedStreamReader}, <code>null</code> otherwise.
+	 */
+	private CountDownLatch fSharedDone;
+
+	/**
+	 * The read buffer used with a {@link SharedStreamReader}. Grows with the
+	 * amount of available content.
+	 */
+	private byte[] fSharedBuffer;
+
 	/**
 	 * Creates an output stream monitor on the given stream (connected to system
 	 * out or err).
@@ -136,15 +149,21 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 	 */
 	protected void close() {
 		Thread thread = null;
+		CountDownLatch sharedDone = null;
 
 		synchronized (this) {
 			thread = fThread;
 			fThread = null;
+			sharedDone = fSharedDone;
 		}
 
-		if (thread != null) {
+		if (thread != null || sharedDone != null) {
 			try {
-				thread.join();
+				if (thread != null) {
+					thread.join();
+				} else {
+					sharedDone.await();
+				}
 			} catch (InterruptedException ie) {
 			}
 
@@ -207,24 +226,30 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 		if (!isBuffered()) {
 			return ""; //$NON-NLS-1$
 		}
-		if (fCachedDecodedContents != null) {
-			return fCachedDecodedContents;
-		}
-		byte[] data = getData();
-		fCachedDecodedContents = fBufferedDecoder.decode(data, 0, data.length);
-		return fCachedDecodedContents;
+		return fContents.getText();
 	}
 
 	@Override
 	public synchronized byte[] getData() {
-		return isBuffered() ? fContents.toByteArray() : new byte[0];
+		return isBuffered() ? fContents.getData() : new byte[0];
 	}
 
 	private void read() {
 		try {
 			internalRead();
 		} finally {
-			fDone.set(true);
+			readingDone();
+		}
+	}
+
+	private void readingDone() {
+		CountDownLatch sharedDone;
+		synchronized (this) {
+			sharedDone = fSharedDone;
+		}
+		fDone.set(true);
+		if (sharedDone != null) {
+			sharedDone.countDown();
 		}
 	}
 
@@ -248,13 +273,7 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 					}
 					read = fStream.read(buffer);
 					if (read > 0) {
-						synchronized (this) {
-							if (isBuffered()) {
-								fCachedDecodedContents = null;
-								fContents.write(buffer, 0, read);
-							}
-							fireStreamAppended(buffer, 0, read);
-						}
+						streamAppended(buffer, read);
 					}
 				} catch (IOException ioe) {
 					if (!fKilled) {
@@ -286,6 +305,68 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 		}
 	}
 
+	private synchronized void streamAppended(byte[] buffer, int read) {
+		if (isBuffered()) {
+			fContents.write(buffer, 0, read);
+		}
+		fireStreamAppended(buffer, 0, read);
+	}
+
+	/**
+	 * Reads the content currently available from the stream without
+	 * blocking. Called by the {@link SharedStreamReader} reading this monitor.
+	 *
+	 * @return number of bytes read, <code>0</code> if no content is available
+	 *         or <code>-1</code> if reading is finished
+	 */
+	int readAvailable() {
+		try {
+			if (!fKilled) {
+				int available = fStream.available();
+				if (available <= 0) {
+					return 0;
+				}
+				if (available > fSharedBuffer.length && fSharedBuffer.length < MAX_BUFFER_SIZE) {
+					fSharedBuffer = new byte[Math.min(MAX_BUFFER_SIZE, Integer.highestOneBit(available - 1) << 1)];
+				}
+				int read = fStream.read(fSharedBuffer, 0, Math.min(available, fSharedBuffer.length));
+				if (read > 0) {
+					streamAppended(fSharedBuffer, read);
+					return read;
+				}
+				if (read == 0) {
+					return 0;
+				}
+			}
+		} catch (IOException ioe) {
+			if (!fKilled) {
+				DebugPlugin.log(ioe);
+			}
+		}
+		try {
+			fStream.close();
+		} catch (IOException e) {
+			DebugPlugin.log(e);
+		}
+		readingDone();
+		return -1;
+	}
+
+	/**
+	 * Reads the remaining content of the stream on a dedicated thread until
+	 * the end of the stream is reached. Called by the
+	 * {@link SharedStreamReader} reading this monitor once the process has
+	 * terminated.
+	 *
+	 * @param name Thread name
+	 */
+	void drain(String name) {
+		Thread thread = new Thread((Runnable) this::read, name);
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		thread.start();
+	}
+
 	protected void kill() {
 		fKilled = true;
 	}
@@ -307,7 +388,7 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 	 */
 	protected void startMonitoring(String name) {
 		synchronized (this) {
-			if (fThread == null) {
+			if (fThread == null && fSharedDone == null) {
 				fDone.set(false);
 				fThread = new Thread((Runnable) this::read, name);
 				fThread.setDaemon(true);
@@ -317,16 +398,35 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 		}
 	}
 
+	/**
+	 * Starts reading the stream with the given shared reader instead of a
+	 * dedicated thread.
+	 *
+	 * @param reader the shared reader
+	 * @param process the process the stream belongs to
+	 * @param name name of the thread draining the stream after the process
+	 *            terminated
+	 */
+	protected void startMonitoring(SharedStreamReader reader, Process process, String name) {
+		synchronized (this) {
+			if (fThread == null && fSharedDone == null) {
+				fDone.set(false);
+				fSharedDone = new CountDownLatch(1);
+				fSharedBuffer = new byte[BUFFER_SIZE];
+				reader.register(this, process, name);
+			}
+		}
+	}
+
 	@Override
 	public synchronized void setBuffered(boolean buffer) {
 		if (isBuffered() != buffer) {
-			fCachedDecodedContents = null;
 			if (buffer) {
-				fContents = new ByteArrayOutputStream();
-				fBufferedDecoder = new StreamDecoder(fCharset == null ? Charset.defaultCharset() : fCharset);
+				long limit = Platform.getPreferencesService().getLong(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_OUTPUT_RETENTION_LIMIT, StreamContentBuffer.UNLIMITED, null);
+				boolean direct = Platform.getPreferencesService().getBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_OUTPUT_RETENTION_OFF_HEAP, false, null);
+				fContents = new StreamContentBuffer(fCharset == null ? Charset.defaultCharset() : fCharset, limit, StreamContentBuffer.DEFAULT_CHUNK_SIZE, direct);
 			} else {
 				fContents = null;
-				fBufferedDecoder = null;
 			}
 		}
 	}
@@ -334,8 +434,7 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 	@Override
 	public synchronized void flushContents() {
 		if (isBuffered()) {
-			fCachedDecodedContents = null;
-			fContents.reset();
+			fContents.clear();
 		}
 	}
 
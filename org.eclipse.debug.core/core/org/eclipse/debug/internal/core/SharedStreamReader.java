@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads the output streams of many processes with a small, shared pool of
+ * threads instead of one dedicated thread per stream.
+ * <p>
+ * Process pipes cannot be multiplexed with a selector, so every registered
+ * stream is polled: content which is available is read without blocking and
+ * the stream is polled again immediately; idle streams are polled with an
+ * increasing delay of up to {@link #MAX_POLL_DELAY} milliseconds. Once the
+ * process has terminated and no more content is available, the remaining
+ * content is drained by a short-lived thread until the end of the stream, so
+ * that a stream kept open by a descendant process never blocks the pool.
+ * </p>
+ *
+ * @since 3.20
+ */
+public class SharedStreamReader {
+
+	/**
+	 * Maximum delay in milliseconds between two polls of an idle stream.
+	 */
+	public static final int MAX_POLL_DELAY = 50;
+
+	private static SharedStreamReader fgDefault;
+
+	private final ScheduledThreadPoolExecutor fExecutor;
+
+	private final AtomicInteger fActiveStreams = new AtomicInteger();
+
+	private final AtomicLong fBytesRead = new AtomicLong();
+
+	/**
+	 * Polls one stream and reschedules itself until the stream is finished.
+	 */
+	private class PollTask implements Runnable {
+		private final OutputStreamMonitor fMonitor;
+		private final Process fProcess;
+		private final String fName;
+		private int fDelay;
+
+		PollTask(OutputStreamMonitor monitor, Process process, String name) {
+			fMonitor = monitor;
+			fProcess = process;
+			fName = name;
+		}
+
+		@Override
+		public void run() {
+			int read = fMonitor.readAvailable();
+			if (read < 0) {
+				fActiveStreams.decrementAndGet();
+				return;
+			}
+			if (read > 0) {
+				fBytesRead.addAndGet(read);
+				fDelay = 0;
+				schedule(this, 0);
+			} else if (!fProcess.isAlive()) {
+				fActiveStreams.decrementAndGet();
+				fMonitor.drain(fName);
+			} else {
+				fDelay = Math.min(MAX_POLL_DELAY, Math.max(1, fDelay * 2));
+				schedule(this, fDelay);
+			}
+		}
+	}
+
+	/**
+	 * Creates a reader using the given number of threads.
+	 *
+	 * @param threads number of threads polling streams
+	 */
+	public SharedStreamReader(int threads) {
+		AtomicInteger count = new AtomicInteger();
+		fExecutor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+			Thread thread = new Thread(runnable, "Shared Stream Reader #" + count.incrementAndGet()); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		fExecutor.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * Returns the reader shared by all processes launched with
+	 * {@link org.eclipse.debug.core.DebugPlugin#ATTR_SHARED_STREAM_READER}.
+	 *
+	 * @return the shared stream reader
+	 */
+	public static synchronized SharedStreamReader getDefault() {
+		if (fgDefault == null) {
+			fgDefault = new SharedStreamReader(Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+		}
+		return fgDefault;
+	}
+
+	/**
+	 * Shuts down the shared reader, if it was created.
+	 */
+	public static synchronized void shutdownDefault() {
+		if (fgDefault != null) {
+			fgDefault.shutdown();
+			fgDefault = null;
+		}
+	}
+
+	/**
+	 * Starts reading the given monitor's stream, which is connected to the
+	 * given process.
+	 *
+	 * @param monitor monitor to read
+	 * @param process process the stream belongs to
+	 * @param name name of the thread used to drain the stream after the
+	 *            process terminated
+	 */
+	void register(OutputStreamMonitor monitor, Process process, String name) {
+		fActiveStreams.incrementAndGet();
+		schedule(new PollTask(monitor, process, name), 0);
+	}
+
+	private void schedule(PollTask task, long delay) {
+		try {
+			fExecutor.schedule(task, delay, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			// reader was shut down, finish on a dedicated thread
+			fActiveStreams.decrementAndGet();
+			task.fMonitor.drain(task.fName);
+		}
+	}
+
+	/**
+	 * Returns the number of streams currently polled by this reader.
+	 *
+	 * @return number of active streams
+	 */
+	public int getActiveStreams() {
+		return fActiveStreams.get();
+	}
+
+	/**
+	 * Returns the total number of bytes read by the pool threads.
+	 *
+	 * @return number of bytes read
+	 */
+	public long getBytesRead() {
+		return fBytesRead.get();
+	}
+
+	/**
+	 * Returns the number of threads of this reader.
+	 *
+	 * @return number of pool threads
+	 */
+	public int getPoolSize() {
+		return fExecutor.getPoolSize();
+	}
+
+	/**
+	 * Stops polling. Streams still being read are drained by dedicated
+	 * threads.
+	 */
+	public void shutdown() {
+		fExecutor.shutdown();
+	}
+}
@@ -0,0 +1,269 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+
+/**
+ * Bounded, chunked store for the buffered content of an output stream.
+ * <p>
+ * Content is kept in fixed size chunks which are either heap or direct
+ * (off-heap) {@link ByteBuffer}s, so appending never copies previously
+ * retained content. Text is decoded incrementally and kept per chunk: reading
+ * text only decodes the bytes appended since text was last read, and
+ * discarding a chunk drops its text without copying the remaining text.
+ * When a retention limit is set, the oldest chunks are discarded once the
+ * retained content exceeds the limit. Bytes of a discarded chunk that were
+ * not decoded yet are passed to the decoder first, so a character split
+ * between the discarded chunk and the next one is still decoded correctly.
+ * </p>
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ *
+ * @since 3.20
+ */
+public class StreamContentBuffer {
+
+	/**
+	 * Default size of a single chunk in bytes.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 32 * 1024;
+
+	/**
+	 * Retention limit value indicating that content is never discarded.
+	 */
+	public static final long UNLIMITED = -1;
+
+	/**
+	 * A chunk of retained content.
+	 */
+	private static final class Chunk {
+		final ByteBuffer fBytes;
+		/** Number of bytes of this chunk passed to the decoder. */
+		int fDecodedBytes;
+		/** Characters decoded from this chunk. */
+		final StringBuilder fText = new StringBuilder();
+
+		Chunk(ByteBuffer bytes) {
+			fBytes = bytes;
+		}
+	}
+
+	private final ArrayDeque<Chunk> fChunks = new ArrayDeque<>();
+	private final int fChunkSize;
+	private final boolean fDirect;
+	private final long fLimit;
+	private final StreamDecoder fDecoder;
+
+	/** Number of characters decoded from all retained chunks. */
+	private long fTextLength;
+	/** Cached result of {@link #getText()} or <code>null</code>. */
+	private String fCachedText;
+	/** Temporary array used to decode direct chunks. */
+	private byte[] fTransfer;
+	private long fSize;
+	private long fDiscarded;
+
+	/**
+	 * Creates an unbounded heap backed buffer.
+	 *
+	 * @param charset charset used to decode the content
+	 */
+	public StreamContentBuffer(Charset charset) {
+		this(charset, UNLIMITED, DEFAULT_CHUNK_SIZE, false);
+	}
+
+	/**
+	 * Creates a buffer.
+	 *
+	 * @param charset charset used to decode the content
+	 * @param limit maximum number of bytes to retain, or {@link #UNLIMITED}.
+	 *            The buffer retains at least the most recent
+	 *            <code>limit</code> bytes and at most one additional chunk.
+	 * @param chunkSize size of a single chunk in bytes
+	 * @param direct whether chunks are allocated outside of the Java heap
+	 */
+	public StreamContentBuffer(Charset charset, long limit, int chunkSize, boolean direct) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize must be positive"); //$NON-NLS-1$
+		}
+		fDecoder = new StreamDecoder(charset);
+		fLimit = limit;
+		fChunkSize = chunkSize;
+		fDirect = direct;
+	}
+
+	/**
+	 * Appends the given bytes.
+	 *
+	 * @param data content to append
+	 * @param offset start of valid data
+	 * @param length number of valid bytes
+	 */
+	public void write(byte[] data, int offset, int length) {
+		while (length > 0) {
+			Chunk chunk = fChunks.peekLast();
+			if (chunk == null || !chunk.fBytes.hasRemaining()) {
+				chunk = new Chunk(fDirect ? ByteBuffer.allocateDirect(fChunkSize) : ByteBuffer.allocate(fChunkSize));
+				fChunks.addLast(chunk);
+			}
+			int count = Math.min(length, chunk.fBytes.remaining());
+			chunk.fBytes.put(data, offset, count);
+			offset += count;
+			length -= count;
+			fSize += count;
+		}
+		trim();
+	}
+
+	/**
+	 * Discards the oldest chunks while the remaining content still exceeds the
+	 * retention limit.
+	 */
+	private void trim() {
+		if (fLimit < 0) {
+			return;
+		}
+		while (fChunks.size() > 1 && fSize - fChunks.peekFirst().fBytes.position() >= fLimit) {
+			Chunk head = fChunks.removeFirst();
+			// keep the decoder state in sync with the retained bytes
+			decode(head);
+			int size = head.fBytes.position();
+			fSize -= size;
+			fDiscarded += size;
+			if (head.fText.length() > 0) {
+				fTextLength -= head.fText.length();
+				fCachedText = null;
+			}
+		}
+	}
+
+	/**
+	 * Decodes the content appended since text was last read.
+	 */
+	private void decodeAppended() {
+		for (Chunk chunk : fChunks) {
+			decode(chunk);
+		}
+	}
+
+	/**
+	 * Decodes the bytes of the given chunk not passed to the decoder yet.
+	 *
+	 * @param chunk chunk to decode
+	 */
+	private void decode(Chunk chunk) {
+		int end = chunk.fBytes.position();
+		if (chunk.fDecodedBytes < end) {
+			String text = decode(chunk.fBytes, chunk.fDecodedBytes, end - chunk.fDecodedBytes);
+			chunk.fDecodedBytes = end;
+			chunk.fText.append(text);
+			fTextLength += text.length();
+			fCachedText = null;
+		}
+	}
+
+	/**
+	 * Returns the retained content decoded to text. Only content appended
+	 * since text was last read is decoded, but the returned string holds all
+	 * retained text and is created anew whenever content was appended or
+	 * discarded.
+	 *
+	 * @return retained content as text
+	 */
+	public String getText() {
+		decodeAppended();
+		if (fCachedText == null) {
+			StringBuilder text = new StringBuilder((int) fTextLength);
+			for (Chunk chunk : fChunks) {
+				text.append(chunk.fText);
+			}
+			fCachedText = text.toString();
+		}
+		return fCachedText;
+	}
+
+	private String decode(ByteBuffer bytes, int offset, int length) {
+		if (bytes.hasArray()) {
+			return fDecoder.decode(bytes.array(), bytes.arrayOffset() + offset, length);
+		}
+		if (fTransfer == null) {
+			fTransfer = new byte[fChunkSize];
+		}
+		ByteBuffer view = bytes.duplicate();
+		view.position(offset);
+		view.get(fTransfer, 0, length);
+		return fDecoder.decode(fTransfer, 0, length);
+	}
+
+	/**
+	 * Returns a copy of the retained content.
+	 *
+	 * @return retained content
+	 */
+	public byte[] getData() {
+		byte[] data = new byte[(int) fSize];
+		int offset = 0;
+		for (Chunk chunk : fChunks) {
+			ByteBuffer view = chunk.fBytes.duplicate();
+			view.flip();
+			int length = view.remaining();
+			view.get(data, offset, length);
+			offset += length;
+		}
+		return data;
+	}
+
+	/**
+	 * Discards all retained content. The decoder state is kept so that a
+	 * partially received character can still be completed.
+	 */
+	public void clear() {
+		fChunks.clear();
+		fTextLength = 0;
+		fCachedText = null;
+		fSize = 0;
+	}
+
+	/**
+	 * Returns the number of retained bytes.
+	 *
+	 * @return number of retained bytes
+	 */
+	public long size() {
+		return fSize;
+	}
+
+	/**
+	 * Returns the number of bytes discarded because the retention limit was
+	 * exceeded.
+	 *
+	 * @return number of discarded bytes
+	 */
+	public long getDiscardedBytes() {
+		return fDiscarded;
+	}
+
+	/**
+	 * Returns the retention limit of this buffer.
+	 *
+	 * @return maximum number of retained bytes, or {@link #UNLIMITED}
+	 */
+	public long getLimit() {
+		return fLimit;
+	}
+}
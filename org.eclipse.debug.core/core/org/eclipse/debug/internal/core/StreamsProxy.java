@@ -57,17 +57,40 @@ public class StreamsProxy implements IBinaryStreamsProxy {
 	 * @param charset the process's charset or <code>null</code> if default
 	 * @param suffix Thread name suffix
 	 */
-	@SuppressWarnings("resource")
 	public StreamsProxy(Process process, Charset charset, String suffix) {
+		this(process, charset, suffix, null);
+	}
+
+	/**
+	 * Creates a <code>StreamsProxy</code> on the streams of the given system
+	 * process. If a shared reader is given, the output and error streams are
+	 * read by the reader's threads and the thread writing the input stream is
+	 * only started when input is written. Otherwise a dedicated thread is used
+	 * for every stream.
+	 *
+	 * @param process system process to create a streams proxy on
+	 * @param charset the process's charset or <code>null</code> if default
+	 * @param suffix Thread name suffix
+	 * @param reader the shared reader or <code>null</code> to use dedicated
+	 *            threads
+	 */
+	@SuppressWarnings("resource")
+	public StreamsProxy(Process process, Charset charset, String suffix, SharedStreamReader reader) {
 		if (process == null) {
 			return;
 		}
 		fOutputMonitor = new OutputStreamMonitor(process.getInputStream(), charset);
 		fErrorMonitor = new OutputStreamMonitor(process.getErrorStream(), charset);
 		fInputMonitor = new InputStreamMonitor(process.getOutputStream(), charset);
-		fOutputMonitor.startMonitoring("Output Stream Monitor" + suffix); //$NON-NLS-1$
-		fErrorMonitor.startMonitoring("Error Stream Monitor" + suffix); //$NON-NLS-1$
-		fInputMonitor.startMonitoring("Input Stream Monitor" + suffix); //$NON-NLS-1$
+		if (reader == null) {
+			fOutputMonitor.startMonitoring("Output Stream Monitor" + suffix); //$NON-NLS-1$
+			fErrorMonitor.startMonitoring("Error Stream Monitor" + suffix); //$NON-NLS-1$
+			fInputMonitor.startMonitoring("Input Stream Monitor" + suffix); //$NON-NLS-1$
+		} else {
+			fOutputMonitor.startMonitoring(reader, process, "Output Stream Monitor" + suffix); //$NON-NLS-1$
+			fErrorMonitor.startMonitoring(reader, process, "Error Stream Monitor" + suffix); //$NON-NLS-1$
+			fInputMonitor.startMonitoringOnDemand("Input Stream Monitor" + suffix); //$NON-NLS-1$
+		}
 	}
 
 	/**
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core.sourcelookup;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Index of the entry names of an archive, built by enumerating the entries of
+ * the archive once. Entries can be looked up by name and by file name (the
+ * last segment of their name), so source lookups do not have to enumerate
+ * the archive again. An index is immutable and may be used by several threads
+ * concurrently.
+ *
+ * @since 3.20
+ */
+public class ArchiveEntryIndex {
+
+	private static final String[] NO_NAMES = new String[0];
+
+	/**
+	 * Names of all entries in archive order
+	 */
+	private final String[] fNames;
+
+	/**
+	 * Names of all entries, for exact lookups
+	 */
+	private final Set<String> fNameSet;
+
+	/**
+	 * Names of file entries by file name, each in archive order
+	 */
+	private final Map<String, String[]> fNamesByFileName;
+
+	/**
+	 * Creates an index of the entries of the given archive.
+	 *
+	 * @param archive an open archive
+	 * @throws IllegalStateException if the archive has been closed
+	 */
+	public ArchiveEntryIndex(ZipFile archive) {
+		List<String> names = new ArrayList<>(archive.size());
+		Map<String, List<String>> byFileName = new HashMap<>();
+		Enumeration<? extends ZipEntry> entries = archive.entries();
+		while (entries.hasMoreElements()) {
+			ZipEntry entry = entries.nextElement();
+			String name = entry.getName();
+			names.add(name);
+			if (!entry.isDirectory()) {
+				byFileName.computeIfAbsent(getFileName(name), n -> new ArrayList<>(1)).add(name);
+			}
+		}
+		fNames = names.toArray(new String[names.size()]);
+		fNameSet = new HashSet<>(names);
+		fNamesByFileName = new HashMap<>(byFileName.size());
+		for (Map.Entry<String, List<String>> entry : byFileName.entrySet()) {
+			List<String> list = entry.getValue();
+			fNamesByFileName.put(entry.getKey(), list.toArray(new String[list.size()]));
+		}
+	}
+
+	/**
+	 * Returns whether the archive contains an entry with the given name.
+	 *
+	 * @param name entry name
+	 * @return whether an entry with the given name exists
+	 */
+	public boolean containsEntry(String name) {
+		return fNameSet.contains(name);
+	}
+
+	/**
+	 * Returns the names of the file entries with the given file name in
+	 * archive order. An empty file name matches all entries.
+	 *
+	 * @param fileName the last segment of an entry name
+	 * @return names of matching entries, possibly empty
+	 */
+	public String[] getEntryNames(String fileName) {
+		if (fileName.isEmpty()) {
+			return fNames;
+		}
+		String[] names = fNamesByFileName.get(fileName);
+		return names != null ? names : NO_NAMES;
+	}
+
+	/**
+	 * Returns the number of entries in the archive.
+	 *
+	 * @return number of entries
+	 */
+	public int size() {
+		return fNames.length;
+	}
+
+	/**
+	 * Returns the last segment of the given entry name or path.
+	 *
+	 * @param name entry name or path, using <code>/</code> as separator
+	 * @return last segment, empty if the name ends with a separator
+	 */
+	public static String getFileName(String name) {
+		return name.substring(name.lastIndexOf('/') + 1);
+	}
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core.sourcelookup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.sourcelookup.ISourceContainer;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+
+/**
+ * Searches several source containers concurrently, see
+ * {@link IInternalDebugCoreConstants#PREF_PARALLEL_SOURCE_LOOKUP}.
+ * <p>
+ * The results are the same as the results of searching the containers one
+ * after another: source elements are returned in container order, and when
+ * duplicates are not requested the first source element of the first
+ * container with a match is returned and the searches of the remaining
+ * containers are cancelled. Errors are only reported when no source element
+ * is found, or when duplicates are requested.
+ * </p>
+ * <p>
+ * Searches started by a search thread, e.g. of composite containers, are
+ * performed sequentially in that thread, so the search threads never wait for
+ * each other.
+ * </p>
+ *
+ * @since 3.20
+ */
+public class ParallelSourceContainerSearch {
+
+	private static final Object[] EMPTY = new Object[0];
+
+	/**
+	 * Maximum number of concurrent container searches
+	 */
+	private static final int MAX_THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+	/**
+	 * Thread searching a source container.
+	 */
+	private static final class SearchThread extends Thread {
+		SearchThread(Runnable runnable, String name) {
+			super(runnable, name);
+			setDaemon(true);
+		}
+	}
+
+	private static ThreadPoolExecutor fgExecutor;
+
+	private static synchronized ThreadPoolExecutor getExecutor() {
+		if (fgExecutor == null) {
+			AtomicInteger count = new AtomicInteger();
+			fgExecutor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+					r -> new SearchThread(r, "Source Lookup Search " + count.incrementAndGet())); //$NON-NLS-1$
+			fgExecutor.allowCoreThreadTimeOut(true);
+		}
+		return fgExecutor;
+	}
+
+	/**
+	 * Returns whether the given containers should be searched in parallel.
+	 *
+	 * @param containers the containers to search
+	 * @return whether parallel search is enabled and worthwhile
+	 */
+	public static boolean isParallel(ISourceContainer[] containers) {
+		return containers.length > 1 && !(Thread.currentThread() instanceof SearchThread)
+				&& Platform.getPreferencesService().getBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_PARALLEL_SOURCE_LOOKUP, false, null);
+	}
+
+	/**
+	 * Searches the given containers concurrently. If the calling thread is
+	 * interrupted while waiting, the pending searches are cancelled and the
+	 * source elements found so far are returned.
+	 *
+	 * @param name the name of the source element to search for
+	 * @param containers the containers to search, <code>null</code> entries
+	 *            are skipped
+	 * @param findDuplicates whether to return the source elements of all
+	 *            containers
+	 * @return the source elements found, possibly empty
+	 * @throws CoreException if no source element is found and searching a
+	 *             container failed, or if searching a container failed and
+	 *             duplicates are requested
+	 */
+	public static Object[] findSourceElements(String name, ISourceContainer[] containers, boolean findDuplicates) throws CoreException {
+		ThreadPoolExecutor executor = getExecutor();
+		List<Future<Object[]>> searches = new ArrayList<>(containers.length);
+		for (ISourceContainer container : containers) {
+			searches.add(container != null ? executor.submit(() -> container.findSourceElements(name)) : null);
+		}
+		List<Object> results = findDuplicates ? new ArrayList<>() : null;
+		CoreException single = null;
+		MultiStatus multiStatus = null;
+		try {
+			for (Future<Object[]> search : searches) {
+				if (search == null) {
+					continue;
+				}
+				try {
+					Object[] objects = search.get();
+					if (objects.length > 0) {
+						if (results != null) {
+							Collections.addAll(results, objects);
+						} else {
+							if (objects.length == 1) {
+								return objects;
+							}
+							return new Object[] { objects[0] };
+						}
+					}
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof CoreException) {
+						if (single == null) {
+							single = (CoreException) cause;
+						} else if (multiStatus == null) {
+							multiStatus = new MultiStatus(DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, new IStatus[] { single.getStatus() }, SourceLookupMessages.Source_Lookup_Error, null);
+							multiStatus.add(((CoreException) cause).getStatus());
+						} else {
+							multiStatus.add(((CoreException) cause).getStatus());
+						}
+					} else if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					} else if (cause instanceof Error) {
+						throw (Error) cause;
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			// the lookup has been cancelled
+			Thread.currentThread().interrupt();
+			return results != null ? results.toArray() : EMPTY;
+		} finally {
+			for (Future<Object[]> search : searches) {
+				if (search != null) {
+					search.cancel(false);
+				}
+			}
+		}
+		if (results == null) {
+			if (multiStatus != null) {
+				throw new CoreException(multiStatus);
+			} else if (single != null) {
+				throw single;
+			}
+			return EMPTY;
+		}
+		return results.toArray();
+	}
+}
@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core.sourcelookup;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.debug.core.sourcelookup.ISourceLookupParticipant;
+
+/**
+ * Bounded cache of the source elements found by the participants of a source
+ * lookup director for source names, including names for which no source
+ * element was found.
+ * <p>
+ * Each modification of the cache which may invalidate lookups in progress,
+ * i.e. clearing the cache, advances its stamp. Results of lookups which
+ * started before the stamp changed are not cached. The cache is cleared
+ * when the shared archives are closed, since cached source elements may
+ * refer to them, and, when registered as resource change listener (see
+ * {@link #newResourceListener()}), when resources are added, removed, moved,
+ * opened or closed in the workspace.
+ * </p>
+ *
+ * @since 3.20
+ */
+public class SourceLookupCache implements IResourceChangeListener {
+
+	/**
+	 * Default maximum number of cached lookups.
+	 */
+	public static final int DEFAULT_SIZE = 500;
+
+	/**
+	 * Resource change listener forwarding to a cache which it only references
+	 * weakly.
+	 */
+	private static final class ResourceListener implements IResourceChangeListener {
+		private final WeakReference<SourceLookupCache> fCache;
+
+		ResourceListener(SourceLookupCache cache) {
+			fCache = new WeakReference<>(cache);
+		}
+
+		@Override
+		public void resourceChanged(IResourceChangeEvent event) {
+			SourceLookupCache cache = fCache.get();
+			if (cache == null) {
+				ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+			} else {
+				cache.resourceChanged(event);
+			}
+		}
+	}
+
+	/**
+	 * Key of a cached lookup.
+	 */
+	private static final class Key {
+		final ISourceLookupParticipant fParticipant;
+		final String fName;
+		final boolean fDuplicates;
+
+		Key(ISourceLookupParticipant participant, String name, boolean duplicates) {
+			fParticipant = participant;
+			fName = name;
+			fDuplicates = duplicates;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof Key) {
+				Key key = (Key) obj;
+				return fParticipant == key.fParticipant && fDuplicates == key.fDuplicates && fName.equals(key.fName);
+			}
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * System.identityHashCode(fParticipant) + fName.hashCode()) + (fDuplicates ? 1 : 0);
+		}
+	}
+
+	/**
+	 * Cached source elements in access order. Guarded by this cache.
+	 */
+	private final LinkedHashMap<Key, Object[]> fEntries = new LinkedHashMap<Key, Object[]>(64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Object[]> eldest) {
+			if (size() > fMaxSize) {
+				fEvictions++;
+				return true;
+			}
+			return false;
+		}
+	};
+
+	private int fMaxSize;
+	private long fStamp;
+	private int fArchiveGeneration = SourceLookupUtils.getArchiveGeneration();
+
+	private long fHits;
+	private long fMisses;
+	private long fEvictions;
+
+	/**
+	 * Creates a cache for the given number of lookups.
+	 *
+	 * @param maxSize maximum number of cached lookups
+	 */
+	public SourceLookupCache(int maxSize) {
+		fMaxSize = maxSize;
+	}
+
+	/**
+	 * Returns a new resource change listener which clears this cache on
+	 * structural workspace changes. The listener only references this cache
+	 * weakly, so a cache whose owner is never disposed does not stay reachable
+	 * through the workspace. Once the cache has been garbage collected the
+	 * listener removes itself from the workspace with the next resource
+	 * change.
+	 *
+	 * @return resource change listener for this cache
+	 */
+	public IResourceChangeListener newResourceListener() {
+		return new ResourceListener(this);
+	}
+
+	/**
+	 * Returns the current stamp of this cache, to be passed to
+	 * {@link #put(ISourceLookupParticipant, String, boolean, Object[], long)}
+	 * when the lookup is done.
+	 *
+	 * @return current stamp
+	 */
+	public synchronized long getStamp() {
+		validate();
+		return fStamp;
+	}
+
+	/**
+	 * Returns the cached source elements for the given lookup.
+	 *
+	 * @param participant participant performing the lookup
+	 * @param name source name
+	 * @param duplicates whether duplicates are searched for
+	 * @return the cached source elements, empty if none were found, or
+	 *         <code>null</code> if the lookup is not cached
+	 */
+	public synchronized Object[] get(ISourceLookupParticipant participant, String name, boolean duplicates) {
+		validate();
+		Object[] elements = fEntries.get(new Key(participant, name, duplicates));
+		if (elements == null) {
+			fMisses++;
+			return null;
+		}
+		fHits++;
+		return elements.clone();
+	}
+
+	/**
+	 * Caches the source elements found by a lookup, unless the cache has been
+	 * cleared since the lookup started.
+	 *
+	 * @param participant participant which performed the lookup
+	 * @param name source name
+	 * @param duplicates whether duplicates were searched for
+	 * @param elements source elements found, possibly empty
+	 * @param stamp stamp of this cache when the lookup started
+	 */
+	public synchronized void put(ISourceLookupParticipant participant, String name, boolean duplicates, Object[] elements, long stamp) {
+		validate();
+		if (stamp == fStamp && fMaxSize > 0) {
+			fEntries.put(new Key(participant, name, duplicates), elements.clone());
+		}
+	}
+
+	/**
+	 * Removes all cached lookups.
+	 */
+	public synchronized void clear() {
+		fEntries.clear();
+		fStamp++;
+	}
+
+	/**
+	 * Sets the maximum number of cached lookups, evicting the least recently
+	 * used lookups if required.
+	 *
+	 * @param maxSize maximum number of cached lookups, <code>0</code> to
+	 *            disable caching
+	 */
+	public synchronized void setMaxSize(int maxSize) {
+		fMaxSize = Math.max(0, maxSize);
+		while (fEntries.size() > fMaxSize) {
+			fEntries.remove(fEntries.keySet().iterator().next());
+			fEvictions++;
+		}
+	}
+
+	/**
+	 * @return maximum number of cached lookups
+	 */
+	public synchronized int getMaxSize() {
+		return fMaxSize;
+	}
+
+	/**
+	 * @return number of cached lookups
+	 */
+	public synchronized int size() {
+		return fEntries.size();
+	}
+
+	/**
+	 * @return number of lookups answered from this cache
+	 */
+	public synchronized long getHitCount() {
+		return fHits;
+	}
+
+	/**
+	 * @return number of lookups not found in this cache
+	 */
+	public synchronized long getMissCount() {
+		return fMisses;
+	}
+
+	/**
+	 * @return number of lookups evicted because the cache was full
+	 */
+	public synchronized long getEvictionCount() {
+		return fEvictions;
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta != null && isStructuralChange(delta)) {
+			clear();
+		}
+	}
+
+	/**
+	 * Returns whether the given delta adds, removes, moves, opens or closes a
+	 * resource, i.e. may change the results of source lookups.
+	 *
+	 * @param delta resource delta
+	 * @return whether the delta may change lookup results
+	 */
+	private static boolean isStructuralChange(IResourceDelta delta) {
+		int kind = delta.getKind();
+		if (kind == IResourceDelta.ADDED || kind == IResourceDelta.REMOVED) {
+			return true;
+		}
+		if ((delta.getFlags() & (IResourceDelta.OPEN | IResourceDelta.MOVED_FROM | IResourceDelta.MOVED_TO | IResourceDelta.REPLACED)) != 0) {
+			return true;
+		}
+		for (IResourceDelta child : delta.getAffectedChildren()) {
+			if (isStructuralChange(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Clears this cache if the shared archives have been closed since it was
+	 * last accessed.
+	 */
+	private void validate() {
+		int generation = SourceLookupUtils.getArchiveGeneration();
+		if (generation != fArchiveGeneration) {
+			fArchiveGeneration = generation;
+			clear();
+		}
+	}
+}
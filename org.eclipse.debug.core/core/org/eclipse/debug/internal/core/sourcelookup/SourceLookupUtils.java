@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2018 IBM Corporation and others.
+ * Copyright (c) 2003, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,7 +14,8 @@
 package org.eclipse.debug.internal.core.sourcelookup;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipFile;
 
 import org.eclipse.core.resources.IResourceChangeEvent;
@@ -39,9 +40,21 @@ public class SourceLookupUtils {
 	 * when this class's plug-in is shutdown, when a project
 	 * is about to be closed or deleted, when a launch is
 	 * removed, and when a debug target or process terminates.
+	 * Zip files are only added and removed while holding the
+	 * lock on this map.
 	 */
-	private static HashMap<String, ZipFile> fgZipFileCache = new HashMap<>(5);
+	private static final Map<String, ZipFile> fgZipFileCache = new ConcurrentHashMap<>(5);
+	/**
+	 * Entry indexes of the shared zip files, discarded when
+	 * the zip files are closed. Indexes are built and added while
+	 * holding the lock on their zip file.
+	 */
+	private static final Map<ZipFile, ArchiveEntryIndex> fgArchiveIndexCache = new ConcurrentHashMap<>(5);
 	private static ArchiveCleaner fgCleaner = null;
+	/**
+	 * Number of times the shared zip files have been closed.
+	 */
+	private static volatile int fgArchiveGeneration;
 
 	/**
 	 * Returns a zip file with the given name
@@ -53,13 +66,17 @@ public class SourceLookupUtils {
 	 */
 	@SuppressWarnings("resource")
 	public static ZipFile getZipFile(String name) throws IOException {
+		ZipFile zip = fgZipFileCache.get(name);
+		if (zip != null) {
+			return zip;
+		}
 		synchronized (fgZipFileCache) {
 			if (fgCleaner == null) {
 				fgCleaner = new ArchiveCleaner();
 				DebugPlugin.getDefault().getLaunchManager().addLaunchListener(fgCleaner);
 				ResourcesPlugin.getWorkspace().addResourceChangeListener(fgCleaner, IResourceChangeEvent.PRE_DELETE | IResourceChangeEvent.PRE_CLOSE);
 			}
-			ZipFile zip = fgZipFileCache.get(name);
+			zip = fgZipFileCache.get(name);
 			if (zip == null) {
 				zip = new ZipFile(name);
 				fgZipFileCache.put(name, zip);
@@ -68,6 +85,41 @@ public class SourceLookupUtils {
 		}
 	}
 
+	/**
+	 * Returns the index of the entries of the given shared zip file. The index
+	 * is built on first access and discarded when the zip file is closed.
+	 *
+	 * @param file a zip file returned by {@link #getZipFile(String)}
+	 * @return index of the zip file's entries
+	 * @exception IllegalStateException if the zip file has been closed
+	 */
+	public static ArchiveEntryIndex getArchiveIndex(ZipFile file) {
+		ArchiveEntryIndex index = fgArchiveIndexCache.get(file);
+		if (index == null) {
+			// closeArchives() closes the file while holding its lock and discards
+			// the indexes afterwards, so an index added here never outlives the file
+			synchronized (file) {
+				index = fgArchiveIndexCache.get(file);
+				if (index == null) {
+					index = new ArchiveEntryIndex(file);
+					fgArchiveIndexCache.put(file, index);
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Returns a number which changes whenever the shared zip files are
+	 * closed, to allow clients to discard references to zip files which may
+	 * have been closed.
+	 *
+	 * @return current generation of shared zip files
+	 */
+	public static int getArchiveGeneration() {
+		return fgArchiveGeneration;
+	}
+
 	/**
 	 * Closes all zip files that have been opened,
 	 * and removes them from the zip file cache.
@@ -76,7 +128,11 @@ public class SourceLookupUtils {
 	 */
 	public static void closeArchives() {
 		synchronized (fgZipFileCache) {
-			for (ZipFile file : fgZipFileCache.values()) {
+			// remove the files before closing them, so they are not handed out while closing
+			ZipFile[] files = fgZipFileCache.values().toArray(new ZipFile[0]);
+			fgZipFileCache.clear();
+			fgArchiveGeneration++;
+			for (ZipFile file : files) {
 				synchronized (file) {
 					try {
 						file.close();
@@ -85,7 +141,8 @@ public class SourceLookupUtils {
 					}
 				}
 			}
-			fgZipFileCache.clear();
+			// indexes can no longer be added for the closed files
+			fgArchiveIndexCache.clear();
 		}
 	}
 
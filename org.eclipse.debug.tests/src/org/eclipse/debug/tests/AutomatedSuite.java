@@ -21,6 +21,7 @@ import org.eclipse.debug.tests.breakpoint.SerialExecutorTest;
 import org.eclipse.debug.tests.console.ConsoleDocumentAdapterTests;
 import org.eclipse.debug.tests.console.ConsoleManagerTests;
 import org.eclipse.debug.tests.console.ConsoleTests;
+import org.eclipse.debug.tests.console.ConsoleTextStoreTests;
 import org.eclipse.debug.tests.console.FileLinkTests;
 import org.eclipse.debug.tests.console.IOConsoleFixedWidthTests;
 import org.eclipse.debug.tests.console.IOConsoleTests;
@@ -29,8 +30,11 @@ import org.eclipse.debug.tests.console.OutputStreamMonitorTests;
 import org.eclipse.debug.tests.console.ProcessConsoleManagerTests;
 import org.eclipse.debug.tests.console.ProcessConsoleTests;
 import org.eclipse.debug.tests.console.RuntimeProcessTests;
+import org.eclipse.debug.tests.console.StreamContentBufferTests;
 import org.eclipse.debug.tests.console.StreamsProxyTests;
 import org.eclipse.debug.tests.console.TextConsoleViewerTest;
+import org.eclipse.debug.tests.events.DebugEventListenerIndexTests;
+import org.eclipse.debug.tests.events.DebugEventQueueTests;
 import org.eclipse.debug.tests.launching.AcceleratorSubstitutionTests;
 import org.eclipse.debug.tests.launching.ArgumentParsingTests;
 import org.eclipse.debug.tests.launching.LaunchConfigurationTests;
@@ -40,15 +44,23 @@ import org.eclipse.debug.tests.launching.LaunchHistoryTests;
 import org.eclipse.debug.tests.launching.LaunchManagerTests;
 import org.eclipse.debug.tests.launching.LaunchTests;
 import org.eclipse.debug.tests.launching.RefreshTabTests;
+import org.eclipse.debug.tests.launching.StringVariableResolutionScopeTests;
 import org.eclipse.debug.tests.logicalstructure.LogicalStructureCacheTest;
+import org.eclipse.debug.tests.sourcelookup.ArchiveSourceContainerTests;
+import org.eclipse.debug.tests.sourcelookup.ParallelSourceLookupTests;
+import org.eclipse.debug.tests.sourcelookup.SourceLookupCacheTests;
 import org.eclipse.debug.tests.sourcelookup.SourceLookupFacilityTests;
 import org.eclipse.debug.tests.statushandlers.StatusHandlerTests;
 import org.eclipse.debug.tests.stepfilters.StepFiltersTests;
 import org.eclipse.debug.tests.ui.VariableValueEditorManagerTests;
+import org.eclipse.debug.tests.unittest.CompactHistoryFormatTests;
 import org.eclipse.debug.tests.view.memory.MemoryRenderingTests;
 import org.eclipse.debug.tests.view.memory.TableRenderingTests;
 import org.eclipse.debug.tests.viewer.model.ChildrenUpdateTests;
+import org.eclipse.debug.tests.viewer.model.DebugElementLabelStampTests;
+import org.eclipse.debug.tests.viewer.model.ElementContentUpdateExecutorTests;
 import org.eclipse.debug.tests.viewer.model.FilterTransformTests;
+import org.eclipse.debug.tests.viewer.model.ModelDeltaCoalescerTests;
 import org.eclipse.debug.tests.viewer.model.PresentationContextTests;
 import org.eclipse.debug.tests.viewer.model.VirtualViewerContentTests;
 import org.eclipse.debug.tests.viewer.model.VirtualViewerDeltaTests;
@@ -69,6 +81,9 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 		// Source lookup tests
 		SourceLookupFacilityTests.class,
+		ArchiveSourceContainerTests.class,
+		ParallelSourceLookupTests.class,
+		SourceLookupCacheTests.class,
 		// BP tests
 		BreakpointOrderingTests.class,
 		BreakpointTests.class,
@@ -89,6 +104,9 @@ import org.junit.runners.Suite;
 		// Viewer neutral tests
 		FilterTransformTests.class,
 		ChildrenUpdateTests.class,
+		ElementContentUpdateExecutorTests.class,
+		ModelDeltaCoalescerTests.class,
+		DebugElementLabelStampTests.class,
 		PresentationContextTests.class,
 		VariableValueEditorManagerTests.class,
 
@@ -105,6 +123,7 @@ import org.junit.runners.Suite;
 		RefreshTabTests.class,
 		ArgumentParsingTests.class,
 		LaunchTests.class,
+		StringVariableResolutionScopeTests.class,
 
 		// Status handlers
 		StatusHandlerTests.class,
@@ -114,6 +133,7 @@ import org.junit.runners.Suite;
 
 		// Console view
 		ConsoleDocumentAdapterTests.class,
+		ConsoleTextStoreTests.class,
 		ConsoleManagerTests.class,
 		ConsoleTests.class,
 		IOConsoleTests.class,
@@ -124,14 +144,22 @@ import org.junit.runners.Suite;
 		TextConsoleViewerTest.class,
 		RuntimeProcessTests.class,
 		OutputStreamMonitorTests.class,
+		StreamContentBufferTests.class,
 		InputStreamMonitorTests.class,
 		FileLinkTests.class,
 
+		// Debug events
+		DebugEventQueueTests.class,
+		DebugEventListenerIndexTests.class,
+
 		// Launch Groups
 		LaunchGroupTests.class,
 
 		// Logical structure
 		LogicalStructureCacheTest.class,
+
+		// Unit test view
+		CompactHistoryFormatTests.class,
 })
 public class AutomatedSuite {
 }
@@ -13,6 +13,12 @@
  *******************************************************************************/
 package org.eclipse.debug.tests;
 
+import org.eclipse.debug.tests.breakpoint.BreakpointIndexPerformanceTests;
+import org.eclipse.debug.tests.console.IOConsolePartitionListPerformanceTests;
+import org.eclipse.debug.tests.console.StreamsProxyPerformanceTests;
+import org.eclipse.debug.tests.launching.LaunchConfigurationXMLPerformanceTests;
+import org.eclipse.debug.tests.launching.StringSubstitutionPerformanceTests;
+import org.eclipse.debug.tests.unittest.TestRunSessionStressTests;
 import org.eclipse.debug.tests.viewer.model.JFaceViewerPerformanceTests;
 import org.eclipse.debug.tests.viewer.model.VirtualViewerPerformanceTests;
 import org.junit.runner.RunWith;
@@ -26,6 +32,12 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
 		JFaceViewerPerformanceTests.class,
-		VirtualViewerPerformanceTests.class })
+		VirtualViewerPerformanceTests.class,
+		StreamsProxyPerformanceTests.class,
+		IOConsolePartitionListPerformanceTests.class,
+		BreakpointIndexPerformanceTests.class,
+		LaunchConfigurationXMLPerformanceTests.class,
+		StringSubstitutionPerformanceTests.class,
+		TestRunSessionStressTests.class })
 public class PerformanceSuite {
 }
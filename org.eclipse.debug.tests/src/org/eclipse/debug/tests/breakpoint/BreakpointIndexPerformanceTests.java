@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.breakpoint;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.debug.core.model.IBreakpoint;
+import org.eclipse.debug.internal.core.BreakpointIndex;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.junit.Test;
+
+/**
+ * Measures add, lookup and remove performance of the {@link BreakpointIndex}
+ * used by the breakpoint manager, e.g. for workspaces with many imported
+ * breakpoints.
+ */
+public class BreakpointIndexPerformanceTests extends AbstractDebugTest {
+
+	private static final int BREAKPOINTS = 100_000;
+	private static final int FOLDERS = 100;
+	private static final int LOOKUPS = 100_000;
+	private static final String OTHER_MODEL = "org.eclipse.debug.tests.other"; //$NON-NLS-1$
+
+	private IProject project;
+	private TestBreakpoint[] breakpoints;
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject(getClass().getSimpleName());
+		breakpoints = new TestBreakpoint[BREAKPOINTS];
+		ResourcesPlugin.getWorkspace().run(monitor -> {
+			project.create(null);
+			project.open(null);
+			IResource[] folders = new IResource[FOLDERS];
+			for (int i = 0; i < FOLDERS; i++) {
+				IFolder folder = project.getFolder("folder" + i); //$NON-NLS-1$
+				folder.create(true, true, null);
+				folders[i] = folder;
+			}
+			for (int i = 0; i < BREAKPOINTS; i++) {
+				IMarker marker = folders[i % FOLDERS].createMarker(IBreakpoint.BREAKPOINT_MARKER);
+				marker.setAttribute(IMarker.LINE_NUMBER, i);
+				breakpoints[i] = i % 2 == 0 ? new TestBreakpoint() : new OtherModelBreakpoint();
+				breakpoints[i].setMarker(marker);
+			}
+		}, null);
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		project.delete(true, true, null);
+		super.tearDown();
+	}
+
+	@Test
+	public void testAddLookupRemove100000Breakpoints() {
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int i = 0; i < 5; i++) {
+				BreakpointIndex index = new BreakpointIndex();
+				Random random = new Random(i);
+				meter.start();
+				long start = System.nanoTime();
+				for (TestBreakpoint breakpoint : breakpoints) {
+					index.add(breakpoint);
+				}
+				long addTime = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				int found = 0;
+				for (int l = 0; l < LOOKUPS; l++) {
+					TestBreakpoint breakpoint = breakpoints[random.nextInt(BREAKPOINTS)];
+					if (index.contains(breakpoint) && index.getBreakpoint(breakpoint.getMarker()) == breakpoint) {
+						found++;
+					}
+				}
+				for (int l = 0; l < 100; l++) {
+					found += index.getBreakpoints(l % 2 == 0 ? TestBreakpoint.MODEL : OTHER_MODEL).length;
+					index.getBreakpoints(project.getFolder("folder" + l % FOLDERS)); //$NON-NLS-1$
+				}
+				long lookupTime = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				for (int r = BREAKPOINTS - 1; r >= 0; r -= 2) {
+					index.remove(breakpoints[r]);
+				}
+				long removeTime = System.nanoTime() - start;
+				meter.stop();
+
+				assertEquals(LOOKUPS + 100 * BREAKPOINTS / 2, found);
+				assertEquals(BREAKPOINTS / 2, index.size());
+				assertEquals(0, index.getBreakpoints(OTHER_MODEL).length);
+				assertSame(breakpoints[0], index.getBreakpoints(TestBreakpoint.MODEL)[0]);
+				assertEquals(BREAKPOINTS / 2, index.getBreakpointsBelow(project).size());
+				TestUtil.log(IStatus.INFO, name.getMethodName(), String.format("%d breakpoints: %.1f ms add, %.1f ms lookup, %.1f ms remove", //$NON-NLS-1$
+						BREAKPOINTS, addTime / 1e6, lookupTime / 1e6, removeTime / 1e6));
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	/**
+	 * Breakpoint of a different debug model.
+	 */
+	private static class OtherModelBreakpoint extends TestBreakpoint {
+		@Override
+		public String getModelIdentifier() {
+			return OTHER_MODEL;
+		}
+	}
+}
@@ -18,12 +18,23 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.commands.operations.IOperationHistory;
 import org.eclipse.core.commands.operations.IUndoContext;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IMarkerDelta;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.IBreakpointManager;
+import org.eclipse.debug.core.IBreakpointsListener;
 import org.eclipse.debug.core.model.IBreakpoint;
 import org.eclipse.debug.internal.core.BreakpointManager;
 import org.eclipse.debug.internal.ui.DebugUIPlugin;
@@ -131,4 +142,189 @@ public class BreakpointTests extends AbstractDebugTest {
 			}
 		}
 	}
+
+	/**
+	 * Tests that changes of many breakpoint markers in one workspace operation
+	 * are reported with one notification per kind of change, also if they are
+	 * processed in the background.
+	 */
+	@Test
+	public void testBatchedMarkerDeltas() throws Exception {
+		final int count = 500;
+		TestBreakpoint[] breakpoints = new TestBreakpoint[count];
+		for (int i = 0; i < count; i++) {
+			breakpoints[i] = new TestBreakpoint("batch " + i);
+		}
+		bpm.addBreakpoints(breakpoints);
+		// let pending marker deltas of the creation be processed
+		TestUtil.waitForJobs(name.getMethodName(), 100, 5000);
+
+		AtomicInteger changedCalls = new AtomicInteger();
+		AtomicInteger changedBreakpoints = new AtomicInteger();
+		AtomicInteger removedCalls = new AtomicInteger();
+		AtomicInteger removedBreakpoints = new AtomicInteger();
+		IBreakpointsListener listener = new IBreakpointsListener() {
+			@Override
+			public void breakpointsAdded(IBreakpoint[] added) {
+			}
+
+			@Override
+			public void breakpointsRemoved(IBreakpoint[] removed, IMarkerDelta[] deltas) {
+				removedCalls.incrementAndGet();
+				removedBreakpoints.addAndGet(removed.length);
+			}
+
+			@Override
+			public void breakpointsChanged(IBreakpoint[] changed, IMarkerDelta[] deltas) {
+				changedCalls.incrementAndGet();
+				changedBreakpoints.addAndGet(changed.length);
+			}
+		};
+		bpm.addBreakpointListener(listener);
+		try {
+			ResourcesPlugin.getWorkspace().run(monitor -> {
+				for (TestBreakpoint breakpoint : breakpoints) {
+					breakpoint.getMarker().setAttribute(IMarker.LINE_NUMBER, 1);
+				}
+			}, null);
+			Job.getJobManager().join(bpm, null);
+			assertEquals(count, changedBreakpoints.get());
+			assertEquals(1, changedCalls.get());
+
+			ResourcesPlugin.getWorkspace().run(monitor -> {
+				for (TestBreakpoint breakpoint : breakpoints) {
+					breakpoint.getMarker().delete();
+				}
+			}, null);
+			Job.getJobManager().join(bpm, null);
+			assertEquals(count, removedBreakpoints.get());
+			assertEquals(1, removedCalls.get());
+			assertEquals(0, getTestBreakpoints().size());
+		} finally {
+			bpm.removeBreakpointListener(listener);
+		}
+	}
+
+	/**
+	 * Tests that the breakpoints of a batch of more than 100 restored markers
+	 * are registered before their notification is fired in the background,
+	 * so that a change to one of them, made right after the batch, is not
+	 * lost and is reported after the breakpoint was added.
+	 */
+	@Test
+	public void testChangeAfterLargeBatch() throws Exception {
+		final int count = 150;
+		final IResource resource = ResourcesPlugin.getWorkspace().getRoot();
+		final IMarker[] markers = new IMarker[count];
+		final List<String> events = Collections.synchronizedList(new ArrayList<>());
+		IBreakpointsListener listener = new IBreakpointsListener() {
+			@Override
+			public void breakpointsAdded(IBreakpoint[] added) {
+				for (IBreakpoint breakpoint : added) {
+					if (breakpoint.getMarker().equals(markers[0])) {
+						events.add("added");
+					}
+				}
+			}
+
+			@Override
+			public void breakpointsRemoved(IBreakpoint[] removed, IMarkerDelta[] deltas) {
+			}
+
+			@Override
+			public void breakpointsChanged(IBreakpoint[] changed, IMarkerDelta[] deltas) {
+				for (int i = 0; i < changed.length; i++) {
+					// only record the change of the line number, not the
+					// change of the attributes of the restored marker
+					if (changed[i].getMarker().equals(markers[0]) && deltas[i] != null && Boolean.FALSE.equals(deltas[i].getAttribute(DebugPlugin.ATTR_BREAKPOINT_IS_DELETED))) {
+						events.add("changed");
+					}
+				}
+			}
+		};
+		bpm.addBreakpointListener(listener);
+		try {
+			// restore markers of deleted breakpoints, as undo does
+			ResourcesPlugin.getWorkspace().run(monitor -> {
+				for (int i = 0; i < count; i++) {
+					markers[i] = resource.createMarker(IBreakpoint.BREAKPOINT_MARKER);
+					markers[i].setAttribute(IBreakpoint.ID, TestBreakpoint.MODEL);
+					markers[i].setAttribute(TestBreakpoint.TEXT_ATTRIBUTE, "restored " + i);
+					markers[i].setAttribute(DebugPlugin.ATTR_BREAKPOINT_IS_DELETED, true);
+				}
+			}, null);
+			Job.getJobManager().join(ResourcesPlugin.FAMILY_AUTO_BUILD, null);
+
+			// the manager state is updated when the delta is processed, also
+			// if listeners are notified in the background
+			assertNotNull(bpm.getBreakpoint(markers[0]));
+			assertEquals(count, getTestBreakpoints().size());
+
+			markers[0].setAttribute(IMarker.LINE_NUMBER, 1);
+			Job.getJobManager().join(ResourcesPlugin.FAMILY_AUTO_BUILD, null);
+
+			Job.getJobManager().join(bpm, null);
+			assertEquals("[added, changed]", events.toString());
+		} finally {
+			bpm.removeBreakpointListener(listener);
+		}
+	}
+
+	/**
+	 * Tests that listeners are notified of a breakpoint added through the API
+	 * in the calling thread, also while the notification of a large batch of
+	 * restored markers is being fired in the background.
+	 */
+	@Test
+	public void testApiNotificationWhileBatchPending() throws Exception {
+		final int count = 150;
+		final IResource resource = ResourcesPlugin.getWorkspace().getRoot();
+		final Thread testThread = Thread.currentThread();
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<IBreakpoint> addedInTestThread = Collections.synchronizedList(new ArrayList<>());
+		IBreakpointsListener listener = new IBreakpointsListener() {
+			@Override
+			public void breakpointsAdded(IBreakpoint[] added) {
+				if (Thread.currentThread() == testThread) {
+					addedInTestThread.addAll(Arrays.asList(added));
+				} else if (added.length == count) {
+					blocked.countDown();
+					try {
+						release.await(testTimeout, TimeUnit.MILLISECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+
+			@Override
+			public void breakpointsRemoved(IBreakpoint[] removed, IMarkerDelta[] deltas) {
+			}
+
+			@Override
+			public void breakpointsChanged(IBreakpoint[] changed, IMarkerDelta[] deltas) {
+			}
+		};
+		bpm.addBreakpointListener(listener);
+		try {
+			ResourcesPlugin.getWorkspace().run(monitor -> {
+				for (int i = 0; i < count; i++) {
+					IMarker marker = resource.createMarker(IBreakpoint.BREAKPOINT_MARKER);
+					marker.setAttribute(IBreakpoint.ID, TestBreakpoint.MODEL);
+					marker.setAttribute(TestBreakpoint.TEXT_ATTRIBUTE, "restored " + i);
+					marker.setAttribute(DebugPlugin.ATTR_BREAKPOINT_IS_DELETED, true);
+				}
+			}, null);
+			assertTrue("Batch not notified in the background", blocked.await(testTimeout, TimeUnit.MILLISECONDS));
+
+			TestBreakpoint breakpoint = new TestBreakpoint("api");
+			bpm.addBreakpoint(breakpoint);
+			assertEquals(Collections.singletonList(breakpoint), addedInTestThread);
+		} finally {
+			release.countDown();
+			Job.getJobManager().join(bpm, null);
+			bpm.removeBreakpointListener(listener);
+		}
+	}
 }
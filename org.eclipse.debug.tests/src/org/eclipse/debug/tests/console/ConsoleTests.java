@@ -21,6 +21,10 @@ import static org.junit.Assert.fail;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.eclipse.core.commands.Command;
 import org.eclipse.debug.tests.AbstractDebugTest;
@@ -37,7 +41,10 @@ import org.eclipse.ui.console.IConsoleConstants;
 import org.eclipse.ui.console.IConsoleManager;
 import org.eclipse.ui.console.IOConsole;
 import org.eclipse.ui.console.IOConsoleOutputStream;
+import org.eclipse.ui.console.IPatternMatchListener;
 import org.eclipse.ui.console.MessageConsole;
+import org.eclipse.ui.console.PatternMatchEvent;
+import org.eclipse.ui.console.TextConsole;
 import org.eclipse.ui.texteditor.IWorkbenchActionDefinitionIds;
 import org.junit.Test;
 
@@ -229,4 +236,111 @@ public class ConsoleTests extends AbstractDebugTest {
 			consoleInput.available();
 		}
 	}
+
+	/**
+	 * Tests that pattern match listeners with literal, regular expression and
+	 * no line qualifier find the same matches as a plain regular expression
+	 * search and are notified in document order, also if the appended content is
+	 * large enough to be matched in parallel.
+	 *
+	 * @throws Exception if test fails
+	 */
+	@Test
+	public void testPatternMatchListeners() throws Exception {
+		MessageConsole console = new MessageConsole("Test Console 7", null); //$NON-NLS-1$
+		RecordingMatchListener literal = new RecordingMatchListener("ERROR: \\w+", "ERROR"); //$NON-NLS-1$ //$NON-NLS-2$
+		RecordingMatchListener escaped = new RecordingMatchListener("ERROR: \\w+ \\(\\d+\\)", "ERROR: failure \\("); //$NON-NLS-1$ //$NON-NLS-2$
+		RecordingMatchListener quoted = new RecordingMatchListener("at \\S+\\.java:\\d+", "\\Q.java:\\E"); //$NON-NLS-1$ //$NON-NLS-2$
+		RecordingMatchListener regex = new RecordingMatchListener("at \\S+\\.java:\\d+", "\\.java:\\d"); //$NON-NLS-1$ //$NON-NLS-2$
+		RecordingMatchListener unqualified = new RecordingMatchListener("\\d{3,}", null); //$NON-NLS-1$
+		RecordingMatchListener[] listeners = { literal, escaped, quoted, regex, unqualified };
+		for (RecordingMatchListener listener : listeners) {
+			console.addPatternMatchListener(listener);
+		}
+
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			text.append("line ").append(i).append(' '); //$NON-NLS-1$
+			if (i % 7 == 0) {
+				text.append("ERROR: failure").append(" (").append(i).append(")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+			if (i % 11 == 0) {
+				text.append("\tat org.example.Type").append(i).append(".java:").append(i % 500); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			text.append(i % 3 == 0 ? "\r\n" : "\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		try (IOConsoleOutputStream outStream = console.newOutputStream()) {
+			// split at a line start, matches must not be split between two writes
+			int split = text.indexOf("\n", text.length() / 3) + 1; //$NON-NLS-1$
+			outStream.write(text.substring(0, split));
+			outStream.write(text.substring(split));
+		}
+		TestUtil.waitForJobs(name.getMethodName(), 50, 10000);
+
+		String content = console.getDocument().get();
+		assertEquals(text.toString(), content);
+		for (RecordingMatchListener listener : listeners) {
+			assertEquals("Wrong matches for " + listener.getPattern(), listener.expectedMatches(content), listener.matches); //$NON-NLS-1$
+		}
+		assertEquals(literal.matches.size(), escaped.matches.size());
+		assertEquals(quoted.matches, regex.matches);
+		console.destroy();
+	}
+
+	/**
+	 * Records the matches it is notified about.
+	 */
+	private static class RecordingMatchListener implements IPatternMatchListener {
+		private final String pattern;
+		private final String qualifier;
+		final List<String> matches = new ArrayList<>();
+		private TextConsole console;
+
+		RecordingMatchListener(String pattern, String qualifier) {
+			this.pattern = pattern;
+			this.qualifier = qualifier;
+		}
+
+		List<String> expectedMatches(String content) {
+			List<String> expected = new ArrayList<>();
+			Matcher matcher = Pattern.compile(pattern).matcher(content);
+			while (matcher.find()) {
+				expected.add(matcher.start() + ":" + matcher.group()); //$NON-NLS-1$
+			}
+			return expected;
+		}
+
+		@Override
+		public void matchFound(PatternMatchEvent event) {
+			try {
+				matches.add(event.getOffset() + ":" + console.getDocument().get(event.getOffset(), event.getLength())); //$NON-NLS-1$
+			} catch (Exception e) {
+				fail(e.toString());
+			}
+		}
+
+		@Override
+		public String getPattern() {
+			return pattern;
+		}
+
+		@Override
+		public int getCompilerFlags() {
+			return 0;
+		}
+
+		@Override
+		public String getLineQualifier() {
+			return qualifier;
+		}
+
+		@Override
+		public void connect(TextConsole c) {
+			console = c;
+		}
+
+		@Override
+		public void disconnect() {
+		}
+	}
 }
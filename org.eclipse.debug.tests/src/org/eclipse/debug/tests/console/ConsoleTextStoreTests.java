@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.ui.internal.console.ConsoleTextStore;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ConsoleTextStore} used by console documents.
+ */
+public class ConsoleTextStoreTests extends AbstractDebugTest {
+
+	/**
+	 * Test appending across chunk boundaries.
+	 */
+	@Test
+	public void testAppend() {
+		ConsoleTextStore store = new ConsoleTextStore();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 3 * ConsoleTextStore.CHUNK_SIZE / 10; i++) {
+			String line = "line " + i + "\n";
+			store.replace(store.getLength(), 0, line);
+			expected.append(line);
+		}
+		assertContent(expected, store);
+		assertTrue("Content must be split into chunks.", store.getChunkCount() > 1);
+	}
+
+	/**
+	 * Test that trimming the start of the content drops unreachable chunks.
+	 */
+	@Test
+	public void testTrim() {
+		ConsoleTextStore store = new ConsoleTextStore();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 10; i++) {
+			String text = createText(ConsoleTextStore.CHUNK_SIZE, (char) ('a' + i));
+			store.replace(store.getLength(), 0, text);
+			expected.append(text);
+		}
+		assertEquals(10, store.getChunkCount());
+
+		store.replace(0, 10, "");
+		expected.delete(0, 10);
+		assertContent(expected, store);
+		assertEquals(10, store.getChunkCount());
+
+		int trim = 4 * ConsoleTextStore.CHUNK_SIZE;
+		store.replace(0, trim, "");
+		expected.delete(0, trim);
+		assertContent(expected, store);
+		assertEquals(6, store.getChunkCount());
+
+		store.replace(0, store.getLength(), "");
+		assertEquals(0, store.getLength());
+		assertEquals(0, store.getChunkCount());
+	}
+
+	/**
+	 * Test random modifications against a reference implementation.
+	 */
+	@Test
+	public void testRandomModifications() {
+		Random random = new Random(42);
+		ConsoleTextStore store = new ConsoleTextStore();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			int length = expected.length();
+			String text = createText(random.nextInt(ConsoleTextStore.CHUNK_SIZE / 2), (char) ('a' + random.nextInt(26)));
+			switch (random.nextInt(4)) {
+				case 0: // append
+					store.replace(length, 0, text);
+					expected.append(text);
+					break;
+				case 1: // trim
+					int trim = random.nextInt(length / 4 + 1);
+					store.replace(0, trim, "");
+					expected.delete(0, trim);
+					break;
+				default: // replace
+					int offset = random.nextInt(length + 1);
+					int replaced = random.nextInt(Math.min(length - offset, ConsoleTextStore.CHUNK_SIZE * 2) + 1);
+					if (random.nextBoolean()) {
+						text = ""; //$NON-NLS-1$
+					}
+					store.replace(offset, replaced, text);
+					expected.replace(offset, offset + replaced, text);
+					break;
+			}
+			assertEquals(expected.length(), store.getLength());
+		}
+		assertContent(expected, store);
+		store.set("reset"); //$NON-NLS-1$
+		assertContent(new StringBuilder("reset"), store); //$NON-NLS-1$
+	}
+
+	private static String createText(int length, char c) {
+		StringBuilder text = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			text.append(i % 80 == 79 ? '\n' : c);
+		}
+		return text.toString();
+	}
+
+	private static void assertContent(CharSequence expected, ConsoleTextStore store) {
+		assertEquals(expected.length(), store.getLength());
+		assertEquals(expected.toString(), store.get(0, store.getLength()));
+		for (int i = 0; i < expected.length(); i += 97) {
+			assertEquals("Wrong character at " + i, expected.charAt(i), store.get(i));
+		}
+		int middle = expected.length() / 2;
+		int length = Math.min(expected.length() - middle, ConsoleTextStore.CHUNK_SIZE + 3);
+		assertEquals(expected.subSequence(middle, middle + length).toString(), store.get(middle, length));
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.ui.console.IOConsoleOutputStream;
+import org.eclipse.ui.internal.console.IOConsolePartition;
+import org.eclipse.ui.internal.console.IOConsolePartitionList;
+import org.junit.Test;
+
+/**
+ * Measures lookup and trim performance of the {@link IOConsolePartitionList}
+ * with an increasing number of partitions, e.g. for consoles with heavily
+ * colored output.
+ */
+public class IOConsolePartitionListPerformanceTests extends AbstractDebugTest {
+
+	private static final int PARTITION_LENGTH = 5;
+	private static final int LOOKUPS = 1_000_000;
+	private static final int TRIMS = 1_000;
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	@Test
+	public void test10000Partitions() {
+		runScenario(10_000);
+	}
+
+	@Test
+	public void test100000Partitions() {
+		runScenario(100_000);
+	}
+
+	@Test
+	public void test1000000Partitions() {
+		runScenario(1_000_000);
+	}
+
+	/**
+	 * Looks up random offsets and repeatedly trims the start of a partition
+	 * list of the given size.
+	 *
+	 * @param count number of partitions
+	 */
+	private void runScenario(int count) {
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int i = 0; i < 5; i++) {
+				IOConsolePartitionList partitions = createPartitions(count);
+				Random random = new Random(i);
+				meter.start();
+				long start = System.nanoTime();
+				long checksum = 0;
+				for (int l = 0; l < LOOKUPS; l++) {
+					checksum += partitions.findCandidate(random.nextInt(count * PARTITION_LENGTH));
+				}
+				long lookupTime = System.nanoTime() - start;
+				start = System.nanoTime();
+				int trimCount = count / 2 / TRIMS;
+				for (int t = 0; t < TRIMS; t++) {
+					partitions.subList(0, trimCount).clear();
+					partitions.shift(trimCount * PARTITION_LENGTH);
+				}
+				long trimTime = System.nanoTime() - start;
+				meter.stop();
+				assertEquals(count - TRIMS * trimCount, partitions.size());
+				assertEquals(0, partitions.get(0).getOffset());
+				TestUtil.log(IStatus.INFO, name.getMethodName(), String.format("%d partitions: %.1f ns per lookup, %.1f us per trim (%d)", //$NON-NLS-1$
+						count, (double) lookupTime / LOOKUPS, trimTime / 1000.0 / TRIMS, checksum));
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	private static IOConsolePartitionList createPartitions(int count) {
+		IOConsolePartitionList partitions = new IOConsolePartitionList();
+		IOConsoleOutputStream stream = null;
+		for (int i = 0; i < count; i++) {
+			IOConsolePartition partition = new IOConsolePartition(i * PARTITION_LENGTH, stream);
+			partition.setLength(PARTITION_LENGTH);
+			partitions.add(partition);
+		}
+		return partitions;
+	}
+}
@@ -265,6 +265,30 @@ public class IOConsoleTests extends AbstractDebugTest {
 		closeConsole(c);
 	}
 
+	/**
+	 * Test many small writes from different streams with adaptive output
+	 * batching enabled.
+	 */
+	@Test
+	public void testAdaptiveOutputBatching() throws Exception {
+		final IOConsoleTestUtil c = getTestUtil("Test adaptive batching");
+		c.getConsole().setAdaptiveOutputBatching(true);
+		assertTrue(c.getConsole().isAdaptiveOutputBatching());
+		final StringBuilder expected = new StringBuilder();
+		try (IOConsoleOutputStream otherOut = c.getConsole().newOutputStream()) {
+			for (int i = 0; i < 5000; i++) {
+				final String s = i + (i % 10 == 9 ? "\n" : " ");
+				c.writeFast(s, i % 100 < 50 ? c.getDefaultOutputStream() : otherOut);
+				expected.append(s);
+			}
+		}
+		c.flush();
+		c.verifyContent(expected.toString()).verifyPartitions();
+		assertEquals("Unexpected pending output.", 0, c.getConsole().getPendingOutputLength());
+		assertTrue("Update time not recorded.", c.getConsole().getMaxOutputUpdateTime() > 0);
+		closeConsole(c);
+	}
+
 	/**
 	 * Test {@link IOConsole} input stream, i.e. simulate user typing or pasting
 	 * input in console.
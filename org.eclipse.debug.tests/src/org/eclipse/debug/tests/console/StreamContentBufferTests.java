@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.eclipse.debug.internal.core.StreamContentBuffer;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.Test;
+
+/**
+ * Tests the {@link StreamContentBuffer} used to retain process output.
+ */
+public class StreamContentBufferTests extends AbstractDebugTest {
+
+	/**
+	 * Test incremental decoding of characters split between writes and chunks.
+	 */
+	@Test
+	public void testIncrementalDecoding() {
+		testIncrementalDecoding(false);
+		testIncrementalDecoding(true);
+	}
+
+	private void testIncrementalDecoding(boolean direct) {
+		String input = "o\u00F6O\u00EFiI\u00D6\u00D8\u00F8";
+		byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+		StreamContentBuffer buffer = new StreamContentBuffer(StandardCharsets.UTF_8, StreamContentBuffer.UNLIMITED, 3, direct);
+		for (int i = 0; i < bytes.length; i++) {
+			buffer.write(bytes, i, 1);
+			String text = buffer.getText();
+			assertTrue("Decoded text is not a prefix of the input.", input.startsWith(text));
+		}
+		assertEquals(input, buffer.getText());
+		assertSame("Unchanged content must not be decoded again.", buffer.getText(), buffer.getText());
+		assertArrayEquals(bytes, buffer.getData());
+		assertEquals(bytes.length, buffer.size());
+	}
+
+	/**
+	 * Test that the oldest chunks are discarded when the limit is exceeded.
+	 */
+	@Test
+	public void testRetentionLimit() {
+		StreamContentBuffer buffer = new StreamContentBuffer(StandardCharsets.US_ASCII, 10, 4, false);
+		byte[] bytes = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+		buffer.write(bytes, 0, 8);
+		assertEquals("01234567", buffer.getText());
+		buffer.write(bytes, 8, 12);
+		assertEquals(12, buffer.size());
+		assertEquals(8, buffer.getDiscardedBytes());
+		assertEquals("89abcdefghij", buffer.getText());
+		assertArrayEquals(Arrays.copyOfRange(bytes, 8, 20), buffer.getData());
+
+		buffer.clear();
+		assertEquals(0, buffer.size());
+		assertEquals("", buffer.getText());
+		assertEquals(0, buffer.getData().length);
+	}
+
+	/**
+	 * Test that discarding a chunk which was not decoded yet does not break a
+	 * character continued in the next chunk.
+	 */
+	@Test
+	public void testDiscardUndecodedChunk() {
+		StreamContentBuffer buffer = new StreamContentBuffer(StandardCharsets.UTF_8, 4, 4, false);
+		// the three bytes of the euro sign span the first two chunks
+		byte[] bytes = "abc\u20ACdef".getBytes(StandardCharsets.UTF_8);
+		buffer.write(bytes, 0, bytes.length);
+		assertEquals(4, buffer.getDiscardedBytes());
+		assertEquals("\u20ACdef", buffer.getText());
+	}
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.debug.internal.core.SharedStreamReader;
+import org.eclipse.debug.internal.core.StreamsProxy;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.junit.Test;
+
+/**
+ * Compares thread count and throughput of {@link StreamsProxy} with dedicated
+ * threads per stream and with a {@link SharedStreamReader}.
+ */
+public class StreamsProxyPerformanceTests extends AbstractDebugTest {
+
+	private static final int PROCESSES = 100;
+	private static final int OUTPUT_SIZE = 1024 * 1024;
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	@Test
+	public void testDedicatedThreads() throws Exception {
+		runScenario(null);
+	}
+
+	@Test
+	public void testSharedReader() throws Exception {
+		SharedStreamReader reader = new SharedStreamReader(2);
+		try {
+			int threads = runScenario(reader);
+			assertTrue("Shared reader must not use a thread per stream: " + threads, threads < PROCESSES); //$NON-NLS-1$
+		} finally {
+			reader.shutdown();
+		}
+	}
+
+	/**
+	 * Reads the output of many mockup processes concurrently.
+	 *
+	 * @param reader shared reader or <code>null</code> for dedicated threads
+	 * @return the number of threads which were created while the processes
+	 *         were read
+	 */
+	private int runScenario(SharedStreamReader reader) throws Exception {
+		byte[] output = new byte[OUTPUT_SIZE];
+		Arrays.fill(output, (byte) 'x');
+		int maxThreads = 0;
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int i = 0; i < 5; i++) {
+				int baseThreads = Thread.activeCount();
+				List<StreamsProxy> proxies = new ArrayList<>(PROCESSES);
+				meter.start();
+				long start = System.nanoTime();
+				for (int p = 0; p < PROCESSES; p++) {
+					MockProcess process = new MockProcess(new ByteArrayInputStream(output), new ByteArrayInputStream(output), 0);
+					StreamsProxy proxy = new StreamsProxy(process, null, "", reader); //$NON-NLS-1$
+					proxy.getOutputStreamMonitor().addListener((text, monitor) -> {
+					});
+					proxies.add(proxy);
+				}
+				maxThreads = Math.max(maxThreads, Thread.activeCount() - baseThreads);
+				for (StreamsProxy proxy : proxies) {
+					proxy.close();
+				}
+				long elapsed = System.nanoTime() - start;
+				meter.stop();
+				for (StreamsProxy proxy : proxies) {
+					assertEquals(OUTPUT_SIZE, proxy.getOutputStreamMonitor().getContents().length());
+				}
+				long bytes = 2L * OUTPUT_SIZE * PROCESSES;
+				TestUtil.log(IStatus.INFO, name.getMethodName(), String.format("%d processes, %d threads, %.1f MB/s", //$NON-NLS-1$
+						PROCESSES, maxThreads, bytes / 1024.0 / 1024.0 / (elapsed / 1e9)));
+				System.gc();
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+		return maxThreads;
+	}
+}
@@ -19,6 +19,7 @@ import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 
+import org.eclipse.debug.internal.core.SharedStreamReader;
 import org.eclipse.debug.internal.core.StreamsProxy;
 import org.eclipse.debug.tests.AbstractDebugTest;
 import org.junit.Test;
@@ -50,6 +51,20 @@ public class StreamsProxyTests extends AbstractDebugTest {
 		receiveUTF8Test("+", 4500);
 	}
 
+	/**
+	 * Test console receiving UTF-8 output from process which streams are read
+	 * by a shared reader.
+	 */
+	@Test
+	public void testReceiveUTF8SharedReader() throws Exception {
+		SharedStreamReader reader = new SharedStreamReader(1);
+		try {
+			receiveUTF8Test("+", 4500, reader);
+		} finally {
+			reader.shutdown();
+		}
+	}
+
 	/**
 	 * Shared code for the UTF-8 tests.
 	 * <p>
@@ -63,10 +78,14 @@ public class StreamsProxyTests extends AbstractDebugTest {
 	 * @param numTwoByteCharacters number of two byte UTF-8 characters to output
 	 */
 	private void receiveUTF8Test(String prefix, int numTwoByteCharacters) throws Exception {
+		receiveUTF8Test(prefix, numTwoByteCharacters, null);
+	}
+
+	private void receiveUTF8Test(String prefix, int numTwoByteCharacters, SharedStreamReader reader) throws Exception {
 		final String s = prefix + String.join("", Collections.nCopies(numTwoByteCharacters, "\u00F8"));
 		final ByteArrayInputStream stdout = new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
 		final Process mockProcess = new MockProcess(stdout, null, 0);
-		final StreamsProxy streamProxy = new StreamsProxy(mockProcess, StandardCharsets.UTF_8, "");
+		final StreamsProxy streamProxy = new StreamsProxy(mockProcess, StandardCharsets.UTF_8, "", reader);
 		streamProxy.close();
 		final String readContent = streamProxy.getOutputStreamMonitor().getContents();
 		assertEquals("Process output got corrupted.", s, readContent);
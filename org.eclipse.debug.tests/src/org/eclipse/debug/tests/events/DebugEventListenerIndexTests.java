@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.events;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugEventSubscription;
+import org.eclipse.debug.core.IDebugEventSetListener;
+import org.eclipse.debug.internal.core.DebugEventListenerIndex;
+import org.eclipse.debug.internal.core.DebugEventListenerIndex.Registration;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.Test;
+
+/**
+ * Tests selection of interested listeners by debug event subscriptions.
+ */
+public class DebugEventListenerIndexTests extends AbstractDebugTest {
+
+	private static final IDebugEventSetListener NOOP = events -> {
+	};
+
+	private static IDebugEventSetListener newListener() {
+		return events -> {
+		};
+	}
+
+	private static List<IDebugEventSetListener> notified(DebugEventListenerIndex index, DebugEvent... events) {
+		List<IDebugEventSetListener> listeners = new ArrayList<>();
+		for (Registration registration : index.getCandidates(events)) {
+			if (registration.accepts(events)) {
+				listeners.add(registration.getListener());
+			}
+		}
+		return listeners;
+	}
+
+	@Test
+	public void testKindSubscription() {
+		DebugEventListenerIndex index = new DebugEventListenerIndex();
+		IDebugEventSetListener all = newListener();
+		IDebugEventSetListener suspend = newListener();
+		IDebugEventSetListener change = newListener();
+		index.add(all, DebugEventSubscription.ALL);
+		index.add(suspend, new DebugEventSubscription(DebugEvent.SUSPEND | DebugEvent.RESUME));
+		index.add(change, new DebugEventSubscription(DebugEvent.CHANGE));
+
+		Object source = new Object();
+		assertEquals(List.of(all, suspend), notified(index, new DebugEvent(source, DebugEvent.SUSPEND)));
+		assertEquals(List.of(all, change), notified(index, new DebugEvent(source, DebugEvent.CHANGE)));
+		assertEquals(List.of(all, suspend, change), notified(index, new DebugEvent(source, DebugEvent.CHANGE), new DebugEvent(source, DebugEvent.RESUME)));
+		assertEquals(List.of(all), notified(index, new DebugEvent(source, DebugEvent.TERMINATE)));
+	}
+
+	@Test
+	public void testUnspecifiedKind() {
+		DebugEventListenerIndex index = new DebugEventListenerIndex();
+		IDebugEventSetListener all = newListener();
+		IDebugEventSetListener suspend = newListener();
+		index.add(all, DebugEventSubscription.ALL);
+		index.add(suspend, new DebugEventSubscription(DebugEvent.SUSPEND));
+
+		assertEquals(List.of(all), notified(index, new DebugEvent(new Object(), 0)));
+		assertEquals(List.of(all), notified(index));
+		assertEquals(2, index.getCandidates(new DebugEvent[0]).length);
+	}
+
+	@Test
+	public void testDetailAndSourceSubscription() {
+		DebugEventListenerIndex index = new DebugEventListenerIndex();
+		IDebugEventSetListener breakpoints = newListener();
+		IDebugEventSetListener strings = newListener();
+		index.add(breakpoints, new DebugEventSubscription(DebugEvent.SUSPEND, DebugEvent.BREAKPOINT, null, null));
+		index.add(strings, new DebugEventSubscription(DebugEventSubscription.ANY_KIND, DebugEventSubscription.ANY_DETAIL, String.class, null));
+
+		assertEquals(List.of(breakpoints), notified(index, new DebugEvent(new Object(), DebugEvent.SUSPEND, DebugEvent.BREAKPOINT)));
+		assertEquals(List.of(), notified(index, new DebugEvent(new Object(), DebugEvent.SUSPEND, DebugEvent.STEP_END)));
+		assertEquals(List.of(breakpoints, strings), notified(index, new DebugEvent("source", DebugEvent.SUSPEND, DebugEvent.BREAKPOINT))); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testAddRemove() {
+		DebugEventListenerIndex index = new DebugEventListenerIndex();
+		assertTrue(index.isEmpty());
+		index.add(NOOP, new DebugEventSubscription(DebugEvent.CREATE));
+		index.add(NOOP, DebugEventSubscription.ALL);
+		assertEquals(1, index.getRegistrations().length);
+		assertEquals(List.of(NOOP), notified(index, new DebugEvent(new Object(), DebugEvent.TERMINATE)));
+		index.remove(NOOP);
+		assertTrue(index.isEmpty());
+		assertArrayEquals(new Registration[0], index.getCandidates(new DebugEvent[] { new DebugEvent(new Object(), DebugEvent.CHANGE) }));
+	}
+
+	@Test
+	public void testDispatchHistogram() {
+		DebugEventListenerIndex index = new DebugEventListenerIndex();
+		index.add(NOOP, DebugEventSubscription.ALL);
+		Registration registration = index.getRegistrations()[0];
+		registration.recordDispatch(500);
+		registration.recordDispatch(3_000);
+		registration.recordDispatch(5_000_000);
+		DebugEventListenerIndex.DispatchHistogram histogram = index.getStatistics().get(NOOP);
+		assertEquals(3, histogram.getCount());
+		assertEquals(5_003_500, histogram.getTotalTime());
+		assertEquals(5_000_000, histogram.getMaxTime());
+		assertEquals(1, histogram.getCount(0));
+		assertEquals(1, histogram.getCount(2));
+		assertFalse(histogram.toString().isEmpty());
+	}
+}
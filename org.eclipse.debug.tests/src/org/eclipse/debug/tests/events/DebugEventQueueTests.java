@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.events;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.internal.core.DebugEventQueue;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.Test;
+
+/**
+ * Tests ordering and coalescing of the debug event dispatch queue.
+ */
+public class DebugEventQueueTests extends AbstractDebugTest {
+
+	private static DebugEvent[] events(int kind, int count) {
+		DebugEvent[] events = new DebugEvent[count];
+		for (int i = 0; i < count; i++) {
+			events[i] = new DebugEvent(new Object(), kind, DebugEvent.CONTENT);
+		}
+		return events;
+	}
+
+	@Test
+	public void testNotCoalescedByDefault() {
+		DebugEventQueue queue = new DebugEventQueue();
+		assertEquals(DebugEventQueue.DEFAULT_MAX_BATCH_SIZE, queue.getMaxBatchSize());
+		DebugEvent[] first = events(DebugEvent.CHANGE, 1);
+		DebugEvent[] second = events(DebugEvent.CHANGE, 1);
+		queue.add(first);
+		queue.add(second);
+		assertSame(first, queue.poll());
+		assertSame(second, queue.poll());
+		assertNull(queue.poll());
+		assertEquals(0, queue.getCoalescedCount());
+	}
+
+	@Test
+	public void testChangeEventsCoalesced() {
+		DebugEventQueue queue = new DebugEventQueue();
+		queue.setMaxBatchSize(64);
+		DebugEvent[] first = events(DebugEvent.CHANGE, 1);
+		DebugEvent[] second = events(DebugEvent.CHANGE, 2);
+		queue.add(first);
+		queue.add(second);
+		DebugEvent[] batch = (DebugEvent[]) queue.poll();
+		assertArrayEquals(new DebugEvent[] { first[0], second[0], second[1] }, batch);
+		assertNull(queue.poll());
+		assertEquals(1, queue.getCoalescedCount());
+		assertEquals(2, queue.getDispatchedCount());
+		assertEquals(0, queue.getDepth());
+	}
+
+	@Test
+	public void testBarriersPreserveOrder() {
+		DebugEventQueue queue = new DebugEventQueue();
+		queue.setMaxBatchSize(64);
+		DebugEvent[] change1 = events(DebugEvent.CHANGE, 1);
+		DebugEvent[] suspend = events(DebugEvent.SUSPEND, 1);
+		DebugEvent[] change2 = events(DebugEvent.CHANGE, 1);
+		Runnable runnable = () -> {
+		};
+		DebugEvent[] change3 = events(DebugEvent.CHANGE, 1);
+		queue.add(change1);
+		queue.add(suspend);
+		queue.add(change2);
+		queue.add(runnable);
+		queue.add(change3);
+		assertSame(change1, queue.poll());
+		assertSame(suspend, queue.poll());
+		assertSame(change2, queue.poll());
+		assertSame(runnable, queue.poll());
+		assertSame(change3, queue.poll());
+		assertNull(queue.poll());
+		assertEquals(0, queue.getCoalescedCount());
+	}
+
+	@Test
+	public void testMaxBatchSize() {
+		DebugEventQueue queue = new DebugEventQueue();
+		queue.setMaxBatchSize(4);
+		for (int i = 0; i < 10; i++) {
+			queue.add(events(DebugEvent.CHANGE, 1));
+		}
+		assertEquals(10, queue.getDepth());
+		assertEquals(4, ((DebugEvent[]) queue.poll()).length);
+		assertEquals(4, ((DebugEvent[]) queue.poll()).length);
+		assertEquals(2, ((DebugEvent[]) queue.poll()).length);
+		assertNull(queue.poll());
+
+		queue.setMaxBatchSize(1);
+		queue.add(events(DebugEvent.CHANGE, 1));
+		queue.add(events(DebugEvent.CHANGE, 1));
+		assertEquals(1, ((DebugEvent[]) queue.poll()).length);
+		assertEquals(1, ((DebugEvent[]) queue.poll()).length);
+		assertNull(queue.poll());
+	}
+
+	@Test
+	public void testConcurrentProducers() throws Exception {
+		DebugEventQueue queue = new DebugEventQueue();
+		queue.setMaxBatchSize(1);
+		int producers = 8;
+		int perProducer = 1000;
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < producers; i++) {
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int j = 0; j < perProducer; j++) {
+					queue.add(events(DebugEvent.CHANGE, 1));
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join(testTimeout);
+		}
+		int received = 0;
+		while (queue.poll() != null) {
+			received++;
+		}
+		assertEquals(producers * perProducer, received);
+		assertEquals(producers * perProducer, queue.getEnqueuedCount());
+		assertTrue(queue.getMaxDepth() > 0);
+		assertTrue(queue.isEmpty());
+	}
+}
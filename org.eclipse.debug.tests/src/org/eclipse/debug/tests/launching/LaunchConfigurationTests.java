@@ -21,6 +21,7 @@ import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
@@ -33,6 +34,7 @@ import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -40,6 +42,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.filesystem.EFS;
@@ -69,6 +73,7 @@ import org.eclipse.debug.core.ILaunchesListener2;
 import org.eclipse.debug.core.Launch;
 import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.debug.internal.core.LaunchConfiguration;
+import org.eclipse.debug.internal.core.LaunchConfigurationIndex;
 import org.eclipse.debug.internal.core.LaunchManager;
 import org.eclipse.debug.tests.TestsPlugin;
 import org.eclipse.debug.tests.console.MockProcess;
@@ -79,6 +84,8 @@ import org.eclipse.ui.PlatformUI;
 import org.junit.Test;
 import org.osgi.framework.Bundle;
 import org.osgi.service.prefs.Preferences;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 
 /**
  * Tests for launch configurations
@@ -2003,4 +2010,191 @@ public class LaunchConfigurationTests extends AbstractLaunchTest implements ILau
 
 	}
 
+	/**
+	 * Tests that the type, mapped resources and modes of a configuration are
+	 * up to date after its file has been modified, although they are answered
+	 * from the launch configuration index.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testIndexedAttributesFollowFileChanges() throws Exception {
+		IProject project = getProject();
+		ILaunchConfigurationWorkingCopy wc = newConfiguration(project, "indexed-config"); //$NON-NLS-1$
+		wc.setMappedResources(new IResource[] { project });
+		wc.setModes(Collections.singleton(ILaunchManager.DEBUG_MODE));
+		ILaunchConfiguration config = wc.doSave();
+		try {
+			assertEquals(ID_TEST_LAUNCH_TYPE, config.getType().getIdentifier());
+			assertEquals(Collections.singleton(ILaunchManager.DEBUG_MODE), config.getModes());
+			IResource[] resources = config.getMappedResources();
+			assertNotNull(resources);
+			assertEquals(project, resources[0]);
+
+			IFile file = config.getFile();
+			String content = readContents(file);
+			content = content.replace(ILaunchManager.DEBUG_MODE, ILaunchManager.RUN_MODE);
+			file.setContents(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), IResource.FORCE, null);
+			assertEquals(Collections.singleton(ILaunchManager.RUN_MODE), config.getModes());
+			assertEquals(ID_TEST_LAUNCH_TYPE, config.getType().getIdentifier());
+		} finally {
+			config.delete();
+		}
+	}
+
+	/**
+	 * Tests that launch configuration files are written exactly like the DOM
+	 * serializer writes the same document and that they are read back with
+	 * the same attributes.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testXMLMatchesDOMSerialization() throws Exception {
+		ILaunchConfigurationWorkingCopy wc = newConfiguration(getProject(), "xml-config"); //$NON-NLS-1$
+		wc.setAttribute("List1", Arrays.asList("a", "b&<>\"'", "line\nbreak\r\tend", "\u00e9\ud83d\ude00")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+		Map<String, String> map = new HashMap<>();
+		map.put("z", "last"); //$NON-NLS-1$ //$NON-NLS-2$
+		map.put("a&b", "<first>"); //$NON-NLS-1$ //$NON-NLS-2$
+		wc.setAttribute("Map1", map); //$NON-NLS-1$
+		wc.setAttribute("Set1", new HashSet<>(Arrays.asList("y", "x"))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		wc.setAttribute("List2", Collections.<String> emptyList()); //$NON-NLS-1$
+		wc.setAttribute("String2", "  spaces  \"quoted\"  "); //$NON-NLS-1$ //$NON-NLS-2$
+		ILaunchConfiguration config = wc.doSave();
+		try {
+			IFile file = config.getFile();
+			String content = readContents(file);
+			assertEquals(serializeWithDOM(config, file.getLineSeparator(true)), content);
+
+			// force the configuration to be read from the file again
+			file.setContents(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), IResource.FORCE, null);
+			assertEquals(wc.getAttributes(), config.getAttributes());
+			assertEquals(ID_TEST_LAUNCH_TYPE, config.getType().getIdentifier());
+		} finally {
+			config.delete();
+		}
+	}
+
+	/**
+	 * Tests that attribute, list and map entries without a value attribute
+	 * are read with an empty value, like they were read with a DOM.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testMissingValueAttribute() throws Exception {
+		ILaunchConfigurationWorkingCopy wc = newConfiguration(getProject(), "missing-value-config"); //$NON-NLS-1$
+		ILaunchConfiguration config = wc.doSave();
+		try {
+			String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n" //$NON-NLS-1$
+					+ "<launchConfiguration type=\"" + ID_TEST_LAUNCH_TYPE + "\">\n" //$NON-NLS-1$ //$NON-NLS-2$
+					+ "<stringAttribute key=\"String1\"/>\n" //$NON-NLS-1$
+					+ "<listAttribute key=\"List1\">\n<listEntry/>\n</listAttribute>\n" //$NON-NLS-1$
+					+ "<mapAttribute key=\"Map1\">\n<mapEntry key=\"a\"/>\n</mapAttribute>\n" //$NON-NLS-1$
+					+ "</launchConfiguration>\n"; //$NON-NLS-1$
+			config.getFile().setContents(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), IResource.FORCE, null);
+			assertEquals("", config.getAttribute("String1", "default")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			assertEquals(Collections.singletonList(""), config.getAttribute("List1", (List<String>) null)); //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals(Collections.singletonMap("a", ""), config.getAttribute("Map1", (Map<String, String>) null)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		} finally {
+			config.delete();
+		}
+	}
+
+	private String readContents(IFile file) throws CoreException, IOException {
+		try (InputStream stream = file.getContents()) {
+			return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Serializes the given configuration with a DOM, like launch
+	 * configurations were written before they were written as a stream.
+	 */
+	@SuppressWarnings("unchecked")
+	private String serializeWithDOM(ILaunchConfiguration config, String lineDelimiter) throws Exception {
+		Document doc = LaunchManager.getDocument();
+		Element root = doc.createElement("launchConfiguration"); //$NON-NLS-1$
+		doc.appendChild(root);
+		root.setAttribute("type", config.getType().getIdentifier()); //$NON-NLS-1$
+		for (Map.Entry<String, Object> entry : new TreeMap<>(config.getAttributes()).entrySet()) {
+			Object value = entry.getValue();
+			Element element;
+			if (value instanceof String || value instanceof Integer || value instanceof Boolean) {
+				String elementType = value instanceof String ? "stringAttribute" : value instanceof Integer ? "intAttribute" : "booleanAttribute"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				element = doc.createElement(elementType);
+				element.setAttribute("key", entry.getKey()); //$NON-NLS-1$
+				element.setAttribute("value", value.toString()); //$NON-NLS-1$
+			} else if (value instanceof List) {
+				element = doc.createElement("listAttribute"); //$NON-NLS-1$
+				element.setAttribute("key", entry.getKey()); //$NON-NLS-1$
+				for (String item : (List<String>) value) {
+					Element child = doc.createElement("listEntry"); //$NON-NLS-1$
+					child.setAttribute("value", item); //$NON-NLS-1$
+					element.appendChild(child);
+				}
+			} else if (value instanceof Set) {
+				element = doc.createElement("setAttribute"); //$NON-NLS-1$
+				element.setAttribute("key", entry.getKey()); //$NON-NLS-1$
+				for (String item : new TreeSet<>((Set<String>) value)) {
+					Element child = doc.createElement("setEntry"); //$NON-NLS-1$
+					child.setAttribute("value", item); //$NON-NLS-1$
+					element.appendChild(child);
+				}
+			} else {
+				element = doc.createElement("mapAttribute"); //$NON-NLS-1$
+				element.setAttribute("key", entry.getKey()); //$NON-NLS-1$
+				for (Map.Entry<String, String> item : new TreeMap<>((Map<String, String>) value).entrySet()) {
+					Element child = doc.createElement("mapEntry"); //$NON-NLS-1$
+					child.setAttribute("key", item.getKey()); //$NON-NLS-1$
+					child.setAttribute("value", item.getValue()); //$NON-NLS-1$
+					element.appendChild(child);
+				}
+			}
+			root.appendChild(element);
+		}
+		return LaunchManager.serializeDocument(doc, lineDelimiter);
+	}
+
+	/**
+	 * Tests that the launch configuration index survives being saved and
+	 * loaded and that entries which are no longer valid are pruned.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testLaunchConfigurationIndexPersistence() throws Exception {
+		File file = File.createTempFile("launchConfigurations", ".index"); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			LaunchConfigurationIndex index = new LaunchConfigurationIndex(file);
+			index.put("/p/a.launch", new LaunchConfigurationIndex.Entry(1, -1, ID_TEST_LAUNCH_TYPE, Collections.singletonList("/p"), Collections.singletonList("4"), Collections.singleton(ILaunchManager.RUN_MODE))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			index.put("local:b.launch", new LaunchConfigurationIndex.Entry(2, 10, ID_TEST_LAUNCH_TYPE)); //$NON-NLS-1$
+			index.save();
+
+			LaunchConfigurationIndex loaded = new LaunchConfigurationIndex(file);
+			loaded.load();
+			assertEquals(2, loaded.size());
+			LaunchConfigurationIndex.Entry entry = loaded.get("/p/a.launch"); //$NON-NLS-1$
+			assertNotNull(entry);
+			assertTrue(entry.isComplete());
+			assertEquals(1, entry.getTimeStamp());
+			assertEquals(-1, entry.getLength());
+			assertEquals(Collections.singletonList("/p"), entry.getMappedResourcePaths()); //$NON-NLS-1$
+			assertEquals(Collections.singleton(ILaunchManager.RUN_MODE), entry.getModes());
+			entry = loaded.get("local:b.launch"); //$NON-NLS-1$
+			assertNotNull(entry);
+			assertFalse(entry.isComplete());
+			assertEquals(ID_TEST_LAUNCH_TYPE, entry.getTypeId());
+			loaded.prune((key, e) -> e.getLength() < 0);
+			assertNull(loaded.get("local:b.launch")); //$NON-NLS-1$
+			assertEquals(1, loaded.size());
+
+			String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n<launchConfiguration type=\"" + ID_TEST_LAUNCH_TYPE + "\">\n<stringAttribute key=\"a\" value=\"b\"/>\n</launchConfiguration>\n"; //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals(ID_TEST_LAUNCH_TYPE, LaunchConfigurationIndex.readTypeId(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))));
+			assertNull(LaunchConfigurationIndex.readTypeId(new ByteArrayInputStream("<other/>".getBytes(StandardCharsets.UTF_8)))); //$NON-NLS-1$
+		} finally {
+			file.delete();
+		}
+	}
+
 }
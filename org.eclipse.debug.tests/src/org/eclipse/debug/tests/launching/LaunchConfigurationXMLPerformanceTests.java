@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.internal.core.LaunchConfigurationInfo;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.junit.Test;
+
+/**
+ * Measures writing and reading the XML of many launch configurations with
+ * large list and map attributes, e.g. when importing or migrating
+ * configurations.
+ */
+public class LaunchConfigurationXMLPerformanceTests extends AbstractLaunchTest {
+
+	private static final int CONFIGURATIONS = 2000;
+	private static final int ENTRIES = 200;
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	@Test
+	public void testWriteAndRead2000Configurations() throws Exception {
+		ILaunchConfigurationType type = getLaunchManager().getLaunchConfigurationType(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE);
+		TestInfo[] infos = new TestInfo[CONFIGURATIONS];
+		for (int i = 0; i < CONFIGURATIONS; i++) {
+			infos[i] = new TestInfo(type, i);
+		}
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int run = 0; run < 5; run++) {
+				byte[][] contents = new byte[CONFIGURATIONS][];
+				meter.start();
+				long start = System.nanoTime();
+				long size = 0;
+				for (int i = 0; i < CONFIGURATIONS; i++) {
+					contents[i] = infos[i].write().getBytes(StandardCharsets.UTF_8);
+					size += contents[i].length;
+				}
+				long writeTime = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				TestInfo[] read = new TestInfo[CONFIGURATIONS];
+				for (int i = 0; i < CONFIGURATIONS; i++) {
+					read[i] = new TestInfo();
+					XMLStreamReader reader = factory.createXMLStreamReader(new ByteArrayInputStream(contents[i]));
+					try {
+						read[i].read(reader);
+					} finally {
+						reader.close();
+					}
+				}
+				long readTime = System.nanoTime() - start;
+				meter.stop();
+
+				for (int i = 0; i < CONFIGURATIONS; i++) {
+					assertEquals(infos[i], read[i]);
+				}
+				TestUtil.log(IStatus.INFO, name.getMethodName(), String.format("%d configurations, %d KB: %.1f ms write, %.1f ms read", //$NON-NLS-1$
+						CONFIGURATIONS, size / 1024, writeTime / 1e6, readTime / 1e6));
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	/**
+	 * Gives access to the XML support of launch configuration infos.
+	 */
+	private static class TestInfo extends LaunchConfigurationInfo {
+
+		TestInfo() {
+		}
+
+		TestInfo(ILaunchConfigurationType type, int index) {
+			setType(type);
+			setAttribute("name", "configuration" + index); //$NON-NLS-1$ //$NON-NLS-2$
+			setAttribute("index", Integer.valueOf(index)); //$NON-NLS-1$
+			setAttribute("enabled", Boolean.valueOf(index % 2 == 0)); //$NON-NLS-1$
+			List<String> list = new ArrayList<>(ENTRIES);
+			Map<String, String> map = new HashMap<>(ENTRIES);
+			Set<String> set = new HashSet<>(ENTRIES);
+			for (int i = 0; i < ENTRIES; i++) {
+				list.add("/project" + index + "/src/folder" + i + "/File" + i + ".java"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				map.put("VARIABLE_" + i, "value <" + i + "> & \"more\""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				set.add("mode" + i); //$NON-NLS-1$
+			}
+			setAttribute("classpath", list); //$NON-NLS-1$
+			setAttribute("environment", map); //$NON-NLS-1$
+			setAttribute("modes", set); //$NON-NLS-1$
+		}
+
+		String write() throws Exception {
+			return getAsXML("\n"); //$NON-NLS-1$
+		}
+
+		void read(XMLStreamReader reader) throws Exception {
+			initializeFromXML(reader, false);
+		}
+	}
+}
@@ -20,6 +20,8 @@ import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Platform;
@@ -28,6 +30,8 @@ import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.ILaunchConfigurationType;
 import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
 import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.debug.internal.core.LaunchConfigurationInfo;
+import org.eclipse.debug.internal.core.LaunchConfigurationInfoCache;
 import org.eclipse.debug.internal.core.LaunchManager;
 import org.eclipse.debug.tests.launching.CancellingLaunchDelegate.CancellingLaunch;
 import org.eclipse.debug.tests.launching.ThrowingLaunchDelegate.ThrowingEnum;
@@ -506,4 +510,62 @@ public class LaunchManagerTests extends AbstractLaunchTest {
 	public void testThrowingLaunch() throws Exception {
 		testThrowingLaunchDelegateMethod(ThrowingEnum.launch);
 	}
+
+	/**
+	 * Tests that the configuration name cache follows added and deleted
+	 * configurations.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testConfigurationNamesFollowAddAndDelete() throws Exception {
+		String name = "name-cache-test"; //$NON-NLS-1$
+		ILaunchManager launchManager = getLaunchManager();
+		assertFalse(launchManager.isExistingLaunchConfigurationName(name));
+		ILaunchConfiguration config = getLaunchConfiguration(name);
+		assertTrue(launchManager.isExistingLaunchConfigurationName(name));
+		assertEquals(name + " (1)", launchManager.generateLaunchConfigurationName(name)); //$NON-NLS-1$
+		config.delete();
+		assertFalse(launchManager.isExistingLaunchConfigurationName(name));
+	}
+
+	/**
+	 * Tests that the launch configuration info cache is bounded and counts
+	 * hits, misses and evictions.
+	 */
+	@Test
+	public void testLaunchConfigurationInfoCache() {
+		LaunchConfigurationInfoCache cache = new LaunchConfigurationInfoCache(32);
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject("info-cache-test"); //$NON-NLS-1$
+		ILaunchConfiguration[] configs = new ILaunchConfiguration[100];
+		for (int i = 0; i < configs.length; i++) {
+			configs[i] = getLaunchManager().getLaunchConfiguration(project.getFile("config" + i + ".launch")); //$NON-NLS-1$ //$NON-NLS-2$
+			cache.put(configs[i], new TestInfo());
+		}
+		int size = cache.size();
+		assertTrue("Cache exceeds its capacity: " + size, size <= 32); //$NON-NLS-1$
+		assertEquals(configs.length - size, cache.getEvictionCount());
+
+		int found = 0;
+		for (ILaunchConfiguration config : configs) {
+			if (cache.get(config) != null) {
+				found++;
+			}
+		}
+		assertNotNull(cache.get(configs[configs.length - 1]));
+		assertEquals(size, found);
+		assertEquals(found + 1, cache.getHitCount());
+		assertEquals(configs.length - found, cache.getMissCount());
+
+		assertTrue(cache.remove(configs[configs.length - 1]));
+		assertFalse(cache.remove(configs[configs.length - 1]));
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+
+	/**
+	 * Info without attributes.
+	 */
+	private static class TestInfo extends LaunchConfigurationInfo {
+	}
 }
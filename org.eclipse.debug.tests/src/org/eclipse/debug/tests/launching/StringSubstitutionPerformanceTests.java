@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.variables.IStringVariableManager;
+import org.eclipse.core.variables.IValueVariable;
+import org.eclipse.core.variables.VariablesPlugin;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.junit.Test;
+
+/**
+ * Measures string substitution of typical launch and external tool argument
+ * strings, which are substituted again and again on every launch or build.
+ */
+public class StringSubstitutionPerformanceTests extends AbstractDebugTest {
+
+	private static final int SUBSTITUTIONS = 100_000;
+
+	private static final String[] EXPRESSIONS = {
+			"-Xmx1g -Dtest.home=${test_home} -Dtest.user=${system_property:user.name}", //$NON-NLS-1$
+			"${test_args} --verbose --output=${test_home}/out", //$NON-NLS-1$
+			"-classpath ${test_home}/lib/a.jar:${test_home}/lib/b.jar -Dpath=${env_var:${test_variable_name}}", //$NON-NLS-1$
+			"no variables at all, just plain text arguments", //$NON-NLS-1$
+			"${test_home", //$NON-NLS-1$
+	};
+
+	private IValueVariable[] variables;
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		IStringVariableManager manager = VariablesPlugin.getDefault().getStringVariableManager();
+		variables = new IValueVariable[] {
+				manager.newValueVariable("test_home", null, true, "/opt/test"), //$NON-NLS-1$ //$NON-NLS-2$
+				manager.newValueVariable("test_args", null, true, "-Dhome=${test_home} ${test_home}/run"), //$NON-NLS-1$ //$NON-NLS-2$
+				manager.newValueVariable("test_variable_name", null, true, "PATH"), //$NON-NLS-1$ //$NON-NLS-2$
+		};
+		manager.addVariables(variables);
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		VariablesPlugin.getDefault().getStringVariableManager().removeVariables(variables);
+		super.tearDown();
+	}
+
+	@Test
+	public void testSubstituteArgumentStrings() throws Exception {
+		IStringVariableManager manager = VariablesPlugin.getDefault().getStringVariableManager();
+		assertEquals("-Dhome=/opt/test /opt/test/run --verbose --output=/opt/test/out", manager.performStringSubstitution(EXPRESSIONS[1])); //$NON-NLS-1$
+		assertEquals("-classpath /opt/test/lib/a.jar:/opt/test/lib/b.jar -Dpath=" + System.getenv("PATH"), manager.performStringSubstitution(EXPRESSIONS[2])); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(EXPRESSIONS[3], manager.performStringSubstitution(EXPRESSIONS[3]));
+		assertEquals("${test_home", manager.performStringSubstitution(EXPRESSIONS[4])); //$NON-NLS-1$
+
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int run = 0; run < 5; run++) {
+				meter.start();
+				long start = System.nanoTime();
+				int length = 0;
+				for (int i = 0; i < SUBSTITUTIONS; i++) {
+					length += manager.performStringSubstitution(EXPRESSIONS[i % EXPRESSIONS.length]).length();
+				}
+				long time = System.nanoTime() - start;
+				meter.stop();
+				TestUtil.log(IStatus.INFO, name.getMethodName(), String.format("%d substitutions (%d chars): %.1f ms", //$NON-NLS-1$
+						SUBSTITUTIONS, length, time / 1e6));
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.core.variables.IStringVariableManager;
+import org.eclipse.core.variables.IStringVariableResolutionScope;
+import org.eclipse.core.variables.VariablesPlugin;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.Test;
+
+/**
+ * Tests memoization of dynamic variable values in resolution scopes.
+ */
+public class StringVariableResolutionScopeTests extends AbstractDebugTest {
+
+	private static final String PROPERTY = "org.eclipse.debug.tests.scope"; //$NON-NLS-1$
+	private static final String EXPRESSION = "${system_property:" + PROPERTY + "}"; //$NON-NLS-1$ //$NON-NLS-2$
+
+	private IStringVariableManager getManager() {
+		return VariablesPlugin.getDefault().getStringVariableManager();
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		System.clearProperty(PROPERTY);
+		super.tearDown();
+	}
+
+	/**
+	 * Tests that a value is resolved once per scope and that it is not reused
+	 * after the scope has been closed.
+	 */
+	@Test
+	public void testValueResolvedOncePerScope() throws Exception {
+		System.setProperty(PROPERTY, "one"); //$NON-NLS-1$
+		try (IStringVariableResolutionScope scope = getManager().openResolutionScope()) {
+			assertEquals("one one", getManager().performStringSubstitution(EXPRESSION + " " + EXPRESSION)); //$NON-NLS-1$ //$NON-NLS-2$
+			System.setProperty(PROPERTY, "two"); //$NON-NLS-1$
+			assertEquals("one", getManager().performStringSubstitution(EXPRESSION)); //$NON-NLS-1$
+			assertArrayEquals(new String[] { "system_property" }, scope.getResolvedVariableNames()); //$NON-NLS-1$
+			assertEquals(1, scope.getResolutionCount("system_property")); //$NON-NLS-1$
+			assertEquals(2, scope.getReuseCount("system_property")); //$NON-NLS-1$
+			assertTrue(scope.getResolutionTime("system_property") >= 0); //$NON-NLS-1$
+		}
+		assertEquals("two", getManager().performStringSubstitution(EXPRESSION)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that values are memoized per argument.
+	 */
+	@Test
+	public void testValuesMemoizedPerArgument() throws Exception {
+		System.setProperty(PROPERTY, "one"); //$NON-NLS-1$
+		try (IStringVariableResolutionScope scope = getManager().openResolutionScope()) {
+			String expression = EXPRESSION + " ${system_property:java.version} " + EXPRESSION; //$NON-NLS-1$
+			assertEquals("one " + System.getProperty("java.version") + " one", getManager().performStringSubstitution(expression)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			assertEquals(2, scope.getResolutionCount("system_property")); //$NON-NLS-1$
+			assertEquals(1, scope.getReuseCount("system_property")); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Tests that variables declared as not memoizable and variables excluded
+	 * from a scope are resolved on every reference.
+	 */
+	@Test
+	public void testNotMemoizedVariables() throws Exception {
+		try (IStringVariableResolutionScope scope = getManager().openResolutionScope()) {
+			getManager().performStringSubstitution("${current_date} ${current_date}"); //$NON-NLS-1$
+			assertEquals(2, scope.getResolutionCount("current_date")); //$NON-NLS-1$
+			assertEquals(0, scope.getReuseCount("current_date")); //$NON-NLS-1$
+
+			System.setProperty(PROPERTY, "one"); //$NON-NLS-1$
+			assertEquals("one", getManager().performStringSubstitution(EXPRESSION)); //$NON-NLS-1$
+			scope.setMemoized("system_property", false); //$NON-NLS-1$
+			System.setProperty(PROPERTY, "two"); //$NON-NLS-1$
+			assertEquals("two two", getManager().performStringSubstitution(EXPRESSION + " " + EXPRESSION)); //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals(3, scope.getResolutionCount("system_property")); //$NON-NLS-1$
+			assertEquals(0, scope.getReuseCount("system_property")); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Tests that the enclosing scope applies again when a nested scope is
+	 * closed.
+	 */
+	@Test
+	public void testNestedScopes() throws Exception {
+		System.setProperty(PROPERTY, "one"); //$NON-NLS-1$
+		try (IStringVariableResolutionScope outer = getManager().openResolutionScope()) {
+			getManager().performStringSubstitution(EXPRESSION);
+			try (IStringVariableResolutionScope inner = getManager().openResolutionScope()) {
+				System.setProperty(PROPERTY, "two"); //$NON-NLS-1$
+				assertEquals("two", getManager().performStringSubstitution(EXPRESSION)); //$NON-NLS-1$
+				assertEquals(1, inner.getResolutionCount("system_property")); //$NON-NLS-1$
+			}
+			assertEquals("one", getManager().performStringSubstitution(EXPRESSION)); //$NON-NLS-1$
+			assertEquals(1, outer.getResolutionCount("system_property")); //$NON-NLS-1$
+			assertEquals(1, outer.getReuseCount("system_property")); //$NON-NLS-1$
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.sourcelookup;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.debug.core.sourcelookup.containers.ExternalArchiveSourceContainer;
+import org.eclipse.debug.core.sourcelookup.containers.ZipEntryStorage;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.Test;
+
+/**
+ * Tests searching archives with {@link ExternalArchiveSourceContainer}.
+ */
+public class ArchiveSourceContainerTests extends AbstractDebugTest {
+
+	private static final String[] ENTRIES = {
+			"src/", //$NON-NLS-1$
+			"src/org/", //$NON-NLS-1$
+			"src/org/example/", //$NON-NLS-1$
+			"src/org/example/Main.java", //$NON-NLS-1$
+			"src/org/example/Util.java", //$NON-NLS-1$
+			"other/org/example/Util.java", //$NON-NLS-1$
+			"other/org/example/MyUtil.java", //$NON-NLS-1$
+			"Readme.txt", //$NON-NLS-1$
+			"docs/Readme.txt", //$NON-NLS-1$
+	};
+
+	private File fArchive;
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		fArchive = File.createTempFile("sources", ".zip"); //$NON-NLS-1$ //$NON-NLS-2$
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(fArchive))) {
+			for (String entry : ENTRIES) {
+				out.putNextEntry(new ZipEntry(entry));
+				out.closeEntry();
+			}
+		}
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		SourceLookupUtils.closeArchives();
+		fArchive.delete();
+		super.tearDown();
+	}
+
+	private String[] find(ExternalArchiveSourceContainer container, String name) throws Exception {
+		Object[] elements = container.findSourceElements(name);
+		String[] names = new String[elements.length];
+		for (int i = 0; i < elements.length; i++) {
+			names[i] = ((ZipEntryStorage) elements[i]).getZipEntry().getName();
+		}
+		return names;
+	}
+
+	private void assertFound(String[] expected, String[] actual) {
+		assertEquals(String.join(",", expected), String.join(",", actual)); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Tests searching by exact names and by file name suffixes.
+	 */
+	@Test
+	public void testSearchBySuffix() throws Exception {
+		ExternalArchiveSourceContainer container = new ExternalArchiveSourceContainer(fArchive.getAbsolutePath(), false);
+		assertFound(new String[] { "Readme.txt" }, find(container, "Readme.txt")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFound(new String[] { "src/org/example/Main.java" }, find(container, "Main.java")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFound(new String[] { "src/org/example/Main.java" }, find(container, "org\\example\\Main.java")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFound(new String[] { "src/org/example/Util.java" }, find(container, "Util.java")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFound(new String[] { "other/org/example/MyUtil.java" }, find(container, "MyUtil.java")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFound(new String[0], find(container, "Missing.java")); //$NON-NLS-1$
+		assertFound(new String[0], find(container, "example/Missing.java")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that roots are detected by the first match and that later
+	 * searches are relative to the detected root.
+	 */
+	@Test
+	public void testDetectRoots() throws Exception {
+		ExternalArchiveSourceContainer container = new ExternalArchiveSourceContainer(fArchive.getAbsolutePath(), true);
+		assertFound(new String[] { "src/org/example/Main.java" }, find(container, "org/example/Main.java")); //$NON-NLS-1$ //$NON-NLS-2$
+		// the root "src/" is preferred over the root "other/" now
+		assertFound(new String[] { "src/org/example/Util.java" }, find(container, "org/example/Util.java")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFound(new String[] { "other/org/example/MyUtil.java" }, find(container, "org/example/MyUtil.java")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFound(new String[0], find(container, "org/example/Missing.java")); //$NON-NLS-1$
+		// unqualified names are searched by suffix
+		assertFound(new String[] { "Readme.txt" }, find(container, "Readme.txt")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Tests that searching still works after the shared archives have been
+	 * closed.
+	 */
+	@Test
+	public void testSearchAfterArchivesClosed() throws Exception {
+		ExternalArchiveSourceContainer container = new ExternalArchiveSourceContainer(fArchive.getAbsolutePath(), false);
+		assertFound(new String[] { "src/org/example/Main.java" }, find(container, "Main.java")); //$NON-NLS-1$ //$NON-NLS-2$
+		SourceLookupUtils.closeArchives();
+		assertFound(new String[] { "src/org/example/Main.java" }, find(container, "Main.java")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.sourcelookup;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.sourcelookup.ISourceContainer;
+import org.eclipse.debug.core.sourcelookup.ISourceContainerType;
+import org.eclipse.debug.core.sourcelookup.containers.AbstractSourceContainer;
+import org.eclipse.debug.core.sourcelookup.containers.CompositeSourceContainer;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+import org.eclipse.debug.internal.core.Preferences;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestsPlugin;
+import org.junit.Test;
+
+/**
+ * Tests searching source containers in parallel, see
+ * {@link IInternalDebugCoreConstants#PREF_PARALLEL_SOURCE_LOOKUP}.
+ */
+public class ParallelSourceLookupTests extends AbstractDebugTest {
+
+	/**
+	 * Container which finds its elements after a delay, or fails.
+	 */
+	static class DelayedContainer extends AbstractSourceContainer {
+
+		final Object[] fElements;
+		final long fDelay;
+		final boolean fFail;
+		final AtomicInteger fSearches = new AtomicInteger();
+
+		DelayedContainer(long delay, boolean fail, Object... elements) {
+			fDelay = delay;
+			fFail = fail;
+			fElements = elements;
+		}
+
+		@Override
+		public Object[] findSourceElements(String name) throws CoreException {
+			fSearches.incrementAndGet();
+			try {
+				Thread.sleep(fDelay);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (fFail) {
+				throw new CoreException(new Status(IStatus.ERROR, TestsPlugin.PLUGIN_ID, name));
+			}
+			return fElements;
+		}
+
+		@Override
+		public String getName() {
+			return "delayed"; //$NON-NLS-1$
+		}
+
+		@Override
+		public ISourceContainerType getType() {
+			return null;
+		}
+	}
+
+	/**
+	 * Composite of the given containers.
+	 */
+	static class TestCompositeContainer extends CompositeSourceContainer {
+
+		final ISourceContainer[] fChildren;
+
+		TestCompositeContainer(ISourceContainer... children) {
+			fChildren = children;
+		}
+
+		@Override
+		protected ISourceContainer[] createSourceContainers() {
+			return fChildren;
+		}
+
+		@Override
+		public String getName() {
+			return "composite"; //$NON-NLS-1$
+		}
+
+		@Override
+		public ISourceContainerType getType() {
+			return null;
+		}
+	}
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		Preferences.setBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_PARALLEL_SOURCE_LOOKUP, true, InstanceScope.INSTANCE);
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		Preferences.setBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_PARALLEL_SOURCE_LOOKUP, false, InstanceScope.INSTANCE);
+		super.tearDown();
+	}
+
+	private TestCompositeContainer createComposite(boolean findDuplicates, ISourceContainer... children) throws CoreException {
+		TestSourceDirector director = new TestSourceDirector();
+		director.setFindDuplicates(findDuplicates);
+		TestCompositeContainer composite = new TestCompositeContainer(children);
+		composite.init(director);
+		composite.getSourceContainers();
+		return composite;
+	}
+
+	/**
+	 * Tests that all elements are returned in container order when duplicates
+	 * are requested, although later containers finish first.
+	 */
+	@Test
+	public void testDuplicatesInContainerOrder() throws Exception {
+		TestCompositeContainer composite = createComposite(true,
+				new DelayedContainer(400, false, "a1", "a2"), //$NON-NLS-1$ //$NON-NLS-2$
+				new DelayedContainer(0, false),
+				new DelayedContainer(300, false, "b"), //$NON-NLS-1$
+				new DelayedContainer(0, false, "c")); //$NON-NLS-1$
+		long start = System.currentTimeMillis();
+		assertArrayEquals(new Object[] { "a1", "a2", "b", "c" }, composite.findSourceElements("name")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+		assertTrue("containers were not searched in parallel", System.currentTimeMillis() - start < 650); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that the first element of the first container with a match is
+	 * returned when duplicates are not requested, without waiting for the
+	 * later containers.
+	 */
+	@Test
+	public void testFirstMatchShortCircuits() throws Exception {
+		DelayedContainer[] slow = new DelayedContainer[32];
+		for (int i = 0; i < slow.length; i++) {
+			slow[i] = new DelayedContainer(500, false, "slow"); //$NON-NLS-1$
+		}
+		ISourceContainer[] children = new ISourceContainer[slow.length + 2];
+		children[0] = new DelayedContainer(100, false);
+		children[1] = new DelayedContainer(100, false, "first", "second"); //$NON-NLS-1$ //$NON-NLS-2$
+		System.arraycopy(slow, 0, children, 2, slow.length);
+		TestCompositeContainer composite = createComposite(false, children);
+		assertArrayEquals(new Object[] { "first" }, composite.findSourceElements("name")); //$NON-NLS-1$ //$NON-NLS-2$
+		// searches which did not start yet have been cancelled
+		int searched = 0;
+		for (DelayedContainer container : slow) {
+			searched += container.fSearches.get();
+		}
+		assertNotEquals("pending searches were not cancelled", slow.length, searched); //$NON-NLS-1$
+		// let the searches which did start finish before the next test
+		Thread.sleep(600);
+	}
+
+	/**
+	 * Tests that errors are only reported when no element is found.
+	 */
+	@Test
+	public void testErrors() throws Exception {
+		TestCompositeContainer composite = createComposite(false,
+				new DelayedContainer(0, true),
+				new DelayedContainer(50, false, "found")); //$NON-NLS-1$
+		assertArrayEquals(new Object[] { "found" }, composite.findSourceElements("name")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		composite = createComposite(false, new DelayedContainer(0, true), new DelayedContainer(50, true));
+		try {
+			composite.findSourceElements("name"); //$NON-NLS-1$
+			fail("Expected an exception"); //$NON-NLS-1$
+		} catch (CoreException e) {
+			assertEquals(2, e.getStatus().getChildren().length);
+		}
+	}
+
+	/**
+	 * Tests that nested composite containers are searched too.
+	 */
+	@Test
+	public void testNestedComposites() throws Exception {
+		TestCompositeContainer composite = createComposite(true,
+				new TestCompositeContainer(new DelayedContainer(50, false, "a"), new DelayedContainer(0, false, "b")), //$NON-NLS-1$ //$NON-NLS-2$
+				new DelayedContainer(0, false, "c")); //$NON-NLS-1$
+		assertArrayEquals(new Object[] { "a", "b", "c" }, composite.findSourceElements("name")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.sourcelookup;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.ref.WeakReference;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.sourcelookup.AbstractSourceLookupParticipant;
+import org.eclipse.debug.core.sourcelookup.ISourceContainer;
+import org.eclipse.debug.core.sourcelookup.ISourceLookupParticipant;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.debug.tests.sourcelookup.ParallelSourceLookupTests.DelayedContainer;
+import org.junit.Test;
+
+/**
+ * Tests caching of source lookups by
+ * {@link org.eclipse.debug.core.sourcelookup.AbstractSourceLookupDirector}.
+ */
+public class SourceLookupCacheTests extends AbstractDebugTest {
+
+	/**
+	 * Participant using the string of the looked up object as source name.
+	 */
+	static class TestParticipant extends AbstractSourceLookupParticipant {
+		@Override
+		public String getSourceName(Object object) throws CoreException {
+			return object.toString();
+		}
+	}
+
+	private TestSourceDirector fDirector;
+	private TestParticipant fParticipant;
+	private DelayedContainer fContainer;
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		fDirector = new TestSourceDirector();
+		fParticipant = new TestParticipant();
+		fDirector.addParticipants(new ISourceLookupParticipant[] { fParticipant });
+		fContainer = new DelayedContainer(0, false, "found"); //$NON-NLS-1$
+		fDirector.setSourceContainers(new ISourceContainer[] { fContainer });
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		fDirector.dispose();
+		super.tearDown();
+	}
+
+	/**
+	 * Tests that repeated lookups, including lookups which found nothing, are
+	 * answered from the cache.
+	 */
+	@Test
+	public void testRepeatedLookups() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			assertArrayEquals(new Object[] { "found" }, fParticipant.findSourceElements("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		assertEquals(1, fContainer.fSearches.get());
+		assertEquals(2, fDirector.getLookupCacheHitCount());
+		assertEquals(1, fDirector.getLookupCacheMissCount());
+
+		DelayedContainer empty = new DelayedContainer(0, false);
+		fDirector.setSourceContainers(new ISourceContainer[] { empty });
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, fParticipant.findSourceElements("b").length); //$NON-NLS-1$
+		}
+		assertEquals(1, empty.fSearches.get());
+	}
+
+	/**
+	 * Tests that changing the source containers or clearing source elements
+	 * discards cached lookups.
+	 */
+	@Test
+	public void testInvalidation() throws Exception {
+		fParticipant.findSourceElements("a"); //$NON-NLS-1$
+		fDirector.setSourceContainers(new ISourceContainer[] { fContainer });
+		fParticipant.findSourceElements("a"); //$NON-NLS-1$
+		assertEquals(2, fContainer.fSearches.get());
+
+		fDirector.clearLookupCache();
+		fParticipant.findSourceElements("a"); //$NON-NLS-1$
+		assertEquals(3, fContainer.fSearches.get());
+
+		fDirector.clearSourceElements("a"); //$NON-NLS-1$
+		fParticipant.findSourceElements("a"); //$NON-NLS-1$
+		assertEquals(4, fContainer.fSearches.get());
+	}
+
+	/**
+	 * Tests that the cache is bounded and can be disabled.
+	 */
+	@Test
+	public void testCacheSize() throws Exception {
+		fDirector.setLookupCacheSize(2);
+		assertEquals(2, fDirector.getLookupCacheSize());
+		fParticipant.findSourceElements("a"); //$NON-NLS-1$
+		fParticipant.findSourceElements("b"); //$NON-NLS-1$
+		fParticipant.findSourceElements("c"); //$NON-NLS-1$
+		// "a" has been evicted
+		fParticipant.findSourceElements("a"); //$NON-NLS-1$
+		assertEquals(4, fContainer.fSearches.get());
+		fParticipant.findSourceElements("c"); //$NON-NLS-1$
+		assertEquals(4, fContainer.fSearches.get());
+
+		fDirector.setLookupCacheSize(0);
+		fParticipant.findSourceElements("c"); //$NON-NLS-1$
+		fParticipant.findSourceElements("c"); //$NON-NLS-1$
+		assertEquals(6, fContainer.fSearches.get());
+	}
+
+	/**
+	 * Tests that a director which cached lookups but is never disposed can be
+	 * garbage collected.
+	 */
+	@Test
+	public void testUndisposedDirectorCollected() throws Exception {
+		TestSourceDirector director = new TestSourceDirector();
+		TestParticipant participant = new TestParticipant();
+		director.addParticipants(new ISourceLookupParticipant[] { participant });
+		director.setSourceContainers(new ISourceContainer[] { new DelayedContainer(0, false, "found") }); //$NON-NLS-1$
+		participant.findSourceElements("a"); //$NON-NLS-1$
+		assertEquals(1, director.getLookupCacheMissCount());
+		WeakReference<TestSourceDirector> reference = new WeakReference<>(director);
+		director = null;
+		participant = null;
+		TestUtil.waitWhile(() -> {
+			System.gc();
+			return reference.get() != null;
+		}, testTimeout);
+		assertNull("Director is still reachable.", reference.get()); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.unittest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.launching.LaunchConfigurationTests;
+import org.eclipse.unittest.internal.model.TestElement;
+import org.eclipse.unittest.internal.model.TestRunSession;
+import org.eclipse.unittest.internal.model.TestSuiteElement;
+import org.eclipse.unittest.internal.ui.history.CompactHistoryFormat;
+import org.eclipse.unittest.internal.ui.history.HistoryItem;
+import org.eclipse.unittest.model.ITestCaseElement;
+import org.eclipse.unittest.model.ITestElement.FailureTrace;
+import org.eclipse.unittest.model.ITestElement.Result;
+import org.eclipse.unittest.model.ITestSuiteElement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the compact format of test run history files.
+ */
+public class CompactHistoryFormatTests extends AbstractDebugTest {
+
+	private static final String RUN_NAME = "history"; //$NON-NLS-1$
+
+	private File fDirectory;
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		fDirectory = Files.createTempDirectory("history").toFile(); //$NON-NLS-1$
+	}
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		File[] files = fDirectory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		fDirectory.delete();
+		super.tearDown();
+	}
+
+	/**
+	 * Creates a completed session with a suite of two tests, one of which
+	 * failed.
+	 */
+	private TestRunSession newSession() throws CoreException {
+		ILaunchConfigurationType type = DebugPlugin.getDefault().getLaunchManager().getLaunchConfigurationType(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE);
+		ILaunchConfiguration configuration = type.newInstance(null, RUN_NAME);
+		TestRunSession session = new TestRunSession(RUN_NAME, Instant.now(), configuration);
+		session.notifyTestSessionStarted(Integer.valueOf(2));
+		ITestSuiteElement suite = session.newTestSuite("suite", "suite", Integer.valueOf(2), null, null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		ITestCaseElement passed = session.newTestCase("suite.passed", "passed", suite, null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		session.notifyTestStarted(passed);
+		session.notifyTestEnded(passed, false);
+		ITestCaseElement failed = session.newTestCase("suite.failed", "failed", suite, null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		session.notifyTestStarted(failed);
+		session.notifyTestFailed(failed, Result.FAILURE, false, new FailureTrace("trace <&>", null, null)); //$NON-NLS-1$
+		session.notifyTestEnded(failed, false);
+		session.notifyTestSessionCompleted(Duration.ofMillis(5));
+		return session;
+	}
+
+	private File newFile(String name) {
+		return new File(fDirectory, name);
+	}
+
+	private static void assertSessionStructure(TestRunSession session) {
+		assertEquals(RUN_NAME, session.getTestRunName());
+		List<TestElement> children = session.getChildren();
+		assertEquals(1, children.size());
+		TestSuiteElement suite = (TestSuiteElement) children.get(0);
+		assertEquals("suite", suite.getTestName()); //$NON-NLS-1$
+		List<TestElement> tests = suite.getChildren();
+		assertEquals(2, tests.size());
+		assertEquals("passed", tests.get(0).getTestName()); //$NON-NLS-1$
+		assertEquals(Result.OK, tests.get(0).getTestResult(false));
+		assertEquals("failed", tests.get(1).getTestName()); //$NON-NLS-1$
+		assertEquals(Result.FAILURE, tests.get(1).getTestResult(false));
+	}
+
+	/**
+	 * Tests that a session written in the compact format is listed from the
+	 * header and reloaded with the same tests and results.
+	 */
+	@Test
+	public void testRoundTrip() throws Exception {
+		TestRunSession session = newSession();
+		File file = newFile(RUN_NAME + CompactHistoryFormat.FILE_EXTENSION);
+		CompactHistoryFormat.write(session, file);
+		assertTrue(CompactHistoryFormat.isCompactFile(file));
+
+		CompactHistoryFormat.Header header = CompactHistoryFormat.readHeader(file);
+		assertEquals(RUN_NAME, header.getName());
+		assertEquals(session.getStartTime(), header.getStartTime());
+		assertEquals(1, header.getFailuresAndErrors());
+		assertEquals(Collections.singletonList("failed"), header.getFailedTests()); //$NON-NLS-1$
+
+		HistoryItem item = new HistoryItem(file);
+		assertEquals(RUN_NAME, item.getName());
+		assertEquals(session.getStartTime(), item.getStartDate());
+		assertEquals(1, item.getFailureCount());
+		assertFalse(item.getCurrentTestRunSession().isPresent());
+		assertSessionStructure(item.reloadTestRunSession());
+	}
+
+	/**
+	 * Tests that history files written as JUnit XML are detected and still
+	 * read.
+	 */
+	@Test
+	public void testLegacyXML() throws Exception {
+		File file = newFile(RUN_NAME + ".xml"); //$NON-NLS-1$
+		new HistoryItem(newSession()).exportToXML(file);
+		assertFalse(CompactHistoryFormat.isCompactFile(file));
+
+		HistoryItem item = new HistoryItem(file);
+		assertEquals(RUN_NAME, item.getName());
+		assertEquals(1, item.getFailureCount());
+		assertSessionStructure(item.reloadTestRunSession());
+	}
+
+	/**
+	 * Tests that exporting a swapped out session writes the same JUnit XML as
+	 * exporting the session itself.
+	 */
+	@Test
+	public void testExportToXML() throws Exception {
+		TestRunSession session = newSession();
+		File expected = newFile("expected.xml"); //$NON-NLS-1$
+		new HistoryItem(session).exportToXML(expected);
+		File file = newFile(RUN_NAME + CompactHistoryFormat.FILE_EXTENSION);
+		CompactHistoryFormat.write(session, file);
+		File exported = newFile("exported.xml"); //$NON-NLS-1$
+		new HistoryItem(file).exportToXML(exported);
+
+		String xml = new String(Files.readAllBytes(exported.toPath()), StandardCharsets.UTF_8);
+		assertTrue(xml, xml.startsWith("<?xml")); //$NON-NLS-1$
+		assertTrue(xml, xml.contains("trace &lt;&amp;&gt;")); //$NON-NLS-1$
+		assertArrayEquals(Files.readAllBytes(expected.toPath()), Files.readAllBytes(exported.toPath()));
+	}
+
+	/**
+	 * Tests that truncated and corrupt history files are rejected with an
+	 * exception rather than read partially.
+	 */
+	@Test
+	public void testTruncatedAndCorruptFiles() throws Exception {
+		File file = newFile(RUN_NAME + CompactHistoryFormat.FILE_EXTENSION);
+		CompactHistoryFormat.write(newSession(), file);
+		byte[] bytes = Files.readAllBytes(file.toPath());
+
+		// body cut off
+		File truncated = newFile("truncated" + CompactHistoryFormat.FILE_EXTENSION); //$NON-NLS-1$
+		Files.write(truncated.toPath(), Arrays.copyOf(bytes, bytes.length - 20));
+		assertReloadFails(truncated);
+
+		// header cut off
+		Files.write(truncated.toPath(), Arrays.copyOf(bytes, 12));
+		assertReadHeaderFails(truncated);
+
+		// compressed body overwritten
+		int body = indexOfGZIPMagic(bytes);
+		assertTrue(body > 0);
+		byte[] corruptBytes = bytes.clone();
+		corruptBytes[body] = 0;
+		File corrupt = newFile("corrupt" + CompactHistoryFormat.FILE_EXTENSION); //$NON-NLS-1$
+		Files.write(corrupt.toPath(), corruptBytes);
+		assertReloadFails(corrupt);
+
+		// header with an impossible string length
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (DataOutputStream data = new DataOutputStream(out)) {
+			data.write(Arrays.copyOf(bytes, 5));
+			data.writeInt(Integer.MAX_VALUE);
+		}
+		Files.write(corrupt.toPath(), out.toByteArray());
+		assertReadHeaderFails(corrupt);
+	}
+
+	/**
+	 * Tests that history files with a missing string where the format requires
+	 * one are rejected.
+	 */
+	@Test
+	public void testMissingStrings() throws Exception {
+		File file = newFile(RUN_NAME + CompactHistoryFormat.FILE_EXTENSION);
+		CompactHistoryFormat.write(newSession(), file);
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		byte[] header = Arrays.copyOf(bytes, indexOfGZIPMagic(bytes));
+
+		// characters without a string
+		File corrupt = newFile("corrupt" + CompactHistoryFormat.FILE_EXTENSION); //$NON-NLS-1$
+		Files.write(corrupt.toPath(), newContent(header, 3, -1));
+		assertReloadFails(corrupt);
+
+		// element with a new name without a string
+		Files.write(corrupt.toPath(), newContent(header, 1, -1, -1));
+		assertReloadFails(corrupt);
+	}
+
+	/**
+	 * Returns the content of a history file with the given header and a body
+	 * holding the given event and integers.
+	 */
+	private static byte[] newContent(byte[] header, int event, int... values) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(header);
+		try (DataOutputStream body = new DataOutputStream(new GZIPOutputStream(out))) {
+			body.writeByte(event);
+			for (int value : values) {
+				body.writeInt(value);
+			}
+		}
+		return out.toByteArray();
+	}
+
+	private static int indexOfGZIPMagic(byte[] bytes) {
+		for (int i = 5; i < bytes.length - 1; i++) {
+			if (bytes[i] == (byte) 0x1f && bytes[i + 1] == (byte) 0x8b) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static void assertReadHeaderFails(File file) {
+		try {
+			CompactHistoryFormat.readHeader(file);
+			fail("Header of " + file.getName() + " read"); //$NON-NLS-1$ //$NON-NLS-2$
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	private static void assertReloadFails(File file) {
+		assertTrue(CompactHistoryFormat.isCompactFile(file));
+		try {
+			new HistoryItem(file).reloadTestRunSession();
+			fail(file.getName() + " reloaded"); //$NON-NLS-1$
+		} catch (CoreException e) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.unittest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.debug.tests.launching.LaunchConfigurationTests;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.unittest.internal.model.ITestSessionListener;
+import org.eclipse.unittest.internal.model.TestRunSession;
+import org.eclipse.unittest.launcher.ITestRunnerClient;
+import org.eclipse.unittest.model.ITestCaseElement;
+import org.eclipse.unittest.model.ITestElement;
+import org.eclipse.unittest.model.ITestElement.FailureTrace;
+import org.eclipse.unittest.model.ITestElement.Result;
+import org.eclipse.unittest.model.ITestSuiteElement;
+import org.junit.Test;
+
+/**
+ * Reports test events to a {@link TestRunSession} from several threads, like
+ * a parallel test engine, and measures the number of events per second.
+ */
+public class TestRunSessionStressTests extends AbstractDebugTest {
+
+	private static final int THREADS = 8;
+	private static final int TESTS_PER_THREAD = 5_000;
+
+	/**
+	 * Test runner client reporting the tests of one suite per thread.
+	 */
+	static class MockTestRunnerClient implements ITestRunnerClient {
+
+		private final TestRunSession fSession;
+		private final List<Thread> fThreads = new ArrayList<>();
+
+		MockTestRunnerClient(TestRunSession session) {
+			fSession = session;
+		}
+
+		@Override
+		public void startMonitoring() {
+			fSession.notifyTestSessionStarted(Integer.valueOf(THREADS * TESTS_PER_THREAD));
+			for (int t = 0; t < THREADS; t++) {
+				String suiteId = "suite" + t; //$NON-NLS-1$
+				Thread thread = new Thread(() -> runSuite(suiteId), suiteId);
+				fThreads.add(thread);
+				thread.start();
+			}
+		}
+
+		private void runSuite(String suiteId) {
+			ITestSuiteElement suite = fSession.newTestSuite(suiteId, suiteId, Integer.valueOf(TESTS_PER_THREAD), null, null, null);
+			for (int i = 0; i < TESTS_PER_THREAD; i++) {
+				String testId = suiteId + '.' + i;
+				ITestCaseElement test = fSession.newTestCase(testId, "test" + i, suite, null, null); //$NON-NLS-1$
+				fSession.notifyTestStarted(test);
+				if (i % 10 == 0) {
+					fSession.notifyTestFailed(test, Result.FAILURE, false, new FailureTrace(testId, null, null));
+				}
+				fSession.notifyTestEnded(test, false);
+			}
+		}
+
+		void join() throws InterruptedException {
+			for (Thread thread : fThreads) {
+				thread.join();
+			}
+			fSession.notifyTestSessionCompleted(Duration.ZERO);
+		}
+
+		@Override
+		public void stopTest() {
+			stopMonitoring();
+		}
+
+		@Override
+		public void stopMonitoring() {
+			// nothing to stop
+		}
+	}
+
+	/**
+	 * Listener checking the order of the events of each test.
+	 */
+	static class RecordingListener implements ITestSessionListener {
+
+		final Set<ITestElement> fStarted = new HashSet<>();
+		final Set<ITestElement> fChanged = new HashSet<>();
+		int fChangedCount;
+		int fAdded;
+		int fEnded;
+		int fFailed;
+		int fOutOfOrder;
+		boolean fCompleted;
+
+		@Override
+		public void sessionStarted() {
+		}
+
+		@Override
+		public void sessionCompleted(Duration duration) {
+			fCompleted = true;
+		}
+
+		@Override
+		public void sessionAborted(Duration duration) {
+		}
+
+		@Override
+		public void testAdded(ITestElement testElement) {
+			fAdded++;
+		}
+
+		@Override
+		public void runningBegins() {
+		}
+
+		@Override
+		public void testStarted(ITestCaseElement testCaseElement) {
+			fStarted.add(testCaseElement);
+		}
+
+		@Override
+		public void testEnded(ITestCaseElement testCaseElement) {
+			fEnded++;
+			if (!fStarted.contains(testCaseElement)) {
+				fOutOfOrder++;
+			}
+		}
+
+		@Override
+		public void testFailed(ITestElement testElement, Result status, FailureTrace trace) {
+			fFailed++;
+			if (!fStarted.contains(testElement)) {
+				fOutOfOrder++;
+			}
+		}
+
+		@Override
+		public void testsChanged(Collection<ITestElement> testElements) {
+			fChangedCount += testElements.size();
+			for (ITestElement testElement : testElements) {
+				fChanged.add(testElement);
+				if (!fStarted.contains(testElement)) {
+					fOutOfOrder++;
+				}
+			}
+		}
+	}
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	private ILaunchConfiguration newConfiguration() throws Exception {
+		ILaunchManager launchManager = DebugPlugin.getDefault().getLaunchManager();
+		ILaunchConfigurationType type = launchManager.getLaunchConfigurationType(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE);
+		return type.newInstance(null, "stress"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testConcurrentEvents() throws Exception {
+		ILaunchConfiguration configuration = newConfiguration();
+		int tests = THREADS * TESTS_PER_THREAD;
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int run = 0; run < 5; run++) {
+				TestRunSession session = new TestRunSession("stress", null, configuration); //$NON-NLS-1$
+				RecordingListener listener = new RecordingListener();
+				session.addTestSessionListener(listener);
+				MockTestRunnerClient client = new MockTestRunnerClient(session);
+
+				meter.start();
+				long start = System.nanoTime();
+				client.startMonitoring();
+				client.join();
+				long time = System.nanoTime() - start;
+				meter.stop();
+
+				assertTrue(listener.fCompleted);
+				assertEquals(THREADS + tests, listener.fAdded);
+				assertEquals(tests, listener.fStarted.size());
+				assertEquals(tests, listener.fEnded);
+				assertEquals(tests / 10, listener.fFailed);
+				assertEquals(0, listener.fOutOfOrder);
+				assertEquals(tests, listener.fChanged.size());
+				assertTrue(listener.fChangedCount <= listener.fStarted.size() + listener.fEnded + listener.fFailed);
+				assertEquals(tests / 10, session.getCurrentFailureCount());
+				assertEquals(tests, session.countStartedTestCases());
+
+				long events = session.getDeliveredEventCount();
+				TestUtil.log(IStatus.INFO, name.getMethodName(), String.format("%d events in %d batches: %.0f events/s", //$NON-NLS-1$
+						events, session.getDeliveryBatchCount(), events / (time / 1e9)));
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+}
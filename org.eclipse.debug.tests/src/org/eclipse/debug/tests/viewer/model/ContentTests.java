@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2018 Wind River Systems and others.
+ * Copyright (c) 2009, 2022 Wind River Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,21 +14,26 @@
  *******************************************************************************/
 package org.eclipse.debug.tests.viewer.model;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import org.eclipse.debug.internal.ui.viewers.model.IInternalTreeModelViewer;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.ICheckUpdate;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IChildrenUpdate;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementLabelProvider2;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.ILabelUpdate;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelDelta;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IPresentationContext;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IViewerUpdate;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.ModelDelta;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.PresentationContext;
 import org.eclipse.debug.tests.AbstractDebugTest;
 import org.eclipse.debug.tests.TestUtil;
 import org.eclipse.debug.tests.viewer.model.TestModel.TestElement;
@@ -295,6 +300,89 @@ abstract public class ContentTests extends AbstractViewerModelTest implements IT
 		model.validateData(fViewer, TreePath.EMPTY);
 	}
 
+	/**
+	 * Test model supplying label stamps, which are only changed explicitly.
+	 */
+	static class TestModelWithLabelStamps extends TestModel implements IElementLabelProvider2 {
+
+		volatile int fStamp;
+		final AtomicInteger fLabelRequests = new AtomicInteger();
+
+		@Override
+		public Object getLabelStamp(TreePath elementPath, IPresentationContext context) {
+			return Integer.valueOf(fStamp);
+		}
+
+		@Override
+		public void update(ILabelUpdate[] updates) {
+			fLabelRequests.addAndGet(updates.length);
+			super.update(updates);
+		}
+	}
+
+	/**
+	 * Requests the labels of the given element and of all elements below it.
+	 */
+	private void updateLabels(TestElement element) throws Exception {
+		fListener.reset();
+		updateLabels0(element);
+		waitWhile(t -> !fListener.isFinished(LABEL_COMPLETE), createListenerErrorMessage());
+	}
+
+	private void updateLabels0(TestElement element) {
+		for (TestElement child : element.getChildren()) {
+			fViewer.update(child);
+			updateLabels0(child);
+		}
+	}
+
+	/**
+	 * Tests that labels are not requested from the model again while their
+	 * label stamps are unchanged, unless the viewer is refreshed or a property
+	 * of its presentation context changes.
+	 */
+	@Test
+	public void testLabelCache() throws Exception {
+		TestModelWithLabelStamps model = new TestModelWithLabelStamps();
+		model.setRoot(new TestElement(model, "root", new TestElement[0])); //$NON-NLS-1$
+		model.setElementChildren(TreePath.EMPTY, TestModel.makeMultiLevelElements(model, 3, "model.")); //$NON-NLS-1$
+		fViewer.setAutoExpandLevel(-1);
+
+		fListener.reset(TreePath.EMPTY, model.getRootElement(), -1, true, false);
+		fViewer.setInput(model.getRootElement());
+		waitWhile(t -> !fListener.isFinished(), createListenerErrorMessage());
+		model.validateData(fViewer, TreePath.EMPTY);
+		int requests = model.fLabelRequests.get();
+		assertTrue(requests > 0);
+
+		// Update with unchanged stamps: labels come from the cache
+		updateLabels(model.getRootElement());
+		model.validateData(fViewer, TreePath.EMPTY);
+		assertEquals(requests, model.fLabelRequests.get());
+
+		// Refresh: cached labels are discarded
+		fListener.reset();
+		fViewer.refresh();
+		waitWhile(t -> !fListener.isFinished(ALL_UPDATES_COMPLETE), createListenerErrorMessage());
+		assertTrue(model.fLabelRequests.get() > requests);
+		requests = model.fLabelRequests.get();
+		updateLabels(model.getRootElement());
+		assertEquals(requests, model.fLabelRequests.get());
+
+		// Presentation context property change: cached labels are discarded
+		((PresentationContext) fViewer.getPresentationContext()).setProperty("testLabelCache", Boolean.TRUE); //$NON-NLS-1$
+		updateLabels(model.getRootElement());
+		assertTrue(model.fLabelRequests.get() > requests);
+		requests = model.fLabelRequests.get();
+
+		// Change the labels and their stamps: labels are requested again
+		model.setAllAppendix(" - changed"); //$NON-NLS-1$
+		model.fStamp++;
+		updateLabels(model.getRootElement());
+		model.validateData(fViewer, TreePath.EMPTY);
+		assertTrue(model.fLabelRequests.get() > requests);
+	}
+
 	private boolean areCapturedChildrenUpdatesComplete(List<IViewerUpdate> capturedUpdates, int childCount) {
 		List<Integer> expectedChildren = new ArrayList<>();
 		for (int i = 0; i < childCount; i++) {
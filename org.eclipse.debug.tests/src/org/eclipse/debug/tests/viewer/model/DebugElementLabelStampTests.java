@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.viewer.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.Proxy;
+
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.model.IDebugTarget;
+import org.eclipse.debug.core.model.IStackFrame;
+import org.eclipse.debug.core.model.IVariable;
+import org.eclipse.debug.internal.ui.model.elements.DebugElementLabelProvider;
+import org.eclipse.debug.internal.ui.model.elements.ExpressionLabelProvider;
+import org.eclipse.debug.internal.ui.model.elements.StackFrameLabelProvider;
+import org.eclipse.debug.internal.ui.model.elements.VariableLabelProvider;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementLabelProvider2;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IPresentationContext;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.PresentationContext;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.debug.ui.DebugUITools;
+import org.eclipse.debug.ui.IDebugModelPresentation;
+import org.eclipse.jface.viewers.TreePath;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the label stamps returned by the debug element label providers.
+ */
+public class DebugElementLabelStampTests extends AbstractDebugTest {
+
+	private IPresentationContext fContext;
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		fContext = new PresentationContext("test"); //$NON-NLS-1$
+	}
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		fContext.dispose();
+		super.tearDown();
+	}
+
+	/**
+	 * Creates a proxy implementing the given debug model interface, which
+	 * returns the given debug target.
+	 */
+	private static <T> T newElement(Class<T> type, IDebugTarget target) {
+		Object element = Proxy.newProxyInstance(DebugElementLabelStampTests.class.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "getDebugTarget": //$NON-NLS-1$
+					return target != null ? target : proxy;
+				case "equals": //$NON-NLS-1$
+					return Boolean.valueOf(proxy == args[0]);
+				case "hashCode": //$NON-NLS-1$
+					return Integer.valueOf(System.identityHashCode(proxy));
+				case "toString": //$NON-NLS-1$
+					return type.getSimpleName();
+				default:
+					return method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+			}
+		});
+		return type.cast(element);
+	}
+
+	private Object getStamp(Object element) {
+		return new VariableLabelProvider().getLabelStamp(new TreePath(new Object[] { element }), fContext);
+	}
+
+	/**
+	 * Fires a debug event for the given element and waits until the label
+	 * stamp of the given variable changes.
+	 */
+	private void fireAndWait(Object source, IVariable variable, Object stamp) throws Exception {
+		DebugPlugin.getDefault().fireDebugEventSet(new DebugEvent[] { new DebugEvent(source, DebugEvent.SUSPEND) });
+		TestUtil.waitWhile(() -> stamp.equals(getStamp(variable)), testTimeout);
+	}
+
+	/**
+	 * Tests that the stamp of a variable stays the same until its debug
+	 * target fires a debug event.
+	 */
+	@Test
+	public void testDebugEventChangesStamp() throws Exception {
+		IDebugTarget target = newElement(IDebugTarget.class, null);
+		IVariable variable = newElement(IVariable.class, target);
+		Object stamp = getStamp(variable);
+		assertNotNull(stamp);
+		assertEquals(stamp, getStamp(variable));
+
+		fireAndWait(target, variable, stamp);
+		Object suspended = getStamp(variable);
+		assertFalse(stamp.equals(suspended));
+		assertEquals(suspended, getStamp(variable));
+	}
+
+	/**
+	 * Tests that the debug events of one target do not change the stamps of
+	 * the elements of another target.
+	 */
+	@Test
+	public void testOtherTargetKeepsStamp() throws Exception {
+		IDebugTarget target = newElement(IDebugTarget.class, null);
+		IVariable variable = newElement(IVariable.class, target);
+		IVariable otherVariable = newElement(IVariable.class, newElement(IDebugTarget.class, null));
+		Object stamp = getStamp(variable);
+		Object otherStamp = getStamp(otherVariable);
+
+		fireAndWait(variable, variable, stamp);
+		assertFalse(stamp.equals(getStamp(variable)));
+		assertEquals(otherStamp, getStamp(otherVariable));
+	}
+
+	/**
+	 * Tests that setting an attribute of a model presentation changes the
+	 * stamps of all debug elements.
+	 */
+	@Test
+	public void testPresentationChangesStamp() throws Exception {
+		IVariable variable = newElement(IVariable.class, newElement(IDebugTarget.class, null));
+		Object stamp = getStamp(variable);
+		IDebugModelPresentation presentation = DebugUITools.newDebugModelPresentation();
+		try {
+			presentation.setAttribute(IDebugModelPresentation.DISPLAY_VARIABLE_TYPE_NAMES, Boolean.TRUE);
+		} finally {
+			presentation.dispose();
+		}
+		assertFalse(stamp.equals(getStamp(variable)));
+	}
+
+	/**
+	 * Tests that the labels of stack frames are stamped like the labels of
+	 * variables.
+	 */
+	@Test
+	public void testStackFrameStamp() throws Exception {
+		IDebugTarget target = newElement(IDebugTarget.class, null);
+		IStackFrame frame = newElement(IStackFrame.class, target);
+		TreePath path = new TreePath(new Object[] { frame });
+		StackFrameLabelProvider provider = new StackFrameLabelProvider();
+		Object stamp = provider.getLabelStamp(path, fContext);
+		assertEquals(getStamp(newElement(IVariable.class, target)), stamp);
+
+		IVariable variable = newElement(IVariable.class, target);
+		fireAndWait(frame, variable, getStamp(variable));
+		assertNotEquals(stamp, provider.getLabelStamp(path, fContext));
+	}
+
+	/**
+	 * Tests that elements which are not debug elements, expressions, elements
+	 * of the base debug element label provider and of subclasses of the
+	 * variable label provider are not cached.
+	 */
+	@Test
+	public void testNoStamp() throws Exception {
+		assertNull(getStamp("element")); //$NON-NLS-1$
+		IVariable variable = newElement(IVariable.class, newElement(IDebugTarget.class, null));
+		TreePath path = new TreePath(new Object[] { variable });
+		assertNull(new ExpressionLabelProvider().getLabelStamp(path, fContext));
+		assertNull(new VariableLabelProvider() {
+		}.getLabelStamp(path, fContext));
+		assertFalse(new DebugElementLabelProvider() instanceof IElementLabelProvider2);
+	}
+}
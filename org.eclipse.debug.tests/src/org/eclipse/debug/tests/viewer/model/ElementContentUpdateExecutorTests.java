@@ -0,0 +1,313 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.viewer.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.internal.ui.model.elements.ElementContentProvider;
+import org.eclipse.debug.internal.ui.model.elements.ElementContentUpdateExecutor;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IPresentationContext;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IViewerUpdate;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.PresentationContext;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.jface.viewers.TreePath;
+import org.junit.Test;
+
+/**
+ * Tests the shared executor of element content provider updates.
+ */
+public class ElementContentUpdateExecutorTests extends AbstractDebugTest {
+
+	/**
+	 * Update recording whether it has been performed and is done.
+	 */
+	static class TestUpdate implements IViewerUpdate {
+
+		volatile boolean fPerformed;
+		volatile boolean fDone;
+		volatile boolean fCanceled;
+		IStatus fStatus = Status.OK_STATUS;
+		IPresentationContext fContext;
+
+		@Override
+		public void setStatus(IStatus status) {
+			fStatus = status;
+		}
+
+		@Override
+		public IStatus getStatus() {
+			return fStatus;
+		}
+
+		@Override
+		public void done() {
+			fDone = true;
+		}
+
+		@Override
+		public void cancel() {
+			fCanceled = true;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return fCanceled;
+		}
+
+		@Override
+		public IPresentationContext getPresentationContext() {
+			return fContext;
+		}
+
+		@Override
+		public Object getElement() {
+			return null;
+		}
+
+		@Override
+		public TreePath getElementPath() {
+			return TreePath.EMPTY;
+		}
+
+		@Override
+		public Object getViewerInput() {
+			return null;
+		}
+	}
+
+	/**
+	 * Scheduling rule conflicting only with itself.
+	 */
+	static class TestRule implements ISchedulingRule {
+		@Override
+		public boolean contains(ISchedulingRule rule) {
+			return rule == this;
+		}
+
+		@Override
+		public boolean isConflicting(ISchedulingRule rule) {
+			return rule == this;
+		}
+	}
+
+	/**
+	 * Performer tracking the number of concurrently performed updates.
+	 */
+	static class TrackingPerformer implements Consumer<IViewerUpdate> {
+
+		final AtomicInteger fRunning = new AtomicInteger();
+		final AtomicInteger fMaxRunning = new AtomicInteger();
+
+		@Override
+		public void accept(IViewerUpdate update) {
+			fMaxRunning.accumulateAndGet(fRunning.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			((TestUpdate) update).fPerformed = true;
+			fRunning.decrementAndGet();
+		}
+	}
+
+	private static TestUpdate[] newUpdates(int count) {
+		TestUpdate[] updates = new TestUpdate[count];
+		for (int i = 0; i < count; i++) {
+			updates[i] = new TestUpdate();
+		}
+		return updates;
+	}
+
+	private static void join() throws InterruptedException {
+		Job.getJobManager().join(ElementContentProvider.class, null);
+	}
+
+	/**
+	 * Tests that all updates are performed and done, with no more concurrent
+	 * workers than allowed and one worker at a time per scheduling rule.
+	 */
+	@Test
+	public void testBoundedWorkers() throws Exception {
+		ElementContentUpdateExecutor executor = new ElementContentUpdateExecutor(2);
+		TrackingPerformer unruled = new TrackingPerformer();
+		TrackingPerformer ruled = new TrackingPerformer();
+		ISchedulingRule rule = new TestRule();
+		TestUpdate[][] requests = new TestUpdate[100][];
+		for (int i = 0; i < requests.length; i++) {
+			requests[i] = newUpdates(3);
+			if (i % 2 == 0) {
+				executor.execute(requests[i], null, unruled);
+			} else {
+				executor.execute(requests[i], rule, ruled);
+			}
+		}
+		join();
+
+		for (TestUpdate[] updates : requests) {
+			for (TestUpdate update : updates) {
+				assertTrue(update.fPerformed);
+				assertTrue(update.fDone);
+			}
+		}
+		assertTrue(unruled.fMaxRunning.get() <= 2);
+		assertEquals(1, ruled.fMaxRunning.get());
+		assertEquals(0, executor.getQueueDepth());
+		assertEquals(0, executor.getWorkerCount());
+		assertEquals(0, executor.getRuleJobCount());
+		assertEquals(300, executor.getCompletedCount());
+		assertTrue(executor.getMaxLatency() >= executor.getAverageLatency());
+	}
+
+	/**
+	 * Tests that canceled updates are done without being performed, and that
+	 * failing updates do not prevent other updates from being done.
+	 */
+	@Test
+	public void testCanceledAndFailingUpdates() throws Exception {
+		ElementContentUpdateExecutor executor = new ElementContentUpdateExecutor(1);
+		TestUpdate[] updates = newUpdates(4);
+		updates[1].cancel();
+		executor.execute(updates, new TestRule(), update -> {
+			if (update == updates[2]) {
+				throw new IllegalStateException("expected"); //$NON-NLS-1$
+			}
+			((TestUpdate) update).fPerformed = true;
+		});
+		join();
+
+		assertTrue(updates[0].fPerformed);
+		assertFalse(updates[1].fPerformed);
+		assertFalse(updates[2].fStatus.isOK());
+		assertTrue(updates[3].fPerformed);
+		for (TestUpdate update : updates) {
+			assertTrue(update.fDone);
+		}
+		assertEquals(1, executor.getSkippedCount());
+	}
+
+	/**
+	 * Tests that updates without a scheduling rule are performed while the
+	 * rule of other queued updates is held by another job, even with a single
+	 * worker.
+	 */
+	@Test
+	public void testRuleHeldByOtherJob() throws Exception {
+		ElementContentUpdateExecutor executor = new ElementContentUpdateExecutor(1);
+		ISchedulingRule rule = new TestRule();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Job holder = new Job("rule holder") { //$NON-NLS-1$
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				started.countDown();
+				try {
+					release.await(30, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		holder.setSystem(true);
+		holder.setRule(rule);
+		holder.schedule();
+		try {
+			assertTrue(started.await(30, TimeUnit.SECONDS));
+			TrackingPerformer performer = new TrackingPerformer();
+			TestUpdate[] ruled = newUpdates(3);
+			TestUpdate[] unruled = newUpdates(3);
+			executor.execute(ruled, rule, performer);
+			executor.execute(unruled, null, performer);
+
+			TestUtil.waitWhile(() -> !unruled[2].fDone, 10000);
+			for (TestUpdate update : unruled) {
+				assertTrue(update.fPerformed);
+				assertTrue(update.fDone);
+			}
+			for (TestUpdate update : ruled) {
+				assertFalse(update.fDone);
+			}
+			assertEquals(1, executor.getRuleJobCount());
+		} finally {
+			release.countDown();
+		}
+		holder.join();
+		join();
+		assertEquals(0, executor.getRuleJobCount());
+		assertEquals(6, executor.getCompletedCount());
+	}
+
+	/**
+	 * Tests that an update without a scheduling rule which hangs only blocks
+	 * the updates of its own lane, even with a single worker per lane.
+	 */
+	@Test
+	public void testHungLane() throws Exception {
+		ElementContentUpdateExecutor executor = new ElementContentUpdateExecutor(1);
+		IPresentationContext hungContext = new PresentationContext("hung"); //$NON-NLS-1$
+		IPresentationContext otherContext = new PresentationContext("other"); //$NON-NLS-1$
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		TestUpdate[] hung = newUpdates(2);
+		TestUpdate[] other = newUpdates(2);
+		for (TestUpdate update : hung) {
+			update.fContext = hungContext;
+		}
+		for (TestUpdate update : other) {
+			update.fContext = otherContext;
+		}
+		try {
+			executor.execute(hung, null, update -> {
+				started.countDown();
+				try {
+					release.await(30, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				((TestUpdate) update).fPerformed = true;
+			});
+			assertTrue(started.await(30, TimeUnit.SECONDS));
+			executor.execute(other, null, new TrackingPerformer());
+
+			TestUtil.waitWhile(() -> !other[1].fDone, 10000);
+			for (TestUpdate update : other) {
+				assertTrue(update.fPerformed);
+				assertTrue(update.fDone);
+			}
+			assertFalse(hung[0].fDone);
+		} finally {
+			release.countDown();
+		}
+		join();
+		assertTrue(hung[1].fDone);
+		assertEquals(0, executor.getLaneCount());
+		assertEquals(0, executor.getWorkerCount());
+		hungContext.dispose();
+		otherContext.dispose();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2013 Wind River Systems and others.
+ * Copyright (c) 2009, 2022 Wind River Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -34,4 +34,9 @@ public class JFaceViewerPerformanceTests extends PerformanceTests {
 	protected int getTestModelDepth() {
 		return 5;
 	}
+
+	@Override
+	protected int[] getLargeTestModelLevelCounts() {
+		return new int[] { 10, 20, 10 };
+	}
 }
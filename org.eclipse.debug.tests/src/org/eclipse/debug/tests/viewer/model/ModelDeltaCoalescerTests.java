@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.viewer.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.debug.internal.ui.viewers.model.ModelDeltaCoalescer;
+import org.eclipse.debug.internal.ui.viewers.model.ModelDeltaCoalescer.QueuedDelta;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelDelta;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelProxy;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.ModelDelta;
+import org.eclipse.debug.internal.ui.viewers.provisional.AbstractModelProxy;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.Test;
+
+/**
+ * Tests the coalescing of queued model deltas.
+ */
+public class ModelDeltaCoalescerTests extends AbstractDebugTest {
+
+	private final IModelProxy fProxy = new AbstractModelProxy() {
+	};
+
+	private final IModelProxy fOtherProxy = new AbstractModelProxy() {
+	};
+
+	/**
+	 * Creates a delta from the root to the given element with the given
+	 * flags.
+	 */
+	private static ModelDelta newDelta(String element, int index, int flags, int childCount) {
+		ModelDelta root = new ModelDelta("root", IModelDelta.NO_CHANGE); //$NON-NLS-1$
+		root.addNode(element, index, flags, childCount);
+		return root;
+	}
+
+	private static ModelDelta newDelta(String element, int flags) {
+		return newDelta(element, -1, flags, -1);
+	}
+
+	/**
+	 * Tests that merged deltas request the updates of both deltas and use
+	 * the index and child count of the later delta.
+	 */
+	@Test
+	public void testMerge() {
+		ModelDelta first = newDelta("a", 0, IModelDelta.STATE, 2); //$NON-NLS-1$
+		first.addNode("b", IModelDelta.CONTENT); //$NON-NLS-1$
+		ModelDelta second = newDelta("a", 1, IModelDelta.CONTENT, 3); //$NON-NLS-1$
+		second.addNode("c", IModelDelta.STATE); //$NON-NLS-1$
+
+		ModelDelta merged = ModelDeltaCoalescer.merge(first, second);
+		assertNotNull(merged);
+		ModelDelta a = merged.getChildDelta("a"); //$NON-NLS-1$
+		assertEquals(IModelDelta.STATE | IModelDelta.CONTENT, a.getFlags());
+		assertEquals(1, a.getIndex());
+		assertEquals(3, a.getChildCount());
+		assertEquals(IModelDelta.CONTENT, merged.getChildDelta("b").getFlags()); //$NON-NLS-1$
+		assertEquals(IModelDelta.STATE, merged.getChildDelta("c").getFlags()); //$NON-NLS-1$
+		assertEquals(4, ModelDeltaCoalescer.countUpdates(first) + ModelDeltaCoalescer.countUpdates(second));
+		assertEquals(4, ModelDeltaCoalescer.countUpdates(merged));
+
+		// an unknown index or child count does not replace a known one
+		merged = ModelDeltaCoalescer.merge(second, newDelta("a", IModelDelta.STATE)); //$NON-NLS-1$
+		assertEquals(1, merged.getChildDelta("a").getIndex()); //$NON-NLS-1$
+		assertEquals(3, merged.getChildDelta("a").getChildCount()); //$NON-NLS-1$
+
+		assertNull(ModelDeltaCoalescer.merge(first, new ModelDelta("other", IModelDelta.NO_CHANGE))); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that a refresh delta is superseded by a later delta refreshing
+	 * the same element or the content of an ancestor only.
+	 */
+	@Test
+	public void testSupersede() {
+		ModelDelta state = newDelta("a", IModelDelta.STATE); //$NON-NLS-1$
+		assertTrue(ModelDeltaCoalescer.isSuperseded(state, newDelta("a", IModelDelta.STATE | IModelDelta.CONTENT))); //$NON-NLS-1$
+		assertFalse(ModelDeltaCoalescer.isSuperseded(state, newDelta("a", IModelDelta.CONTENT))); //$NON-NLS-1$
+		assertFalse(ModelDeltaCoalescer.isSuperseded(state, newDelta("b", IModelDelta.STATE))); //$NON-NLS-1$
+		assertTrue(ModelDeltaCoalescer.isSuperseded(state, new ModelDelta("root", IModelDelta.CONTENT))); //$NON-NLS-1$
+
+		List<Object> batch = new ArrayList<>();
+		batch.add(new QueuedDelta(state, fProxy));
+		batch.add(new QueuedDelta(newDelta("b", IModelDelta.STATE), fOtherProxy)); //$NON-NLS-1$
+		batch.add(new QueuedDelta(newDelta("a", IModelDelta.STATE), fProxy)); //$NON-NLS-1$
+		assertEquals(1, ModelDeltaCoalescer.coalesce(batch));
+		assertEquals(2, batch.size());
+		assertSame(fOtherProxy, ((QueuedDelta) batch.get(0)).proxy);
+		assertSame(fProxy, ((QueuedDelta) batch.get(1)).proxy);
+	}
+
+	/**
+	 * Tests that consecutive refresh deltas of the same proxy are combined
+	 * into one delta.
+	 */
+	@Test
+	public void testCoalesceConsecutive() {
+		List<Object> batch = new ArrayList<>();
+		batch.add(new QueuedDelta(newDelta("a", IModelDelta.STATE), fProxy)); //$NON-NLS-1$
+		batch.add(new QueuedDelta(newDelta("b", IModelDelta.CONTENT), fProxy)); //$NON-NLS-1$
+		batch.add(new QueuedDelta(newDelta("c", IModelDelta.STATE), fOtherProxy)); //$NON-NLS-1$
+		assertEquals(0, ModelDeltaCoalescer.coalesce(batch));
+		assertEquals(2, batch.size());
+		IModelDelta merged = ((QueuedDelta) batch.get(0)).delta;
+		assertEquals(2, merged.getChildDeltas().length);
+		assertEquals(2, ModelDeltaCoalescer.countUpdates(merged));
+	}
+
+	/**
+	 * Tests that refresh deltas are neither dropped nor merged across deltas
+	 * with other flags or other tasks.
+	 */
+	@Test
+	public void testInterleavedFlags() {
+		QueuedDelta refresh = new QueuedDelta(newDelta("a", IModelDelta.STATE), fProxy); //$NON-NLS-1$
+		QueuedDelta select = new QueuedDelta(newDelta("a", IModelDelta.SELECT), fProxy); //$NON-NLS-1$
+		QueuedDelta later = new QueuedDelta(newDelta("a", IModelDelta.STATE | IModelDelta.CONTENT), fProxy); //$NON-NLS-1$
+		assertFalse(select.refreshOnly);
+
+		List<Object> batch = new ArrayList<>();
+		batch.add(refresh);
+		batch.add(select);
+		batch.add(later);
+		assertEquals(0, ModelDeltaCoalescer.coalesce(batch));
+		assertEquals(3, batch.size());
+		assertSame(refresh, batch.get(0));
+		assertSame(select, batch.get(1));
+		assertSame(later, batch.get(2));
+
+		Runnable task = () -> {
+		};
+		batch.clear();
+		batch.add(refresh);
+		batch.add(task);
+		batch.add(later);
+		assertEquals(0, ModelDeltaCoalescer.coalesce(batch));
+		assertEquals(3, batch.size());
+		assertSame(refresh, batch.get(0));
+	}
+}
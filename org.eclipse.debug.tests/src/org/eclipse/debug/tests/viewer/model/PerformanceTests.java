@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2013 Wind River Systems and others.
+ * Copyright (c) 2009, 2022 Wind River Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -57,6 +57,13 @@ abstract public class PerformanceTests extends AbstractViewerModelTest implement
 	 */
 	abstract protected int getTestModelDepth();
 
+	/**
+	 * Number of children at each level of the large test model, used to
+	 * measure the bookkeeping of update requests in views with many visible
+	 * elements.
+	 */
+	abstract protected int[] getLargeTestModelLevelCounts();
+
 	@Test
 	public void testRefreshStruct() throws Exception {
 		TestModel model = new TestModel();
@@ -334,4 +341,94 @@ abstract public class PerformanceTests extends AbstractViewerModelTest implement
 		}
 	}
 
+	@Test
+	public void testRefreshLargeTree() throws Exception {
+		TestModel model = new TestModel();
+		model.setRoot(new TestElement(model, "root", new TestElement[0])); //$NON-NLS-1$
+		model.setElementChildren(TreePath.EMPTY, TestModel.makeMultiLevelElements2(model, getLargeTestModelLevelCounts(), "model.")); //$NON-NLS-1$
+
+		fViewer.setAutoExpandLevel(-1);
+
+		// Create the listener
+		fListener.reset(TreePath.EMPTY, model.getRootElement(), -1, true, false);
+
+		// Set the input into the view and update the view.
+		fViewer.setInput(model.getRootElement());
+		waitWhile(t -> !fListener.isFinished(), createListenerErrorMessage());
+		model.validateData(fViewer, TreePath.EMPTY);
+
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int i = 0; i < 10; i++) {
+				// Update the model
+				model.setAllAppendix(" - pass " + i); //$NON-NLS-1$
+
+				TestElement element = model.getRootElement();
+				fListener.reset(TreePath.EMPTY, element, -1, false, false);
+
+				meter.start();
+				model.postDelta(new ModelDelta(element, IModelDelta.CONTENT));
+				waitWhile(t -> !fListener.isFinished(ALL_UPDATES_COMPLETE | MODEL_CHANGED_COMPLETE), createListenerErrorMessage());
+				meter.stop();
+				System.gc();
+			}
+
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	@Test
+	public void testRefreshLargeTreeBranches() throws Exception {
+		TestModel model = new TestModel();
+		model.setRoot(new TestElement(model, "root", new TestElement[0])); //$NON-NLS-1$
+		model.setElementChildren(TreePath.EMPTY, TestModel.makeMultiLevelElements2(model, getLargeTestModelLevelCounts(), "model.")); //$NON-NLS-1$
+
+		fViewer.setAutoExpandLevel(-1);
+
+		// Create the listener
+		fListener.reset(TreePath.EMPTY, model.getRootElement(), -1, true, false);
+
+		// Set the input into the view and update the view.
+		fViewer.setInput(model.getRootElement());
+		waitWhile(t -> !fListener.isFinished(), createListenerErrorMessage());
+		model.validateData(fViewer, TreePath.EMPTY);
+
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int i = 0; i < 10; i++) {
+				// Update the model
+				model.setAllAppendix(" - pass " + i); //$NON-NLS-1$
+
+				// Refresh each branch separately, which cancels the updates of
+				// each subtree in progress
+				TestElement element = model.getRootElement();
+				ModelDelta delta = new ModelDelta(element, IModelDelta.NO_CHANGE);
+				TestElement[] children = element.getChildren();
+				for (int j = 0; j < children.length; j++) {
+					ModelDelta branch = delta.addNode(children[j], j, IModelDelta.NO_CHANGE);
+					TestElement[] grandChildren = children[j].getChildren();
+					for (int k = 0; k < grandChildren.length; k++) {
+						branch.addNode(grandChildren[k], k, IModelDelta.CONTENT);
+					}
+				}
+				fListener.reset();
+
+				meter.start();
+				model.postDelta(delta);
+				waitWhile(t -> !fListener.isFinished(ALL_UPDATES_COMPLETE | MODEL_CHANGED_COMPLETE), createListenerErrorMessage());
+				meter.stop();
+				System.gc();
+			}
+
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2018 Wind River Systems and others.
+ * Copyright (c) 2009, 2022 Wind River Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -24,7 +24,11 @@ import java.util.Set;
 import java.util.function.Supplier;
 
 import org.eclipse.debug.internal.ui.viewers.model.IInternalTreeModelViewer;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementCompareRequest;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementMementoRequest;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelDelta;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IStateUpdateListener;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IViewerUpdate;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.ModelDelta;
 import org.eclipse.debug.tests.TestUtil;
 import org.eclipse.debug.tests.viewer.model.TestModel.TestElement;
@@ -1106,6 +1110,170 @@ new TreePath[] { model.findElement("5"), model.findElement("5.1"), model.findEle
 		assertTrue( areTreeSelectionsEqual(originalSelection, (ITreeSelection)fViewer.getSelection()) );
 	}
 
+	/**
+	 * Counts the memento and compare requests of state saves and restores.
+	 */
+	static class StateRequestCounter implements IStateUpdateListener {
+		int fMementoRequests;
+		int fCompareRequests;
+
+		@Override
+		public void stateSaveUpdatesBegin(Object input) {
+		}
+
+		@Override
+		public void stateSaveUpdatesComplete(Object input) {
+		}
+
+		@Override
+		public void stateRestoreUpdatesBegin(Object input) {
+		}
+
+		@Override
+		public void stateRestoreUpdatesComplete(Object input) {
+		}
+
+		@Override
+		public void stateUpdateStarted(Object input, IViewerUpdate update) {
+			if (update instanceof IElementMementoRequest) {
+				fMementoRequests++;
+			} else if (update instanceof IElementCompareRequest) {
+				fCompareRequests++;
+			}
+		}
+
+		@Override
+		public void stateUpdateComplete(Object input, IViewerUpdate update) {
+		}
+	}
+
+	/**
+	 * Saves the state of the viewer by clearing its input.
+	 */
+	private void saveState() throws Exception {
+		fListener.reset();
+		fViewer.setInput(null);
+		TestUtil.waitForJobs(name.getMethodName(), 300, 5000);
+		waitWhile(t -> !fListener.isFinished(STATE_SAVE_COMPLETE), createListenerErrorMessage());
+	}
+
+	/**
+	 * Restores the state of the viewer by setting the root of the given model
+	 * as input.
+	 */
+	private void restoreState(TestModel model) throws Exception {
+		fListener.reset();
+		fViewer.setInput(model.getRootElement());
+		TestUtil.waitForJobs(name.getMethodName(), 300, 5000);
+		waitWhile(t -> !fListener.isFinished(CONTENT_SEQUENCE_COMPLETE), createListenerErrorMessage());
+	}
+
+	/**
+	 * Saves and restores the state of a tree twice for a model with stable
+	 * mementos. The second save should reuse the mementos of all elements
+	 * encoded in the first save, and the restore should match elements by
+	 * their mementos without compare requests.
+	 */
+	@Test
+	public void testSaveAndRestoreIncremental() throws Exception {
+		TestModel model = alternatingSubsreesModel(6);
+		model.setStableMementos(true);
+
+		StateRequestCounter counter = new StateRequestCounter();
+		fViewer.addStateUpdateListener(counter);
+		try {
+			restoreState(model);
+			expandAlternateElements(fListener, model, false);
+
+			TreeSelection originalSelection = new TreeSelection(model.findElement("5.1.1")); //$NON-NLS-1$
+			fViewer.setSelection(originalSelection);
+
+			// Save the state, all elements are encoded.
+			counter.fMementoRequests = 0;
+			saveState();
+			assertTrue(counter.fMementoRequests > 1);
+
+			// Restore the state, elements are matched with the cached mementos.
+			counter.fCompareRequests = 0;
+			restoreState(model);
+
+			assertTrue(getInternalViewer().getExpandedState(model.findElement("1")) == true); //$NON-NLS-1$
+			assertTrue(getInternalViewer().getExpandedState(model.findElement("1.1")) == true); //$NON-NLS-1$
+			assertTrue(getInternalViewer().getExpandedState(model.findElement("2")) == false); //$NON-NLS-1$
+			assertTrue(getInternalViewer().getExpandedState(model.findElement("5")) == true); //$NON-NLS-1$
+			assertTrue(getInternalViewer().getExpandedState(model.findElement("5.1")) == true); //$NON-NLS-1$
+			assertTrue(areTreeSelectionsEqual(originalSelection, (ITreeSelection) fViewer.getSelection()));
+			assertEquals(0, counter.fCompareRequests);
+
+			// Save the state again, only the input is encoded.
+			counter.fMementoRequests = 0;
+			saveState();
+			assertEquals(1, counter.fMementoRequests);
+		} finally {
+			fViewer.removeStateUpdateListener(counter);
+		}
+	}
+
+	/**
+	 * Checks that cached mementos are kept when the content of their parent is
+	 * refreshed, as the debug views do for the view input on every suspend.
+	 */
+	@Test
+	public void testSaveAndRestoreIncrementalAfterContentChange() throws Exception {
+		TestModel model = alternatingSubsreesModel(6);
+		model.setStableMementos(true);
+
+		StateRequestCounter counter = new StateRequestCounter();
+		fViewer.addStateUpdateListener(counter);
+		try {
+			restoreState(model);
+			expandAlternateElements(fListener, model, false);
+			saveState();
+			restoreState(model);
+
+			// Refresh the content of the root, the children are still the same.
+			fListener.reset(false, false);
+			fListener.addUpdates(getInternalViewer(), TreePath.EMPTY, model.getRootElement(), -1, ALL_UPDATES_COMPLETE);
+			model.postDelta(new ModelDelta(model.getRootElement(), IModelDelta.CONTENT));
+			waitWhile(t -> !fListener.isFinished(ALL_UPDATES_COMPLETE | STATE_RESTORE_COMPLETE), createListenerErrorMessage());
+
+			// Save the state, only the input is encoded.
+			counter.fMementoRequests = 0;
+			saveState();
+			assertEquals(1, counter.fMementoRequests);
+		} finally {
+			fViewer.removeStateUpdateListener(counter);
+		}
+	}
+
+	/**
+	 * Checks that the mementos of a model which does not declare its mementos
+	 * stable are encoded and compared on every save and restore.
+	 */
+	@Test
+	public void testSaveAndRestoreNotIncremental() throws Exception {
+		TestModel model = alternatingSubsreesModel(6);
+
+		StateRequestCounter counter = new StateRequestCounter();
+		fViewer.addStateUpdateListener(counter);
+		try {
+			restoreState(model);
+			expandAlternateElements(fListener, model, false);
+			saveState();
+
+			counter.fCompareRequests = 0;
+			restoreState(model);
+			assertTrue(getInternalViewer().getExpandedState(model.findElement("1")) == true); //$NON-NLS-1$
+			assertTrue(counter.fCompareRequests > 0);
+
+			counter.fMementoRequests = 0;
+			saveState();
+			assertTrue(counter.fMementoRequests > 1);
+		} finally {
+			fViewer.removeStateUpdateListener(counter);
+		}
+	}
+
 	/**
 	 * This test saves state of a large tree. Then the tree is modified to
 	 * contain much fewer elements. The restore logic should discard the rest of
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2018 Wind River Systems and others.
+ * Copyright (c) 2009, 2022 Wind River Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -28,7 +28,7 @@ import org.eclipse.debug.internal.ui.viewers.model.provisional.IChildrenUpdate;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementCompareRequest;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementContentProvider;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementLabelProvider;
-import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementMementoProvider;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementMementoProvider2;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementMementoRequest;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IHasChildrenUpdate;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.ILabelUpdate;
@@ -58,7 +58,7 @@ import org.junit.Assert;
  *
  * @since 3.6
  */
-public class TestModel implements IElementContentProvider, IElementLabelProvider, IModelProxyFactory2 , IElementMementoProvider, IModelSelectionPolicyFactory {
+public class TestModel implements IElementContentProvider, IElementLabelProvider, IModelProxyFactory2 , IElementMementoProvider2, IModelSelectionPolicyFactory {
 
 	public static class TestElement extends PlatformObject {
 		private final TestModel fModel;
@@ -178,6 +178,7 @@ public class TestModel implements IElementContentProvider, IElementLabelProvider
 	private IModelSelectionPolicy fModelSelectionPolicy;
 	private boolean fQueueingUpdates = false;
 	private boolean fDelayUpdates = false;
+	private boolean fStableMementos = false;
 	private List<IViewerUpdate> fQueuedUpdates = new LinkedList<>();
 
 	/**
@@ -239,6 +240,14 @@ public class TestModel implements IElementContentProvider, IElementLabelProvider
 		fDelayUpdates = delayUpdates;
 	}
 
+	/**
+	 * @param stableMementos whether the viewer may cache the mementos of the
+	 *            elements, which are encoded from their IDs
+	 */
+	public void setStableMementos(boolean stableMementos) {
+		fStableMementos = stableMementos;
+	}
+
 	public List<IViewerUpdate> getQueuedUpdates() {
 		return fQueuedUpdates;
 	}
@@ -357,6 +366,11 @@ public class TestModel implements IElementContentProvider, IElementLabelProvider
 		doUpdate(updates);
 	}
 
+	@Override
+	public boolean isMementoStable(Object element, IPresentationContext context) {
+		return fStableMementos;
+	}
+
 	private void doEncodeElements(IElementMementoRequest update) {
 		String elementID = ((TestElement)update.getElement()).getID();
 		update.getMemento().putString(ELEMENT_MEMENTO_ID, elementID);
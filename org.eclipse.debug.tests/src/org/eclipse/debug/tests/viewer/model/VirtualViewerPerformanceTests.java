@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2013 Wind River Systems and others.
+ * Copyright (c) 2009, 2022 Wind River Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -35,4 +35,9 @@ public class VirtualViewerPerformanceTests extends PerformanceTests {
 	protected int getTestModelDepth() {
 		return 7;
 	}
+
+	@Override
+	protected int[] getLargeTestModelLevelCounts() {
+		return new int[] { 20, 50, 20 };
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -72,6 +72,7 @@ import org.eclipse.debug.internal.ui.launchConfigurations.LaunchConfigurationTyp
 import org.eclipse.debug.internal.ui.launchConfigurations.LaunchConfigurationsDialog;
 import org.eclipse.debug.internal.ui.launchConfigurations.LaunchGroupExtension;
 import org.eclipse.debug.internal.ui.launchConfigurations.PerspectiveManager;
+import org.eclipse.debug.internal.ui.model.elements.DebugElementLabelStamps;
 import org.eclipse.debug.internal.ui.sourcelookup.SourceLookupFacility;
 import org.eclipse.debug.internal.ui.sourcelookup.SourceLookupManager;
 import org.eclipse.debug.internal.ui.stringsubstitution.SelectedResourceManager;
@@ -443,6 +444,8 @@ public class DebugUIPlugin extends AbstractUIPlugin implements ILaunchListener,
 				fContextLaunchingManager.shutdown();
 			}
 
+			DebugElementLabelStamps.shutdown();
+
 			ColorManager.getDefault().dispose();
 
 			if (fgPresentation != null) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -29,6 +29,7 @@ import org.eclipse.debug.core.model.IDebugElement;
 import org.eclipse.debug.core.model.IStackFrame;
 import org.eclipse.debug.core.model.IThread;
 import org.eclipse.debug.core.model.IValue;
+import org.eclipse.debug.internal.ui.model.elements.DebugElementLabelStamps;
 import org.eclipse.debug.ui.DebugUITools;
 import org.eclipse.debug.ui.IDebugEditorPresentation;
 import org.eclipse.debug.ui.IDebugModelPresentation;
@@ -267,6 +268,7 @@ public class DelegatingModelPresentation implements IDebugModelPresentation, IDe
 		for (IDebugModelPresentation p : fLabelProviders.values()) {
 			p.setAttribute(id, value);
 		}
+		DebugElementLabelStamps.presentationChanged();
 	}
 
 	/**
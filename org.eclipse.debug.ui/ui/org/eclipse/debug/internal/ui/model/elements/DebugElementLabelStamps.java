@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.model.elements;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IDebugEventSetListener;
+import org.eclipse.debug.core.model.IDebugElement;
+import org.eclipse.debug.core.model.IDebugTarget;
+import org.eclipse.debug.internal.ui.DebugUIPlugin;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementLabelProvider2;
+import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+
+/**
+ * Label stamps of debug elements (see {@link IElementLabelProvider2}).
+ * <p>
+ * The stamp of an element combines the generation of its debug target,
+ * advanced by every debug event fired by an element of the target, with the
+ * generation of the presentation, advanced whenever a debug UI preference, a
+ * JFace font or color or an attribute of a debug model presentation changes.
+ * The labels of debug elements are therefore reused until the target resumes,
+ * suspends or reports a change, or the presentation settings change.
+ * </p>
+ *
+ * @since 3.17
+ */
+public class DebugElementLabelStamps implements IDebugEventSetListener, IPropertyChangeListener {
+
+	/**
+	 * Source of the generations, so that every generation of a target is
+	 * unique.
+	 */
+	private static final AtomicLong fgCounter = new AtomicLong();
+
+	private static final AtomicLong fgPresentationGeneration = new AtomicLong();
+
+	private static DebugElementLabelStamps fgDefault;
+
+	/**
+	 * Generations of the debug targets which fired debug events.
+	 */
+	private final Map<IDebugTarget, Long> fGenerations = new WeakHashMap<>();
+
+	/**
+	 * Label stamp of a debug element.
+	 */
+	private static final class Stamp {
+		private final IDebugTarget fTarget;
+		private final long fGeneration;
+		private final long fPresentationGeneration;
+
+		Stamp(IDebugTarget target, long generation, long presentationGeneration) {
+			fTarget = target;
+			fGeneration = generation;
+			fPresentationGeneration = presentationGeneration;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof Stamp) {
+				Stamp other = (Stamp) obj;
+				return fTarget.equals(other.fTarget) && fGeneration == other.fGeneration
+						&& fPresentationGeneration == other.fPresentationGeneration;
+			}
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return fTarget.hashCode() + Long.hashCode(fGeneration) * 31 + Long.hashCode(fPresentationGeneration);
+		}
+	}
+
+	/**
+	 * Returns the label stamps, listening to debug events and presentation
+	 * changes once called. Must be called in the UI thread.
+	 *
+	 * @return the label stamps
+	 */
+	public static synchronized DebugElementLabelStamps getDefault() {
+		if (fgDefault == null) {
+			fgDefault = new DebugElementLabelStamps();
+			DebugPlugin.getDefault().addDebugEventListener(fgDefault);
+			DebugUIPlugin.getDefault().getPreferenceStore().addPropertyChangeListener(fgDefault);
+			JFaceResources.getFontRegistry().addListener(fgDefault);
+			JFaceResources.getColorRegistry().addListener(fgDefault);
+		}
+		return fgDefault;
+	}
+
+	/**
+	 * Stops listening to debug events and presentation changes. Called when
+	 * the debug UI plug-in is stopped.
+	 */
+	public static synchronized void shutdown() {
+		if (fgDefault != null) {
+			DebugPlugin debugPlugin = DebugPlugin.getDefault();
+			if (debugPlugin != null) {
+				debugPlugin.removeDebugEventListener(fgDefault);
+			}
+			DebugUIPlugin.getDefault().getPreferenceStore().removePropertyChangeListener(fgDefault);
+			JFaceResources.getFontRegistry().removeListener(fgDefault);
+			JFaceResources.getColorRegistry().removeListener(fgDefault);
+			fgDefault = null;
+		}
+	}
+
+	/**
+	 * Notifies the label stamps that the labels of all debug elements may
+	 * have changed, e.g. because an attribute of a model presentation was set.
+	 */
+	public static void presentationChanged() {
+		fgPresentationGeneration.set(fgCounter.incrementAndGet());
+	}
+
+	/**
+	 * Returns the label stamp of the given element.
+	 *
+	 * @param element element
+	 * @return label stamp, or <code>null</code> if the element is not a debug
+	 *         element of a debug target
+	 */
+	public Object getStamp(Object element) {
+		if (element instanceof IDebugElement) {
+			IDebugTarget target = ((IDebugElement) element).getDebugTarget();
+			if (target != null) {
+				Long generation;
+				synchronized (fGenerations) {
+					generation = fGenerations.get(target);
+				}
+				return new Stamp(target, generation == null ? 0 : generation.longValue(), fgPresentationGeneration.get());
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void handleDebugEvents(DebugEvent[] events) {
+		for (DebugEvent event : events) {
+			Object source = event.getSource();
+			if (source instanceof IDebugElement) {
+				IDebugTarget target = ((IDebugElement) source).getDebugTarget();
+				if (target != null) {
+					synchronized (fGenerations) {
+						fGenerations.put(target, Long.valueOf(fgCounter.incrementAndGet()));
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public void propertyChange(PropertyChangeEvent event) {
+		presentationChanged();
+	}
+}
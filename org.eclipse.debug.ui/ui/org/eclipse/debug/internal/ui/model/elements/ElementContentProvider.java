@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2007 IBM Corporation and others.
+ * Copyright (c) 2006, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,7 +14,6 @@
 package org.eclipse.debug.internal.ui.model.elements;
 
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
@@ -33,6 +32,11 @@ public abstract class ElementContentProvider implements IElementContentProvider
 
 	protected static final Object[] EMPTY = new Object[0];
 
+	/**
+	 * Job performing content updates. Updates requested from this provider are
+	 * performed by the jobs of {@link ElementContentUpdateExecutor}, which
+	 * belong to the same job family.
+	 */
 	protected abstract class ElementContentProviderJob extends Job {
 
 		public ElementContentProviderJob(String name) {
@@ -50,38 +54,12 @@ public abstract class ElementContentProvider implements IElementContentProvider
 
 	@Override
 	public void update(final IChildrenUpdate[] updates) {
-		Job job = new ElementContentProviderJob("Debug children update") { //$NON-NLS-1$
-			@Override
-			protected IStatus run(IProgressMonitor monitor) {
-				for (IChildrenUpdate update : updates) {
-					if (!update.isCanceled()) {
-						retrieveChildren(update);
-					}
-					update.done();
-				}
-				return Status.OK_STATUS;
-			}
-		};
-		job.setRule(getRule(updates));
-		job.schedule();
+		ElementContentUpdateExecutor.getDefault().execute(updates, getRule(updates), update -> retrieveChildren((IChildrenUpdate) update));
 	}
 
 	@Override
 	public void update(final IChildrenCountUpdate[] updates) {
-		Job job = new ElementContentProviderJob("Debug child count update") { //$NON-NLS-1$
-			@Override
-			protected IStatus run(IProgressMonitor monitor) {
-				for (IChildrenCountUpdate update : updates) {
-					if (!update.isCanceled()) {
-						retrieveChildCount(update);
-					}
-					update.done();
-				}
-				return Status.OK_STATUS;
-			}
-		};
-		job.setRule(getRule(updates));
-		job.schedule();
+		ElementContentUpdateExecutor.getDefault().execute(updates, getRule(updates), update -> retrieveChildCount((IChildrenCountUpdate) update));
 	}
 
 	/**
@@ -202,20 +180,7 @@ public abstract class ElementContentProvider implements IElementContentProvider
 
 	@Override
 	public void update(final IHasChildrenUpdate[] updates) {
-		Job job = new ElementContentProviderJob("Debug has children update") { //$NON-NLS-1$
-			@Override
-			protected IStatus run(IProgressMonitor monitor) {
-				for (IHasChildrenUpdate update : updates) {
-					if (!update.isCanceled()) {
-						updateHasChildren(update);
-					}
-					update.done();
-				}
-				return Status.OK_STATUS;
-			}
-		};
-		job.setRule(getRule(updates));
-		job.schedule();
+		ElementContentUpdateExecutor.getDefault().execute(updates, getRule(updates), update -> updateHasChildren((IHasChildrenUpdate) update));
 	}
 
 	/**
@@ -0,0 +1,429 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.model.elements;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.model.IDebugElement;
+import org.eclipse.debug.core.model.IDebugTarget;
+import org.eclipse.debug.internal.ui.DebugUIPlugin;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IPresentationContext;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IViewerUpdate;
+
+/**
+ * Performs the updates requested from element content providers with a
+ * bounded number of worker jobs, rather than with a job per request.
+ * <p>
+ * Requests without a scheduling rule are queued in lanes, one per presentation
+ * context and debug target of the updated element, and the requests of each
+ * lane are processed concurrently by at most the given number of workers. A
+ * slow or hung debug model therefore only delays the updates of its own
+ * target in the same view. Requests with a scheduling rule are
+ * queued per rule and processed by a job which has the rule as its scheduling
+ * rule, so that no thread is blocked while the rule is held by another job.
+ * All requests queued for a rule while its job waits for the rule are
+ * processed in one batch while holding the rule once. Canceled updates are
+ * completed without being performed. All jobs belong to the job family
+ * {@link ElementContentProvider}<code>.class</code>.
+ * </p>
+ *
+ * @since 3.17
+ */
+public class ElementContentUpdateExecutor {
+
+	/**
+	 * Default maximum number of concurrent worker jobs per lane.
+	 */
+	public static final int MAX_WORKERS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	private static final ElementContentUpdateExecutor fgDefault = new ElementContentUpdateExecutor(MAX_WORKERS);
+
+	/**
+	 * Updates requested by one call to a content provider.
+	 */
+	private static final class Request {
+		final IViewerUpdate[] fUpdates;
+		final Consumer<IViewerUpdate> fPerformer;
+		final long fQueued = System.nanoTime();
+
+		Request(IViewerUpdate[] updates, Consumer<IViewerUpdate> performer) {
+			fUpdates = updates;
+			fPerformer = performer;
+		}
+	}
+
+	/**
+	 * Identifies the lane of requests without a scheduling rule.
+	 */
+	private static final class LaneKey {
+		final IPresentationContext fContext;
+		final IDebugTarget fTarget;
+
+		LaneKey(IPresentationContext context, IDebugTarget target) {
+			fContext = context;
+			fTarget = target;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof LaneKey) {
+				LaneKey other = (LaneKey) obj;
+				return Objects.equals(fContext, other.fContext) && Objects.equals(fTarget, other.fTarget);
+			}
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(fContext) * 31 + Objects.hashCode(fTarget);
+		}
+	}
+
+	/**
+	 * Requests without a scheduling rule queued for one presentation context
+	 * and debug target, and the workers processing them.
+	 */
+	private static final class Lane {
+		final LaneKey fKey;
+
+		/**
+		 * Requests queued in the lane. Guarded by the executor.
+		 */
+		final ArrayDeque<Request> fRequests = new ArrayDeque<>();
+
+		/**
+		 * Number of workers of the lane. Guarded by the executor.
+		 */
+		int fWorkers;
+
+		Lane(LaneKey key) {
+			fKey = key;
+		}
+	}
+
+	/**
+	 * Worker job processing the requests of one lane until none are queued.
+	 */
+	private class Worker extends Job {
+
+		final Lane fLane;
+
+		Worker(Lane lane) {
+			super("Debug content update"); //$NON-NLS-1$
+			fLane = lane;
+			setSystem(true);
+			setUser(false);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			Request request = take(fLane);
+			while (request != null) {
+				perform(request);
+				request = take(fLane);
+			}
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == ElementContentProvider.class;
+		}
+	}
+
+	/**
+	 * Job processing the requests queued for one scheduling rule until none
+	 * are queued.
+	 */
+	private class RuleJob extends Job {
+
+		final ISchedulingRule fSchedulingRule;
+
+		/**
+		 * Requests queued for the rule. Guarded by the executor.
+		 */
+		final ArrayDeque<Request> fRequests = new ArrayDeque<>();
+
+		RuleJob(ISchedulingRule rule) {
+			super("Debug content update"); //$NON-NLS-1$
+			fSchedulingRule = rule;
+			setSystem(true);
+			setUser(false);
+			setRule(rule);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			List<Request> batch = take(this);
+			while (batch != null) {
+				for (Request request : batch) {
+					perform(request);
+				}
+				batch = take(this);
+			}
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == ElementContentProvider.class;
+		}
+	}
+
+	private final int fMaxWorkers;
+
+	/**
+	 * Lanes with queued requests or active workers. Guarded by this executor.
+	 */
+	private final Map<LaneKey, Lane> fLanes = new HashMap<>();
+
+	/**
+	 * Jobs of the scheduling rules with queued requests. Guarded by this
+	 * executor.
+	 */
+	private final Map<ISchedulingRule, RuleJob> fRuleJobs = new HashMap<>();
+
+	private int fWorkers;
+	private int fQueuedUpdates;
+
+	private final AtomicLong fCompleted = new AtomicLong();
+	private final AtomicLong fSkipped = new AtomicLong();
+	private final AtomicLong fTotalLatency = new AtomicLong();
+	private final AtomicLong fMaxLatency = new AtomicLong();
+
+	/**
+	 * Creates an executor with the given number of workers per lane.
+	 *
+	 * @param maxWorkers maximum number of concurrent worker jobs per lane
+	 */
+	public ElementContentUpdateExecutor(int maxWorkers) {
+		fMaxWorkers = Math.max(1, maxWorkers);
+	}
+
+	/**
+	 * Returns the executor shared by all element content providers.
+	 *
+	 * @return shared executor
+	 */
+	public static ElementContentUpdateExecutor getDefault() {
+		return fgDefault;
+	}
+
+	/**
+	 * Queues the given updates. Each update which is not canceled when it is
+	 * processed is performed by the given performer while holding the given
+	 * scheduling rule. Each update is done when it has been processed.
+	 *
+	 * @param updates updates to perform
+	 * @param rule scheduling rule or <code>null</code> if none
+	 * @param performer performs a single update
+	 */
+	public void execute(IViewerUpdate[] updates, ISchedulingRule rule, Consumer<IViewerUpdate> performer) {
+		if (updates.length == 0) {
+			return;
+		}
+		Job job = null;
+		synchronized (this) {
+			Request request = new Request(updates, performer);
+			fQueuedUpdates += updates.length;
+			if (rule == null) {
+				LaneKey key = getLaneKey(updates[0]);
+				Lane lane = fLanes.computeIfAbsent(key, Lane::new);
+				lane.fRequests.add(request);
+				if (lane.fWorkers < fMaxWorkers) {
+					lane.fWorkers++;
+					fWorkers++;
+					job = new Worker(lane);
+				}
+			} else {
+				RuleJob ruleJob = fRuleJobs.get(rule);
+				if (ruleJob == null) {
+					ruleJob = new RuleJob(rule);
+					fRuleJobs.put(rule, ruleJob);
+					job = ruleJob;
+				}
+				ruleJob.fRequests.add(request);
+			}
+		}
+		if (job != null) {
+			job.schedule();
+		}
+	}
+
+	/**
+	 * Returns the key of the lane of a request without a scheduling rule
+	 * which updates the given element.
+	 *
+	 * @param update update of the request
+	 * @return lane key
+	 */
+	private static LaneKey getLaneKey(IViewerUpdate update) {
+		Object element = update.getElement();
+		IDebugTarget target = null;
+		if (element instanceof IDebugElement) {
+			target = ((IDebugElement) element).getDebugTarget();
+		}
+		return new LaneKey(update.getPresentationContext(), target);
+	}
+
+	/**
+	 * Takes the next request of the given lane, or retires the calling worker
+	 * if there is none.
+	 *
+	 * @param lane lane of the calling worker
+	 * @return next request or <code>null</code> if the worker is to exit
+	 */
+	private synchronized Request take(Lane lane) {
+		Request request = lane.fRequests.poll();
+		if (request == null) {
+			fWorkers--;
+			if (--lane.fWorkers == 0) {
+				fLanes.remove(lane.fKey);
+			}
+			return null;
+		}
+		fQueuedUpdates -= request.fUpdates.length;
+		return request;
+	}
+
+	/**
+	 * Takes all requests queued for the rule of the given job, or retires the
+	 * job if there are none.
+	 *
+	 * @param job job of a scheduling rule
+	 * @return queued requests or <code>null</code> if the job is to exit
+	 */
+	private synchronized List<Request> take(RuleJob job) {
+		if (job.fRequests.isEmpty()) {
+			fRuleJobs.remove(job.fSchedulingRule);
+			return null;
+		}
+		List<Request> batch = new ArrayList<>(job.fRequests);
+		job.fRequests.clear();
+		for (Request request : batch) {
+			fQueuedUpdates -= request.fUpdates.length;
+		}
+		return batch;
+	}
+
+	/**
+	 * Performs the updates of the given request.
+	 *
+	 * @param request request to process
+	 */
+	private void perform(Request request) {
+		for (IViewerUpdate update : request.fUpdates) {
+			try {
+				if (update.isCanceled()) {
+					fSkipped.incrementAndGet();
+				} else {
+					request.fPerformer.accept(update);
+				}
+			} catch (RuntimeException e) {
+				DebugUIPlugin.log(e);
+				update.setStatus(new Status(IStatus.ERROR, DebugUIPlugin.getUniqueIdentifier(), e.getMessage(), e));
+			} finally {
+				update.done();
+			}
+		}
+		completed(request);
+	}
+
+	/**
+	 * Records the latency of the updates of a processed request.
+	 *
+	 * @param request processed request
+	 */
+	private void completed(Request request) {
+		long latency = System.nanoTime() - request.fQueued;
+		int count = request.fUpdates.length;
+		fCompleted.addAndGet(count);
+		fTotalLatency.addAndGet(latency * count);
+		fMaxLatency.accumulateAndGet(latency, Math::max);
+		if (DebugUIPlugin.DEBUG_CONTENT_PROVIDER) {
+			DebugUIPlugin.trace("CONTENT UPDATE EXECUTOR: " + count + " update(s) in " + latency / 1000 + "us, queued: " + getQueueDepth()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	/**
+	 * @return number of updates waiting to be processed
+	 */
+	public synchronized int getQueueDepth() {
+		return fQueuedUpdates;
+	}
+
+	/**
+	 * @return number of active worker jobs of all lanes
+	 */
+	public synchronized int getWorkerCount() {
+		return fWorkers;
+	}
+
+	/**
+	 * @return number of lanes with queued requests or active workers
+	 */
+	public synchronized int getLaneCount() {
+		return fLanes.size();
+	}
+
+	/**
+	 * @return number of scheduling rules with a job processing their requests
+	 */
+	public synchronized int getRuleJobCount() {
+		return fRuleJobs.size();
+	}
+
+	/**
+	 * @return number of processed updates, including canceled updates
+	 */
+	public long getCompletedCount() {
+		return fCompleted.get();
+	}
+
+	/**
+	 * @return number of updates which were canceled before being performed
+	 */
+	public long getSkippedCount() {
+		return fSkipped.get();
+	}
+
+	/**
+	 * @return average time in nanoseconds from queuing an update until it is
+	 *         done
+	 */
+	public long getAverageLatency() {
+		long completed = fCompleted.get();
+		return completed == 0 ? 0 : fTotalLatency.get() / completed;
+	}
+
+	/**
+	 * @return maximum time in nanoseconds from queuing an update until it is
+	 *         done
+	 */
+	public long getMaxLatency() {
+		return fMaxLatency.get();
+	}
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.model.elements;
+
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementLabelProvider2;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IPresentationContext;
+import org.eclipse.jface.viewers.TreePath;
+
+/**
+ * Provides labels for stack frames. The labels of stack frames are cached by
+ * the viewer until their debug target fires a debug event or the presentation
+ * settings change, see {@link DebugElementLabelStamps}. Subclasses whose
+ * labels depend on other state must override
+ * {@link #getLabelStamp(TreePath, IPresentationContext)}.
+ *
+ * @since 3.17
+ */
+public class StackFrameLabelProvider extends DebugElementLabelProvider implements IElementLabelProvider2 {
+
+	@Override
+	public Object getLabelStamp(TreePath elementPath, IPresentationContext context) {
+		return DebugElementLabelStamps.getDefault().getStamp(elementPath.getLastSegment());
+	}
+
+}
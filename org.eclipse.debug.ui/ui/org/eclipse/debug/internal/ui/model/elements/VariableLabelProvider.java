@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2006, 2012 IBM Corporation and others.
+ *  Copyright (c) 2006, 2022 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -18,6 +18,7 @@ import org.eclipse.debug.core.model.IValue;
 import org.eclipse.debug.core.model.IVariable;
 import org.eclipse.debug.internal.ui.DebugUIPlugin;
 import org.eclipse.debug.internal.ui.DefaultLabelProvider;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementLabelProvider2;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IPresentationContext;
 import org.eclipse.debug.ui.IDebugUIConstants;
 import org.eclipse.jface.resource.ImageDescriptor;
@@ -28,10 +29,25 @@ import org.eclipse.swt.graphics.RGB;
 
 /**
  * Provides context sensitive labels for debug variables.
+ * <p>
+ * The labels of variables are cached by the viewer until their debug target
+ * fires a debug event or the presentation settings change, see
+ * {@link DebugElementLabelStamps}. Labels provided by subclasses, which may
+ * depend on other state, are only cached if the subclass overrides
+ * {@link #getLabelStamp(TreePath, IPresentationContext)}.
+ * </p>
  *
  * @since 3.3
  */
-public class VariableLabelProvider extends DebugElementLabelProvider {
+public class VariableLabelProvider extends DebugElementLabelProvider implements IElementLabelProvider2 {
+
+	@Override
+	public Object getLabelStamp(TreePath elementPath, IPresentationContext context) {
+		if (getClass() != VariableLabelProvider.class) {
+			return null;
+		}
+		return DebugElementLabelStamps.getDefault().getStamp(elementPath.getLastSegment());
+	}
 
 	@Override
 	protected RGB getBackground(TreePath elementPath, IPresentationContext presentationContext, String columnId) throws CoreException {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007 IBM Corporation and others.
+ * Copyright (c) 2007, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@ package org.eclipse.debug.internal.ui.model.elements;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.debug.core.model.IVariable;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementMementoProvider2;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IPresentationContext;
 
 /**
@@ -22,7 +23,7 @@ import org.eclipse.debug.internal.ui.viewers.model.provisional.IPresentationCont
  *
  * @since 3.4
  */
-public class VariableMementoProvider extends DebugElementMementoProvider {
+public class VariableMementoProvider extends DebugElementMementoProvider implements IElementMementoProvider2 {
 
 	@Override
 	protected String getElementName(Object element, IPresentationContext context) throws CoreException {
@@ -32,4 +33,13 @@ public class VariableMementoProvider extends DebugElementMementoProvider {
 		return null;
 	}
 
+	/**
+	 * Variables are identified by their names, which do not change while
+	 * the variable exists.
+	 */
+	@Override
+	public boolean isMementoStable(Object element, IPresentationContext context) {
+		return element instanceof IVariable;
+	}
+
 }
@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.debug.internal.ui.viewers.model;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementMementoProvider2;
+import org.eclipse.jface.viewers.TreePath;
+import org.eclipse.ui.IMemento;
+
+/**
+ * Bounded cache of the mementos encoded for elements by the viewer state
+ * tracker, used to save and restore the viewer state incrementally for
+ * elements with stable mementos (see {@link IElementMementoProvider2}).
+ * <p>
+ * When saving state, the cached memento of an element is reused instead of
+ * requesting the element to be encoded again. When restoring state, an element
+ * with a cached memento is compared with a saved memento by comparing the keys
+ * of the two mementos, rather than by requesting a comparison from the
+ * element's memento provider.
+ * </p>
+ * <p>
+ * A memento key is a compact string holding the type, attributes, text and
+ * children of a memento. Keys of cached mementos are computed once, so that
+ * comparing them only takes a hash lookup and a string comparison.
+ * </p>
+ * <p>
+ * Every memento is cached with the viewer input and the path of its element,
+ * so that the mementos of elements which no longer exist are discarded when
+ * the elements are removed or replaced, or the viewer shows a different
+ * input.
+ * </p>
+ * <p>
+ * This class is not thread safe. It is only accessed from the UI thread.
+ * </p>
+ *
+ * @since 3.17
+ */
+class ElementMementoCache {
+
+	/**
+	 * Default maximum number of cached mementos.
+	 */
+	static final int DEFAULT_SIZE = 5000;
+
+	private static class Entry {
+		final IMemento fMemento;
+		final String fKey;
+		final Object fInput;
+		final TreePath fPath;
+
+		Entry(IMemento memento, String key, Object input, TreePath path) {
+			fMemento = memento;
+			fKey = key;
+			fInput = input;
+			fPath = path;
+		}
+	}
+
+	private final int fMaxSize;
+
+	/**
+	 * Keys of the cached mementos, indexed by memento instance.
+	 */
+	private final Map<IMemento, String> fKeys = new IdentityHashMap<>();
+
+	private final LinkedHashMap<Object, Entry> fEntries = new LinkedHashMap<Object, Entry>(64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+			if (size() > fMaxSize) {
+				fKeys.remove(eldest.getValue().fMemento);
+				return true;
+			}
+			return false;
+		}
+	};
+
+	private long fHits;
+	private long fMisses;
+
+	/**
+	 * Creates a cache for the given number of mementos.
+	 *
+	 * @param maxSize maximum number of cached mementos
+	 */
+	ElementMementoCache(int maxSize) {
+		fMaxSize = maxSize;
+	}
+
+	/**
+	 * Returns the cached memento of the given element.
+	 *
+	 * @param element element
+	 * @return memento or <code>null</code> if the element is not cached
+	 */
+	IMemento getMemento(Object element) {
+		Entry entry = fEntries.get(element);
+		if (entry != null) {
+			fHits++;
+			return entry.fMemento;
+		}
+		fMisses++;
+		return null;
+	}
+
+	/**
+	 * Returns the key of the cached memento of the given element.
+	 *
+	 * @param element element
+	 * @return key or <code>null</code> if the element is not cached
+	 */
+	String getElementKey(Object element) {
+		Entry entry = fEntries.get(element);
+		return entry == null ? null : entry.fKey;
+	}
+
+	/**
+	 * Caches the given memento of the given element.
+	 *
+	 * @param input viewer input the element is shown for
+	 * @param path path of the element relative to the input
+	 * @param element element
+	 * @param memento memento encoded for the element
+	 */
+	void put(Object input, TreePath path, Object element, IMemento memento) {
+		String key = getKey(memento);
+		Entry previous = fEntries.put(element, new Entry(memento, key, input, path));
+		if (previous != null && previous.fMemento != memento) {
+			fKeys.remove(previous.fMemento);
+		}
+		fKeys.put(memento, key);
+	}
+
+	/**
+	 * Returns the key of the given memento.
+	 *
+	 * @param memento memento
+	 * @return key of the memento
+	 */
+	String getKey(IMemento memento) {
+		String key = fKeys.get(memento);
+		if (key == null) {
+			key = createKey(memento);
+		}
+		return key;
+	}
+
+	/**
+	 * Returns whether the given memento has the given key. The hash codes of
+	 * the keys are compared first, so that keys of different mementos are
+	 * usually told apart without comparing their contents.
+	 *
+	 * @param key memento key of an element
+	 * @param memento memento to compare
+	 * @return whether the key of the memento is equal to the given key
+	 */
+	boolean isEqual(String key, IMemento memento) {
+		String mementoKey = getKey(memento);
+		return key.hashCode() == mementoKey.hashCode() && key.equals(mementoKey);
+	}
+
+	/**
+	 * Removes the mementos of the elements shown for the given input at and
+	 * below the given path.
+	 *
+	 * @param input viewer input
+	 * @param path path of an element relative to the input
+	 */
+	void invalidate(Object input, TreePath path) {
+		for (Iterator<Entry> iterator = fEntries.values().iterator(); iterator.hasNext();) {
+			Entry entry = iterator.next();
+			if (Objects.equals(input, entry.fInput) && entry.fPath.startsWith(path, null)) {
+				iterator.remove();
+				fKeys.remove(entry.fMemento);
+			}
+		}
+	}
+
+	/**
+	 * Removes the mementos of the elements shown for inputs other than the
+	 * given inputs.
+	 *
+	 * @param input viewer input
+	 * @param otherInput another viewer input
+	 */
+	void retainInputs(Object input, Object otherInput) {
+		for (Iterator<Entry> iterator = fEntries.values().iterator(); iterator.hasNext();) {
+			Entry entry = iterator.next();
+			if (!Objects.equals(input, entry.fInput) && !Objects.equals(otherInput, entry.fInput)) {
+				iterator.remove();
+				fKeys.remove(entry.fMemento);
+			}
+		}
+	}
+
+	/**
+	 * Removes all cached mementos.
+	 */
+	void clear() {
+		fEntries.clear();
+		fKeys.clear();
+	}
+
+	/**
+	 * @return number of cached mementos
+	 */
+	int size() {
+		return fEntries.size();
+	}
+
+	/**
+	 * @return number of mementos reused from this cache
+	 */
+	long getHitCount() {
+		return fHits;
+	}
+
+	/**
+	 * @return number of elements not found in this cache
+	 */
+	long getMissCount() {
+		return fMisses;
+	}
+
+	/**
+	 * Creates the key of the given memento. Equal keys are created for
+	 * mementos with equal types, attributes, text and children, independent
+	 * of the order their attributes were set in.
+	 *
+	 * @param memento memento
+	 * @return key of the memento
+	 */
+	static String createKey(IMemento memento) {
+		StringBuilder buf = new StringBuilder();
+		appendKey(memento, buf);
+		return buf.toString();
+	}
+
+	private static void appendKey(IMemento memento, StringBuilder buf) {
+		appendString(memento.getType(), buf);
+		String[] attributes = memento.getAttributeKeys();
+		Arrays.sort(attributes);
+		buf.append(attributes.length).append('{');
+		for (String attribute : attributes) {
+			appendString(attribute, buf);
+			appendString(memento.getString(attribute), buf);
+		}
+		appendString(memento.getTextData(), buf);
+		IMemento[] children = memento.getChildren();
+		buf.append(children.length).append('[');
+		for (IMemento child : children) {
+			appendKey(child, buf);
+		}
+	}
+
+	private static void appendString(String string, StringBuilder buf) {
+		if (string == null) {
+			buf.append('-');
+		} else {
+			buf.append(string.length()).append(':').append(string);
+		}
+	}
+}
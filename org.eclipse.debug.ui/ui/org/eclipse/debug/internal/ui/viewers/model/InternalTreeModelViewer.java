@@ -609,6 +609,9 @@ public class InternalTreeModelViewer extends TreeViewer implements IInternalTree
 	@Override
 	protected void internalRefresh(Object element, boolean updateLabels) {
 		ITreeModelContentProvider contentProvider = (ITreeModelContentProvider)getContentProvider();
+		if (getLabelProvider() instanceof TreeModelLabelProvider) {
+			((TreeModelLabelProvider) getLabelProvider()).refreshLabels(element);
+		}
 
 		if (element == null) {
 			internalRefresh(getControl(), getRoot(), true, updateLabels);
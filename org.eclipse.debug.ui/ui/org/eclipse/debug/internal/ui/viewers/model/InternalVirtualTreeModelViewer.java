@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2018 Wind River Systems and others.
+ * Copyright (c) 2009, 2022 Wind River Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -486,12 +486,18 @@ public class InternalVirtualTreeModelViewer extends Viewer
 
 	@Override
 	public void refresh() {
+		if (getLabelProvider() instanceof TreeModelLabelProvider) {
+			((TreeModelLabelProvider) getLabelProvider()).refreshLabels(null);
+		}
 		refresh(fTree);
 		validate();
 	}
 
 	@Override
 	public void refresh(Object element) {
+		if (getLabelProvider() instanceof TreeModelLabelProvider) {
+			((TreeModelLabelProvider) getLabelProvider()).refreshLabels(element);
+		}
 		for (VirtualItem item : findItems(element)) {
 			refresh(item);
 			validate();
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.debug.internal.ui.viewers.model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementLabelProvider2;
+import org.eclipse.jface.viewers.TreePath;
+
+/**
+ * Bounded cache of the completed label updates of a tree model label
+ * provider, for elements whose label providers supply label stamps (see
+ * {@link IElementLabelProvider2}).
+ * <p>
+ * A cached label is reused for an element path if the visible columns and
+ * the label stamp are unchanged. The least recently used labels are evicted
+ * when the cache is full.
+ * </p>
+ * <p>
+ * This class is not thread safe. It is only accessed from the UI thread.
+ * </p>
+ *
+ * @since 3.17
+ */
+class LabelCache {
+
+	/**
+	 * Default maximum number of cached labels.
+	 */
+	static final int DEFAULT_SIZE = 5000;
+
+	private final int fMaxSize;
+
+	private final LinkedHashMap<TreePath, LabelUpdate> fEntries = new LinkedHashMap<TreePath, LabelUpdate>(64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<TreePath, LabelUpdate> eldest) {
+			return size() > fMaxSize;
+		}
+	};
+
+	private long fHits;
+	private long fMisses;
+
+	/**
+	 * Creates a cache for the given number of labels.
+	 *
+	 * @param maxSize maximum number of cached labels
+	 */
+	LabelCache(int maxSize) {
+		fMaxSize = maxSize;
+	}
+
+	/**
+	 * Returns the cached label update for the given element.
+	 *
+	 * @param elementPath element path
+	 * @param columnIds visible columns or <code>null</code>
+	 * @param stamp current label stamp of the element
+	 * @return cached update or <code>null</code> if none is valid
+	 */
+	LabelUpdate get(TreePath elementPath, String[] columnIds, Object stamp) {
+		LabelUpdate cached = fEntries.get(elementPath);
+		if (cached != null && stamp.equals(cached.getLabelStamp()) && Arrays.equals(columnIds, cached.getColumnIds())) {
+			fHits++;
+			return cached;
+		}
+		fMisses++;
+		return null;
+	}
+
+	/**
+	 * Caches the given completed label update.
+	 *
+	 * @param update update with a label stamp
+	 */
+	void put(LabelUpdate update) {
+		fEntries.put(update.getElementPath(), update);
+	}
+
+	/**
+	 * Removes the labels of the given changed elements, and the labels of all
+	 * elements below the given elements with changed content.
+	 *
+	 * @param changedElements elements whose state changed
+	 * @param changedContents elements whose content changed
+	 */
+	void invalidate(Set<Object> changedElements, Set<Object> changedContents) {
+		if (fEntries.isEmpty() || (changedElements.isEmpty() && changedContents.isEmpty())) {
+			return;
+		}
+		Iterator<TreePath> iterator = fEntries.keySet().iterator();
+		while (iterator.hasNext()) {
+			TreePath path = iterator.next();
+			if (changedElements.contains(path.getLastSegment()) || containsAny(path, changedContents)) {
+				iterator.remove();
+			}
+		}
+	}
+
+	private static boolean containsAny(TreePath path, Set<Object> elements) {
+		if (!elements.isEmpty()) {
+			for (int i = 0; i < path.getSegmentCount(); i++) {
+				if (elements.contains(path.getSegment(i))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Removes all cached labels.
+	 */
+	void clear() {
+		fEntries.clear();
+	}
+
+	/**
+	 * @return number of cached labels
+	 */
+	int size() {
+		return fEntries.size();
+	}
+
+	/**
+	 * @return number of labels reused from this cache
+	 */
+	long getHitCount() {
+		return fHits;
+	}
+
+	/**
+	 * @return number of stamped labels not found in this cache
+	 */
+	long getMissCount() {
+		return fMisses;
+	}
+}
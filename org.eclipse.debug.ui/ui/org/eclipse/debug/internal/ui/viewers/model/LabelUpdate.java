@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2011 IBM Corporation and others.
+ * Copyright (c) 2006, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -43,6 +43,7 @@ class LabelUpdate extends Request implements ILabelUpdate, ICheckUpdate {
 	private Object fViewerInput;
 	private boolean fChecked;
 	private boolean fGrayed;
+	private Object fLabelStamp;
 
 	/**
 	 * @param viewerInput input at the time the request was made
@@ -138,10 +139,47 @@ class LabelUpdate extends Request implements ILabelUpdate, ICheckUpdate {
 	 */
 	public void performUpdate() {
 		fProvider.setElementData(fElementPath, fNumColumns, fLabels, fImageDescriptors, fFontDatas, fForegrounds, fBackgrounds, fChecked, fGrayed);
+		if (fLabelStamp != null && (getStatus() == null || getStatus().isOK())) {
+			fProvider.cacheLabel(this);
+		}
 
 		fProvider.updateComplete(this);
 	}
 
+	/**
+	 * Returns the label stamp of the element when this update was requested.
+	 *
+	 * @return label stamp or <code>null</code> if the label is not cached
+	 */
+	Object getLabelStamp() {
+		return fLabelStamp;
+	}
+
+	/**
+	 * Sets the label stamp of the element when this update was requested.
+	 *
+	 * @param stamp label stamp or <code>null</code>
+	 */
+	void setLabelStamp(Object stamp) {
+		fLabelStamp = stamp;
+	}
+
+	/**
+	 * Copies the label attributes of the given cached update, which has the
+	 * same columns as this update.
+	 *
+	 * @param cached completed update for the same element
+	 */
+	void copyLabel(LabelUpdate cached) {
+		fLabels = cached.fLabels.clone();
+		fImageDescriptors = cached.fImageDescriptors == null ? null : cached.fImageDescriptors.clone();
+		fFontDatas = cached.fFontDatas == null ? null : cached.fFontDatas.clone();
+		fForegrounds = cached.fForegrounds == null ? null : cached.fForegrounds.clone();
+		fBackgrounds = cached.fBackgrounds == null ? null : cached.fBackgrounds.clone();
+		fChecked = cached.fChecked;
+		fGrayed = cached.fGrayed;
+	}
+
 	@Override
 	public Object getElement() {
 		return getElementPath().getLastSegment();
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.debug.internal.ui.viewers.model;
+
+import java.util.List;
+
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelDelta;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelProxy;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.ModelDelta;
+
+/**
+ * Combines queued model deltas before they are processed by the tree model
+ * content provider.
+ * <p>
+ * Only deltas which refresh elements, i.e. whose nodes have no flags other
+ * than {@link IModelDelta#CONTENT} and {@link IModelDelta#STATE}, are
+ * combined, since processing them is idempotent and independent of their
+ * order. Deltas which select, expand, reveal, add or remove elements, or
+ * install model proxies, are processed as fired, and refresh deltas are never
+ * combined across them.
+ * </p>
+ *
+ * @since 3.17
+ */
+public class ModelDeltaCoalescer {
+
+	/**
+	 * Flags of deltas which only refresh elements.
+	 */
+	public static final int REFRESH_FLAGS = IModelDelta.CONTENT | IModelDelta.STATE;
+
+	/**
+	 * A queued delta and the model proxy which fired it.
+	 */
+	public static class QueuedDelta {
+		public final IModelDelta delta;
+		public final IModelProxy proxy;
+		public final boolean refreshOnly;
+
+		public QueuedDelta(final IModelDelta delta, final IModelProxy proxy) {
+			this.delta = delta;
+			this.proxy = proxy;
+			this.refreshOnly = isRefreshOnly(delta);
+		}
+	}
+
+	private ModelDeltaCoalescer() {
+	}
+
+	/**
+	 * Coalesces the queued deltas of the given batch which only refresh
+	 * elements. Only runs of adjacent refresh-only deltas are coalesced:
+	 * within such a run, a delta is dropped when a later delta of the same
+	 * model proxy requests the same updates, and consecutive deltas of the
+	 * same model proxy are combined into one delta. Deltas with other flags
+	 * and tasks other than {@link QueuedDelta}s end a run.
+	 *
+	 * @param batch queued deltas and other tasks, modified in place
+	 * @return number of element updates saved
+	 */
+	public static int coalesce(List<Object> batch) {
+		int saved = 0;
+		for (int i = batch.size() - 2; i >= 0; i--) {
+			if (!isRefreshOnlyTask(batch.get(i))) {
+				continue;
+			}
+			QueuedDelta change = (QueuedDelta) batch.get(i);
+			for (int j = i + 1; j < batch.size() && isRefreshOnlyTask(batch.get(j)); j++) {
+				QueuedDelta later = (QueuedDelta) batch.get(j);
+				if (later.proxy == change.proxy && isSuperseded(change.delta, later.delta)) {
+					saved += countUpdates(change.delta);
+					batch.remove(i);
+					break;
+				}
+			}
+		}
+		for (int i = batch.size() - 1; i > 0; i--) {
+			if (isRefreshOnlyTask(batch.get(i)) && isRefreshOnlyTask(batch.get(i - 1))) {
+				QueuedDelta change = (QueuedDelta) batch.get(i);
+				QueuedDelta previous = (QueuedDelta) batch.get(i - 1);
+				if (change.proxy == previous.proxy) {
+					ModelDelta merged = merge(previous.delta, change.delta);
+					if (merged != null) {
+						saved += countUpdates(previous.delta) + countUpdates(change.delta) - countUpdates(merged);
+						batch.set(i - 1, new QueuedDelta(merged, previous.proxy));
+						batch.remove(i);
+					}
+				}
+			}
+		}
+		return saved;
+	}
+
+	private static boolean isRefreshOnlyTask(Object task) {
+		return task instanceof QueuedDelta && ((QueuedDelta) task).refreshOnly;
+	}
+
+	/**
+	 * Returns whether the given delta only refreshes elements.
+	 *
+	 * @param delta delta to check
+	 * @return whether all nodes of the delta only have refresh flags
+	 */
+	public static boolean isRefreshOnly(IModelDelta delta) {
+		if ((delta.getFlags() & ~REFRESH_FLAGS) != 0) {
+			return false;
+		}
+		for (IModelDelta child : delta.getChildDeltas()) {
+			if (!isRefreshOnly(child)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of element updates requested by the given delta,
+	 * i.e. the number of refresh flags set on its nodes.
+	 *
+	 * @param delta delta
+	 * @return number of element updates
+	 */
+	public static int countUpdates(IModelDelta delta) {
+		int count = Integer.bitCount(delta.getFlags() & REFRESH_FLAGS);
+		for (IModelDelta child : delta.getChildDeltas()) {
+			count += countUpdates(child);
+		}
+		return count;
+	}
+
+	/**
+	 * Returns whether all updates requested by the given earlier delta are
+	 * requested again by the given later delta: element contents and states
+	 * refreshed by the earlier delta are refreshed by the later delta, or the
+	 * later delta refreshes the content of one of their ancestors.
+	 *
+	 * @param earlier earlier delta which only refreshes elements
+	 * @param later later delta
+	 * @return whether the earlier delta may be dropped
+	 */
+	public static boolean isSuperseded(IModelDelta earlier, IModelDelta later) {
+		if (!earlier.getElement().equals(later.getElement())) {
+			return false;
+		}
+		return isCovered(earlier, later, false);
+	}
+
+	private static boolean isCovered(IModelDelta earlier, IModelDelta later, boolean ancestorContent) {
+		if (ancestorContent) {
+			return true;
+		}
+		int flags = earlier.getFlags() & REFRESH_FLAGS;
+		int laterFlags = later == null ? 0 : later.getFlags();
+		if ((flags & ~laterFlags) != 0) {
+			return false;
+		}
+		boolean content = (laterFlags & IModelDelta.CONTENT) != 0;
+		for (IModelDelta child : earlier.getChildDeltas()) {
+			IModelDelta laterChild = later == null ? null : findChild(later, child.getElement());
+			if (!isCovered(child, laterChild, content)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a delta requesting the updates of both given deltas, which must
+	 * only refresh elements, or <code>null</code> if the deltas have
+	 * different root elements. Indexes and child counts known by the second
+	 * delta take precedence, since it was fired later.
+	 *
+	 * @param first first delta
+	 * @param second second delta
+	 * @return combined delta or <code>null</code>
+	 */
+	public static ModelDelta merge(IModelDelta first, IModelDelta second) {
+		if (!first.getElement().equals(second.getElement())) {
+			return null;
+		}
+		ModelDelta merged = new ModelDelta(first.getElement(), first.getIndex(), first.getFlags(), first.getChildCount());
+		copyChildren(first, merged);
+		mergeNode(second, merged);
+		return merged;
+	}
+
+	private static void mergeNode(IModelDelta source, ModelDelta target) {
+		target.setFlags(target.getFlags() | source.getFlags());
+		if (source.getIndex() >= 0) {
+			target.setIndex(source.getIndex());
+		}
+		if (source.getChildCount() >= 0) {
+			target.setChildCount(source.getChildCount());
+		}
+		for (IModelDelta child : source.getChildDeltas()) {
+			ModelDelta targetChild = target.getChildDelta(child.getElement());
+			if (targetChild == null) {
+				targetChild = target.addNode(child.getElement(), child.getIndex(), child.getFlags(), child.getChildCount());
+				copyChildren(child, targetChild);
+			} else {
+				mergeNode(child, targetChild);
+			}
+		}
+	}
+
+	private static void copyChildren(IModelDelta source, ModelDelta target) {
+		for (IModelDelta child : source.getChildDeltas()) {
+			ModelDelta copy = target.addNode(child.getElement(), child.getIndex(), child.getFlags(), child.getChildCount());
+			copyChildren(child, copy);
+		}
+	}
+
+	private static IModelDelta findChild(IModelDelta delta, Object element) {
+		if (delta instanceof ModelDelta) {
+			return ((ModelDelta) delta).getChildDelta(element);
+		}
+		for (IModelDelta child : delta.getChildDeltas()) {
+			if (child.getElement().equals(element)) {
+				return child;
+			}
+		}
+		return null;
+	}
+}
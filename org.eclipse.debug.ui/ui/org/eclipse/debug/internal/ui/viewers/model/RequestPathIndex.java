@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.debug.internal.ui.viewers.model;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.eclipse.jface.viewers.TreePath;
+
+/**
+ * Lists of update requests indexed by scheduling path, used by the tree model
+ * content provider to track requests in progress and waiting requests.
+ * <p>
+ * The lists are stored in a tree of path segments, like the filters of a
+ * {@link FilterTransform}. Looking up the list of a path, checking the
+ * ancestors of a path for requests, and removing or visiting all lists in a
+ * subtree take time proportional to the depth of the path and the size of the
+ * subtree, rather than to the total number of paths with requests.
+ * </p>
+ * <p>
+ * This class is not thread safe. It is only accessed from the UI thread.
+ * </p>
+ *
+ * @since 3.17
+ */
+class RequestPathIndex {
+
+	private static class Node {
+		private final Node parent;
+		private final Object segment;
+		private final int depth;
+		private Map<Object, Node> children = null; // only set for parent nodes, indexed by child
+		private List<ViewerUpdateMonitor> requests = null;
+
+		Node(Node parent, Object segment) {
+			this.parent = parent;
+			this.segment = segment;
+			this.depth = parent == null ? 0 : parent.depth + 1;
+		}
+
+		boolean isEmpty() {
+			return requests == null && (children == null || children.isEmpty());
+		}
+
+		TreePath getPath() {
+			Object[] segments = new Object[depth];
+			Node node = this;
+			for (int i = depth - 1; i >= 0; i--) {
+				segments[i] = node.segment;
+				node = node.parent;
+			}
+			return new TreePath(segments);
+		}
+	}
+
+	private final Node root = new Node(null, null);
+
+	private int size = 0;
+
+	/**
+	 * Returns the node of the given path, or <code>null</code> if there are no
+	 * requests for the path or its descendants.
+	 *
+	 * @param path path
+	 * @return node or <code>null</code>
+	 */
+	private Node find(TreePath path) {
+		Node node = root;
+		int count = path.getSegmentCount();
+		for (int i = 0; i < count; i++) {
+			if (node.children == null) {
+				return null;
+			}
+			node = node.children.get(path.getSegment(i));
+			if (node == null) {
+				return null;
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * Returns the requests for the given path.
+	 *
+	 * @param path scheduling path, may be <code>null</code>
+	 * @return requests or <code>null</code> if none
+	 */
+	List<ViewerUpdateMonitor> get(TreePath path) {
+		if (path == null) {
+			return null;
+		}
+		Node node = find(path);
+		return node == null ? null : node.requests;
+	}
+
+	/**
+	 * Sets the requests for the given path.
+	 *
+	 * @param path scheduling path
+	 * @param requests list of requests
+	 */
+	void put(TreePath path, List<ViewerUpdateMonitor> requests) {
+		Node node = root;
+		int count = path.getSegmentCount();
+		for (int i = 0; i < count; i++) {
+			if (node.children == null) {
+				node.children = new HashMap<>(4);
+			}
+			Object segment = path.getSegment(i);
+			Node child = node.children.get(segment);
+			if (child == null) {
+				child = new Node(node, segment);
+				node.children.put(segment, child);
+			}
+			node = child;
+		}
+		if (node.requests == null) {
+			size++;
+		}
+		node.requests = requests;
+	}
+
+	/**
+	 * Removes the requests for the given path.
+	 *
+	 * @param path scheduling path
+	 * @return removed requests or <code>null</code> if none
+	 */
+	List<ViewerUpdateMonitor> remove(TreePath path) {
+		Node node = find(path);
+		if (node == null || node.requests == null) {
+			return null;
+		}
+		List<ViewerUpdateMonitor> requests = node.requests;
+		node.requests = null;
+		size--;
+		prune(node);
+		return requests;
+	}
+
+	/**
+	 * Removes the requests for the given path and all its descendants.
+	 *
+	 * @param path path of the subtree
+	 */
+	void removeSubtree(TreePath path) {
+		Node node = find(path);
+		if (node == null) {
+			return;
+		}
+		visit(node, requests -> size--);
+		if (node == root) {
+			root.children = null;
+			root.requests = null;
+		} else {
+			node.parent.children.remove(node.segment);
+			prune(node.parent);
+		}
+	}
+
+	/**
+	 * Passes the requests for the given path and for all its descendants to
+	 * the given visitor.
+	 *
+	 * @param path path of the subtree
+	 * @param visitor visitor of request lists
+	 */
+	void visitSubtree(TreePath path, Consumer<List<ViewerUpdateMonitor>> visitor) {
+		Node node = find(path);
+		if (node != null) {
+			visit(node, visitor);
+		}
+	}
+
+	private void visit(Node node, Consumer<List<ViewerUpdateMonitor>> visitor) {
+		ArrayDeque<Node> stack = new ArrayDeque<>();
+		stack.push(node);
+		while (!stack.isEmpty()) {
+			Node next = stack.pop();
+			if (next.requests != null) {
+				visitor.accept(next.requests);
+			}
+			if (next.children != null) {
+				for (Node child : next.children.values()) {
+					stack.push(child);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns whether there are requests for the given path or any of its
+	 * ancestors.
+	 *
+	 * @param path path to check
+	 * @return whether the path or an ancestor has requests
+	 */
+	boolean hasRequestsOnPath(TreePath path) {
+		Node node = root;
+		int count = path.getSegmentCount();
+		for (int i = 0;; i++) {
+			if (node.requests != null && !node.requests.isEmpty()) {
+				return true;
+			}
+			if (i == count || node.children == null) {
+				return false;
+			}
+			node = node.children.get(path.getSegment(i));
+			if (node == null) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Returns the shortest path with requests which is accepted by the given
+	 * filter.
+	 *
+	 * @param filter filter of candidate paths
+	 * @return shortest accepted path or <code>null</code> if none
+	 */
+	TreePath findShortestPath(Predicate<TreePath> filter) {
+		ArrayDeque<Node> queue = new ArrayDeque<>();
+		queue.add(root);
+		while (!queue.isEmpty()) {
+			Node node = queue.poll();
+			if (node.requests != null) {
+				TreePath path = node.getPath();
+				if (filter.test(path)) {
+					return path;
+				}
+			}
+			if (node.children != null) {
+				queue.addAll(node.children.values());
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return whether there are no requests for any path
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return number of paths with requests
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Removes the given node and its ancestors which have neither requests
+	 * nor children.
+	 *
+	 * @param node node to prune
+	 */
+	private void prune(Node node) {
+		while (node != root && node.isEmpty()) {
+			node.parent.children.remove(node.segment);
+			node = node.parent;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2018 IBM Corporation and others.
+ * Copyright (c) 2006, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,10 +20,8 @@ package org.eclipse.debug.internal.ui.viewers.model;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -122,15 +120,15 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 	private boolean fModelSequenceRunning = false;
 
 	/**
-	 * Map of updates in progress: element path -> list of requests
+	 * Index of updates in progress: element path -> list of requests
 	 */
-	private Map<TreePath, List<ViewerUpdateMonitor>> fRequestsInProgress = new HashMap<>();
+	private RequestPathIndex fRequestsInProgress = new RequestPathIndex();
 
 	/**
-	 * Map of dependent requests waiting for parent requests to complete:
+	 * Index of dependent requests waiting for parent requests to complete:
 	 * element path -> list of requests
 	 */
-	private Map<TreePath, List<ViewerUpdateMonitor>> fWaitingRequests = new HashMap<>();
+	private RequestPathIndex fWaitingRequests = new RequestPathIndex();
 
 	private List<ViewerUpdateMonitor> fCompletedUpdates = new ArrayList<>();
 
@@ -169,12 +167,12 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		Assert.isTrue( getViewer().getDisplay().getThread() == Thread.currentThread() );
 
 		// cancel pending updates
-		for (List<ViewerUpdateMonitor> requests : fRequestsInProgress.values()) {
+		fRequestsInProgress.visitSubtree(TreePath.EMPTY, requests -> {
 			for (ViewerUpdateMonitor vu : requests) {
 				vu.cancel();
 			}
-		}
-		fWaitingRequests.clear();
+		});
+		fWaitingRequests.removeSubtree(TreePath.EMPTY);
 
 		fStateTracker.dispose();
 		fModelListeners.clear();
@@ -216,6 +214,7 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		disposeAllModelProxies();
 		cancelSubtreeUpdates(TreePath.EMPTY);
 		fTransform.clear();
+		fStateTracker.inputChanged(oldInput, newInput);
 		if (newInput != null) {
 			installModelProxy(newInput, TreePath.EMPTY);
 			fStateTracker.restoreViewerState(newInput);
@@ -389,16 +388,6 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		}
 	}
 
-	private static class DelayedDoModelChange {
-		public final IModelDelta delta;
-		public final IModelProxy proxy;
-
-		public DelayedDoModelChange(final IModelDelta delta, final IModelProxy proxy) {
-			this.delta = delta;
-			this.proxy = proxy;
-		}
-	}
-
 	private class DelayedDoModelChangedJob extends WorkbenchJob {
 
 		// limit batch size to avoid freezing the UI.
@@ -408,6 +397,9 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		private final List<Object> fQueue = new ArrayList<>();
 		private boolean shutdown;
 
+		// number of element updates saved by coalescing deltas, only accessed in UI thread
+		private long fSavedUpdates;
+
 		public DelayedDoModelChangedJob() {
 			super("Delayed model change job"); //$NON-NLS-1$
 			setSystem(true);
@@ -434,8 +426,12 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 					schedule();
 				}
 			}
+			int batchSize = currentBatch.size();
+			int saved = ModelDeltaCoalescer.coalesce(currentBatch);
+			fSavedUpdates += saved;
 			if (DebugUIPlugin.DEBUG_CONTENT_PROVIDER) {
-				DebugUIPlugin.trace("Delayed batch size: " + currentBatch.size()); //$NON-NLS-1$
+				DebugUIPlugin.trace("Delayed batch size: " + batchSize + ", coalesced: " + currentBatch.size() //$NON-NLS-1$ //$NON-NLS-2$
+						+ ", updates saved: " + saved + " (total " + fSavedUpdates + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			}
 			for (Iterator<?> iterator = currentBatch.iterator(); iterator.hasNext();) {
 				Object task = iterator.next();
@@ -443,8 +439,8 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 					restoreQueue(currentBatch);
 					return Status.CANCEL_STATUS;
 				}
-				if (task instanceof DelayedDoModelChange) {
-					DelayedDoModelChange change = (DelayedDoModelChange) task;
+				if (task instanceof ModelDeltaCoalescer.QueuedDelta) {
+					ModelDeltaCoalescer.QueuedDelta change = (ModelDeltaCoalescer.QueuedDelta) task;
 					if (!change.proxy.isDisposed()) {
 						doModelChanged(change.delta, change.proxy);
 					}
@@ -465,7 +461,7 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		}
 
 		public void runDelayed(final IModelDelta delta, final IModelProxy proxy) {
-			runDelayed(new DelayedDoModelChange(delta, proxy));
+			runDelayed(new ModelDeltaCoalescer.QueuedDelta(delta, proxy));
 		}
 
 		public void runDelayed(final Runnable uiTask) {
@@ -885,29 +881,16 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 	 */
 	private void cancelSubtreeUpdates(TreePath path) {
 		Assert.isTrue( getViewer().getDisplay().getThread() == Thread.currentThread() );
-		for (Entry<TreePath, List<ViewerUpdateMonitor>> entry : fRequestsInProgress.entrySet()) {
-			TreePath entryPath = entry.getKey();
-			if (entryPath.startsWith(path, null)) {
-				List<ViewerUpdateMonitor> requests = entry.getValue();
-				Iterator<ViewerUpdateMonitor> reqIter = requests.iterator();
-				while (reqIter.hasNext()) {
-					// Cancel update and remove from requests list.  Removing from
-					// fRequestsInProgress ensures that isRequestBlocked() won't be triggered
-					// by a canceled update.
-					reqIter.next().cancel();
-					reqIter.remove();
-				}
-			}
-		}
-		List<TreePath> purge = new ArrayList<>();
-		for (TreePath entryPath : fWaitingRequests.keySet()) {
-			if (entryPath.startsWith(path, null)) {
-				purge.add(entryPath);
+		fRequestsInProgress.visitSubtree(path, requests -> {
+			// Cancel updates and remove from requests list.  Removing from
+			// fRequestsInProgress ensures that isRequestBlocked() won't be triggered
+			// by a canceled update.
+			for (ViewerUpdateMonitor request : requests) {
+				request.cancel();
 			}
-		}
-		for (TreePath tp : purge) {
-			fWaitingRequests.remove(tp);
-		}
+			requests.clear();
+		});
+		fWaitingRequests.removeSubtree(path);
 
 		fStateTracker.cancelStateSubtreeUpdates(path);
 	}
@@ -924,7 +907,7 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		TreePath schedulingPath = update.getSchedulingPath();
 		List<ViewerUpdateMonitor> requests = fWaitingRequests.get(schedulingPath);
 		if (requests == null) {
-			requests = new LinkedList<>();
+			requests = new ArrayList<>();
 			requests.add(update);
 			fWaitingRequests.put(schedulingPath, requests);
 
@@ -967,9 +950,12 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 	 * waiting requests list.
 	 */
 	private ViewerUpdateMonitor coalesce(List<ViewerUpdateMonitor> requests, ViewerUpdateMonitor toCoalesce) {
-		for (ViewerUpdateMonitor waiting : requests) {
+		// Try the most recent requests first, consecutive requests (e.g. for
+		// adjacent children) are most likely to coalesce.
+		for (int i = requests.size() - 1; i >= 0; i--) {
+			ViewerUpdateMonitor waiting = requests.get(i);
 			if (waiting.coalesce(toCoalesce)) {
-				requests.remove(waiting);
+				requests.remove(i);
 				// coalesced with existing request, done
 				// try to coalesce the combined requests with other waiting requests
 				return coalesce(requests, waiting);
@@ -1030,17 +1016,9 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		List<ViewerUpdateMonitor> waiting = fWaitingRequests.get(schedulingPath);
 		if (waiting == null) {
 			// no waiting, update the entry with the shortest path
-			int length = Integer.MAX_VALUE;
-			Entry<TreePath, List<ViewerUpdateMonitor>> candidate = null;
-			for (Entry<TreePath, List<ViewerUpdateMonitor>> entry : fWaitingRequests.entrySet()) {
-				TreePath key = entry.getKey();
-				if (key.getSegmentCount() < length && !isRequestBlocked(key)) {
-					candidate = entry;
-					length = key.getSegmentCount();
-				}
-			}
+			TreePath candidate = fWaitingRequests.findShortestPath(key -> !isRequestBlocked(key));
 			if (candidate != null) {
-				startHighestPriorityRequest(candidate.getKey(), candidate.getValue());
+				startHighestPriorityRequest(candidate, fWaitingRequests.get(candidate));
 			}
 		} else if (!isRequestBlocked(schedulingPath)) {
 			// start the highest priority request
@@ -1055,17 +1033,7 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 	 * @return Returns true if requests are running.
 	 */
 	private boolean isRequestBlocked(TreePath requestPath) {
-		TreePath parentPath = requestPath;
-		List<ViewerUpdateMonitor> parentRequests = fRequestsInProgress.get(parentPath);
-		while (parentRequests == null || parentRequests.isEmpty()) {
-			parentPath = parentPath.getParentPath();
-			if (parentPath == null) {
-				// no running requests: start request
-				return false;
-			}
-			parentRequests = fRequestsInProgress.get(parentPath);
-		}
-		return true;
+		return fRequestsInProgress.hasRequestsOnPath(requestPath);
 	}
 
 	/**
@@ -1528,6 +1496,7 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		IInternalTreeModelViewer treeViewer = getViewer();
 		TreePath parentPath = getViewerTreePath(parentDelta);
 		Object element = delta.getElement();
+		fStateTracker.invalidateMementos(parentPath.createChildPath(element));
 		if (removeElementFromFilters(parentPath, element)) {
 			// element was filtered - done
 			return;
@@ -1603,6 +1572,7 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 			return;
 		}
 		TreePath parentPath = getViewerTreePath(parentDelta);
+		fStateTracker.invalidateMementos(parentPath.createChildPath(delta.getElement()));
 		int index = delta.getIndex();
 		if (index < 0) {
 			index = fTransform.indexOfFilteredElement(parentPath, delta.getElement());
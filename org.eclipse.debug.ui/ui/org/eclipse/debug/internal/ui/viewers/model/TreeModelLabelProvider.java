@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2018 IBM Corporation and others.
+ * Copyright (c) 2006, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,11 +16,14 @@
 package org.eclipse.debug.internal.ui.viewers.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.ISafeRunnable;
@@ -28,6 +31,7 @@ import org.eclipse.core.runtime.ListenerList;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.debug.internal.ui.DebugUIPlugin;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementLabelProvider;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementLabelProvider2;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.ILabelUpdate;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelChangedListener;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelDelta;
@@ -35,6 +39,8 @@ import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelDeltaVisito
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelProxy;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IPresentationContext;
 import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.jface.viewers.ColumnLabelProvider;
 import org.eclipse.jface.viewers.TreePath;
 import org.eclipse.jface.viewers.ViewerCell;
@@ -49,11 +55,17 @@ import org.eclipse.swt.widgets.Display;
  * @since 3.3
  */
 public class TreeModelLabelProvider extends ColumnLabelProvider
-	implements ITreeModelLabelProvider, IModelChangedListener
+	implements ITreeModelLabelProvider, IModelChangedListener, IPropertyChangeListener
 {
 
 	private IInternalTreeModelViewer fViewer;
 
+	/**
+	 * Presentation context of the viewer, whose property changes discard the
+	 * cached labels.
+	 */
+	private IPresentationContext fContext;
+
 	/**
 	 * Note: access this variable should be synchronized with <code>this</code>.
 	 */
@@ -103,18 +115,31 @@ public class TreeModelLabelProvider extends ColumnLabelProvider
 	 */
 	private List<ILabelUpdate> fUpdatesInProgress = new ArrayList<>();
 
+	/**
+	 * Cache of the labels of elements whose label providers supply label
+	 * stamps.
+	 */
+	private LabelCache fLabelCache = new LabelCache(LabelCache.DEFAULT_SIZE);
+
 	/**
 	 * Delta visitor actively cancels the outstanding label updates for
-	 * elements that are changed and are about to be updated.
+	 * elements that are changed and are about to be updated, and collects
+	 * the changed elements to invalidate their cached labels.
 	 */
 	class CancelPendingUpdatesVisitor implements IModelDeltaVisitor {
+
+		final Set<Object> fChangedElements = new HashSet<>();
+		final Set<Object> fChangedContents = new HashSet<>();
+
 		@Override
 		public boolean visit(IModelDelta delta, int depth) {
 			if ((delta.getFlags() & IModelDelta.CONTENT) > 0) {
 				cancelElementUpdates(delta.getElement(), true);
+				fChangedContents.add(delta.getElement());
 				return false;
 			} else if ((delta.getFlags() & IModelDelta.STATE) > 0) {
 				cancelElementUpdates(delta.getElement(), false);
+				fChangedElements.add(delta.getElement());
 				return true;
 			}
 			return true;
@@ -133,6 +158,10 @@ public class TreeModelLabelProvider extends ColumnLabelProvider
 	public TreeModelLabelProvider(IInternalTreeModelViewer viewer) {
 		fViewer = viewer;
 		fViewer.addModelChangedListener(this);
+		fContext = viewer.getPresentationContext();
+		if (fContext != null) {
+			fContext.addPropertyChangeListener(this);
+		}
 	}
 
 	/**
@@ -210,6 +239,10 @@ public class TreeModelLabelProvider extends ColumnLabelProvider
 
 		fViewer.removeModelChangedListener(this);
 		fViewer = null;
+		if (fContext != null) {
+			fContext.removePropertyChangeListener(this);
+			fContext = null;
+		}
 
 		List<ILabelUpdate> complete = null;
 		synchronized(this) {
@@ -246,6 +279,7 @@ public class TreeModelLabelProvider extends ColumnLabelProvider
 			color.dispose();
 		}
 		fColorCache.clear();
+		fLabelCache.clear();
 		super.dispose();
 	}
 
@@ -268,12 +302,27 @@ public class TreeModelLabelProvider extends ColumnLabelProvider
 		Object element = elementPath.getLastSegment();
 		IElementLabelProvider presentation = ViewerAdapterService.getLabelProvider(element);
 		if (presentation != null) {
+			LabelUpdate update = new LabelUpdate(fViewer.getInput(), elementPath, this, visibleColumns, fViewer.getPresentationContext());
+			if (presentation instanceof IElementLabelProvider2) {
+				Object stamp = ((IElementLabelProvider2) presentation).getLabelStamp(elementPath, getPresentationContext());
+				if (stamp != null) {
+					update.setLabelStamp(stamp);
+					LabelUpdate cached = fLabelCache.get(elementPath, visibleColumns, stamp);
+					if (cached != null) {
+						// label inputs unchanged, complete without asking the model
+						update.copyLabel(cached);
+						updateStarted(update);
+						update.done();
+						return true;
+					}
+				}
+			}
 			List<ILabelUpdate> updates = fPendingUpdates.get(presentation);
 			if (updates == null) {
 				updates = new LinkedList<>();
 				fPendingUpdates.put(presentation, updates);
 			}
-			updates.add(new LabelUpdate(fViewer.getInput(), elementPath, this, visibleColumns, fViewer.getPresentationContext()));
+			updates.add(update);
 			fPendingUpdatesRunnable = new Runnable() {
 				@Override
 				public void run() {
@@ -384,6 +433,61 @@ public class TreeModelLabelProvider extends ColumnLabelProvider
 		return fViewer.getPresentationContext();
 	}
 
+	/**
+	 * Caches the label of the given completed update, which has a label
+	 * stamp.
+	 *
+	 * @param update Update that has been applied to the viewer.
+	 */
+	void cacheLabel(LabelUpdate update) {
+		fLabelCache.put(update);
+	}
+
+	/**
+	 * Discards the cached labels of the given element and of the elements
+	 * below it, because the viewer is refreshed explicitly.
+	 *
+	 * @param element refreshed element, or <code>null</code> if the whole
+	 *            viewer is refreshed
+	 */
+	void refreshLabels(Object element) {
+		if (element == null || (fViewer != null && element.equals(fViewer.getInput()))) {
+			fLabelCache.clear();
+		} else {
+			fLabelCache.invalidate(Collections.emptySet(), Collections.singleton(element));
+		}
+	}
+
+	/**
+	 * Discards all cached labels when a property of the presentation context
+	 * changes, since labels may depend on any of them.
+	 */
+	@Override
+	public void propertyChange(PropertyChangeEvent event) {
+		Display display = fViewer != null ? getDisplay() : null;
+		if (display == null || display.isDisposed()) {
+			return;
+		}
+		if (display.getThread() == Thread.currentThread()) {
+			fLabelCache.clear();
+		} else {
+			display.asyncExec(() -> {
+				if (!isDisposed()) {
+					fLabelCache.clear();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Returns the cache of labels of this label provider.
+	 *
+	 * @return label cache
+	 */
+	LabelCache getLabelCache() {
+		return fLabelCache;
+	}
+
 	/**
 	 * A label update is complete.
 	 *
@@ -506,6 +610,14 @@ public class TreeModelLabelProvider extends ColumnLabelProvider
 	@Override
 	public void modelChanged(IModelDelta delta, IModelProxy proxy) {
 		delta.accept(fCancelPendingUpdatesVisitor);
+		Set<Object> changedContents = fCancelPendingUpdatesVisitor.fChangedContents;
+		if (fViewer != null && changedContents.contains(fViewer.getInput())) {
+			fLabelCache.clear();
+		} else {
+			fLabelCache.invalidate(fCancelPendingUpdatesVisitor.fChangedElements, changedContents);
+		}
+		fCancelPendingUpdatesVisitor.fChangedElements.clear();
+		changedContents.clear();
 	}
 
 }
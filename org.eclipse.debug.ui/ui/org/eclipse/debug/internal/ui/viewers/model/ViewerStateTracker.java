@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2018 Wind River Systems and others.
+ * Copyright (c) 2011, 2022 Wind River Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,8 +15,6 @@
  *******************************************************************************/
 package org.eclipse.debug.internal.ui.viewers.model;
 
-import java.io.IOException;
-import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -35,6 +33,7 @@ import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.debug.internal.ui.DebugUIPlugin;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementCompareRequest;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementMementoProvider;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementMementoProvider2;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementMementoRequest;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelDelta;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelDeltaVisitor;
@@ -73,6 +72,14 @@ import org.eclipse.ui.XMLMemento;
  * elements using mementos.  As the refresh of the tree progresses, the save state
  * is restored to the tree and elements are expanded or collapsed as needed to
  * compensate for changes in model structure.
+ * </p><p>
+ * The mementos encoded for elements whose memento providers declare them
+ * stable (see {@link IElementMementoProvider2}) are cached.  A state save then
+ * only requests mementos for the elements which were not encoded before, and
+ * elements with cached mementos are compared with the saved mementos by their
+ * keys, without requesting comparisons from the memento providers.  Cached
+ * mementos are discarded when model deltas replace or remove their elements
+ * or change the content of their parents, and when the viewer input changes.
  * </p>
  * @see TreeModelContentProvider
  */
@@ -212,6 +219,52 @@ class ViewerStateTracker {
 	 */
 	private Map<CompareRequestKey, ElementCompareRequest> fCompareRequestsInProgress = new LinkedHashMap<>();
 
+	/**
+	 * Mementos encoded for elements with stable mementos, used for
+	 * incremental state save and restore.
+	 */
+	private ElementMementoCache fMementoCache = new ElementMementoCache(ElementMementoCache.DEFAULT_SIZE);
+
+	/**
+	 * Returns whether the memento of the given element may be cached.
+	 *
+	 * @param input viewer input the element is shown for
+	 * @param element element
+	 * @return whether the memento provider of the element declares its
+	 *         memento stable
+	 */
+	private boolean isMementoStable(Object input, Object element) {
+		IElementMementoProvider provider = ViewerAdapterService.getMementoProvider(element);
+		if (provider == null) {
+			provider = ViewerAdapterService.getMementoProvider(input);
+		}
+		return provider instanceof IElementMementoProvider2
+				&& ((IElementMementoProvider2) provider).isMementoStable(element, fContentProvider.getPresentationContext());
+	}
+
+	/**
+	 * Discards the cached mementos of an element which was removed or
+	 * replaced, and of its descendants. A content refresh keeps the cached
+	 * mementos: mementos of elements which are no longer shown are pruned with
+	 * their input or evicted by the size bound of the cache.
+	 *
+	 * @param path path of the removed or replaced element
+	 */
+	void invalidateMementos(TreePath path) {
+		fMementoCache.invalidate(fContentProvider.getViewer().getInput(), path);
+	}
+
+	/**
+	 * Discards the cached mementos of elements shown for inputs other than the
+	 * previous and the new input, so that elements of inputs which are no
+	 * longer shown, such as terminated debug sessions, are not retained.
+	 *
+	 * @param oldInput previous viewer input
+	 * @param newInput new viewer input
+	 */
+	void inputChanged(Object oldInput, Object newInput) {
+		fMementoCache.retainInputs(oldInput, newInput);
+	}
 
 	/**
 	 * Cancels pending updates.
@@ -226,6 +279,7 @@ class ViewerStateTracker {
 			ecr.cancel();
 		}
 		fCompareRequestsInProgress.clear();
+		fMementoCache.clear();
 
 		if (fPendingSetTopItem != null) {
 			fPendingSetTopItem.dispose();
@@ -260,50 +314,43 @@ class ViewerStateTracker {
 					notifyStateUpdate(input, TreeModelContentProvider.UPDATE_COMPLETE, request);
 
 					if (!request.isCanceled() && (request.getStatus() == null || request.getStatus().isOK())) {
-						XMLMemento keyMemento = (XMLMemento) delta.getElement();
-						StringWriter writer = new StringWriter();
-						try {
-							keyMemento.save(writer);
-							final String keyMementoString = writer.toString();
-							ModelDelta stateDelta = fViewerStates.get(keyMementoString);
-							if (stateDelta != null) {
-								if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(fContentProvider.getPresentationContext()))  {
-									DebugUIPlugin.trace("STATE RESTORE INPUT COMARE ENDED : " + fRequest + " - MATCHING STATE FOUND"); //$NON-NLS-1$ //$NON-NLS-2$
-								}
+						final String keyMementoString = ElementMementoCache.createKey((IMemento) delta.getElement());
+						ModelDelta stateDelta = fViewerStates.get(keyMementoString);
+						if (stateDelta != null) {
+							if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(fContentProvider.getPresentationContext()))  {
+								DebugUIPlugin.trace("STATE RESTORE INPUT COMARE ENDED : " + fRequest + " - MATCHING STATE FOUND"); //$NON-NLS-1$ //$NON-NLS-2$
+							}
 
-								// Process start of restore in an async cycle because we may still be inside inputChanged()
-								// call. I.e. the "input.equals(fContentProvider.getViewer().getInput())" test may fail.
-								fContentProvider.getViewer().getDisplay().asyncExec(() -> {
-									if (!fContentProvider.isDisposed()
-											&& input.equals(fContentProvider.getViewer().getInput())) {
-										ModelDelta stateDelta2 = fViewerStates.remove(keyMementoString);
-										if (stateDelta2 != null) {
-											if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE
-													&& DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(
-															fContentProvider.getPresentationContext())) {
-												DebugUIPlugin.trace("STATE RESTORE BEGINS"); //$NON-NLS-1$
-												DebugUIPlugin.trace("\tRESTORE: " + stateDelta2); //$NON-NLS-1$
-												notifyStateUpdate(input, STATE_RESTORE_SEQUENCE_BEGINS, null);
-											}
-											stateDelta2.setElement(input);
-											fPendingState = stateDelta2;
-											doInitialRestore(fPendingState);
-										}
-									} else {
+							// Process start of restore in an async cycle because we may still be inside inputChanged()
+							// call. I.e. the "input.equals(fContentProvider.getViewer().getInput())" test may fail.
+							fContentProvider.getViewer().getDisplay().asyncExec(() -> {
+								if (!fContentProvider.isDisposed()
+										&& input.equals(fContentProvider.getViewer().getInput())) {
+									ModelDelta stateDelta2 = fViewerStates.remove(keyMementoString);
+									if (stateDelta2 != null) {
 										if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE
 												&& DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(
 														fContentProvider.getPresentationContext())) {
-											DebugUIPlugin.trace("STATE RESTORE CANCELED."); //$NON-NLS-1$
+											DebugUIPlugin.trace("STATE RESTORE BEGINS"); //$NON-NLS-1$
+											DebugUIPlugin.trace("\tRESTORE: " + stateDelta2); //$NON-NLS-1$
+											notifyStateUpdate(input, STATE_RESTORE_SEQUENCE_BEGINS, null);
 										}
+										stateDelta2.setElement(input);
+										fPendingState = stateDelta2;
+										doInitialRestore(fPendingState);
+									}
+								} else {
+									if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE
+											&& DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(
+													fContentProvider.getPresentationContext())) {
+										DebugUIPlugin.trace("STATE RESTORE CANCELED."); //$NON-NLS-1$
 									}
-								});
-							} else {
-								if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(fContentProvider.getPresentationContext()))  {
-									DebugUIPlugin.trace("STATE RESTORE INPUT COMARE ENDED : " + fRequest + " - NO MATCHING STATE"); //$NON-NLS-1$ //$NON-NLS-2$
 								}
+							});
+						} else {
+							if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(fContentProvider.getPresentationContext()))  {
+								DebugUIPlugin.trace("STATE RESTORE INPUT COMARE ENDED : " + fRequest + " - NO MATCHING STATE"); //$NON-NLS-1$ //$NON-NLS-2$
 							}
-						} catch (IOException e) {
-							DebugUIPlugin.log(e);
 						}
 					} else {
 						notifyStateUpdate(input, STATE_RESTORE_SEQUENCE_BEGINS, null);
@@ -673,20 +720,16 @@ class ViewerStateTracker {
 				}
 
 				if (!request.isCanceled() && (request.getStatus() == null || request.getStatus().isOK())) {
+					if (request.getMemento() != inputMemento && isMementoStable(input, request.getElement())) {
+						fMementoCache.put(input, request.getElementPath(), request.getElement(), request.getMemento());
+					}
 					boolean requestsComplted = false;
 					if (!fCanceled) {
 						fRequests.remove(request);
 						requestsComplted = fRequests.isEmpty();
 					}
 					if (requestsComplted) {
-						XMLMemento keyMemento = (XMLMemento) rootDelta.getElement();
-						StringWriter writer = new StringWriter();
-						try {
-							keyMemento.save(writer);
-							fViewerStates.put(writer.toString(), rootDelta);
-						} catch (IOException e) {
-							DebugUIPlugin.log(e);
-						}
+						fViewerStates.put(ElementMementoCache.createKey((IMemento) rootDelta.getElement()), rootDelta);
 						if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(fContentProvider.getPresentationContext())) {
 							DebugUIPlugin.trace("STATE SAVE COMPLETED: " + rootDelta); //$NON-NLS-1$
 						}
@@ -764,7 +807,14 @@ class ViewerStateTracker {
 						fContentProvider.getViewerTreePath(delta), inputMemento, (ModelDelta) delta));
 			} else {
 				// If this is another node element, save the memento to a children memento.
-				if (!(delta.getElement() instanceof XMLMemento)) {
+				// Reuse the memento if the element was encoded before.
+				IMemento cachedMemento = null;
+				if (!(delta.getElement() instanceof IMemento)) {
+					cachedMemento = fMementoCache.getMemento(delta.getElement());
+				}
+				if (cachedMemento != null) {
+					((ModelDelta) delta).setElement(cachedMemento);
+				} else if (!(delta.getElement() instanceof XMLMemento)) {
 					manager.addRequest(new ElementMementoRequest(fContentProvider, input, manager, delta.getElement(),
 							fContentProvider.getViewerTreePath(delta), childrenMemento.createChild("CHILD_ELEMENT"), //$NON-NLS-1$
 							(ModelDelta) delta));
@@ -773,6 +823,9 @@ class ViewerStateTracker {
 			return true;
 		};
 		rootDelta.accept(visitor);
+		if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(fContentProvider.getPresentationContext())) {
+			DebugUIPlugin.trace("\tINCREMENTAL SAVE: memento cache hits = " + fMementoCache.getHitCount() + ", misses = " + fMementoCache.getMissCount()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
 		stateSaveStarted(input, manager);
 		manager.processReqeusts();
 	}
@@ -945,13 +998,27 @@ class ViewerStateTracker {
 			return;
 		}
 
+		final String potentialMatchKey = path.getSegmentCount() > 0
+				? fMementoCache.getElementKey(path.getLastSegment()) : null;
 		IModelDeltaVisitor visitor = (delta, depth) -> {
 
 			Object element = delta.getElement();
 			Object potentialMatch = depth != 0 ? path.getSegment(depth - 1) : fContentProvider.getViewer().getInput();
 			// Only process if the depth in the delta matches the tree path.
 			if (depth == path.getSegmentCount()) {
-				if (element instanceof IMemento) {
+				if (element instanceof IMemento && potentialMatchKey != null) {
+					// The memento of the element is known, compare the memento keys
+					// instead of requesting a comparison.
+					if (fMementoCache.isEqual(potentialMatchKey, (IMemento) element)) {
+						if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE && DebugUIPlugin
+								.DEBUG_TEST_PRESENTATION_ID(fContentProvider.getPresentationContext())) {
+							DebugUIPlugin.trace("\tSTATE MATCHED FROM CACHE: " + potentialMatch); //$NON-NLS-1$
+						}
+						((ModelDelta) delta).setElement(potentialMatch);
+						restorePendingStateNode((ModelDelta) delta, knowsHasChildren, knowsChildCount,
+								checkChildrenRealized);
+					}
+				} else if (element instanceof IMemento) {
 					IElementMementoProvider provider = ViewerAdapterService.getMementoProvider(potentialMatch);
 					if (provider == null) {
 						provider = ViewerAdapterService.getMementoProvider(fContentProvider.getViewer().getInput());
@@ -1412,6 +1479,9 @@ class ViewerStateTracker {
 		fCompareRequestsInProgress.remove(new CompareRequestKey(request.getElementPath(), delta));
 		if (!request.isCanceled()) {
 			if (request.isEqual()) {
+				if (isMementoStable(request.getViewerInput(), request.getElement())) {
+					fMementoCache.put(request.getViewerInput(), request.getElementPath(), request.getElement(), request.getMemento());
+				}
 				delta.setElement(request.getElement());
 				restorePendingStateNode(delta, request.knowsHasChildren(), request.knowChildCount(), request.checkChildrenRealized());
 			} else if (request.getModelIndex() != -1) {
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.viewers.model.provisional;
+
+import org.eclipse.jface.viewers.TreePath;
+
+/**
+ * Extension to allow a label provider to have the labels of its elements
+ * cached by a TreeModelViewer.
+ * <p>
+ * A viewer reuses the label attributes of an element as long as the stamp
+ * returned for the element is equal to the stamp returned when the label
+ * attributes were retrieved, the element has not been changed by a
+ * {@link IModelDelta#STATE} or {@link IModelDelta#CONTENT} delta, the
+ * element has not been refreshed explicitly and no property of the
+ * presentation context has changed.
+ * </p>
+ * <p>
+ * Note: this method is called in the Display thread of the viewer for every
+ * label requested and must return quickly.
+ * </p>
+ *
+ * @since 3.17
+ *
+ * @see TreeModelViewer
+ */
+public interface IElementLabelProvider2 extends IElementLabelProvider {
+
+	/**
+	 * Returns a stamp identifying the current state of the inputs of the
+	 * label of the given element, such as a modification count of the model,
+	 * or <code>null</code> if the label of the element is not to be cached.
+	 * The stamp must change before a model delta is fired for a changed
+	 * label.
+	 *
+	 * @param elementPath path of the element
+	 * @param context presentation context the label is presented in
+	 * @return label stamp, compared using <code>equals()</code>, or
+	 *         <code>null</code>
+	 */
+	Object getLabelStamp(TreePath elementPath, IPresentationContext context);
+
+}
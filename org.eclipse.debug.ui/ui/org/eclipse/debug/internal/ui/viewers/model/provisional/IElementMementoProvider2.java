@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.viewers.model.provisional;
+
+/**
+ * Extension to allow a memento provider to have the mementos of its elements
+ * cached by a TreeModelViewer, so that the viewer state is saved and restored
+ * incrementally.
+ * <p>
+ * For an element with a stable memento, the viewer reuses the memento it
+ * encoded for the element in a previous state save, and compares the element
+ * with a saved memento by comparing the encoded memento with the saved
+ * memento, rather than by requesting a comparison from this provider. Cached
+ * mementos are discarded when the element is replaced or removed, when the
+ * content of one of its parents changes, and when the viewer input changes to
+ * an unrelated input.
+ * </p>
+ * <p>
+ * Note: this method is called in the Display thread of the viewer and must
+ * return quickly.
+ * </p>
+ *
+ * @since 3.17
+ *
+ * @see TreeModelViewer
+ */
+public interface IElementMementoProvider2 extends IElementMementoProvider {
+
+	/**
+	 * Returns whether this provider encodes the same memento for the given
+	 * element for as long as the element exists, and considers the element
+	 * equal to exactly those mementos which are equal to that memento.
+	 *
+	 * @param element model element
+	 * @param context presentation context the element is presented in
+	 * @return whether the memento of the element may be cached
+	 */
+	boolean isMementoStable(Object element, IPresentationContext context);
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -68,6 +68,7 @@ import org.eclipse.debug.internal.ui.model.elements.RegisterGroupContentProvider
 import org.eclipse.debug.internal.ui.model.elements.RegisterGroupLabelProvider;
 import org.eclipse.debug.internal.ui.model.elements.RegisterGroupMementoProvider;
 import org.eclipse.debug.internal.ui.model.elements.StackFrameContentProvider;
+import org.eclipse.debug.internal.ui.model.elements.StackFrameLabelProvider;
 import org.eclipse.debug.internal.ui.model.elements.StackFrameMementoProvider;
 import org.eclipse.debug.internal.ui.model.elements.ThreadContentProvider;
 import org.eclipse.debug.internal.ui.model.elements.VariableContentProvider;
@@ -104,6 +105,7 @@ public class DebugElementAdapterFactory implements IAdapterFactory {
 	private static IAsynchronousLabelAdapter fgTableRenderingLineLabelAdapter = new MemorySegmentLabelAdapter();
 
 	private static IElementLabelProvider fgLPDebugElement = new DebugElementLabelProvider();
+	private static IElementLabelProvider fgLPStackFrame = new StackFrameLabelProvider();
 	private static IElementLabelProvider fgLPVariable = new VariableLabelProvider();
 	private static IElementLabelProvider fgLPExpression = new ExpressionLabelProvider();
 	private static IElementLabelProvider fgLPRegisterGroup = new RegisterGroupLabelProvider();
@@ -238,6 +240,9 @@ public class DebugElementAdapterFactory implements IAdapterFactory {
 			if (adaptableObject instanceof IBreakpointContainer) {
 				return (T) fgLPBreakpointContainer;
 			}
+			if (adaptableObject instanceof IStackFrame) {
+				return (T) fgLPStackFrame;
+			}
 			return (T) fgLPDebugElement;
 		}
 
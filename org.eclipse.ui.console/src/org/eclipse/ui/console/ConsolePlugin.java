@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -24,6 +24,7 @@ import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.internal.console.ConsoleManager;
+import org.eclipse.ui.internal.console.ConsolePatternMatcher;
 import org.eclipse.ui.internal.console.ConsolePluginImages;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
@@ -190,6 +191,7 @@ public class ConsolePlugin extends AbstractUIPlugin {
 				fConsoleManager.removeConsoles(consoles);
 			}
 		}
+		ConsolePatternMatcher.shutdown();
 		super.stop(context);
 	}
 }
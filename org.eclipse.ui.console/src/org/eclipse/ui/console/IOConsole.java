@@ -401,6 +401,68 @@ public class IOConsole extends TextConsole {
 		partitioner.setCarriageReturnAsControlCharacter(carriageReturnAsControlCharacter);
 	}
 
+	/**
+	 * Check if output is appended to the console in adaptive batches.
+	 *
+	 * @return <code>true</code> if adaptive output batching is enabled
+	 * @see #setAdaptiveOutputBatching(boolean)
+	 * @since 3.12
+	 */
+	public boolean isAdaptiveOutputBatching() {
+		return partitioner.isAdaptiveBatching();
+	}
+
+	/**
+	 * Enable or disable adaptive batching of console output.
+	 * <p>
+	 * If enabled, consecutive writes to the same output stream are merged, the
+	 * console document is updated at most about once per frame and the amount of
+	 * output appended in one update is adjusted so that an update does not block
+	 * the UI thread much longer than one frame. This reduces document changes and
+	 * repaints for output consisting of many small writes at the cost of a short
+	 * delay until output is shown. Disabled by default.
+	 * </p>
+	 *
+	 * @param adaptive <code>true</code> to enable adaptive output batching
+	 * @since 3.12
+	 */
+	public void setAdaptiveOutputBatching(boolean adaptive) {
+		partitioner.setAdaptiveBatching(adaptive);
+	}
+
+	/**
+	 * Returns the number of characters written to this console's output streams
+	 * which are not yet appended to the console document.
+	 *
+	 * @return the number of pending output characters
+	 * @since 3.12
+	 */
+	public long getPendingOutputLength() {
+		return partitioner.getPendingLength();
+	}
+
+	/**
+	 * Returns the number of console document updates with output which blocked
+	 * the UI thread longer than one frame (16 milliseconds).
+	 *
+	 * @return the number of dropped frames
+	 * @since 3.12
+	 */
+	public long getDroppedOutputFrameCount() {
+		return partitioner.getDroppedFrameCount();
+	}
+
+	/**
+	 * Returns the longest time a single update of the console document with
+	 * output took.
+	 *
+	 * @return the maximum update time in nanoseconds
+	 * @since 3.12
+	 */
+	public long getMaxOutputUpdateTime() {
+		return partitioner.getMaxUpdateTime();
+	}
+
 	/**
 	 * Registers a stream that will be managed by this console.
 	 *
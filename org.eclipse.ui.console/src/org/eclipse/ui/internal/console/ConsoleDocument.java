@@ -21,9 +21,25 @@ import org.eclipse.jface.text.Position;
 
 /**
  * A console document. Requires synchronization for multi-threaded access.
+ * <p>
+ * The content is kept in a {@link ConsoleTextStore} so that appending output
+ * and trimming the start of large consoles do not copy the whole content.
+ * </p>
  */
 public class ConsoleDocument extends Document {
 
+	/**
+	 * Creates an empty console document.
+	 */
+	public ConsoleDocument() {
+		setTextStore(new ConsoleTextStore());
+	}
+
+	@Override
+	public synchronized String get() {
+		return super.get();
+	}
+
 	@Override
 	public synchronized String get(int pos, int length) throws BadLocationException {
 		return super.get(pos, length);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,7 +15,17 @@
 package org.eclipse.ui.internal.console;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -27,13 +37,46 @@ import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.MultiStringMatcher;
+import org.eclipse.jface.text.MultiStringMatcher.Match;
 import org.eclipse.ui.console.ConsolePlugin;
 import org.eclipse.ui.console.IPatternMatchListener;
 import org.eclipse.ui.console.PatternMatchEvent;
 import org.eclipse.ui.console.TextConsole;
 
+/**
+ * Matches the patterns of a console's {@link IPatternMatchListener}s against
+ * the console document.
+ * <p>
+ * Only content appended since the last run is searched. The content is read
+ * from the document once per run and shared by all listeners. Line qualifiers
+ * which are plain literals are combined into a single prefilter that finds the
+ * candidate positions of all such listeners in one pass. If there is enough
+ * content to search, the listeners are matched in parallel. Match events are
+ * always delivered from the match job, listener after listener in registration
+ * order and in document order for each listener.
+ * </p>
+ */
 public class ConsolePatternMatcher implements IDocumentListener {
 
+	/**
+	 * Minimum number of characters to search (summed over all listeners) before
+	 * listeners are matched in parallel.
+	 */
+	private static final int PARALLEL_THRESHOLD = 64 * 1024;
+
+	/**
+	 * Pool used to match listeners in parallel. Shared by all consoles,
+	 * created on first use and shut down when the console plug-in stops.
+	 */
+	private static ForkJoinPool fgMatchPool;
+
+	/**
+	 * Whether the console plug-in has stopped, after which listeners are only
+	 * matched sequentially.
+	 */
+	private static boolean fgShutdown;
+
 	private MatchJob fMatchJob;
 
 	/**
@@ -41,6 +84,12 @@ public class ConsolePatternMatcher implements IDocumentListener {
 	 */
 	private ArrayList<CompiledPatternMatchListener> fPatterns = new ArrayList<>();
 
+	/**
+	 * Snapshot of {@link #fPatterns} with the prefilter for their line
+	 * qualifiers. Replaced whenever a listener is added or removed.
+	 */
+	private volatile PatternSet fPatternSet = new PatternSet(new CompiledPatternMatchListener[0]);
+
 	private TextConsole fConsole;
 
 	private boolean fFinalMatch;
@@ -62,101 +111,33 @@ public class ConsolePatternMatcher implements IDocumentListener {
 		@Override
 		protected IStatus run(IProgressMonitor monitor) {
 			IDocument doc = fConsole.getDocument();
-			String text = null;
-			int prevBaseOffset = -1;
 			if (doc != null && !monitor.isCanceled()) {
 				int endOfSearch = doc.getLength();
 				int indexOfLastChar = endOfSearch;
 				if (indexOfLastChar > 0) {
 					indexOfLastChar--;
 				}
-				int lastLineToSearch = 0;
 				int offsetOfLastLineToSearch = 0;
 				try {
-					lastLineToSearch = doc.getLineOfOffset(indexOfLastChar);
+					int lastLineToSearch = doc.getLineOfOffset(indexOfLastChar);
 					offsetOfLastLineToSearch = doc.getLineOffset(lastLineToSearch);
 				} catch (BadLocationException e) {
 					// perhaps the buffer was re-set
 					return Status.OK_STATUS;
 				}
-				Object[] patterns = null;
-				synchronized (fPatterns) {
-					patterns = fPatterns.toArray();
+				PatternSet patternSet = fPatternSet;
+				int startOfSearch = endOfSearch;
+				for (CompiledPatternMatchListener notifier : patternSet.patterns) {
+					startOfSearch = Math.min(startOfSearch, notifier.end);
 				}
-				for (Object pattern : patterns) {
-					if (monitor.isCanceled()) {
-						break;
-					}
-					CompiledPatternMatchListener notifier = (CompiledPatternMatchListener) pattern;
-					int baseOffset = notifier.end;
-					int lengthToSearch = endOfSearch - baseOffset;
-					if (lengthToSearch > 0) {
-						try {
-							if (prevBaseOffset != baseOffset) {
-								// reuse the text string if possible
-								text = doc.get(baseOffset, lengthToSearch);
-							}
-							if(text == null) {
-								continue;
-							}
-							Matcher reg = notifier.pattern.matcher(text);
-							Matcher quick = null;
-							if (notifier.qualifier != null) {
-								quick = notifier.qualifier.matcher(text);
-							}
-							int startOfNextSearch = 0;
-							int endOfLastMatch = -1;
-							int lineOfLastMatch = -1;
-							while ((startOfNextSearch < lengthToSearch) && !monitor.isCanceled()) {
-								if (quick != null) {
-									if (quick.find(startOfNextSearch)) {
-										// start searching on the beginning
-										// of the line where the potential
-										// match was found, or after the
-										// last match on the same line
-										int matchLine = doc.getLineOfOffset(baseOffset + quick.start());
-										if (lineOfLastMatch == matchLine) {
-											startOfNextSearch = endOfLastMatch;
-										} else {
-											startOfNextSearch = doc.getLineOffset(matchLine) - baseOffset;
-										}
-									} else {
-										startOfNextSearch = lengthToSearch;
-									}
-								}
-								if (startOfNextSearch < 0) {
-									startOfNextSearch = 0;
-								}
-								if (startOfNextSearch < lengthToSearch) {
-									if (reg.find(startOfNextSearch)) {
-										endOfLastMatch = reg.end();
-										lineOfLastMatch = doc.getLineOfOffset(baseOffset + endOfLastMatch - 1);
-										int regStart = reg.start();
-										IPatternMatchListener listener = notifier.listener;
-										if (listener != null && !monitor.isCanceled()) {
-											listener.matchFound(new PatternMatchEvent(fConsole, baseOffset + regStart, endOfLastMatch - regStart));
-										}
-										startOfNextSearch = endOfLastMatch;
-									} else {
-										startOfNextSearch = lengthToSearch;
-									}
-								}
-							}
-							// update start of next search to the last line
-							// searched
-							// or the end of the last match if it was on the
-							// line that
-							// was last searched
-							if (lastLineToSearch == lineOfLastMatch) {
-								notifier.end = baseOffset + endOfLastMatch;
-							} else {
-								notifier.end = offsetOfLastLineToSearch;
-							}
-						} catch (BadLocationException e) {
-							ConsolePlugin.log(e);
-						}
+				if (startOfSearch < endOfSearch) {
+					try {
+						SearchText text = new SearchText(doc.get(startOfSearch, endOfSearch - startOfSearch), startOfSearch,
+								offsetOfLastLineToSearch);
+						match(patternSet, text, monitor);
+					} catch (BadLocationException e) {
+						ConsolePlugin.log(e);
 					}
-					prevBaseOffset = baseOffset;
 				}
 			}
 
@@ -171,6 +152,99 @@ public class ConsolePatternMatcher implements IDocumentListener {
 			return Status.OK_STATUS;
 		}
 
+		/**
+		 * Searches the given text for the patterns of all listeners which did not
+		 * search it yet and notifies the listeners.
+		 *
+		 * @param patternSet the listeners to match
+		 * @param text       the text appended since the first listener's last
+		 *                   search
+		 * @param monitor    the progress monitor
+		 */
+		private void match(PatternSet patternSet, SearchText text, IProgressMonitor monitor) {
+			CompiledPatternMatchListener[] patterns = patternSet.patterns;
+			int[][] candidates = patternSet.prefilter.findCandidates(text.text, patterns.length);
+			long totalLength = 0;
+			int searching = 0;
+			for (CompiledPatternMatchListener notifier : patterns) {
+				int length = text.getEnd() - notifier.end;
+				if (length > 0) {
+					totalLength += length;
+					searching++;
+				}
+			}
+			ForkJoinPool pool = searching > 1 && totalLength >= PARALLEL_THRESHOLD ? getMatchPool() : null;
+			@SuppressWarnings("unchecked")
+			Future<MatchResult>[] futures = new Future[patterns.length];
+			if (pool != null) {
+				try {
+					for (int i = 0; i < patterns.length; i++) {
+						CompiledPatternMatchListener notifier = patterns[i];
+						int baseOffset = notifier.end;
+						if (text.getEnd() > baseOffset) {
+							int[] listenerCandidates = candidates[i];
+							futures[i] = pool.submit(() -> findMatches(notifier, baseOffset, text, listenerCandidates, monitor));
+						}
+					}
+				} catch (RejectedExecutionException e) {
+					// pool shut down, remaining listeners are matched below
+				}
+			}
+			for (int i = 0; i < patterns.length; i++) {
+				CompiledPatternMatchListener notifier = patterns[i];
+				if (monitor.isCanceled()) {
+					cancel(futures);
+					return;
+				}
+				MatchResult result = null;
+				try {
+					if (futures[i] != null) {
+						result = futures[i].get();
+					} else if (text.getEnd() > notifier.end) {
+						result = findMatches(notifier, notifier.end, text, candidates[i], monitor);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					cancel(futures);
+					return;
+				} catch (ExecutionException | RuntimeException e) {
+					ConsolePlugin.log(e instanceof ExecutionException ? e.getCause() : e);
+					notifier.end = text.getOffsetOfLastLine();
+					continue;
+				}
+				if (result != null) {
+					notify(notifier, result, monitor);
+				}
+			}
+		}
+
+		/**
+		 * Delivers match events for one listener and remembers where its next
+		 * search has to start.
+		 */
+		private void notify(CompiledPatternMatchListener notifier, MatchResult result, IProgressMonitor monitor) {
+			int[] matches = result.matches;
+			for (int m = 0; m < result.count && !monitor.isCanceled(); m += 2) {
+				IPatternMatchListener listener = notifier.listener;
+				if (listener == null) {
+					// listener was removed meanwhile
+					return;
+				}
+				long start = System.nanoTime();
+				listener.matchFound(new PatternMatchEvent(fConsole, matches[m], matches[m + 1]));
+				notifier.notifyTime.addAndGet(System.nanoTime() - start);
+			}
+			notifier.end = result.end;
+		}
+
+		private void cancel(Future<?>[] futures) {
+			for (Future<?> future : futures) {
+				if (future != null) {
+					future.cancel(false);
+				}
+			}
+		}
+
 		@Override
 		public boolean belongsTo(Object family) {
 			return family == fConsole;
@@ -179,6 +253,127 @@ public class ConsolePatternMatcher implements IDocumentListener {
 
 	}
 
+	/**
+	 * Returns the pool used to match listeners in parallel, creating it if
+	 * necessary.
+	 *
+	 * @return the match pool or <code>null</code> if the console plug-in has
+	 *         stopped
+	 */
+	private static synchronized ForkJoinPool getMatchPool() {
+		if (fgMatchPool == null && !fgShutdown) {
+			fgMatchPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), pool -> {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+				thread.setName("Console Pattern Matcher #" + thread.getPoolIndex()); //$NON-NLS-1$
+				return thread;
+			}, null, false);
+		}
+		return fgMatchPool;
+	}
+
+	/**
+	 * Shuts down the pool used to match listeners in parallel. Called when the
+	 * console plug-in stops.
+	 */
+	public static synchronized void shutdown() {
+		fgShutdown = true;
+		if (fgMatchPool != null) {
+			fgMatchPool.shutdownNow();
+			fgMatchPool = null;
+		}
+	}
+
+	/**
+	 * Searches the pattern of one listener in the given text. Does not access
+	 * the document and can therefore run on any thread.
+	 *
+	 * @param notifier   the listener to search for
+	 * @param baseOffset document offset where this listener's search starts
+	 * @param text       the text to search
+	 * @param candidates positions (relative to the text start) where the
+	 *                   listener's line qualifier was found by the prefilter or
+	 *                   <code>null</code> if the qualifier was not prefiltered
+	 * @param monitor    the progress monitor
+	 * @return the matches and the offset where the next search has to start
+	 */
+	private static MatchResult findMatches(CompiledPatternMatchListener notifier, int baseOffset, SearchText text,
+			int[] candidates, IProgressMonitor monitor) {
+		long startTime = System.nanoTime();
+		Pattern pattern = notifier.pattern;
+		Pattern qualifier = notifier.qualifier;
+		MatchResult result = new MatchResult();
+		if (pattern == null) {
+			// listener was disposed meanwhile
+			result.end = baseOffset;
+			return result;
+		}
+		int shift = baseOffset - text.offset;
+		String toSearch = shift == 0 ? text.text : text.text.substring(shift);
+		int lengthToSearch = toSearch.length();
+		Matcher reg = pattern.matcher(toSearch);
+		Matcher quick = null;
+		if (qualifier != null && candidates == null) {
+			quick = qualifier.matcher(toSearch);
+		}
+		int candidateIndex = 0;
+		int startOfNextSearch = 0;
+		int endOfLastMatch = -1;
+		int lineOfLastMatch = -1;
+		while ((startOfNextSearch < lengthToSearch) && !monitor.isCanceled()) {
+			if (qualifier != null) {
+				int potentialMatch = -1;
+				if (candidates != null) {
+					while (candidateIndex < candidates.length && candidates[candidateIndex] - shift < startOfNextSearch) {
+						candidateIndex++;
+					}
+					if (candidateIndex < candidates.length) {
+						potentialMatch = candidates[candidateIndex] - shift;
+					}
+				} else if (quick.find(startOfNextSearch)) {
+					potentialMatch = quick.start();
+				}
+				if (potentialMatch >= 0) {
+					// start searching on the beginning of the line where the
+					// potential match was found, or after the last match on
+					// the same line
+					int matchLine = text.getLineOf(shift + potentialMatch);
+					if (lineOfLastMatch == matchLine) {
+						startOfNextSearch = endOfLastMatch;
+					} else {
+						startOfNextSearch = text.getLineStart(matchLine) - shift;
+					}
+				} else {
+					startOfNextSearch = lengthToSearch;
+				}
+			}
+			if (startOfNextSearch < 0) {
+				startOfNextSearch = 0;
+			}
+			if (startOfNextSearch < lengthToSearch) {
+				if (reg.find(startOfNextSearch)) {
+					endOfLastMatch = reg.end();
+					lineOfLastMatch = text.getLineOf(shift + endOfLastMatch - 1);
+					int regStart = reg.start();
+					result.add(baseOffset + regStart, endOfLastMatch - regStart);
+					startOfNextSearch = endOfLastMatch;
+				} else {
+					startOfNextSearch = lengthToSearch;
+				}
+			}
+		}
+		// update start of next search to the last line searched or the end of
+		// the last match if it was on the line that was last searched
+		if (text.getLineOf(text.text.length() - 1) == lineOfLastMatch) {
+			result.end = baseOffset + endOfLastMatch;
+		} else {
+			result.end = text.getOffsetOfLastLine();
+		}
+		notifier.searchTime.addAndGet(System.nanoTime() - startTime);
+		notifier.searchedLength.addAndGet(lengthToSearch);
+		notifier.matchCount.addAndGet(result.count / 2);
+		return result;
+	}
+
 	private static class CompiledPatternMatchListener {
 		Pattern pattern;
 
@@ -186,7 +381,15 @@ public class ConsolePatternMatcher implements IDocumentListener {
 
 		IPatternMatchListener listener;
 
-		int end = 0;
+		volatile int end = 0;
+
+		final AtomicLong searchTime = new AtomicLong();
+
+		final AtomicLong notifyTime = new AtomicLong();
+
+		final AtomicLong searchedLength = new AtomicLong();
+
+		final AtomicLong matchCount = new AtomicLong();
 
 		CompiledPatternMatchListener(Pattern pattern, Pattern qualifier, IPatternMatchListener matchListener) {
 			this.pattern = pattern;
@@ -202,6 +405,320 @@ public class ConsolePatternMatcher implements IDocumentListener {
 		}
 	}
 
+	/**
+	 * Matches found for one listener.
+	 */
+	private static class MatchResult {
+		/** Pairs of match offset and length. */
+		int[] matches = new int[8];
+
+		int count;
+
+		/** Offset where the next search of the listener has to start. */
+		int end;
+
+		void add(int offset, int length) {
+			if (count + 2 > matches.length) {
+				matches = Arrays.copyOf(matches, matches.length * 2);
+			}
+			matches[count++] = offset;
+			matches[count++] = length;
+		}
+	}
+
+	/**
+	 * Text to search with a line index computed from the text itself, so
+	 * listeners can be matched without accessing the document.
+	 */
+	private static class SearchText {
+		final String text;
+
+		/** Document offset of the text. */
+		final int offset;
+
+		/** Document offset of the last line of the document. */
+		final int offsetOfLastLine;
+
+		/**
+		 * Start of all lines in the text. The first line is considered to start
+		 * at the text start.
+		 */
+		final int[] lineStarts;
+
+		SearchText(String text, int offset, int offsetOfLastLine) {
+			this.text = text;
+			this.offset = offset;
+			this.offsetOfLastLine = offsetOfLastLine;
+			int[] starts = new int[16];
+			int lines = 1;
+			for (int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+				if (c == '\n' || (c == '\r' && (i + 1 >= text.length() || text.charAt(i + 1) != '\n'))) {
+					if (lines == starts.length) {
+						starts = Arrays.copyOf(starts, lines * 2);
+					}
+					starts[lines++] = i + 1;
+				}
+			}
+			lineStarts = Arrays.copyOf(starts, lines);
+		}
+
+		int getEnd() {
+			return offset + text.length();
+		}
+
+		int getOffsetOfLastLine() {
+			return offsetOfLastLine;
+		}
+
+		/**
+		 * @param position position relative to the text start
+		 * @return index of the line containing the position
+		 */
+		int getLineOf(int position) {
+			int index = Arrays.binarySearch(lineStarts, position);
+			return index >= 0 ? index : -index - 2;
+		}
+
+		/**
+		 * @param line line index
+		 * @return start of the line relative to the text start
+		 */
+		int getLineStart(int line) {
+			return lineStarts[line];
+		}
+	}
+
+	/**
+	 * Immutable set of listeners with their prefilter.
+	 */
+	private static class PatternSet {
+		final CompiledPatternMatchListener[] patterns;
+
+		final Prefilter prefilter;
+
+		PatternSet(CompiledPatternMatchListener[] patterns) {
+			this.patterns = patterns;
+			this.prefilter = new Prefilter(patterns);
+		}
+	}
+
+	/**
+	 * Finds the line qualifiers of all listeners whose qualifier is a plain
+	 * literal in a single pass over the text.
+	 */
+	private static class Prefilter {
+		/** Matcher for all literal qualifiers or <code>null</code> if there are none. */
+		private final MultiStringMatcher matcher;
+
+		/**
+		 * For every literal the indexes of the listeners whose literal is a prefix
+		 * of it. If a literal is found at some position, all of these listeners'
+		 * qualifiers are found at the same position.
+		 */
+		private final Map<String, int[]> listenersByLiteral = new HashMap<>();
+
+		/** Whether a listener's qualifier is handled by this prefilter. */
+		private final boolean[] prefiltered;
+
+		Prefilter(CompiledPatternMatchListener[] patterns) {
+			prefiltered = new boolean[patterns.length];
+			String[] literals = new String[patterns.length];
+			for (int i = 0; i < patterns.length; i++) {
+				Pattern qualifier = patterns[i].qualifier;
+				literals[i] = qualifier != null ? getLiteral(qualifier) : null;
+				prefiltered[i] = literals[i] != null;
+			}
+			for (int i = 0; i < literals.length; i++) {
+				if (literals[i] != null && !listenersByLiteral.containsKey(literals[i])) {
+					List<Integer> listeners = new ArrayList<>();
+					for (int j = 0; j < literals.length; j++) {
+						if (literals[j] != null && literals[i].startsWith(literals[j])) {
+							listeners.add(j);
+						}
+					}
+					listenersByLiteral.put(literals[i], listeners.stream().mapToInt(Integer::intValue).toArray());
+				}
+			}
+			matcher = listenersByLiteral.isEmpty() ? null
+					: MultiStringMatcher.create(listenersByLiteral.keySet().toArray(new String[0]));
+		}
+
+		/**
+		 * Finds the positions of all literal qualifiers in the given text.
+		 *
+		 * @param text  text to search
+		 * @param count number of listeners
+		 * @return for every listener the sorted positions where its qualifier
+		 *         was found or <code>null</code> if the listener's qualifier
+		 *         is not prefiltered
+		 */
+		int[][] findCandidates(String text, int count) {
+			int[][] candidates = new int[count][];
+			if (matcher == null) {
+				return candidates;
+			}
+			int[] sizes = new int[count];
+			for (int i = 0; i < count; i++) {
+				if (prefiltered[i]) {
+					candidates[i] = new int[8];
+				}
+			}
+			int position = 0;
+			Match match;
+			while ((match = matcher.indexOf(text, position)) != null) {
+				for (int listener : listenersByLiteral.get(match.getText())) {
+					if (sizes[listener] == candidates[listener].length) {
+						candidates[listener] = Arrays.copyOf(candidates[listener], sizes[listener] * 2);
+					}
+					candidates[listener][sizes[listener]++] = match.getOffset();
+				}
+				// continue directly after the match start to find overlapping literals
+				position = match.getOffset() + 1;
+			}
+			for (int i = 0; i < count; i++) {
+				if (candidates[i] != null) {
+					candidates[i] = Arrays.copyOf(candidates[i], sizes[i]);
+				}
+			}
+			return candidates;
+		}
+
+		/**
+		 * Returns the literal text the given pattern matches if the pattern
+		 * consists of nothing but literal characters.
+		 *
+		 * @param pattern the pattern
+		 * @return the literal text or <code>null</code> if the pattern is not a
+		 *         plain non-empty literal
+		 */
+		static String getLiteral(Pattern pattern) {
+			int flags = pattern.flags();
+			if ((flags & (Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+				return null;
+			}
+			String regex = pattern.pattern();
+			if ((flags & Pattern.LITERAL) != 0) {
+				return regex.isEmpty() ? null : regex;
+			}
+			StringBuilder literal = new StringBuilder(regex.length());
+			for (int i = 0; i < regex.length(); i++) {
+				char c = regex.charAt(i);
+				if (c == '\\') {
+					if (++i >= regex.length()) {
+						return null;
+					}
+					char escaped = regex.charAt(i);
+					if (escaped == 'Q') {
+						int end = regex.indexOf("\\E", i + 1); //$NON-NLS-1$
+						if (end < 0) {
+							end = regex.length();
+						}
+						literal.append(regex, i + 1, end);
+						i = end + 1;
+					} else if (Character.isLetterOrDigit(escaped)) {
+						// character class, back reference, boundary or special character
+						return null;
+					} else {
+						literal.append(escaped);
+					}
+				} else if ("[](){}.*+?^$|".indexOf(c) >= 0) { //$NON-NLS-1$
+					return null;
+				} else {
+					literal.append(c);
+				}
+			}
+			return literal.length() > 0 ? literal.toString() : null;
+		}
+	}
+
+	/**
+	 * Cost of matching a single pattern match listener.
+	 */
+	public static final class PatternStatistics {
+		private final IPatternMatchListener fListener;
+		private final String fPattern;
+		private final long fSearchTime;
+		private final long fNotifyTime;
+		private final long fSearchedLength;
+		private final long fMatchCount;
+
+		PatternStatistics(CompiledPatternMatchListener notifier) {
+			fListener = notifier.listener;
+			fPattern = notifier.pattern != null ? notifier.pattern.pattern() : null;
+			fSearchTime = notifier.searchTime.get();
+			fNotifyTime = notifier.notifyTime.get();
+			fSearchedLength = notifier.searchedLength.get();
+			fMatchCount = notifier.matchCount.get();
+		}
+
+		/**
+		 * @return the pattern match listener
+		 */
+		public IPatternMatchListener getListener() {
+			return fListener;
+		}
+
+		/**
+		 * @return the listener's pattern
+		 */
+		public String getPattern() {
+			return fPattern;
+		}
+
+		/**
+		 * @return total time in nanoseconds spent searching the pattern
+		 */
+		public long getSearchTime() {
+			return fSearchTime;
+		}
+
+		/**
+		 * @return total time in nanoseconds spent notifying the listener
+		 */
+		public long getNotifyTime() {
+			return fNotifyTime;
+		}
+
+		/**
+		 * @return total number of characters searched for the pattern
+		 */
+		public long getSearchedLength() {
+			return fSearchedLength;
+		}
+
+		/**
+		 * @return total number of matches found
+		 */
+		public long getMatchCount() {
+			return fMatchCount;
+		}
+
+		@Override
+		public String toString() {
+			return fPattern + ": searchNs=" + fSearchTime + ", notifyNs=" + fNotifyTime + ", searched=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ fSearchedLength + ", matches=" + fMatchCount; //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Returns the matching cost of every registered pattern match listener, in
+	 * registration order.
+	 *
+	 * @return statistics for all registered listeners
+	 */
+	public List<PatternStatistics> getStatistics() {
+		List<PatternStatistics> statistics = new ArrayList<>();
+		for (CompiledPatternMatchListener notifier : fPatternSet.patterns) {
+			statistics.add(new PatternStatistics(notifier));
+		}
+		return statistics;
+	}
+
+	private void updatePatternSet() {
+		fPatternSet = new PatternSet(fPatterns.toArray(new CompiledPatternMatchListener[fPatterns.size()]));
+	}
+
 	/**
 	 * Adds the given pattern match listener to this console. The listener will
 	 * be connected and receive match notifications.
@@ -229,6 +746,7 @@ public class ConsolePatternMatcher implements IDocumentListener {
 			}
 			CompiledPatternMatchListener notifier = new CompiledPatternMatchListener(pattern, qPattern, matchListener);
 			fPatterns.add(notifier);
+			updatePatternSet();
 			matchListener.connect(fConsole);
 			fMatchJob.schedule();
 		}
@@ -250,6 +768,7 @@ public class ConsolePatternMatcher implements IDocumentListener {
 					matchListener.disconnect();
 				}
 			}
+			updatePatternSet();
 		}
 	}
 
@@ -260,6 +779,7 @@ public class ConsolePatternMatcher implements IDocumentListener {
 				listener.dispose();
 			}
 			fPatterns.clear();
+			updatePatternSet();
 		}
 	}
 
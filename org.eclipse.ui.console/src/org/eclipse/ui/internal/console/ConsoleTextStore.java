@@ -0,0 +1,316 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.console;
+
+import java.util.Arrays;
+
+import org.eclipse.jface.text.ITextStore;
+
+/**
+ * Text store optimized for console content, which mostly grows at its end and
+ * is trimmed at its start.
+ * <p>
+ * Content is kept in a sequence of chunks of up to {@link #CHUNK_SIZE}
+ * characters. Every chunk remembers its absolute start position, i.e. its
+ * position as if the store had never been trimmed, so that
+ * </p>
+ * <ul>
+ * <li>appending only fills the last chunk or adds new chunks and never copies
+ * existing content,</li>
+ * <li>removing content from the start of the store only advances the trimmed
+ * position and drops chunks which became unreachable,</li>
+ * <li>the chunk containing an offset is found with a binary search.</li>
+ * </ul>
+ * <p>
+ * Other modifications (e.g. overwriting output or user input) rewrite only the
+ * affected chunks, but have to shift the start of all following chunks.
+ * Console modifications usually happen near the end of the content where this
+ * is cheap.
+ * </p>
+ * <p>
+ * All methods are synchronized.
+ * </p>
+ */
+public class ConsoleTextStore implements ITextStore {
+
+	/**
+	 * Maximum number of characters kept in a single chunk.
+	 */
+	public static final int CHUNK_SIZE = 8 * 1024;
+
+	/**
+	 * A chunk of content.
+	 */
+	private static final class Chunk {
+		final char[] fText;
+		int fLength;
+		/** Absolute position of the first character of this chunk. */
+		long fStart;
+
+		Chunk(char[] text, int length, long start) {
+			fText = text;
+			fLength = length;
+			fStart = start;
+		}
+
+		long getEnd() {
+			return fStart + fLength;
+		}
+	}
+
+	private static final Chunk[] NO_CHUNKS = new Chunk[0];
+
+	/** Chunks in <code>fChunks[fFirst]</code> to <code>fChunks[fFirst + fCount - 1]</code>. */
+	private Chunk[] fChunks = NO_CHUNKS;
+	private int fFirst;
+	private int fCount;
+	/** Absolute position of the first character of the content. */
+	private long fTrimmed;
+	/** Absolute position after the last character of the content. */
+	private long fEnd;
+
+	@Override
+	public synchronized char get(int offset) {
+		long position = toPosition(offset);
+		if (offset < 0 || position >= fEnd) {
+			throw new IndexOutOfBoundsException("Offset: " + offset + ", length: " + getLength()); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		Chunk chunk = fChunks[findChunk(position)];
+		return chunk.fText[(int) (position - chunk.fStart)];
+	}
+
+	@Override
+	public synchronized String get(int offset, int length) {
+		checkRange(offset, length);
+		if (length == 0) {
+			return ""; //$NON-NLS-1$
+		}
+		long position = toPosition(offset);
+		int index = findChunk(position);
+		Chunk chunk = fChunks[index];
+		int start = (int) (position - chunk.fStart);
+		if (start + length <= chunk.fLength) {
+			return new String(chunk.fText, start, length);
+		}
+		char[] result = new char[length];
+		int copied = 0;
+		while (copied < length) {
+			chunk = fChunks[index++];
+			int count = Math.min(length - copied, chunk.fLength - start);
+			System.arraycopy(chunk.fText, start, result, copied, count);
+			copied += count;
+			start = 0;
+		}
+		return new String(result);
+	}
+
+	@Override
+	public synchronized int getLength() {
+		return (int) (fEnd - fTrimmed);
+	}
+
+	@Override
+	public synchronized void replace(int offset, int length, String text) {
+		checkRange(offset, length);
+		if (text == null) {
+			text = ""; //$NON-NLS-1$
+		}
+		int contentLength = getLength();
+		if (offset == 0 && length == contentLength) {
+			set(text);
+		} else if (offset == contentLength) {
+			append(text);
+		} else if (offset == 0 && text.isEmpty()) {
+			trim(length);
+		} else if (length > 0 || !text.isEmpty()) {
+			rewrite(toPosition(offset), length, text);
+		}
+	}
+
+	@Override
+	public synchronized void set(String text) {
+		fChunks = NO_CHUNKS;
+		fFirst = 0;
+		fCount = 0;
+		fTrimmed = 0;
+		fEnd = 0;
+		if (text != null) {
+			append(text);
+		}
+	}
+
+	/**
+	 * Appends text to the end of the content.
+	 *
+	 * @param text text to append
+	 */
+	private void append(String text) {
+		int textOffset = 0;
+		int textLength = text.length();
+		while (textOffset < textLength) {
+			Chunk last = fCount > 0 ? fChunks[fFirst + fCount - 1] : null;
+			if (last == null || last.fLength == last.fText.length) {
+				last = new Chunk(new char[CHUNK_SIZE], 0, fEnd);
+				insertChunks(fFirst + fCount, 0, new Chunk[] { last });
+			}
+			int count = Math.min(textLength - textOffset, last.fText.length - last.fLength);
+			text.getChars(textOffset, textOffset + count, last.fText, last.fLength);
+			last.fLength += count;
+			textOffset += count;
+			fEnd += count;
+		}
+	}
+
+	/**
+	 * Removes the given number of characters from the start of the content.
+	 *
+	 * @param length number of characters to remove
+	 */
+	private void trim(int length) {
+		fTrimmed += length;
+		while (fCount > 0 && fChunks[fFirst].getEnd() <= fTrimmed) {
+			fChunks[fFirst] = null;
+			fFirst++;
+			fCount--;
+		}
+	}
+
+	/**
+	 * Replaces a range which is neither at the start nor at the end of the
+	 * content. All chunks touched by the range are replaced by new chunks
+	 * holding their untouched prefix and suffix and the new text.
+	 *
+	 * @param position absolute position of the replaced range
+	 * @param length length of the replaced range
+	 * @param text replacement text
+	 */
+	private void rewrite(long position, int length, String text) {
+		int firstIndex = findChunk(position);
+		int lastIndex = length > 0 ? findChunk(position + length - 1) : firstIndex;
+		Chunk first = fChunks[firstIndex];
+		Chunk last = fChunks[lastIndex];
+		int prefixLength = (int) (position - first.fStart);
+		int suffixStart = (int) (position + length - last.fStart);
+		int suffixLength = last.fLength - suffixStart;
+
+		int newLength = prefixLength + text.length() + suffixLength;
+		char[] content = new char[newLength];
+		System.arraycopy(first.fText, 0, content, 0, prefixLength);
+		text.getChars(0, text.length(), content, prefixLength);
+		System.arraycopy(last.fText, suffixStart, content, prefixLength + text.length(), suffixLength);
+
+		boolean atEnd = lastIndex == fFirst + fCount - 1;
+		int chunkCount = (newLength + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		Chunk[] replacement = new Chunk[chunkCount];
+		long start = first.fStart;
+		for (int i = 0; i < chunkCount; i++) {
+			int from = i * CHUNK_SIZE;
+			int count = Math.min(CHUNK_SIZE, newLength - from);
+			// only the last chunk of the store needs spare capacity for appending
+			int capacity = atEnd && i == chunkCount - 1 ? CHUNK_SIZE : count;
+			char[] chunkText = new char[capacity];
+			System.arraycopy(content, from, chunkText, 0, count);
+			replacement[i] = new Chunk(chunkText, count, start);
+			start += count;
+		}
+
+		int delta = text.length() - length;
+		int index = insertChunks(firstIndex, lastIndex - firstIndex + 1, replacement);
+		for (int i = index + chunkCount; i < fFirst + fCount; i++) {
+			fChunks[i].fStart += delta;
+		}
+		fEnd += delta;
+	}
+
+	/**
+	 * Replaces <code>removeCount</code> chunks starting at the given array index
+	 * with the given chunks.
+	 *
+	 * @param index array index of the first chunk to replace
+	 * @param removeCount number of chunks to replace
+	 * @param chunks chunks to insert
+	 * @return array index of the first inserted chunk, which differs from the
+	 *         given index if the array was compacted
+	 */
+	private int insertChunks(int index, int removeCount, Chunk[] chunks) {
+		int growth = chunks.length - removeCount;
+		int tail = fFirst + fCount - (index + removeCount);
+		if (fFirst + fCount + growth > fChunks.length) {
+			// compact and grow
+			int required = fCount + growth;
+			Chunk[] newChunks = fChunks;
+			if (required > fChunks.length / 2) {
+				newChunks = new Chunk[Math.max(16, required * 2)];
+			}
+			int headCount = index - fFirst;
+			System.arraycopy(fChunks, fFirst, newChunks, 0, headCount);
+			System.arraycopy(fChunks, index + removeCount, newChunks, headCount + chunks.length, tail);
+			if (newChunks == fChunks) {
+				Arrays.fill(fChunks, headCount + chunks.length + tail, fChunks.length, null);
+			}
+			fChunks = newChunks;
+			fFirst = 0;
+			index = headCount;
+		} else if (growth != 0) {
+			System.arraycopy(fChunks, index + removeCount, fChunks, index + chunks.length, tail);
+			if (growth < 0) {
+				Arrays.fill(fChunks, fFirst + fCount + growth, fFirst + fCount, null);
+			}
+		}
+		System.arraycopy(chunks, 0, fChunks, index, chunks.length);
+		fCount += growth;
+		return index;
+	}
+
+	/**
+	 * Returns the array index of the chunk containing the given absolute
+	 * position.
+	 *
+	 * @param position absolute position inside the content
+	 * @return array index of the chunk containing the position
+	 */
+	private int findChunk(long position) {
+		int low = fFirst;
+		int high = fFirst + fCount - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (fChunks[mid].fStart <= position) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	private long toPosition(int offset) {
+		return fTrimmed + offset;
+	}
+
+	private void checkRange(int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > getLength()) {
+			throw new IndexOutOfBoundsException("Offset: " + offset + ", length: " + length //$NON-NLS-1$ //$NON-NLS-2$
+					+ ", content length: " + getLength()); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Returns the number of chunks currently holding content.
+	 *
+	 * @return number of chunks
+	 */
+	public int getChunkCount() {
+		return fCount;
+	}
+}
@@ -32,7 +32,14 @@ public class IOConsolePartition implements ITypedRegion {
 	/** Type for output partitions. */
 	public static final String INPUT_PARTITION_TYPE = ConsolePlugin.getUniqueIdentifier() + ".io_console_input_partition_type"; //$NON-NLS-1$
 
-	private int offset;
+	/**
+	 * Start of this partition. If the partition is contained in a
+	 * {@link IOConsolePartitionList} this is the absolute position relative to
+	 * the list's origin, otherwise the document offset.
+	 */
+	private long offset;
+	/** The list containing this partition or <code>null</code>. */
+	private IOConsolePartitionList list;
 	private int length;
 	private String type;
 
@@ -118,7 +125,8 @@ public class IOConsolePartition implements ITypedRegion {
 
 	@Override
 	public int getOffset() {
-		return offset;
+		final IOConsolePartitionList l = list;
+		return (int) (l != null ? offset - l.getOrigin() : offset);
 	}
 
 	/**
@@ -127,7 +135,31 @@ public class IOConsolePartition implements ITypedRegion {
 	 * @param offset This partitions offset in the document.
 	 */
 	public void setOffset(int offset) {
-		this.offset = offset;
+		final IOConsolePartitionList l = list;
+		this.offset = l != null ? offset + l.getOrigin() : offset;
+	}
+
+	/**
+	 * Returns the absolute position of this partition in the containing
+	 * {@link IOConsolePartitionList}.
+	 *
+	 * @return the partition start independent of the list's origin
+	 */
+	long getPosition() {
+		return offset;
+	}
+
+	/**
+	 * Sets the list containing this partition. The document offset of the
+	 * partition is not changed.
+	 *
+	 * @param newList the list which now contains this partition or
+	 *                <code>null</code> if the partition was removed
+	 */
+	void setList(IOConsolePartitionList newList) {
+		final int currentOffset = getOffset();
+		list = newList;
+		setOffset(currentOffset);
 	}
 
 	/**
@@ -265,7 +297,7 @@ public class IOConsolePartition implements ITypedRegion {
 		}
 		sb.append("]"); //$NON-NLS-1$
 		sb.append(" Offset: "); //$NON-NLS-1$
-		sb.append(offset);
+		sb.append(getOffset());
 		sb.append(" Length: "); //$NON-NLS-1$
 		sb.append(length);
 		return sb.toString();
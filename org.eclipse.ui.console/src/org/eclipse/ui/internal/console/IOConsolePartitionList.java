@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.console;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Sorted list of the partitions of an IOConsole's document.
+ * <p>
+ * Partitions contained in this list store their start relative to a shared
+ * {@link #getOrigin() origin}. Moving the origin with {@link #shift(int)}
+ * moves all partitions at once, so trimming the start of the document does not
+ * have to update the offset of every remaining partition. Elements are kept in
+ * a circular array: removing partitions from the start of the list only
+ * releases the removed elements and inserting or removing elsewhere moves the
+ * elements of the shorter side. Partitions are located by offset with a binary
+ * search.
+ * </p>
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ */
+public class IOConsolePartitionList extends AbstractList<IOConsolePartition> implements RandomAccess {
+
+	private static final IOConsolePartition[] EMPTY = new IOConsolePartition[0];
+
+	private IOConsolePartition[] elements = EMPTY;
+	/** Array index of the first element. */
+	private int head;
+	private int size;
+	/** Absolute position of document offset 0. */
+	private long origin;
+
+	/**
+	 * Returns the absolute position of document offset 0.
+	 *
+	 * @return the origin of the partition offsets
+	 */
+	long getOrigin() {
+		return origin;
+	}
+
+	/**
+	 * Moves the origin of all contained partitions. Afterwards the offset of
+	 * every partition in this list is <code>delta</code> smaller.
+	 *
+	 * @param delta number of characters the partitions are moved towards the
+	 *              document start
+	 */
+	public void shift(int delta) {
+		origin += delta;
+	}
+
+	@Override
+	public IOConsolePartition get(int index) {
+		checkIndex(index, size);
+		return elements[physical(index)];
+	}
+
+	@Override
+	public IOConsolePartition set(int index, IOConsolePartition partition) {
+		checkIndex(index, size);
+		final int i = physical(index);
+		final IOConsolePartition old = elements[i];
+		old.setList(null);
+		partition.setList(this);
+		elements[i] = partition;
+		return old;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void add(int index, IOConsolePartition partition) {
+		checkIndex(index, size + 1);
+		if (size == elements.length) {
+			grow();
+		}
+		if (index < size / 2) {
+			// move the elements before index one position towards the start
+			head = physical(elements.length - 1);
+			for (int i = 0; i < index; i++) {
+				elements[physical(i)] = elements[physical(i + 1)];
+			}
+		} else {
+			for (int i = size; i > index; i--) {
+				elements[physical(i)] = elements[physical(i - 1)];
+			}
+		}
+		partition.setList(this);
+		elements[physical(index)] = partition;
+		size++;
+		modCount++;
+	}
+
+	@Override
+	public IOConsolePartition remove(int index) {
+		checkIndex(index, size);
+		final IOConsolePartition removed = elements[physical(index)];
+		if (index < size / 2) {
+			for (int i = index; i > 0; i--) {
+				elements[physical(i)] = elements[physical(i - 1)];
+			}
+			elements[head] = null;
+			head = physical(1);
+		} else {
+			for (int i = index; i < size - 1; i++) {
+				elements[physical(i)] = elements[physical(i + 1)];
+			}
+			elements[physical(size - 1)] = null;
+		}
+		size--;
+		modCount++;
+		removed.setList(null);
+		return removed;
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex >= toIndex) {
+			return;
+		}
+		final int count = toIndex - fromIndex;
+		for (int i = fromIndex; i < toIndex; i++) {
+			final int p = physical(i);
+			elements[p].setList(null);
+			elements[p] = null;
+		}
+		if (fromIndex == 0) {
+			head = physical(count);
+		} else {
+			for (int i = toIndex; i < size; i++) {
+				elements[physical(i - count)] = elements[physical(i)];
+				elements[physical(i)] = null;
+			}
+		}
+		size -= count;
+		modCount++;
+	}
+
+	@Override
+	public void clear() {
+		removeRange(0, size);
+		head = 0;
+		origin = 0;
+	}
+
+	/**
+	 * Search for the partition which is most likely containing the requested
+	 * offset.
+	 *
+	 * @param offset the offset for which to determine the partition candidate
+	 * @return index of the partition with the greatest offset lower than or
+	 *         equal to the requested offset or <code>-1</code> if the requested
+	 *         offset is lower than the offset of any partition
+	 */
+	public int findCandidate(int offset) {
+		final long position = origin + offset;
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			final long midPosition = elements[physical(mid)].getPosition();
+			if (midPosition < position) {
+				low = mid + 1;
+			} else if (midPosition > position) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return low - 1;
+	}
+
+	private int physical(int index) {
+		final int i = head + index;
+		return i < elements.length ? i : i - elements.length;
+	}
+
+	private void grow() {
+		final IOConsolePartition[] grown = new IOConsolePartition[Math.max(16, elements.length * 2)];
+		final int firstPart = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, grown, 0, firstPart);
+		System.arraycopy(elements, 0, grown, firstPart, size - firstPart);
+		elements = grown;
+		head = 0;
+	}
+
+	private static void checkIndex(int index, int length) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+}
@@ -23,7 +23,6 @@ package org.eclipse.ui.internal.console;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
@@ -31,6 +30,8 @@ import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -115,7 +116,7 @@ public class IOConsolePartitioner
 	 * {@link IRegion#getOffset()} and not contain <code>null</code> or 0-length
 	 * elements. (see also {@link #checkPartitions()})
 	 */
-	private final ArrayList<IOConsolePartition> partitions = new ArrayList<>();
+	private final IOConsolePartitionList partitions = new IOConsolePartitionList();
 	/**
 	 * max ~ 16MB when debugged application outputs faster then we can handle. Seems
 	 * to be a could compromise between memory and speed we can handle. Eclipse IDE
@@ -129,6 +130,41 @@ public class IOConsolePartitioner
 	 */
 	private final BlockingQueue<PendingPartition> pendingPartitions = new LinkedBlockingQueue<>(
 			MAX_BUFFER_BYTES / 8192);
+	/**
+	 * Maximum number of characters merged into a single pending partition if
+	 * adaptive batching is enabled.
+	 */
+	private static final int MAX_MERGED_LENGTH = 8192;
+	/**
+	 * Time in milliseconds between two document updates if adaptive batching is
+	 * enabled. Also the time a single document update should not exceed.
+	 */
+	private static final int FRAME_TIME = 16;
+	/** {@link #FRAME_TIME} in nanoseconds. */
+	private static final long FRAME_TIME_NANOS = TimeUnit.MILLISECONDS.toNanos(FRAME_TIME);
+	/**
+	 * Guards {@link #lastPending} and the merging of output into it. Also held
+	 * while pending partitions are removed from {@link #pendingPartitions}.
+	 */
+	private final Object pendingLock = new Object();
+	/**
+	 * The most recently queued pending partition which may still receive merged
+	 * output or <code>null</code>. Only used if adaptive batching is enabled.
+	 */
+	private PendingPartition lastPending;
+	/** Whether output is appended in adaptive batches. */
+	private volatile boolean adaptiveBatching;
+	/**
+	 * Number of characters appended to the document in one update if adaptive
+	 * batching is enabled. Adjusted after every update to fit in one frame.
+	 */
+	private int frameBudget = MAX_MERGED_LENGTH * 8;
+	/** Number of characters received from output streams but not yet processed. */
+	private final AtomicLong pendingLength = new AtomicLong();
+	/** Number of document updates which took longer than {@link #FRAME_TIME}. */
+	private final AtomicLong droppedFrames = new AtomicLong();
+	/** Longest time in nanoseconds a single document update took. */
+	private volatile long maxUpdateTime;
 	/** Job that appends pending partitions to the document. */
 	private final QueueProcessingJob queueJob = new QueueProcessingJob();
 	/** Job that trims console content if it exceeds {@link #highWaterMark}. */
@@ -225,7 +261,7 @@ public class IOConsolePartitioner
 
 	@Override
 	public void disconnect() {
-		pendingPartitions.clear();
+		clearPending();
 		synchronized (partitions) {
 			trimJob.cancel();
 			queueJob.cancel();
@@ -410,16 +446,7 @@ public class IOConsolePartitioner
 	 *         any known partition
 	 */
 	private int findPartitionCandidate(int offset) {
-		final Region target = new Region(offset, 0);
-		final int index = Collections.binarySearch(partitions, target, CMP_REGION_BY_OFFSET);
-		if (index >= 0) {
-			// found partition whose offset equals the requested offset
-			return index;
-		}
-		// no exact offset match. Adjust index to point at partition which is closest to
-		// requested offset but whose offset is still lower than requested offset.
-		// Results in -1 if all known offsets are greater.
-		return (-index) - 2;
+		return partitions.findCandidate(offset);
 	}
 
 	/**
@@ -444,7 +471,7 @@ public class IOConsolePartitioner
 	 * Clears the console content.
 	 */
 	public void clearBuffer() {
-		pendingPartitions.clear();
+		clearPending();
 		synchronized (partitions) {
 			if (document != null) {
 				trimJob.setTrimOffset(document.getLength());
@@ -691,13 +718,127 @@ public class IOConsolePartitioner
 		if (s == null) {
 			return;
 		}
+		if (adaptiveBatching) {
+			appendBatched(stream, s);
+			queueJob.schedule(FRAME_TIME);
+			return;
+		}
 		PendingPartition partition = new PendingPartition(stream, s);
+		pendingLength.addAndGet(s.length());
 		while (!offer(partition)) {
 			helpProgress();
 		}
 		queueJob.schedule();
 	}
 
+	/**
+	 * Queue output in adaptive batching mode. The output is merged into the last
+	 * pending partition if that belongs to the same stream and is not yet too
+	 * large.
+	 *
+	 * @param stream the stream that was written to
+	 * @param s      the string that should be appended to the document
+	 */
+	private void appendBatched(IOConsoleOutputStream stream, String s) {
+		PendingPartition partition = null;
+		while (true) {
+			synchronized (pendingLock) {
+				if (lastPending != null && lastPending.stream == stream
+						&& lastPending.text.length() + s.length() <= MAX_MERGED_LENGTH) {
+					lastPending.append(s);
+					pendingLength.addAndGet(s.length());
+					return;
+				}
+				if (partition == null) {
+					partition = new PendingPartition(stream, s);
+				}
+				// do not block while holding the lock, the UI thread may need it to make progress
+				if (pendingPartitions.offer(partition)) {
+					lastPending = partition;
+					pendingLength.addAndGet(s.length());
+					return;
+				}
+			}
+			if (Display.getCurrent() != null) {
+				queueJob.processPendingPartitions();
+			} else {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+			}
+		}
+	}
+
+	/**
+	 * Discard all output which was not yet appended to the document.
+	 */
+	private void clearPending() {
+		final List<PendingPartition> discarded = new ArrayList<>();
+		synchronized (pendingLock) {
+			pendingPartitions.drainTo(discarded);
+			lastPending = null;
+		}
+		pendingLength.addAndGet(-getLength(discarded));
+	}
+
+	private static int getLength(List<PendingPartition> pending) {
+		int length = 0;
+		for (PendingPartition p : pending) {
+			length += p.text.length();
+		}
+		return length;
+	}
+
+	/**
+	 * Check if output is appended to the document in adaptive batches.
+	 *
+	 * @return <code>true</code> if adaptive batching is enabled
+	 * @see IOConsole#isAdaptiveOutputBatching()
+	 */
+	public boolean isAdaptiveBatching() {
+		return adaptiveBatching;
+	}
+
+	/**
+	 * Enable or disable adaptive batching of output.
+	 *
+	 * @param adaptive <code>true</code> to enable adaptive batching
+	 * @see IOConsole#setAdaptiveOutputBatching(boolean)
+	 */
+	public void setAdaptiveBatching(boolean adaptive) {
+		adaptiveBatching = adaptive;
+	}
+
+	/**
+	 * Get number of characters received from output streams which are not yet
+	 * appended to the document.
+	 *
+	 * @return the number of pending characters
+	 * @see IOConsole#getPendingOutputLength()
+	 */
+	public long getPendingLength() {
+		return pendingLength.get();
+	}
+
+	/**
+	 * Get number of document updates which blocked the UI thread longer than
+	 * one frame.
+	 *
+	 * @return the number of dropped frames
+	 * @see IOConsole#getDroppedOutputFrameCount()
+	 */
+	public long getDroppedFrameCount() {
+		return droppedFrames.get();
+	}
+
+	/**
+	 * Get longest time a single document update took.
+	 *
+	 * @return the maximum update time in nanoseconds
+	 * @see IOConsole#getMaxOutputUpdateTime()
+	 */
+	public long getMaxUpdateTime() {
+		return maxUpdateTime;
+	}
+
 	private void helpProgress() {
 		if (Display.getCurrent() != null) {
 			// make sure pendingPartitions can take
@@ -719,7 +860,7 @@ public class IOConsolePartitioner
 	 * Holds data until updateJob can be run and the document can be updated.
 	 */
 	private class PendingPartition {
-		private final CharSequence text;
+		private CharSequence text;
 		private final IOConsoleOutputStream stream;
 
 		PendingPartition(IOConsoleOutputStream stream, CharSequence text) {
@@ -727,6 +868,20 @@ public class IOConsolePartitioner
 			this.text = text;
 		}
 
+		/**
+		 * Append more output of the same stream to this pending partition. Must
+		 * only be called while holding {@link IOConsolePartitioner#pendingLock}
+		 * and as long as the partition was not yet removed from the queue.
+		 *
+		 * @param s the output to append
+		 */
+		void append(String s) {
+			if (!(text instanceof StringBuilder)) {
+				text = new StringBuilder(text);
+			}
+			((StringBuilder) text).append(s);
+		}
+
 		@Override
 		public String toString() {
 			return text.toString();
@@ -779,15 +934,73 @@ public class IOConsolePartitioner
 		 * update partitioning.
 		 */
 		private void processPendingPartitions() {
+			final long start = System.nanoTime();
+			final boolean adaptive = adaptiveBatching;
 			final List<PendingPartition> pendingCopy = new ArrayList<>();
-			// draining the whole buffer here is important - this way we get as much data as
-			// available and may skip to draw text that exceeds the Console buffer size
-			// anyway (see checkBufferSize()).
-			pendingPartitions.drainTo(pendingCopy);
-			int sizeHint = 0;
+			synchronized (pendingLock) {
+				if (adaptive) {
+					// take only as much as can be processed in one frame
+					int length = 0;
+					PendingPartition next;
+					while (length < frameBudget && (next = pendingPartitions.poll()) != null) {
+						pendingCopy.add(next);
+						length += next.text.length();
+					}
+				} else {
+					// draining the whole buffer here is important - this way we get as much data
+					// as available and may skip to draw text that exceeds the Console buffer size
+					// anyway (see checkBufferSize()).
+					pendingPartitions.drainTo(pendingCopy);
+				}
+				lastPending = null;
+			}
 			if (pendingCopy.isEmpty()) {
 				return;
 			}
+			final int length = getLength(pendingCopy);
+			try {
+				applyPendingPartitions(pendingCopy);
+			} finally {
+				pendingLength.addAndGet(-length);
+				updateStatistics(System.nanoTime() - start, length, adaptive);
+			}
+			if (adaptive && !pendingPartitions.isEmpty()) {
+				// leave the UI thread some time before the next update
+				schedule(FRAME_TIME);
+			}
+		}
+
+		/**
+		 * Record duration of a document update and adjust the number of characters
+		 * processed per update if adaptive batching is enabled.
+		 *
+		 * @param time     duration of the update in nanoseconds
+		 * @param length   number of characters processed
+		 * @param adaptive whether the update was done in adaptive batching mode
+		 */
+		private void updateStatistics(long time, int length, boolean adaptive) {
+			if (time > maxUpdateTime) {
+				maxUpdateTime = time;
+			}
+			if (time > FRAME_TIME_NANOS) {
+				droppedFrames.incrementAndGet();
+			}
+			if (adaptive && (length >= frameBudget || time > FRAME_TIME_NANOS)) {
+				// estimate how many characters fit into one frame and move budget half way
+				// towards it to avoid oscillation
+				final long fitting = length * FRAME_TIME_NANOS / Math.max(1, time);
+				final long budget = (frameBudget + Math.min(fitting, MAX_BUFFER_BYTES)) / 2;
+				frameBudget = (int) Math.max(MAX_MERGED_LENGTH, budget);
+			}
+		}
+
+		/**
+		 * Append pending partitions to document.
+		 *
+		 * @param pendingCopy the pending partitions to process
+		 */
+		private void applyPendingPartitions(List<PendingPartition> pendingCopy) {
+			int sizeHint = 0;
 			IOConsoleOutputStream stream = pendingCopy.get(0).stream;
 			for (PendingPartition p : pendingCopy) {
 				if (p.stream != stream) {
@@ -1203,24 +1416,18 @@ public class IOConsolePartitioner
 						updateType = DocUpdateType.TRIM;
 						document.set(""); //$NON-NLS-1$
 					} else {
-						// set the new length of the first partition
+						// set the new start and length of the first partition
 						IOConsolePartition partition = getIOPartition(cutOffset);
 						partition.setLength(partition.getOffset() + partition.getLength() - cutOffset);
+						partition.setOffset(cutOffset);
 
 						updateType = DocUpdateType.TRIM;
 						document.replace(0, cutOffset, ""); //$NON-NLS-1$
 
-						// remove partitions and reset Partition offsets
-						int index = partitions.indexOf(partition);
-						for (int i = 0; i < index; i++) {
-							partitions.remove(0);
-						}
-
-						int offset = 0;
-						for (IOConsolePartition p : partitions) {
-							p.setOffset(offset);
-							offset += p.getLength();
-						}
+						// remove partitions and move the remaining partitions to the document start
+						int index = findPartitionCandidate(cutOffset);
+						partitions.subList(0, index).clear();
+						partitions.shift(cutOffset);
 
 						// fix output offset
 						int removedLength = cutOffset;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@
 package org.eclipse.unittest.internal.model;
 
 import java.time.Duration;
+import java.util.Collection;
 
 import org.eclipse.unittest.model.ITestCaseElement;
 import org.eclipse.unittest.model.ITestElement;
@@ -83,4 +84,19 @@ public interface ITestSessionListener {
 	 */
 	void testFailed(ITestElement testElement, Result status, FailureTrace trace);
 
+	/**
+	 * The status of some tests has changed. Called after each batch of
+	 * {@link #testStarted(ITestCaseElement)},
+	 * {@link #testEnded(ITestCaseElement)} and
+	 * {@link #testFailed(ITestElement, Result, FailureTrace)} notifications
+	 * delivered together, with every test changed in the batch listed once, so
+	 * that listeners refreshing the presentation of changed tests can do so in
+	 * bulk.
+	 *
+	 * @param testElements the changed tests, in the order of their first change
+	 */
+	default void testsChanged(Collection<ITestElement> testElements) {
+		// nothing by default
+	}
+
 }
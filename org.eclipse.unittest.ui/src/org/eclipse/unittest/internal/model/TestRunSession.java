@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -21,8 +21,15 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 import org.eclipse.unittest.internal.UnitTestPlugin;
 import org.eclipse.unittest.internal.launcher.TestViewSupportRegistry;
@@ -67,6 +74,40 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 	private final ListenerList<ITestSessionListener> fSessionListeners;
 	private final TestSessionNotifier fSessionNotifier = new TestSessionNotifier();
 
+	/**
+	 * A listener notification which has not been delivered yet.
+	 */
+	private static final class PendingNotification {
+		final Consumer<ITestSessionListener> fCallback;
+		/**
+		 * The test whose status is changed by the notification, or
+		 * <code>null</code>.
+		 */
+		final ITestElement fChangedTest;
+
+		PendingNotification(Consumer<ITestSessionListener> callback, ITestElement changedTest) {
+			fCallback = callback;
+			fChangedTest = changedTest;
+		}
+	}
+
+	/**
+	 * Listener notifications which have not been delivered yet, in the order
+	 * the events were reported. Threads reporting events only queue their
+	 * notifications; the queue is drained and delivered in batches by the
+	 * thread holding {@link #fDeliveryLock}.
+	 */
+	private final Queue<PendingNotification> fPendingNotifications = new ConcurrentLinkedQueue<>();
+	private final ReentrantLock fDeliveryLock = new ReentrantLock();
+	private final AtomicLong fDeliveredEventCount = new AtomicLong();
+	private final AtomicLong fDeliveryBatchCount = new AtomicLong();
+
+	/**
+	 * Guards modifications of the test tree, which may be reported by several
+	 * threads concurrently.
+	 */
+	private final Object fTreeLock = new Object();
+
 	/**
 	 * The test run session's cached result, or <code>null</code> if
 	 * <code>fTestRoot != null</code>.
@@ -76,7 +117,7 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 	/**
 	 * Map from testId to testElement.
 	 */
-	private HashMap<String, TestElement> fIdToTest;
+	private Map<String, TestElement> fIdToTest;
 
 	volatile Instant fStartTime;
 	volatile Integer fPredefinedTestCount;
@@ -102,7 +143,7 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 		Assert.isNotNull(testRunName);
 		fTestRunName = testRunName;
 
-		fIdToTest = new HashMap<>();
+		fIdToTest = new ConcurrentHashMap<>();
 
 		fTestRunnerClient = null;
 		fStartTime = startTime;
@@ -130,7 +171,7 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 			fTestRunnerSupport = null;
 		}
 
-		fIdToTest = new HashMap<>();
+		fIdToTest = new ConcurrentHashMap<>();
 
 		if (fTestRunnerSupport != null) {
 			fTestRunnerClient = fTestRunnerSupport.newTestRunnerClient(this);
@@ -176,7 +217,7 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 	 */
 	public void reset() {
 		fTestResult = null;
-		fIdToTest = new HashMap<>();
+		fIdToTest = new ConcurrentHashMap<>();
 	}
 
 	@Override
@@ -309,7 +350,7 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 
 	@Override
 	public TestElement getTestElement(String id) {
-		return fIdToTest.get(id);
+		return id != null ? fIdToTest.get(id) : null;
 	}
 
 	private TestElement addTreeEntry(String id, String testName, boolean isSuite, Integer testCount,
@@ -339,13 +380,15 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 	public TestElement createTestElement(TestSuiteElement parent, String id, String testName, boolean isSuite,
 			Integer testCount, boolean isDynamicTest, String displayName, String data) {
 		TestElement testElement;
-		if (isSuite) {
-			TestSuiteElement testSuiteElement = new TestSuiteElement(parent != null ? parent : this, id, testName,
-					testCount, displayName, data);
-			testElement = testSuiteElement;
-		} else {
-			testElement = new TestCaseElement(parent != null ? parent : this, id, testName, displayName, isDynamicTest,
-					data);
+		synchronized (fTreeLock) {
+			if (isSuite) {
+				TestSuiteElement testSuiteElement = new TestSuiteElement(parent != null ? parent : this, id, testName,
+						testCount, displayName, data);
+				testElement = testSuiteElement;
+			} else {
+				testElement = new TestCaseElement(parent != null ? parent : this, id, testName, displayName,
+						isDynamicTest, data);
+			}
 		}
 		fIdToTest.put(id, testElement);
 		return testElement;
@@ -384,9 +427,7 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 			fStartTime = Instant.now();
 			fPredefinedTestCount = testCount;
 
-			for (ITestSessionListener listener : fSessionListeners) {
-				listener.sessionStarted();
-			}
+			notifyListeners(ITestSessionListener::sessionStarted, true);
 		}
 
 		/**
@@ -395,9 +436,7 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 		 * @param duration a duration of this test run
 		 */
 		public void testRunEnded(Duration duration) {
-			for (ITestSessionListener listener : fSessionListeners) {
-				listener.sessionCompleted(duration);
-			}
+			notifyListeners(listener -> listener.sessionCompleted(duration), true);
 		}
 
 		/**
@@ -408,9 +447,7 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 		public void testRunStopped(Duration duration) {
 			fIsAborted = true;
 
-			for (ITestSessionListener listener : fSessionListeners) {
-				listener.sessionAborted(duration);
-			}
+			notifyListeners(listener -> listener.sessionAborted(duration), true);
 		}
 
 		/**
@@ -433,9 +470,7 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 			ITestElement testElement = addTreeEntry(testId, testName, isSuite, testCount, isDynamicTest,
 					(TestSuiteElement) parent, displayName, uniqueId);
 
-			for (ITestSessionListener listener : fSessionListeners) {
-				listener.testAdded(testElement);
-			}
+			notifyListeners(listener -> listener.testAdded(testElement), false);
 			return testElement;
 		}
 
@@ -449,16 +484,14 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 				return;
 			}
 			if (firstStart) {
-				for (ITestSessionListener listener : fSessionListeners) {
-					listener.runningBegins();
-				}
+				notifyListeners(ITestSessionListener::runningBegins, false);
 				firstStart = false;
 			}
-			setStatus(test, Status.RUNNING);
-
-			for (ITestSessionListener listener : fSessionListeners) {
-				listener.testStarted((ITestCaseElement) test);
+			synchronized (fTreeLock) {
+				setStatus(test, Status.RUNNING);
 			}
+
+			notifyListeners(listener -> listener.testStarted((ITestCaseElement) test), test, false);
 		}
 
 		/**
@@ -473,24 +506,26 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 			}
 			if (!(testElement instanceof TestCaseElement)) {
 				if (isIgnored) {
-					((TestElement) testElement).setAssumptionFailed(true);
-					setStatus(testElement, Status.OK);
+					synchronized (fTreeLock) {
+						((TestElement) testElement).setAssumptionFailed(true);
+						setStatus(testElement, Status.OK);
+					}
 				} else {
 					logUnexpectedTest(testElement.getId(), testElement);
 				}
 				return;
 			}
 			TestCaseElement testCaseElement = (TestCaseElement) testElement;
-			if (isIgnored) {
-				testCaseElement.setIgnored(true);
-			}
-
-			if (testCaseElement.getStatus() == Status.RUNNING)
-				setStatus(testCaseElement, Status.OK);
+			synchronized (fTreeLock) {
+				if (isIgnored) {
+					testCaseElement.setIgnored(true);
+				}
 
-			for (ITestSessionListener listener : fSessionListeners) {
-				listener.testEnded(testCaseElement);
+				if (testCaseElement.getStatus() == Status.RUNNING)
+					setStatus(testCaseElement, Status.OK);
 			}
+
+			notifyListeners(listener -> listener.testEnded(testCaseElement), testCaseElement, false);
 		}
 
 		/**
@@ -507,16 +542,109 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 				return;
 			}
 
-			if (isAssumptionFailed) {
-				((TestElement) testElement).setAssumptionFailed(true);
-				status = Result.OK;
+			Result result = status;
+			synchronized (fTreeLock) {
+				if (isAssumptionFailed) {
+					((TestElement) testElement).setAssumptionFailed(true);
+					result = Result.OK;
+				}
+
+				registerTestFailureStatus((TestElement) testElement, result, trace);
 			}
 
-			registerTestFailureStatus((TestElement) testElement, status, trace);
+			Result notifiedResult = result;
+			notifyListeners(listener -> listener.testFailed(testElement, notifiedResult, trace), testElement, false);
+		}
 
+		/**
+		 * Queues a notification which does not change the status of a test.
+		 *
+		 * @param notification the notification
+		 * @param wait         whether to wait until the notification has been
+		 *                     delivered, e.g. for the start and the end of the test
+		 *                     run
+		 * @see #notifyListeners(Consumer, ITestElement, boolean)
+		 */
+		private void notifyListeners(Consumer<ITestSessionListener> notification, boolean wait) {
+			notifyListeners(notification, null, wait);
+		}
+
+		/**
+		 * Queues a notification of the session listeners and delivers the pending
+		 * notifications, unless another thread is delivering them already.
+		 *
+		 * @param notification the notification
+		 * @param changedTest  the test whose status is changed by the notification,
+		 *                     or <code>null</code>
+		 * @param wait         whether to wait until the notification has been
+		 *                     delivered
+		 */
+		private void notifyListeners(Consumer<ITestSessionListener> notification, ITestElement changedTest,
+				boolean wait) {
+			fPendingNotifications.add(new PendingNotification(notification, changedTest));
+			if (fDeliveryLock.isHeldByCurrentThread()) {
+				// reported by a listener, delivered after the current batch
+				return;
+			}
+			if (wait) {
+				fDeliveryLock.lock();
+				try {
+					deliverPendingNotifications();
+				} finally {
+					fDeliveryLock.unlock();
+				}
+			}
+			// notifications queued while the lock was held may have been left to us
+			while (!fPendingNotifications.isEmpty() && fDeliveryLock.tryLock()) {
+				try {
+					deliverPendingNotifications();
+				} finally {
+					fDeliveryLock.unlock();
+				}
+			}
+		}
+
+		/**
+		 * Delivers the pending notifications in batches, each listener receiving a
+		 * batch at once, followed by
+		 * {@link ITestSessionListener#testsChanged(Collection)} with the tests
+		 * changed in the batch, each listed once. Must be called holding
+		 * {@link #fDeliveryLock}.
+		 */
+		private void deliverPendingNotifications() {
+			List<PendingNotification> batch = new ArrayList<>();
+			Collection<ITestElement> changedTests = new LinkedHashSet<>();
+			PendingNotification notification;
+			while ((notification = fPendingNotifications.poll()) != null) {
+				batch.add(notification);
+				if (notification.fChangedTest != null) {
+					changedTests.add(notification.fChangedTest);
+				}
+			}
+			if (batch.isEmpty()) {
+				return;
+			}
+			Collection<ITestElement> changed = Collections.unmodifiableCollection(changedTests);
 			for (ITestSessionListener listener : fSessionListeners) {
-				listener.testFailed(testElement, status, trace);
+				for (PendingNotification pending : batch) {
+					SafeRunner.run(new ListenerSafeRunnable() {
+						@Override
+						public void run() {
+							pending.fCallback.accept(listener);
+						}
+					});
+				}
+				if (!changed.isEmpty()) {
+					SafeRunner.run(new ListenerSafeRunnable() {
+						@Override
+						public void run() {
+							listener.testsChanged(changed);
+						}
+					});
+				}
 			}
+			fDeliveredEventCount.addAndGet(batch.size());
+			fDeliveryBatchCount.incrementAndGet();
 		}
 
 		private void logUnexpectedTest(String testId, ITestElement testElement) {
@@ -588,6 +716,27 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 		}
 	}
 
+	/**
+	 * Returns the number of events delivered to the {@link ITestSessionListener}s
+	 * of this session
+	 *
+	 * @return the number of delivered events
+	 */
+	public long getDeliveredEventCount() {
+		return fDeliveredEventCount.get();
+	}
+
+	/**
+	 * Returns the number of batches in which the events have been delivered to
+	 * the {@link ITestSessionListener}s of this session. Events reported
+	 * concurrently, or while listeners are busy, are delivered together.
+	 *
+	 * @return the number of delivery batches
+	 */
+	public long getDeliveryBatchCount() {
+		return fDeliveryBatchCount.get();
+	}
+
 	@Override
 	public String toString() {
 		return fTestRunName + " " + DateFormat.getDateTimeInstance().format(new Date(fStartTime.toEpochMilli())); //$NON-NLS-1$
@@ -635,7 +784,9 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 		if (reportDuration != null) {
 			setDuration(reportDuration);
 		}
-		fTestRunnerClient.stopMonitoring();
+		if (fTestRunnerClient != null) {
+			fTestRunnerClient.stopMonitoring();
+		}
 		this.completedOrAborted = true;
 		SafeRunner.run(new ListenerSafeRunnable() {
 			@Override
@@ -653,7 +804,9 @@ public class TestRunSession extends TestSuiteElement implements ITestRunSession,
 		if (reportDuration != null) {
 			setDuration(reportDuration);
 		}
-		fTestRunnerClient.stopMonitoring();
+		if (fTestRunnerClient != null) {
+			fTestRunnerClient.stopMonitoring();
+		}
 		this.completedOrAborted = true;
 		SafeRunner.run(new ListenerSafeRunnable() {
 			@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
-L * Copyright (c) 2000, 2018 IBM Corporation and others.
+L * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,6 +19,7 @@ import java.net.URL;
 import java.text.MessageFormat;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.eclipse.unittest.internal.UnitTestPlugin;
@@ -414,6 +415,13 @@ public class TestRunnerViewPart extends ViewPart {
 	}
 
 	private class TestSessionListener implements ITestSessionListener {
+		/**
+		 * Whether the view was shown for a failure. Failures are reported in
+		 * batches, so the error count may already include later failures of
+		 * the batch when the first one is reported.
+		 */
+		private boolean fFailureShown;
+
 		@Override
 		public void sessionStarted() {
 			fTestViewer.registerViewersRefresh();
@@ -474,7 +482,6 @@ public class TestRunnerViewPart extends ViewPart {
 		@Override
 		public void testStarted(ITestCaseElement testCaseElement) {
 			fTestViewer.registerAutoScrollTarget(testCaseElement);
-			fTestViewer.registerViewerUpdate(testCaseElement);
 			registerInfoMessage(testCaseElement.getDisplayName());
 		}
 
@@ -483,16 +490,22 @@ public class TestRunnerViewPart extends ViewPart {
 			if (isAutoScroll()) {
 				fTestViewer.registerFailedForAutoScroll(testElement);
 			}
-			fTestViewer.registerViewerUpdate(testElement);
 
 			// show the view on the first error only
-			if (fShowOnErrorOnly && (getErrorsPlusFailures() == 1))
+			if (fShowOnErrorOnly && !fFailureShown) {
+				fFailureShown = true;
 				postShowTestResultsView();
+			}
 		}
 
 		@Override
 		public void testEnded(ITestCaseElement testCaseElement) {
-			fTestViewer.registerViewerUpdate(testCaseElement);
+			// updated in testsChanged
+		}
+
+		@Override
+		public void testsChanged(Collection<ITestElement> testElements) {
+			fTestViewer.registerViewerUpdates(testElements);
 		}
 
 		@Override
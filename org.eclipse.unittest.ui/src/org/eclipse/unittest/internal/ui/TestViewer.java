@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -817,6 +817,15 @@ class TestViewer {
 		fNeedUpdate.add(testElement);
 	}
 
+	/**
+	 * Initializes an update for several test elements
+	 *
+	 * @param testElements test elements that need to be updated
+	 */
+	public synchronized void registerViewerUpdates(Collection<ITestElement> testElements) {
+		fNeedUpdate.addAll(testElements);
+	}
+
 	private synchronized void clearAutoExpand() {
 		fAutoExpand.clear();
 	}
@@ -0,0 +1,435 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Red Hat Inc. and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.unittest.internal.ui.history;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+import org.eclipse.unittest.internal.junitXmlReport.TestRunSessionSerializer;
+import org.eclipse.unittest.internal.model.TestElement;
+import org.eclipse.unittest.internal.model.TestRunSession;
+import org.eclipse.unittest.internal.model.TestSuiteElement;
+import org.eclipse.unittest.model.ITestElement.Result;
+
+/**
+ * Compact storage format for test run sessions in the history.
+ *
+ * A history file starts with an uncompressed header holding the summary of
+ * the test run and the names of (a bounded number of) failed tests, so the
+ * history can be listed without reading whole sessions. The header is followed
+ * by the GZIP compressed stream of the SAX events produced by
+ * {@link TestRunSessionSerializer}, with element and attribute names written
+ * once and referenced by index afterwards. Replaying the events through
+ * {@link #newReader(File)} rebuilds the session with the JUnit XML handlers or
+ * exports it as JUnit XML, without an intermediate XML document.
+ */
+public class CompactHistoryFormat {
+
+	/**
+	 * File extension of history files in this format
+	 */
+	public static final String FILE_EXTENSION = ".history"; //$NON-NLS-1$
+
+	private static final int MAGIC = 0x55544831; // "UTH1"
+	private static final int VERSION = 1;
+
+	/**
+	 * Maximum number of failed tests listed in the header
+	 */
+	private static final int MAX_INDEXED_FAILURES = 1000;
+
+	private static final byte EVENT_END_DOCUMENT = 0;
+	private static final byte EVENT_START_ELEMENT = 1;
+	private static final byte EVENT_END_ELEMENT = 2;
+	private static final byte EVENT_CHARACTERS = 3;
+
+	private static final String EMPTY = ""; //$NON-NLS-1$
+	private static final String NOT_A_HISTORY_FILE = "Not a history file"; //$NON-NLS-1$
+	private static final String CORRUPT_FILE = "Corrupt history file"; //$NON-NLS-1$
+	private static final String CDATA = "CDATA"; //$NON-NLS-1$
+
+	/**
+	 * Summary of a test run session stored in the header of a history file
+	 */
+	public static class Header {
+		private String fName;
+		private Instant fStartTime;
+		private int fFailures;
+		private int fErrors;
+		private List<String> fFailedTests = Collections.emptyList();
+
+		/**
+		 * @return the test run name, or <code>null</code>
+		 */
+		public String getName() {
+			return fName;
+		}
+
+		/**
+		 * @return the start time of the test run, or <code>null</code>
+		 */
+		public Instant getStartTime() {
+			return fStartTime;
+		}
+
+		/**
+		 * @return the number of failures and errors
+		 */
+		public int getFailuresAndErrors() {
+			return fFailures + fErrors;
+		}
+
+		/**
+		 * @return the names of the failed tests, possibly truncated
+		 */
+		public List<String> getFailedTests() {
+			return fFailedTests;
+		}
+	}
+
+	private CompactHistoryFormat() {
+	}
+
+	/**
+	 * Returns whether the given file is stored in this format
+	 *
+	 * @param file a history file
+	 * @return <code>true</code> if the file starts with the header of this
+	 *         format
+	 */
+	public static boolean isCompactFile(File file) {
+		try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+			return in.readInt() == MAGIC;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Writes a test run session to a file
+	 *
+	 * @param session a test run session
+	 * @param target  the file to write
+	 * @throws IOException  in case of I/O failure
+	 * @throws SAXException in case the session cannot be serialized
+	 */
+	public static void write(TestRunSession session, File target) throws IOException, SAXException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(target)))) {
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			writeHeader(session, out);
+			out.flush();
+			GZIPOutputStream zip = new GZIPOutputStream(out, 64 * 1024);
+			DataOutputStream body = new DataOutputStream(new BufferedOutputStream(zip, 64 * 1024));
+			TestRunSessionSerializer serializer = new TestRunSessionSerializer(session);
+			serializer.setContentHandler(new EventWriter(body));
+			serializer.parse(new InputSource());
+			body.flush();
+			zip.finish();
+		}
+	}
+
+	/**
+	 * Reads the header of a history file
+	 *
+	 * @param file a history file in this format
+	 * @return the header
+	 * @throws IOException in case of I/O failure or if the file is not in this
+	 *                     format
+	 */
+	public static Header readHeader(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			return readHeader(in);
+		}
+	}
+
+	/**
+	 * Returns a reader replaying the stored SAX events of a history file to its
+	 * content handler, e.g. a
+	 * {@link org.eclipse.unittest.internal.junitXmlReport.TestRunHandler} or an
+	 * XML transformer.
+	 *
+	 * @param file a history file in this format
+	 * @return an XML reader for the file
+	 */
+	public static XMLReader newReader(File file) {
+		return new EventReader(file);
+	}
+
+	private static void writeHeader(TestRunSession session, DataOutputStream out) throws IOException {
+		writeString(out, session.getTestRunName());
+		Instant startTime = session.getStartTime();
+		writeString(out, startTime != null ? startTime.toString() : null);
+		out.writeInt(session.getCurrentFailureCount());
+		out.writeInt(session.getCurrentErrorCount());
+		List<String> failedTests = getFailedTests(session);
+		out.writeInt(failedTests.size());
+		for (String failedTest : failedTests) {
+			writeString(out, failedTest);
+		}
+	}
+
+	/**
+	 * Returns the names of the failed tests of a test run session, as listed in
+	 * the header of a history file
+	 *
+	 * @param session a test run session
+	 * @return the names of the failed tests, possibly truncated
+	 */
+	public static List<String> getFailedTests(TestRunSession session) {
+		List<String> failedTests = new ArrayList<>();
+		collectFailedTests(session.getChildren(), failedTests);
+		return failedTests;
+	}
+
+	private static void collectFailedTests(List<? extends TestElement> elements, List<String> failedTests) {
+		for (TestElement element : elements) {
+			if (failedTests.size() >= MAX_INDEXED_FAILURES) {
+				return;
+			}
+			Result result = element.getTestResult(false);
+			if (result == Result.FAILURE || result == Result.ERROR) {
+				failedTests.add(element.getTestName());
+			}
+			if (element instanceof TestSuiteElement) {
+				collectFailedTests(((TestSuiteElement) element).getChildren(), failedTests);
+			}
+		}
+	}
+
+	private static Header readHeader(DataInputStream in) throws IOException {
+		if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+			throw new IOException(NOT_A_HISTORY_FILE);
+		}
+		Header header = new Header();
+		header.fName = readString(in);
+		String startTime = readString(in);
+		if (startTime != null) {
+			header.fStartTime = Instant.parse(startTime);
+		}
+		header.fFailures = in.readInt();
+		header.fErrors = in.readInt();
+		int failedTestCount = in.readInt();
+		if (failedTestCount < 0 || failedTestCount > MAX_INDEXED_FAILURES) {
+			throw new IOException(CORRUPT_FILE);
+		}
+		List<String> failedTests = new ArrayList<>(failedTestCount);
+		for (int i = 0; i < failedTestCount; i++) {
+			failedTests.add(readString(in));
+		}
+		header.fFailedTests = Collections.unmodifiableList(failedTests);
+		return header;
+	}
+
+	private static void writeString(DataOutputStream out, String string) throws IOException {
+		if (string == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length == -1) {
+			return null;
+		}
+		if (length < 0) {
+			throw new IOException(CORRUPT_FILE);
+		}
+		// do not trust the length of a corrupt file for allocating the bytes
+		byte[] bytes = in.readNBytes(length);
+		if (bytes.length != length) {
+			throw new EOFException();
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static String readNonNullString(DataInputStream in) throws IOException {
+		String string = readString(in);
+		if (string == null) {
+			throw new IOException(CORRUPT_FILE);
+		}
+		return string;
+	}
+
+	/**
+	 * Writes SAX events to the compressed body of a history file
+	 */
+	private static class EventWriter extends DefaultHandler {
+
+		private final DataOutputStream fOut;
+		private final Map<String, Integer> fNames = new HashMap<>();
+
+		EventWriter(DataOutputStream out) {
+			fOut = out;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes)
+				throws SAXException {
+			try {
+				fOut.writeByte(EVENT_START_ELEMENT);
+				writeName(qName);
+				fOut.writeInt(attributes.getLength());
+				for (int i = 0; i < attributes.getLength(); i++) {
+					writeName(attributes.getQName(i));
+					writeString(fOut, attributes.getValue(i));
+				}
+			} catch (IOException e) {
+				throw new SAXException(e);
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) throws SAXException {
+			try {
+				fOut.writeByte(EVENT_END_ELEMENT);
+			} catch (IOException e) {
+				throw new SAXException(e);
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) throws SAXException {
+			try {
+				fOut.writeByte(EVENT_CHARACTERS);
+				writeString(fOut, new String(ch, start, length));
+			} catch (IOException e) {
+				throw new SAXException(e);
+			}
+		}
+
+		@Override
+		public void endDocument() throws SAXException {
+			try {
+				fOut.writeByte(EVENT_END_DOCUMENT);
+			} catch (IOException e) {
+				throw new SAXException(e);
+			}
+		}
+
+		private void writeName(String name) throws IOException {
+			Integer index = fNames.get(name);
+			if (index != null) {
+				fOut.writeInt(index.intValue());
+			} else {
+				fOut.writeInt(-1);
+				writeString(fOut, name);
+				fNames.put(name, Integer.valueOf(fNames.size()));
+			}
+		}
+	}
+
+	/**
+	 * Replays the SAX events stored in a history file
+	 */
+	private static class EventReader extends XMLFilterImpl {
+
+		private final File fFile;
+
+		EventReader(File file) {
+			fFile = file;
+		}
+
+		@Override
+		public void parse(InputSource input) throws IOException, SAXException {
+			ContentHandler handler = getContentHandler();
+			if (handler == null)
+				throw new SAXException("ContentHandler missing"); //$NON-NLS-1$
+
+			try (InputStream file = new BufferedInputStream(new FileInputStream(fFile))) {
+				readHeader(new DataInputStream(file));
+				DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(file, 64 * 1024), 64 * 1024));
+				List<String> names = new ArrayList<>();
+				List<String> openElements = new ArrayList<>();
+				handler.startDocument();
+				while (true) {
+					byte event = in.readByte();
+					switch (event) {
+					case EVENT_START_ELEMENT:
+						String name = readName(in, names);
+						int attributeCount = in.readInt();
+						AttributesImpl attributes = new AttributesImpl();
+						for (int i = 0; i < attributeCount; i++) {
+							attributes.addAttribute(EMPTY, EMPTY, readName(in, names), CDATA, readNonNullString(in));
+						}
+						openElements.add(name);
+						handler.startElement(EMPTY, name, name, attributes);
+						break;
+					case EVENT_END_ELEMENT:
+						if (openElements.isEmpty()) {
+							throw new IOException(CORRUPT_FILE);
+						}
+						name = openElements.remove(openElements.size() - 1);
+						handler.endElement(EMPTY, name, name);
+						break;
+					case EVENT_CHARACTERS:
+						String characters = readNonNullString(in);
+						handler.characters(characters.toCharArray(), 0, characters.length());
+						break;
+					case EVENT_END_DOCUMENT:
+						handler.endDocument();
+						return;
+					default:
+						throw new IOException(CORRUPT_FILE);
+					}
+				}
+			}
+		}
+
+		@Override
+		public void parse(String systemId) throws IOException, SAXException {
+			parse(new InputSource(systemId));
+		}
+
+		private static String readName(DataInputStream in, List<String> names) throws IOException {
+			int index = in.readInt();
+			if (index >= names.size()) {
+				throw new IOException(CORRUPT_FILE);
+			}
+			if (index >= 0) {
+				return names.get(index);
+			}
+			String name = readNonNullString(in);
+			names.add(name);
+			return name;
+		}
+	}
+}
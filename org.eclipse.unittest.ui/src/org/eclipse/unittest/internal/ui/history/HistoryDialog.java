@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020 Red Hat Inc.
+ * Copyright (c) 2020, 2022 Red Hat Inc.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,8 +19,10 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.xml.transform.TransformerFactoryConfigurationError;
@@ -45,6 +47,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jface.dialogs.IDialogConstants;
 import org.eclipse.jface.viewers.ArrayContentProvider;
 import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.ColumnViewerToolTipSupport;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.TableViewer;
@@ -59,6 +62,8 @@ import org.eclipse.ui.dialogs.SelectionDialog;
  */
 public class HistoryDialog extends SelectionDialog {
 
+	private static final int MAX_TOOLTIP_FAILURES = 20;
+
 	private static final Comparator<HistoryItem> COMPARING_START_DATE = Comparator.comparing(HistoryItem::getStartDate)
 			.reversed();
 	private Set<TestRunSession> fCurrentlyVisible;
@@ -138,7 +143,7 @@ public class HistoryDialog extends SelectionDialog {
 			for (Object object : getResult()) {
 				HistoryItem historyItem = (HistoryItem) object;
 				try {
-					historyItem.storeSessionToFile(new File(directory, historyItem.getFile().getName()));
+					historyItem.exportToXML(new File(directory, historyItem.getExportFileName()));
 				} catch (TransformerFactoryConfigurationError | CoreException e1) {
 					UnitTestPlugin.log(e1);
 				}
@@ -212,6 +217,15 @@ public class HistoryDialog extends SelectionDialog {
 				}
 				return "❌ " + failures + Messages.HistoryDialog_failures; //$NON-NLS-1$
 			}
+
+			@Override
+			public String getToolTipText(Object element) {
+				List<String> failedTests = ((HistoryItem) element).getFailedTests();
+				if (failedTests.isEmpty()) {
+					return null;
+				}
+				return failedTests.stream().limit(MAX_TOOLTIP_FAILURES).collect(Collectors.joining("\n")); //$NON-NLS-1$
+			}
 		});
 		successColumn.getColumn().setWidth(15 * fontSize);
 		successColumn.getColumn().setText(Messages.HistoryDialog_result);
@@ -228,6 +242,7 @@ public class HistoryDialog extends SelectionDialog {
 		});
 		sizeColumn.getColumn().setText(Messages.HistoryDialog_size);
 		sizeColumn.getColumn().setWidth(10 * fontSize);
+		ColumnViewerToolTipSupport.enableFor(table);
 		table.setInput(History.INSTANCE.getHistory());
 		table.setSelection(new StructuredSelection(getInitialElementSelections().toArray()));
 		table.addSelectionChangedListener(
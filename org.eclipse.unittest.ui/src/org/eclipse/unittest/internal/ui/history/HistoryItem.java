@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020 Red Hat Inc.
+ * Copyright (c) 2020, 2022 Red Hat Inc.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,7 +18,9 @@ import java.text.MessageFormat;
 import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 import javax.xml.parsers.SAXParser;
@@ -31,6 +33,7 @@ import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamResult;
 
 import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
 
 import org.eclipse.unittest.internal.UnitTestPlugin;
 import org.eclipse.unittest.internal.junitXmlReport.HistoryEntryHandler;
@@ -64,6 +67,8 @@ public class HistoryItem {
 
 	private int failuresAndErrors;
 
+	private List<String> failedTests = Collections.emptyList();
+
 	/**
 	 * Constructs a history item object for a {@link TestRunSession}
 	 *
@@ -129,6 +134,14 @@ public class HistoryItem {
 	public HistoryItem(File file) {
 		this.historyFile = file;
 		try {
+			if (CompactHistoryFormat.isCompactFile(file)) {
+				CompactHistoryFormat.Header header = CompactHistoryFormat.readHeader(file);
+				this.name = header.getName();
+				this.startTime = header.getStartTime();
+				this.failuresAndErrors = header.getFailuresAndErrors();
+				this.failedTests = header.getFailedTests();
+				return;
+			}
 			SAXParserFactory parserFactory = SAXParserFactory.newInstance();
 			SAXParser parser = parserFactory.newSAXParser();
 			HistoryEntryHandler handler = new HistoryEntryHandler();
@@ -150,10 +163,16 @@ public class HistoryItem {
 	public TestRunSession reloadTestRunSession() throws CoreException {
 		if (this.session == null && getFile() != null) {
 			try {
-				SAXParserFactory parserFactory = SAXParserFactory.newInstance();
-				SAXParser parser = parserFactory.newSAXParser();
 				TestRunHandler handler = new TestRunHandler(new NullProgressMonitor());
-				parser.parse(getFile(), handler);
+				if (CompactHistoryFormat.isCompactFile(getFile())) {
+					XMLReader reader = CompactHistoryFormat.newReader(getFile());
+					reader.setContentHandler(handler);
+					reader.parse(new InputSource());
+				} else {
+					SAXParserFactory parserFactory = SAXParserFactory.newInstance();
+					SAXParser parser = parserFactory.newSAXParser();
+					parser.parse(getFile(), handler);
+				}
 				this.session = handler.getTestRunSession();
 			} catch (Exception e) {
 				throwImportError(getFile(), e);
@@ -183,22 +202,52 @@ public class HistoryItem {
 	}
 
 	/**
-	 * Saves a history item into a file
+	 * Saves a history item into a swap file in the compact history format
+	 *
+	 * @param target a target file
+	 * @throws CoreException in case of storing operation failure
+	 */
+	void storeSessionToFile(File target) throws CoreException {
+		if (this.session == null) {
+			return;
+		}
+		try {
+			CompactHistoryFormat.write(this.session, target);
+		} catch (Exception e) {
+			throwExportError(target, e);
+		}
+	}
+
+	/**
+	 * Exports a history item as JUnit XML report. A swapped out session is
+	 * streamed from its swap file without being reloaded.
 	 *
 	 * @param target a target file
 	 * @throws TransformerFactoryConfigurationError in case of transformation
 	 *                                              operation failure
-	 * @throws CoreException                        in case of storing operation
+	 * @throws CoreException                        in case of export operation
 	 *                                              failure
 	 */
-	void storeSessionToFile(File target) throws TransformerFactoryConfigurationError, CoreException {
-		if (this.session == null) {
+	public void exportToXML(File target) throws TransformerFactoryConfigurationError, CoreException {
+		XMLReader reader;
+		if (this.session != null) {
+			reader = new TestRunSessionSerializer(this.session);
+		} else if (getFile().isFile() && CompactHistoryFormat.isCompactFile(getFile())) {
+			reader = CompactHistoryFormat.newReader(getFile());
+		} else if (getFile().isFile()) {
+			try {
+				Files.copy(getFile().toPath(), target.toPath());
+			} catch (IOException e) {
+				throwExportError(target, e);
+			}
+			return;
+		} else {
 			return;
 		}
 		try (FileOutputStream out = new FileOutputStream(target)) {
 			Transformer transformer = TransformerFactory.newInstance().newTransformer();
 			InputSource inputSource = new InputSource();
-			SAXSource source = new SAXSource(new TestRunSessionSerializer(this.session), inputSource);
+			SAXSource source = new SAXSource(reader, inputSource);
 			StreamResult result = new StreamResult(out);
 			transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8"); //$NON-NLS-1$
 			transformer.setOutputProperty(OutputKeys.INDENT, "yes"); //$NON-NLS-1$
@@ -220,6 +269,20 @@ public class HistoryItem {
 		}
 	}
 
+	/**
+	 * Returns the name of the JUnit XML report to export this history item to
+	 *
+	 * @return a file name
+	 */
+	String getExportFileName() {
+		String fileName = getFile().getName();
+		if (fileName.endsWith(CompactHistoryFormat.FILE_EXTENSION)) {
+			fileName = fileName.substring(0, fileName.length() - CompactHistoryFormat.FILE_EXTENSION.length())
+					+ ".xml"; //$NON-NLS-1$
+		}
+		return fileName;
+	}
+
 	/**
 	 * Returns the history item swap file
 	 *
@@ -230,7 +293,7 @@ public class HistoryItem {
 			File historyDir = History.INSTANCE.getDirectory();
 			String isoTime = new SimpleDateFormat("yyyyMMdd-HHmmss.SSS") //$NON-NLS-1$
 					.format(new Date(getStartDate().toEpochMilli()));
-			String swapFileName = session.getTestRunName() + '@' + isoTime + ".xml"; //$NON-NLS-1$
+			String swapFileName = session.getTestRunName() + '@' + isoTime + CompactHistoryFormat.FILE_EXTENSION;
 			this.historyFile = new File(historyDir, swapFileName);
 		}
 
@@ -297,6 +360,19 @@ public class HistoryItem {
 		return failuresAndErrors;
 	}
 
+	/**
+	 * Returns the names of the failed tests of a test session. For swapped out
+	 * sessions the list is read from the history file and may be truncated.
+	 *
+	 * @return the names of failed tests
+	 */
+	public List<String> getFailedTests() {
+		if (session != null) {
+			return CompactHistoryFormat.getFailedTests(session);
+		}
+		return failedTests;
+	}
+
 	private static void throwExportError(File file, Exception e) throws CoreException {
 		throw new CoreException(
 				new org.eclipse.core.runtime.Status(IStatus.ERROR, UnitTestPlugin.PLUGIN_ID, MessageFormat.format(